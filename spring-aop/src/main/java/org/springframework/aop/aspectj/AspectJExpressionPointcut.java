@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,11 +20,15 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -57,10 +61,14 @@ import org.springframework.beans.factory.BeanFactoryUtils;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.core.annotation.MergedAnnotations;
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.DigestUtils;
 import org.springframework.util.ObjectUtils;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -80,6 +88,7 @@ import org.springframework.util.StringUtils;
  * @author Ramnivas Laddad
  * @author Dave Syer
  * @since 2.0
+ * @see AspectJPointcutMatchCache
  */
 @SuppressWarnings("serial")
 public class AspectJExpressionPointcut extends AbstractExpressionPointcut
@@ -101,6 +110,20 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 	}
 
 
+	/**
+	 * Matches a single {@code @annotation(..)} or {@code @within(..)} primitive
+	 * which allows for rejecting classes without the annotation upfront.
+	 */
+	private static final Pattern ANNOTATION_PRIMITIVE_PATTERN =
+			Pattern.compile("\\s*@(annotation|within)\\(\\s*([\\w.$]+)\\s*\\)\\s*");
+
+	/**
+	 * Primitives whose match result only depends on the target class, allowing
+	 * for persistent caching of that result.
+	 */
+	private static final Set<String> CACHEABLE_PRIMITIVES = new HashSet<>(Arrays.asList(
+			"execution", "args", "this", "target", "within", "@annotation", "@within", "@args", "@target"));
+
 	private static final Log logger = LogFactory.getLog(AspectJExpressionPointcut.class);
 
 	@Nullable
@@ -121,6 +144,17 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 
 	private transient Map<Method, ShadowMatch> shadowMatchCache = new ConcurrentHashMap<>(32);
 
+	@Nullable
+	private transient String[] requiredAnnotationTypes;
+
+	private transient Map<Class<?>, Boolean> matchCandidateCache = new ConcurrentHashMap<>(32);
+
+	@Nullable
+	private transient AspectJPointcutMatchCache matchCache = AspectJPointcutMatchCache.getSharedInstance();
+
+	@Nullable
+	private transient String matchCacheKey;
+
 
 	/**
 	 * Create a new default AspectJExpressionPointcut.
@@ -171,6 +205,18 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		this.beanFactory = beanFactory;
 	}
 
+	/**
+	 * Set the persistent cache for class-level match results.
+	 * <p>Default is the {@linkplain AspectJPointcutMatchCache#getSharedInstance()
+	 * shared instance}, if activated. The cached results only serve to reject
+	 * methods upfront when matching without introductions; the
+	 * {@link #getClassFilter() ClassFilter} is not affected.
+	 * @since 5.2
+	 */
+	public void setMatchCache(@Nullable AspectJPointcutMatchCache matchCache) {
+		this.matchCache = matchCache;
+	}
+
 
 	@Override
 	public ClassFilter getClassFilter() {
@@ -196,6 +242,8 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		if (this.pointcutExpression == null) {
 			this.pointcutClassLoader = determinePointcutClassLoader();
 			this.pointcutExpression = buildPointcutExpression(this.pointcutClassLoader);
+			this.requiredAnnotationTypes = determineRequiredAnnotationTypes(this.pointcutClassLoader);
+			this.matchCacheKey = buildMatchCacheKey();
 		}
 		return this.pointcutExpression;
 	}
@@ -228,6 +276,110 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 				this.pointcutDeclarationScope, pointcutParameters);
 	}
 
+	/**
+	 * Determine the annotation types that a class must carry on the type or
+	 * on one of its methods for this pointcut to match, provided that the
+	 * expression is a disjunction of {@code @annotation} and {@code @within}
+	 * primitives only.
+	 * @return the annotation type names, or {@code null} if not determinable
+	 */
+	@Nullable
+	private String[] determineRequiredAnnotationTypes(@Nullable ClassLoader classLoader) {
+		String[] primitives = StringUtils.delimitedListToStringArray(
+				replaceBooleanOperators(resolveExpression()), "||");
+		String[] annotationTypes = new String[primitives.length];
+		for (int i = 0; i < primitives.length; i++) {
+			Matcher matcher = ANNOTATION_PRIMITIVE_PATTERN.matcher(primitives[i]);
+			if (!matcher.matches()) {
+				return null;
+			}
+			String typeName = matcher.group(2);
+			Class<?> annotationType = null;
+			int paramIndex = Arrays.asList(this.pointcutParameterNames).indexOf(typeName);
+			if (paramIndex != -1) {
+				annotationType = this.pointcutParameterTypes[paramIndex];
+			}
+			else if (typeName.indexOf('.') != -1) {
+				try {
+					annotationType = ClassUtils.forName(typeName, classLoader);
+				}
+				catch (Throwable ex) {
+					// Leave it up to AspectJ to resolve the type
+				}
+			}
+			if (annotationType == null || !annotationType.isAnnotation()) {
+				return null;
+			}
+			annotationTypes[i] = annotationType.getName();
+		}
+		return annotationTypes;
+	}
+
+	/**
+	 * Build the key for the persistent match cache, unless matching depends
+	 * on more than the target class and the expression itself: as with the
+	 * {@code bean()} designator, or with references to named pointcuts whose
+	 * definition may change without affecting the key.
+	 */
+	@Nullable
+	private String buildMatchCacheKey() {
+		String expression = resolveExpression();
+		if (!hasPrimitivesOnly(replaceBooleanOperators(expression))) {
+			return null;
+		}
+		String scope = (this.pointcutDeclarationScope != null ? this.pointcutDeclarationScope.getName() : "");
+		return DigestUtils.md5DigestAsHex((toString() + '@' + scope).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Check whether the given expression consists of {@link #CACHEABLE_PRIMITIVES}
+	 * only, combined through boolean operators and parentheses.
+	 */
+	private static boolean hasPrimitivesOnly(String expression) {
+		int length = expression.length();
+		int i = 0;
+		while (i < length) {
+			char c = expression.charAt(i);
+			if (Character.isJavaIdentifierStart(c) || c == '@') {
+				int start = i++;
+				while (i < length && (Character.isJavaIdentifierPart(expression.charAt(i)) ||
+						expression.charAt(i) == '.')) {
+					i++;
+				}
+				String name = expression.substring(start, i);
+				while (i < length && Character.isWhitespace(expression.charAt(i))) {
+					i++;
+				}
+				if (i == length || expression.charAt(i) != '(' || !CACHEABLE_PRIMITIVES.contains(name)) {
+					// Named pointcut reference, or not understood
+					return false;
+				}
+				// Skip the arguments of the primitive
+				int depth = 0;
+				do {
+					char current = expression.charAt(i++);
+					if (current == '(') {
+						depth++;
+					}
+					else if (current == ')') {
+						depth--;
+					}
+				}
+				while (depth > 0 && i < length);
+				if (depth > 0) {
+					return false;
+				}
+			}
+			else if (c == '(' || c == ')' || c == '!' || c == '&' || c == '|' || Character.isWhitespace(c)) {
+				i++;
+			}
+			else {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private String resolveExpression() {
 		String expression = getExpression();
 		Assert.state(expression != null, "No expression set");
@@ -292,10 +444,91 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		return false;
 	}
 
+	/**
+	 * Check whether any method of the given class matches, considering
+	 * the same methods as {@link AopUtils#canApply}.
+	 */
+	private boolean couldMatchAnyMethod(Class<?> targetClass) {
+		Set<Class<?>> classes = new LinkedHashSet<>();
+		if (!Proxy.isProxyClass(targetClass)) {
+			classes.add(ClassUtils.getUserClass(targetClass));
+		}
+		classes.addAll(ClassUtils.getAllInterfacesForClassAsSet(targetClass));
+		for (Class<?> clazz : classes) {
+			for (Method method : ReflectionUtils.getAllDeclaredMethods(clazz)) {
+				if (doMatches(method, targetClass, false)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Check whether any method of the given class may match, without taking
+	 * introductions into account: the class or one of its methods needs to carry
+	 * one of the {@link #requiredAnnotationTypes}, and the {@link #matchCache}
+	 * must not have recorded a mismatch for the class. Cached per class.
+	 */
+	private boolean isMatchCandidate(Class<?> targetClass) {
+		Boolean candidate = this.matchCandidateCache.get(targetClass);
+		if (candidate == null) {
+			String[] annotationTypes = this.requiredAnnotationTypes;
+			candidate = (annotationTypes == null || hasAnyAnnotation(targetClass, annotationTypes));
+			AspectJPointcutMatchCache matchCache = this.matchCache;
+			String matchCacheKey = this.matchCacheKey;
+			if (candidate && matchCache != null && matchCacheKey != null) {
+				candidate = matchCache.get(matchCacheKey, targetClass);
+				if (candidate == null) {
+					candidate = couldMatchAnyMethod(targetClass);
+					matchCache.put(matchCacheKey, targetClass, candidate);
+				}
+			}
+			this.matchCandidateCache.put(targetClass, candidate);
+		}
+		return candidate;
+	}
+
+	private static boolean hasAnyAnnotation(Class<?> targetClass, String[] annotationTypes) {
+		if (isAnyPresent(MergedAnnotations.from(targetClass, SearchStrategy.TYPE_HIERARCHY), annotationTypes)) {
+			return true;
+		}
+		for (Method method : ReflectionUtils.getAllDeclaredMethods(targetClass)) {
+			if (isAnyPresent(MergedAnnotations.from(method, SearchStrategy.TYPE_HIERARCHY), annotationTypes)) {
+				return true;
+			}
+		}
+		for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+			for (Method method : ifc.getDeclaredMethods()) {
+				if (isAnyPresent(MergedAnnotations.from(method), annotationTypes)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean isAnyPresent(MergedAnnotations annotations, String[] annotationTypes) {
+		for (String annotationType : annotationTypes) {
+			if (annotations.isPresent(annotationType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	@Override
 	public boolean matches(Method method, Class<?> targetClass, boolean hasIntroductions) {
 		// 1.检查pointcut表达式,并缓存
 		obtainPointcutExpression();
+		// Fast reject for classes known not to match without introductions
+		if (!hasIntroductions && !isMatchCandidate(targetClass)) {
+			return false;
+		}
+		return doMatches(method, targetClass, hasIntroductions);
+	}
+
+	private boolean doMatches(Method method, Class<?> targetClass, boolean hasIntroductions) {
 		// 2.获取ShadowMatch对象并缓存
 		ShadowMatch shadowMatch = getTargetShadowMatch(method, targetClass);
 
@@ -599,6 +832,8 @@ public class AspectJExpressionPointcut extends AbstractExpressionPointcut
 		// Initialize transient fields.
 		// pointcutExpression will be initialized lazily by checkReadyToMatch()
 		this.shadowMatchCache = new ConcurrentHashMap<>(32);
+		this.matchCandidateCache = new ConcurrentHashMap<>(32);
+		this.matchCache = AspectJPointcutMatchCache.getSharedInstance();
 	}
 
 
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StreamUtils;
+
+/**
+ * A persistent cache of class-level pointcut match results, allowing
+ * {@link AspectJExpressionPointcut} to reject methods of classes that did not
+ * match on a previous run without going through AspectJ weaver matching.
+ *
+ * <p>Entries are keyed by the pointcut and the class name, and carry a hash of
+ * the bytecode of the class and all of its superclasses and interfaces, so that
+ * any change to the class hierarchy invalidates the corresponding entry; the
+ * stale entry is replaced once the class is matched again. Classes without
+ * accessible bytecode (e.g. generated classes) are never cached. The number of
+ * entries is bounded, evicting the least recently used ones first.
+ *
+ * <p>Only pointcuts made of primitive designators such as {@code execution} or
+ * {@code @annotation} are cached: the result for pointcuts referring to named
+ * pointcuts or using the {@code bean()} designator depends on more than the
+ * expression and the target class.
+ *
+ * <p>A shared instance is activated through the {@value #CACHE_FILE_PROPERTY_NAME}
+ * system property (or an entry in a {@code spring.properties} file) pointing to
+ * the file to use; it is written back on JVM shutdown.
+ *
+ * @since 5.2
+ * @see AspectJExpressionPointcut#setMatchCache
+ */
+public class AspectJPointcutMatchCache {
+
+	/**
+	 * System property that specifies the location of the file backing the shared
+	 * match cache: {@code "spring.aop.pointcutMatchCache"}.
+	 * <p>The cache is not used if this property is not set.
+	 */
+	public static final String CACHE_FILE_PROPERTY_NAME = "spring.aop.pointcutMatchCache";
+
+	/** Default maximum number of entries: 8192. */
+	public static final int DEFAULT_MAX_ENTRIES = 8192;
+
+	private static final Log logger = LogFactory.getLog(AspectJPointcutMatchCache.class);
+
+	@Nullable
+	private static final AspectJPointcutMatchCache sharedInstance = createSharedInstance();
+
+	private static final Map<Class<?>, String> hierarchyHashCache = new ConcurrentReferenceHashMap<>(256);
+
+	private static final String NO_HASH = "";
+
+
+	private final File file;
+
+	private final MatchMap matches;
+
+	private boolean modified;
+
+
+	/**
+	 * Create a new cache backed by the given file, loading any existing entries.
+	 * @param file the file to load entries from and save entries to
+	 */
+	public AspectJPointcutMatchCache(File file) {
+		this(file, DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * Create a new cache backed by the given file, loading any existing entries.
+	 * @param file the file to load entries from and save entries to
+	 * @param maxEntries the maximum number of entries to keep
+	 */
+	public AspectJPointcutMatchCache(File file, int maxEntries) {
+		Assert.notNull(file, "File must not be null");
+		Assert.isTrue(maxEntries > 0, "maxEntries must be positive");
+		this.file = file;
+		this.matches = new MatchMap(maxEntries);
+		load();
+	}
+
+
+	/**
+	 * Return the match result previously stored for the given pointcut and class.
+	 * @param pointcutKey a key identifying the pointcut
+	 * @param targetClass the class the pointcut was matched against
+	 * @return the stored result, or {@code null} if none or if the class
+	 * hierarchy changed since the result was stored
+	 */
+	@Nullable
+	public Boolean get(String pointcutKey, Class<?> targetClass) {
+		String hash = getHierarchyHash(targetClass);
+		if (hash.isEmpty()) {
+			return null;
+		}
+		String match;
+		synchronized (this.matches) {
+			match = this.matches.get(buildKey(pointcutKey, targetClass));
+		}
+		String prefix = hash + ':';
+		return (match != null && match.startsWith(prefix) ? Boolean.valueOf(match.substring(prefix.length())) : null);
+	}
+
+	/**
+	 * Store the match result for the given pointcut and class, replacing
+	 * any result stored for a previous version of the class hierarchy.
+	 * @param pointcutKey a key identifying the pointcut
+	 * @param targetClass the class the pointcut was matched against
+	 * @param match whether the pointcut could match any method of the class
+	 */
+	public void put(String pointcutKey, Class<?> targetClass, boolean match) {
+		String hash = getHierarchyHash(targetClass);
+		if (hash.isEmpty()) {
+			return;
+		}
+		String value = hash + ':' + match;
+		synchronized (this.matches) {
+			if (!value.equals(this.matches.put(buildKey(pointcutKey, targetClass), value))) {
+				this.modified = true;
+			}
+		}
+	}
+
+	/**
+	 * Write the current entries to the backing file, if modified.
+	 * <p>The entries are written to a temporary file first which then
+	 * replaces the backing file, atomically if supported by the file system.
+	 */
+	public void save() {
+		Map<String, String> entries;
+		synchronized (this.matches) {
+			if (!this.modified) {
+				return;
+			}
+			entries = new LinkedHashMap<>(this.matches);
+			this.modified = false;
+		}
+		Path target = this.file.toPath().toAbsolutePath();
+		Path tempFile = null;
+		try {
+			tempFile = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+			try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+				writer.write("# Pointcut match cache");
+				writer.newLine();
+				for (Map.Entry<String, String> entry : entries.entrySet()) {
+					writer.write(entry.getKey() + '=' + entry.getValue());
+					writer.newLine();
+				}
+			}
+			try {
+				Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to save pointcut match cache to " + this.file, ex);
+			}
+		}
+		finally {
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				}
+				catch (IOException ex) {
+					// ignore
+				}
+			}
+		}
+	}
+
+	private void load() {
+		if (!this.file.isFile()) {
+			return;
+		}
+		// Entries are stored least recently used first, restoring the eviction order
+		try (BufferedReader reader = Files.newBufferedReader(this.file.toPath(), StandardCharsets.UTF_8)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int separator = line.lastIndexOf('=');
+				if (separator > 0 && !line.startsWith("#")) {
+					this.matches.put(line.substring(0, separator), line.substring(separator + 1));
+				}
+			}
+		}
+		catch (IOException ex) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Failed to load pointcut match cache from " + this.file, ex);
+			}
+			this.matches.clear();
+		}
+	}
+
+	private static String buildKey(String pointcutKey, Class<?> targetClass) {
+		return pointcutKey + '|' + targetClass.getName();
+	}
+
+	/**
+	 * Return the hash of the given class hierarchy, reusing the hashes already
+	 * computed for its superclass and interfaces.
+	 */
+	private static String getHierarchyHash(Class<?> clazz) {
+		String hash = hierarchyHashCache.get(clazz);
+		if (hash == null) {
+			hash = hashHierarchy(clazz);
+			hierarchyHashCache.put(clazz, hash);
+		}
+		return hash;
+	}
+
+	private static String hashHierarchy(Class<?> clazz) {
+		ByteArrayOutputStream content = new ByteArrayOutputStream(4096);
+		if (!appendClassBytes(clazz, content)) {
+			return NO_HASH;
+		}
+		Class<?> superclass = clazz.getSuperclass();
+		if (superclass != null && superclass != Object.class && !appendHierarchyHash(superclass, content)) {
+			return NO_HASH;
+		}
+		for (Class<?> ifc : clazz.getInterfaces()) {
+			if (!appendHierarchyHash(ifc, content)) {
+				return NO_HASH;
+			}
+		}
+		return DigestUtils.md5DigestAsHex(content.toByteArray());
+	}
+
+	private static boolean appendHierarchyHash(Class<?> clazz, ByteArrayOutputStream content) {
+		String hash = getHierarchyHash(clazz);
+		if (hash.isEmpty()) {
+			return false;
+		}
+		byte[] bytes = hash.getBytes(StandardCharsets.US_ASCII);
+		content.write(bytes, 0, bytes.length);
+		return true;
+	}
+
+	private static boolean appendClassBytes(Class<?> clazz, ByteArrayOutputStream content) {
+		try (InputStream is = clazz.getResourceAsStream(ClassUtils.getClassFileName(clazz))) {
+			if (is == null) {
+				return false;
+			}
+			StreamUtils.copy(is, content);
+			return true;
+		}
+		catch (IOException ex) {
+			return false;
+		}
+	}
+
+
+	/**
+	 * Return the shared cache instance, if activated through the
+	 * {@value #CACHE_FILE_PROPERTY_NAME} property.
+	 */
+	@Nullable
+	public static AspectJPointcutMatchCache getSharedInstance() {
+		return sharedInstance;
+	}
+
+	@Nullable
+	private static AspectJPointcutMatchCache createSharedInstance() {
+		String location = SpringProperties.getProperty(CACHE_FILE_PROPERTY_NAME);
+		if (location == null) {
+			return null;
+		}
+		AspectJPointcutMatchCache cache = new AspectJPointcutMatchCache(new File(location));
+		try {
+			Runtime.getRuntime().addShutdownHook(new Thread(cache::save, "AspectJPointcutMatchCache"));
+		}
+		catch (IllegalStateException | SecurityException ex) {
+			// Shutdown already in progress or not permitted: entries will not be saved
+		}
+		return cache;
+	}
+
+
+	/**
+	 * Access-ordered map of "hash:match" values, evicting the least recently
+	 * used entries beyond the maximum size.
+	 */
+	@SuppressWarnings("serial")
+	private static class MatchMap extends LinkedHashMap<String, String> {
+
+		private final int maxEntries;
+
+		public MatchMap(int maxEntries) {
+			super(256, 0.75f, true);
+			this.maxEntries = maxEntries;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+			return (size() > this.maxEntries);
+		}
+	}
+
+}
@@ -20,6 +20,7 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -336,24 +337,27 @@ class CglibAopProxy implements AopProxy, Serializable {
 		// 使用修正后的增强链把aop调用直接转发到目标方法来进行一些优化，也就是说此时代理将不生效
 		if (isStatic && isFrozen) {
 			Method[] methods = rootClass.getMethods();
-			Callback[] fixedCallbacks = new Callback[methods.length];
+			List<Callback> fixedCallbacks = new ArrayList<>(methods.length);
 			this.fixedInterceptorMap = new HashMap<>(methods.length);
 
-			// TODO: small memory optimization here (can skip creation for methods with no advice)
-			for (int x = 0; x < methods.length; x++) {
-				Method method = methods[x];
+			// Skip methods without advice: those never get dispatched to a fixed chain.
+			for (Method method : methods) {
 				List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, rootClass);
-				fixedCallbacks[x] = new FixedChainStaticTargetInterceptor(
-						chain, this.advised.getTargetSource().getTarget(), this.advised.getTargetClass());
-				this.fixedInterceptorMap.put(method, x);
+				if (!chain.isEmpty()) {
+					this.fixedInterceptorMap.put(method, fixedCallbacks.size());
+					fixedCallbacks.add(new FixedChainStaticTargetInterceptor(
+							method, chain, this.advised.getTargetSource().getTarget(), this.advised.getTargetClass()));
+				}
 			}
 
 			// Now copy both the callbacks from mainCallbacks
 			// and fixedCallbacks into the callbacks array.
 			// 把默认的7种callback和修正后的callback合并到一个数组中返回
-			callbacks = new Callback[mainCallbacks.length + fixedCallbacks.length];
+			callbacks = new Callback[mainCallbacks.length + fixedCallbacks.size()];
 			System.arraycopy(mainCallbacks, 0, callbacks, 0, mainCallbacks.length);
-			System.arraycopy(fixedCallbacks, 0, callbacks, mainCallbacks.length, fixedCallbacks.length);
+			for (int x = 0; x < fixedCallbacks.size(); x++) {
+				callbacks[mainCallbacks.length + x] = fixedCallbacks.get(x);
+			}
 			this.fixedInterceptorOffset = mainCallbacks.length;
 		}
 		else {
@@ -627,6 +631,8 @@ class CglibAopProxy implements AopProxy, Serializable {
 
 	/**
 	 * Interceptor used specifically for advised methods on a frozen, static proxy.
+	 * <p>Each instance serves a single method, so everything that only depends on
+	 * the method is determined once rather than for every invocation.
 	 */
 	private static class FixedChainStaticTargetInterceptor implements MethodInterceptor, Serializable {
 
@@ -638,19 +644,22 @@ class CglibAopProxy implements AopProxy, Serializable {
 		@Nullable
 		private final Class<?> targetClass;
 
-		public FixedChainStaticTargetInterceptor(
+		private final boolean useMethodProxy;
+
+		public FixedChainStaticTargetInterceptor(Method method,
 				List<Object> adviceChain, @Nullable Object target, @Nullable Class<?> targetClass) {
 
 			this.adviceChain = adviceChain;
 			this.target = target;
 			this.targetClass = targetClass;
+			this.useMethodProxy = CglibMethodInvocation.isMethodProxyCompatible(method);
 		}
 
 		@Override
 		@Nullable
 		public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
-			MethodInvocation invocation = new CglibMethodInvocation(
-					proxy, this.target, method, args, this.targetClass, this.adviceChain, methodProxy);
+			MethodInvocation invocation = new CglibMethodInvocation(proxy, this.target, method, args,
+					this.targetClass, this.adviceChain, (this.useMethodProxy ? methodProxy : null));
 			// If we get here, we need to create a MethodInvocation.
 			Object retVal = invocation.proceed();
 			retVal = processReturnType(proxy, this.target, method, retVal);
@@ -702,7 +711,8 @@ class CglibAopProxy implements AopProxy, Serializable {
 				}
 				else {
 					// We need to create a method invocation...
-					retVal = new CglibMethodInvocation(proxy, target, method, args, targetClass, chain, methodProxy).proceed();
+					retVal = new CglibMethodInvocation(proxy, target, method, args, targetClass, chain,
+							(CglibMethodInvocation.isMethodProxyCompatible(method) ? methodProxy : null)).proceed();
 				}
 				retVal = processReturnType(proxy, target, method, retVal);
 				return retVal;
@@ -743,17 +753,27 @@ class CglibAopProxy implements AopProxy, Serializable {
 		@Nullable
 		private final MethodProxy methodProxy;
 
+		/**
+		 * Create a new invocation.
+		 * @param methodProxy the MethodProxy to invoke the target with, or {@code null}
+		 * to use reflection; needs to be checked through {@link #isMethodProxyCompatible}
+		 */
 		public CglibMethodInvocation(Object proxy, @Nullable Object target, Method method,
 				Object[] arguments, @Nullable Class<?> targetClass,
-				List<Object> interceptorsAndDynamicMethodMatchers, MethodProxy methodProxy) {
+				List<Object> interceptorsAndDynamicMethodMatchers, @Nullable MethodProxy methodProxy) {
 
 			super(proxy, target, method, arguments, targetClass, interceptorsAndDynamicMethodMatchers);
+			this.methodProxy = methodProxy;
+		}
 
-			// Only use method proxy for public methods not derived from java.lang.Object
-			this.methodProxy = (Modifier.isPublic(method.getModifiers()) &&
+		/**
+		 * Determine whether the target of the given method may be invoked through
+		 * its MethodProxy: only for public methods not derived from java.lang.Object.
+		 */
+		static boolean isMethodProxyCompatible(Method method) {
+			return (Modifier.isPublic(method.getModifiers()) &&
 					method.getDeclaringClass() != Object.class && !AopUtils.isEqualsMethod(method) &&
-					!AopUtils.isHashCodeMethod(method) && !AopUtils.isToStringMethod(method) ?
-					methodProxy : null);
+					!AopUtils.isHashCodeMethod(method) && !AopUtils.isToStringMethod(method));
 		}
 
 		@Override
@@ -20,7 +20,9 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -92,6 +94,19 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	 */
 	private boolean hashCodeDefined;
 
+	/**
+	 * Interface methods without advice that can be dispatched straight to
+	 * the static target, computed once for a frozen configuration.
+	 */
+	@Nullable
+	private transient volatile Set<Method> unadvisedMethods;
+
+	/**
+	 * The static target that {@link #unadvisedMethods} are dispatched to.
+	 */
+	@Nullable
+	private transient volatile Object staticTarget;
+
 
 	/**
 	 * Construct a new JdkDynamicAopProxy for the given AOP configuration.
@@ -121,6 +136,7 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 		// 获取完整的代理接口
 		Class<?>[] proxiedInterfaces = AopProxyUtils.completeProxiedInterfaces(this.advised, true);
 		findDefinedEqualsAndHashCodeMethods(proxiedInterfaces);
+		findUnadvisedMethods(proxiedInterfaces);
 		return Proxy.newProxyInstance(classLoader, proxiedInterfaces, this);
 	}
 
@@ -147,6 +163,70 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	}
 
 
+	/**
+	 * Precompute the interface methods that have an empty interceptor chain,
+	 * provided that the configuration is frozen, the target is static and the
+	 * proxy is not exposed. Such methods can be invoked on the target directly,
+	 * without consulting the chain, the {@link AopContext} or the TargetSource.
+	 * @param proxiedInterfaces the interfaces to introspect
+	 */
+	private void findUnadvisedMethods(Class<?>[] proxiedInterfaces) {
+		if (this.unadvisedMethods != null || !this.advised.isFrozen() || this.advised.exposeProxy ||
+				!this.advised.targetSource.isStatic()) {
+			return;
+		}
+		Object target;
+		try {
+			target = this.advised.targetSource.getTarget();
+		}
+		catch (Exception ex) {
+			// Let the regular invocation path report the failure later on
+			return;
+		}
+		if (target == null) {
+			return;
+		}
+		Class<?> targetClass = target.getClass();
+		Set<Method> methods = new HashSet<>();
+		for (Class<?> proxiedInterface : proxiedInterfaces) {
+			for (Method method : proxiedInterface.getMethods()) {
+				// Leave special methods to the regular invocation path
+				if (AopUtils.isEqualsMethod(method) || AopUtils.isHashCodeMethod(method) ||
+						method.getDeclaringClass() == DecoratingProxy.class ||
+						method.getDeclaringClass().isAssignableFrom(Advised.class)) {
+					continue;
+				}
+				if (this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, targetClass).isEmpty()) {
+					methods.add(method);
+				}
+			}
+		}
+		this.staticTarget = target;
+		this.unadvisedMethods = methods;
+	}
+
+	/**
+	 * Invoke an unadvised method on the static target, applying the same
+	 * return value handling as {@link #invoke}.
+	 */
+	@Nullable
+	private Object invokeUnadvised(Object proxy, Object target, Method method, Object[] args) throws Throwable {
+		Object[] argsToUse = AopProxyUtils.adaptArgumentsIfNecessary(method, args);
+		Object retVal = AopUtils.invokeJoinpointUsingReflection(target, method, argsToUse);
+		Class<?> returnType = method.getReturnType();
+		if (retVal != null && retVal == target &&
+				returnType != Object.class && returnType.isInstance(proxy) &&
+				!RawTargetAccess.class.isAssignableFrom(method.getDeclaringClass())) {
+			retVal = proxy;
+		}
+		else if (retVal == null && returnType != Void.TYPE && returnType.isPrimitive()) {
+			throw new AopInvocationException(
+					"Null return value from advice does not match primitive return type for: " + method);
+		}
+		return retVal;
+	}
+
+
 	/**
 	 * Implementation of {@code InvocationHandler.invoke}.
 	 * <p>Callers will see exactly the exception thrown by the target,
@@ -155,6 +235,15 @@ final class JdkDynamicAopProxy implements AopProxy, InvocationHandler, Serializa
 	@Override
 	@Nullable
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		// Fast path for unadvised methods on a frozen configuration
+		Set<Method> unadvisedMethods = this.unadvisedMethods;
+		if (unadvisedMethods != null && unadvisedMethods.contains(method)) {
+			Object target = this.staticTarget;
+			if (target != null) {
+				return invokeUnadvised(proxy, target, method, args);
+			}
+		}
+
 		Object oldProxy = null;
 		boolean setProxyContext = false;
 
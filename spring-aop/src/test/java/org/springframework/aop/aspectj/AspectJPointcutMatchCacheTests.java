@@ -0,0 +1,141 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.aop.aspectj;
+
+import java.io.File;
+import java.nio.file.Path;
+
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import test.annotation.transaction.Tx;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.tests.sample.beans.TestBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link AspectJPointcutMatchCache}.
+ */
+public class AspectJPointcutMatchCacheTests {
+
+	@Test
+	public void entriesSurviveSaveAndLoad(@TempDir Path tempDir) {
+		File file = tempDir.resolve("matches.properties").toFile();
+		AspectJPointcutMatchCache cache = new AspectJPointcutMatchCache(file);
+		assertThat(cache.get("pc1", TestBean.class)).isNull();
+
+		cache.put("pc1", TestBean.class, false);
+		cache.put("pc2", TestBean.class, true);
+		cache.save();
+		assertThat(file).exists();
+
+		AspectJPointcutMatchCache reloaded = new AspectJPointcutMatchCache(file);
+		assertThat(reloaded.get("pc1", TestBean.class)).isFalse();
+		assertThat(reloaded.get("pc2", TestBean.class)).isTrue();
+		assertThat(reloaded.get("pc3", TestBean.class)).isNull();
+		assertThat(reloaded.get("pc1", TransactionalBean.class)).isNull();
+	}
+
+	@Test
+	public void classWithoutBytecodeNotCached(@TempDir Path tempDir) {
+		AspectJPointcutMatchCache cache = new AspectJPointcutMatchCache(tempDir.resolve("matches").toFile());
+		Runnable lambda = () -> {};
+		cache.put("pc1", lambda.getClass(), false);
+		assertThat(cache.get("pc1", lambda.getClass())).isNull();
+	}
+
+	@Test
+	public void leastRecentlyUsedEntriesEvicted(@TempDir Path tempDir) {
+		File file = tempDir.resolve("matches.properties").toFile();
+		AspectJPointcutMatchCache cache = new AspectJPointcutMatchCache(file, 2);
+		cache.put("pc1", TestBean.class, false);
+		cache.put("pc2", TestBean.class, true);
+		assertThat(cache.get("pc1", TestBean.class)).isFalse();
+		cache.put("pc3", TestBean.class, true);
+		assertThat(cache.get("pc2", TestBean.class)).isNull();
+		cache.save();
+
+		AspectJPointcutMatchCache reloaded = new AspectJPointcutMatchCache(file, 2);
+		assertThat(reloaded.get("pc1", TestBean.class)).isFalse();
+		assertThat(reloaded.get("pc3", TestBean.class)).isTrue();
+		assertThat(tempDir.toFile().list()).containsExactly("matches.properties");
+	}
+
+	@Test
+	public void pointcutUsesMatchCache(@TempDir Path tempDir) throws Exception {
+		File file = tempDir.resolve("matches.properties").toFile();
+		AspectJPointcutMatchCache cache = new AspectJPointcutMatchCache(file);
+		AspectJExpressionPointcut pointcut = createPointcut(
+				"execution(* *(..)) && @annotation(test.annotation.transaction.Tx)", cache);
+		assertThat(pointcut.matches(TestBean.class.getMethod("getAge"), TestBean.class)).isFalse();
+		assertThat(pointcut.matches(TransactionalBean.class.getMethod("doWork"), TransactionalBean.class)).isTrue();
+		cache.save();
+
+		AspectJExpressionPointcut pointcut2 = createPointcut(
+				"execution(* *(..)) && @annotation(test.annotation.transaction.Tx)", new AspectJPointcutMatchCache(file));
+		assertThat(pointcut2.matches(TestBean.class.getMethod("getAge"), TestBean.class)).isFalse();
+		assertThat(pointcut2.matches(TransactionalBean.class.getMethod("doWork"), TransactionalBean.class)).isTrue();
+	}
+
+	@Test
+	public void introductionPointcutNotRejectedByMatchCache(@TempDir Path tempDir) {
+		AspectJPointcutMatchCache cache = new AspectJPointcutMatchCache(tempDir.resolve("matches").toFile());
+		AspectJExpressionPointcut pointcut = createPointcut("execution(* *(..)) && this(java.lang.Runnable)", cache);
+		assertThat(pointcut.getClassFilter().matches(TestBean.class)).isTrue();
+		assertThat(AopUtils.canApply(pointcut, TestBean.class, true)).isTrue();
+	}
+
+	@Test
+	public void pointcutWithNamedPointcutReferenceNotCached(@TempDir Path tempDir) throws Exception {
+		File file = tempDir.resolve("matches.properties").toFile();
+		AspectJPointcutMatchCache cache = new AspectJPointcutMatchCache(file);
+		AspectJExpressionPointcut pointcut = createPointcut("execution(* *(..)) && " +
+				"org.springframework.aop.aspectj.AspectJPointcutMatchCacheTests.Pointcuts.transactional()", cache);
+		assertThat(pointcut.matches(TestBean.class.getMethod("getAge"), TestBean.class)).isFalse();
+		assertThat(pointcut.matches(TransactionalBean.class.getMethod("doWork"), TransactionalBean.class)).isTrue();
+		cache.save();
+		assertThat(file).doesNotExist();
+	}
+
+	private static AspectJExpressionPointcut createPointcut(String expression, AspectJPointcutMatchCache cache) {
+		AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+		pointcut.setExpression(expression);
+		pointcut.setMatchCache(cache);
+		return pointcut;
+	}
+
+
+	@Aspect
+	public static class Pointcuts {
+
+		@Pointcut("@annotation(test.annotation.transaction.Tx)")
+		public void transactional() {
+		}
+	}
+
+
+	public static class TransactionalBean {
+
+		@Tx
+		public void doWork() {
+		}
+	}
+
+}
@@ -179,6 +179,19 @@ public class TigerAspectJExpressionPointcutTests {
 		assertThat(ajexp.matches(IBeanA.class.getMethod("getAge"), proxy.getClass())).isTrue();
 	}
 
+	@Test
+	public void testAnnotationOnMethodOrClassWithDisjunction() throws Exception {
+		String expression = "@annotation(test.annotation.transaction.Tx) || @within(test.annotation.EmptySpringAnnotation)";
+		AspectJExpressionPointcut ajexp = new AspectJExpressionPointcut();
+		ajexp.setExpression(expression);
+
+		assertThat(ajexp.matches(getAge, TestBean.class)).isFalse();
+		assertThat(ajexp.matches(BeanA.class.getMethod("getAge"), BeanA.class)).isTrue();
+		assertThat(ajexp.matches(BeanA.class.getMethod("setName", String.class), BeanA.class)).isFalse();
+		assertThat(ajexp.matches(SpringAnnotated.class.getMethod("foo"), SpringAnnotated.class)).isTrue();
+		assertThat(ajexp.matches(HasTransactionalAnnotation.class.getMethod("foo"), HasTransactionalAnnotation.class)).isFalse();
+	}
+
 	@Test
 	public void testAnnotationOnMethodWithWildcard() throws Exception {
 		String expression = "execution(@(test.annotation..*) * *(..))";
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Marshaller to write and read {@link CandidateComponentsMetadata} in the binary
+ * candidate components index format.
+ *
+ * <p>The index starts with a magic number and a format version, followed by a
+ * sorted table of all strings it refers to. Candidates are then written in the
+ * order of their type name, so that candidates of a given package form a
+ * contiguous range. Each candidate consists of the identifier of its type name,
+ * a flags byte, its {@link TypeMetadata} if available, and the identifiers of
+ * its stereotypes. Counts and identifiers are written as unsigned
+ * variable-length integers. Must be kept in sync with the reader in
+ * {@code org.springframework.context.index.CandidateComponentsIndex}.
+ *
+ * @since 5.2
+ */
+abstract class BinaryIndexMarshaller {
+
+	static final int MAGIC = 0x53434958;
+
+	static final int VERSION = 1;
+
+	/**
+	 * Flag set on a candidate for which {@link TypeMetadata} has been written.
+	 */
+	static final int HAS_TYPE_METADATA = 0x80;
+
+
+	public static void write(CandidateComponentsMetadata metadata, OutputStream out) throws IOException {
+		List<ItemMetadata> items = new ArrayList<>(metadata.getItems());
+		items.sort(Comparator.comparing(ItemMetadata::getType));
+		Set<String> strings = new TreeSet<>();
+		for (ItemMetadata item : items) {
+			strings.add(item.getType());
+			strings.addAll(item.getStereotypes());
+			TypeMetadata typeMetadata = item.getTypeMetadata();
+			if (typeMetadata != null) {
+				addIfNotNull(strings, typeMetadata.getSuperClassName());
+				addIfNotNull(strings, typeMetadata.getEnclosingClassName());
+				strings.addAll(typeMetadata.getInterfaceNames());
+				strings.addAll(typeMetadata.getMemberClassNames());
+			}
+		}
+		Map<String, Integer> ids = new HashMap<>();
+		for (String string : strings) {
+			ids.put(string, ids.size());
+		}
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeByte(VERSION);
+		writeVarInt(data, strings.size());
+		for (String string : strings) {
+			data.writeUTF(string);
+		}
+		writeVarInt(data, items.size());
+		for (ItemMetadata item : items) {
+			writeVarInt(data, ids.get(item.getType()));
+			TypeMetadata typeMetadata = item.getTypeMetadata();
+			if (typeMetadata != null) {
+				data.writeByte(typeMetadata.getFlags() | HAS_TYPE_METADATA);
+				writeOptionalId(data, ids, typeMetadata.getSuperClassName());
+				writeOptionalId(data, ids, typeMetadata.getEnclosingClassName());
+				writeIds(data, ids, typeMetadata.getInterfaceNames());
+				writeIds(data, ids, typeMetadata.getMemberClassNames());
+			}
+			else {
+				data.writeByte(0);
+			}
+			writeIds(data, ids, new TreeSet<>(item.getStereotypes()));
+		}
+		data.flush();
+	}
+
+	public static CandidateComponentsMetadata read(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC || data.readByte() != VERSION) {
+			throw new IOException("Unsupported candidate components index format");
+		}
+		String[] strings = new String[readVarInt(data)];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = data.readUTF();
+		}
+		CandidateComponentsMetadata result = new CandidateComponentsMetadata();
+		int itemCount = readVarInt(data);
+		for (int i = 0; i < itemCount; i++) {
+			String type = strings[readVarInt(data)];
+			int flags = data.readUnsignedByte();
+			TypeMetadata typeMetadata = null;
+			if ((flags & HAS_TYPE_METADATA) != 0) {
+				String superClassName = readOptionalString(data, strings);
+				String enclosingClassName = readOptionalString(data, strings);
+				List<String> interfaceNames = readStrings(data, strings);
+				List<String> memberClassNames = readStrings(data, strings);
+				typeMetadata = new TypeMetadata(flags & ~HAS_TYPE_METADATA, superClassName,
+						enclosingClassName, interfaceNames, memberClassNames);
+			}
+			Set<String> stereotypes = new LinkedHashSet<>(readStrings(data, strings));
+			result.add(new ItemMetadata(type, stereotypes, typeMetadata));
+		}
+		return result;
+	}
+
+	private static void addIfNotNull(Set<String> strings, String value) {
+		if (value != null) {
+			strings.add(value);
+		}
+	}
+
+	private static void writeOptionalId(DataOutputStream data, Map<String, Integer> ids, String value)
+			throws IOException {
+
+		writeVarInt(data, (value != null ? ids.get(value) + 1 : 0));
+	}
+
+	private static void writeIds(DataOutputStream data, Map<String, Integer> ids, Iterable<String> values)
+			throws IOException {
+
+		List<Integer> valueIds = new ArrayList<>();
+		values.forEach(value -> valueIds.add(ids.get(value)));
+		writeVarInt(data, valueIds.size());
+		for (int id : valueIds) {
+			writeVarInt(data, id);
+		}
+	}
+
+	private static String readOptionalString(DataInputStream data, String[] strings) throws IOException {
+		int id = readVarInt(data);
+		return (id != 0 ? strings[id - 1] : null);
+	}
+
+	private static List<String> readStrings(DataInputStream data, String[] strings) throws IOException {
+		int count = readVarInt(data);
+		List<String> result = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			result.add(strings[readVarInt(data)]);
+		}
+		return result;
+	}
+
+	private static void writeVarInt(DataOutputStream data, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			data.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		data.writeByte(value);
+	}
+
+	private static int readVarInt(DataInputStream data) throws IOException {
+		int value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = data.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while ((b & 0x80) != 0);
+		return value;
+	}
+
+}
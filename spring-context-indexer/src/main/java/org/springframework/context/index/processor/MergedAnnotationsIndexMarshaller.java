@@ -0,0 +1,139 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Marshaller to write and read the binary merged annotations index.
+ *
+ * <p>The index starts with a magic number and a format version, followed by a
+ * table of all annotation type names and, for each indexed class, its name and
+ * the sorted identifiers of all annotation types present anywhere in its type
+ * hierarchy (including meta-annotations and repeated annotations). Counts and
+ * identifiers are written as unsigned variable-length integers, identifiers
+ * being delta-encoded. Must be kept in sync with the reader in
+ * {@code org.springframework.core.annotation.MergedAnnotationsIndex}.
+ *
+ * @since 5.2
+ */
+abstract class MergedAnnotationsIndexMarshaller {
+
+	static final int MAGIC = 0x53414958;
+
+	static final int VERSION = 1;
+
+
+	/**
+	 * Write the given index.
+	 * @param index the annotation type names per class name
+	 * @param out the stream to write to
+	 */
+	public static void write(Map<String, Set<String>> index, OutputStream out) throws IOException {
+		Map<String, Integer> annotationIds = new TreeMap<>();
+		index.values().forEach(names -> names.forEach(name -> annotationIds.put(name, 0)));
+		int id = 0;
+		for (Map.Entry<String, Integer> entry : annotationIds.entrySet()) {
+			entry.setValue(id++);
+		}
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(MAGIC);
+		data.writeByte(VERSION);
+		writeVarInt(data, annotationIds.size());
+		for (String name : annotationIds.keySet()) {
+			data.writeUTF(name);
+		}
+		writeVarInt(data, index.size());
+		for (Map.Entry<String, Set<String>> entry : new TreeMap<>(index).entrySet()) {
+			data.writeUTF(entry.getKey());
+			Set<Integer> ids = new TreeSet<>();
+			entry.getValue().forEach(name -> ids.add(annotationIds.get(name)));
+			writeVarInt(data, ids.size());
+			int previous = 0;
+			for (int current : ids) {
+				writeVarInt(data, current - previous);
+				previous = current;
+			}
+		}
+		data.flush();
+	}
+
+	/**
+	 * Read an index written by {@link #write}.
+	 * @param in the stream to read from
+	 * @return the annotation type names per class name
+	 */
+	public static Map<String, Set<String>> read(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC || data.readByte() != VERSION) {
+			throw new IOException("Unsupported merged annotations index format");
+		}
+		int annotationCount = readVarInt(data);
+		List<String> annotationNames = new ArrayList<>(annotationCount);
+		for (int i = 0; i < annotationCount; i++) {
+			annotationNames.add(data.readUTF());
+		}
+		int classCount = readVarInt(data);
+		Map<String, Set<String>> index = new LinkedHashMap<>(classCount);
+		for (int i = 0; i < classCount; i++) {
+			String className = data.readUTF();
+			int count = readVarInt(data);
+			Set<String> names = new TreeSet<>();
+			int id = 0;
+			for (int j = 0; j < count; j++) {
+				id += readVarInt(data);
+				names.add(annotationNames.get(id));
+			}
+			index.put(className, names);
+		}
+		return index;
+	}
+
+	private static void writeVarInt(DataOutputStream data, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			data.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		data.writeByte(value);
+	}
+
+	private static int readVarInt(DataInputStream data) throws IOException {
+		int value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = data.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while ((b & 0x80) != 0);
+		return value;
+	}
+
+}
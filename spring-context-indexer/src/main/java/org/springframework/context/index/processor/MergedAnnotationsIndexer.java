@@ -0,0 +1,264 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.Completion;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation {@link Processor} that writes a binary index of the annotation types
+ * present in the type hierarchy of each compiled class, allowing
+ * {@code MergedAnnotations} to rule out annotations at runtime without
+ * reflectively scanning the class hierarchy and meta-annotations.
+ *
+ * <p>For each class, the index contains the names of all annotation types declared
+ * on the class, its superclasses and its interfaces, along with their
+ * meta-annotations and any annotations nested in their attributes (such as those
+ * held by repeatable annotation containers). Classes whose hierarchy refers to
+ * types that cannot be resolved are not indexed.
+ *
+ * <p>Since the index reflects dependencies as seen at build time, it is opt-in:
+ * this processor only runs if the {@value #ENABLE_OPTION} option is set to
+ * {@code true} (e.g. {@code -Aspring.annotations.index.enabled=true}), and the
+ * index is only consulted at runtime if the property of the same name is set.
+ *
+ * @since 5.2
+ * @see MergedAnnotationsIndexMarshaller
+ */
+public class MergedAnnotationsIndexer implements Processor {
+
+	/**
+	 * The processor option that enables the generation of the index, matching
+	 * the runtime property that enables its use.
+	 */
+	static final String ENABLE_OPTION = "spring.annotations.index.enabled";
+
+	static final String INDEX_PATH = "META-INF/spring.annotations.idx";
+
+	private ProcessingEnvironment env;
+
+	private boolean enabled;
+
+	private Elements elements;
+
+	private Types types;
+
+	private Map<String, Set<String>> previousIndex = Collections.emptyMap();
+
+	private final Map<String, Set<String>> index = new LinkedHashMap<>();
+
+
+	@Override
+	public Set<String> getSupportedOptions() {
+		return Collections.singleton(ENABLE_OPTION);
+	}
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return (this.enabled ? Collections.singleton("*") : Collections.emptySet());
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latest();
+	}
+
+	@Override
+	public synchronized void init(ProcessingEnvironment env) {
+		this.env = env;
+		this.elements = env.getElementUtils();
+		this.types = env.getTypeUtils();
+		this.enabled = Boolean.parseBoolean(env.getOptions().get(ENABLE_OPTION));
+		if (this.enabled) {
+			this.previousIndex = readIndex();
+		}
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (!this.enabled) {
+			return false;
+		}
+		for (Element element : roundEnv.getRootElements()) {
+			if (element instanceof TypeElement) {
+				processType((TypeElement) element);
+			}
+		}
+		if (roundEnv.processingOver()) {
+			writeIndex();
+		}
+		return false;
+	}
+
+	@Override
+	public Iterable<? extends Completion> getCompletions(
+			Element element, AnnotationMirror annotation, ExecutableElement member, String userText) {
+
+		return Collections.emptyList();
+	}
+
+
+	private void processType(TypeElement type) {
+		String name = this.elements.getBinaryName(type).toString();
+		Set<String> annotationTypes = collectHierarchyAnnotationTypes(type);
+		if (annotationTypes != null) {
+			this.index.put(name, annotationTypes);
+		}
+		for (Element enclosed : type.getEnclosedElements()) {
+			if (enclosed instanceof TypeElement) {
+				processType((TypeElement) enclosed);
+			}
+		}
+	}
+
+	/**
+	 * Collect the names of all annotation types reachable from the given type,
+	 * or {@code null} if any part of its hierarchy cannot be resolved.
+	 */
+	private Set<String> collectHierarchyAnnotationTypes(TypeElement type) {
+		Set<String> result = new TreeSet<>();
+		Set<TypeElement> visitedTypes = new HashSet<>();
+		Deque<TypeElement> queue = new ArrayDeque<>();
+		queue.add(type);
+		while (!queue.isEmpty()) {
+			TypeElement current = queue.poll();
+			if (!visitedTypes.add(current)) {
+				continue;
+			}
+			if (!collectAnnotationTypes(current.getAnnotationMirrors(), result)) {
+				return null;
+			}
+			for (TypeMirror superType : this.types.directSupertypes(current.asType())) {
+				if (superType.getKind() == TypeKind.ERROR) {
+					return null;
+				}
+				Element superElement = this.types.asElement(superType);
+				if (superElement instanceof TypeElement &&
+						!((TypeElement) superElement).getQualifiedName().contentEquals("java.lang.Object")) {
+					queue.add((TypeElement) superElement);
+				}
+			}
+		}
+		return result;
+	}
+
+	private boolean collectAnnotationTypes(List<? extends AnnotationMirror> mirrors, Set<String> result) {
+		for (AnnotationMirror mirror : mirrors) {
+			DeclaredType annotationType = mirror.getAnnotationType();
+			if (annotationType.getKind() == TypeKind.ERROR) {
+				return false;
+			}
+			TypeElement annotationElement = (TypeElement) annotationType.asElement();
+			boolean newType = result.add(this.elements.getBinaryName(annotationElement).toString());
+			for (AnnotationValue value : this.elements.getElementValuesWithDefaults(mirror).values()) {
+				if (!collectNestedAnnotationTypes(value.getValue(), result)) {
+					return false;
+				}
+			}
+			if (newType && !collectAnnotationTypes(annotationElement.getAnnotationMirrors(), result)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean collectNestedAnnotationTypes(Object value, Set<String> result) {
+		if (value instanceof AnnotationMirror) {
+			return collectAnnotationTypes(Collections.singletonList((AnnotationMirror) value), result);
+		}
+		if (value instanceof List) {
+			for (Object element : (List<?>) value) {
+				if (element instanceof AnnotationValue &&
+						!collectNestedAnnotationTypes(((AnnotationValue) element).getValue(), result)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+
+	private Map<String, Set<String>> readIndex() {
+		try {
+			FileObject resource = this.env.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_PATH);
+			try (InputStream in = resource.openInputStream()) {
+				return MergedAnnotationsIndexMarshaller.read(in);
+			}
+		}
+		catch (IOException ex) {
+			// No previous index or failed to read it -> ignore.
+			return Collections.emptyMap();
+		}
+	}
+
+	private void writeIndex() {
+		// Re-resolve classes indexed by a previous incremental compilation,
+		// since their hierarchy may have changed in the meantime
+		this.previousIndex.keySet().forEach(name -> {
+			if (!this.index.containsKey(name)) {
+				TypeElement type = this.elements.getTypeElement(name.replace('$', '.'));
+				if (type != null && this.elements.getBinaryName(type).contentEquals(name)) {
+					Set<String> annotationTypes = collectHierarchyAnnotationTypes(type);
+					if (annotationTypes != null) {
+						this.index.put(name, annotationTypes);
+					}
+				}
+			}
+		});
+		if (this.index.isEmpty()) {
+			return;
+		}
+		try {
+			FileObject resource = this.env.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_PATH);
+			try (OutputStream out = resource.openOutputStream()) {
+				MergedAnnotationsIndexMarshaller.write(this.index, out);
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to write merged annotations index", ex);
+		}
+	}
+
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -84,13 +84,22 @@ class MetadataCollector {
 			List<ItemMetadata> items = this.previousMetadata.getItems();
 			for (ItemMetadata item : items) {
 				if (shouldBeMerged(item)) {
-					metadata.add(item);
+					metadata.add(withTypeMetadata(item));
 				}
 			}
 		}
 		return metadata;
 	}
 
+	private ItemMetadata withTypeMetadata(ItemMetadata item) {
+		if (item.getTypeMetadata() != null) {
+			return item;
+		}
+		// Previous metadata was read from the properties format
+		TypeElement type = this.processingEnvironment.getElementUtils().getTypeElement(item.getType());
+		return new ItemMetadata(item.getType(), item.getStereotypes(), this.typeHelper.getTypeMetadata(type));
+	}
+
 	private boolean shouldBeMerged(ItemMetadata itemMetadata) {
 		String sourceType = itemMetadata.getType();
 		return (sourceType != null && !deletedInCurrentBuild(sourceType)
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -34,6 +34,8 @@ class MetadataStore {
 
 	static final String METADATA_PATH = "META-INF/spring.components";
 
+	static final String INDEX_PATH = "META-INF/spring.components.idx";
+
 	private final ProcessingEnvironment environment;
 
 
@@ -44,7 +46,14 @@ class MetadataStore {
 
 	public CandidateComponentsMetadata readMetadata() {
 		try {
-			return readMetadata(getMetadataResource().openInputStream());
+			// The binary index also holds the type metadata of each candidate
+			return readMetadata(getResource(INDEX_PATH).openInputStream(), true);
+		}
+		catch (IOException ex) {
+			// Fall back to the properties format
+		}
+		try {
+			return readMetadata(getResource(METADATA_PATH).openInputStream(), false);
 		}
 		catch (IOException ex) {
 			// Failed to read metadata -> ignore.
@@ -54,28 +63,32 @@ class MetadataStore {
 
 	public void writeMetadata(CandidateComponentsMetadata metadata) throws IOException {
 		if (!metadata.getItems().isEmpty()) {
-			try (OutputStream outputStream = createMetadataResource().openOutputStream()) {
+			// Keep writing the properties format for runtimes unaware of the binary index
+			try (OutputStream outputStream = createResource(METADATA_PATH).openOutputStream()) {
 				PropertiesMarshaller.write(metadata, outputStream);
 			}
+			try (OutputStream outputStream = createResource(INDEX_PATH).openOutputStream()) {
+				BinaryIndexMarshaller.write(metadata, outputStream);
+			}
 		}
 	}
 
 
-	private CandidateComponentsMetadata readMetadata(InputStream in) throws IOException {
+	private CandidateComponentsMetadata readMetadata(InputStream in, boolean binary) throws IOException {
 		try {
-			return PropertiesMarshaller.read(in);
+			return (binary ? BinaryIndexMarshaller.read(in) : PropertiesMarshaller.read(in));
 		}
 		finally {
 			in.close();
 		}
 	}
 
-	private FileObject getMetadataResource() throws IOException {
-		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	private FileObject getResource(String path) throws IOException {
+		return this.environment.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", path);
 	}
 
-	private FileObject createMetadataResource() throws IOException {
-		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", METADATA_PATH);
+	private FileObject createResource(String path) throws IOException {
+		return this.environment.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", path);
 	}
 
 }
@@ -23,9 +23,13 @@ import java.util.List;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
 import javax.lang.model.element.QualifiedNameable;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
 
@@ -121,4 +125,62 @@ class TypeHelper {
 		}
 	}
 
+	/**
+	 * Return the class-level {@link TypeMetadata} of the specified {@link Element}
+	 * or {@code null} if it is not a type or if its hierarchy cannot be resolved.
+	 */
+	public TypeMetadata getTypeMetadata(Element element) {
+		if (!(element instanceof TypeElement)) {
+			return null;
+		}
+		TypeElement type = (TypeElement) element;
+		int flags = 0;
+		if (type.getKind().isInterface()) {
+			flags |= TypeMetadata.INTERFACE;
+		}
+		if (type.getKind() == ElementKind.ANNOTATION_TYPE) {
+			flags |= TypeMetadata.ANNOTATION;
+		}
+		if (type.getKind().isInterface() || type.getModifiers().contains(Modifier.ABSTRACT)) {
+			flags |= TypeMetadata.ABSTRACT;
+		}
+		if (type.getModifiers().contains(Modifier.FINAL)) {
+			flags |= TypeMetadata.FINAL;
+		}
+		if (type.getNestingKind() == NestingKind.TOP_LEVEL ||
+				(type.getNestingKind() == NestingKind.MEMBER && type.getModifiers().contains(Modifier.STATIC))) {
+			flags |= TypeMetadata.INDEPENDENT;
+		}
+		String superClassName = null;
+		TypeMirror superClass = type.getSuperclass();
+		if (superClass.getKind() == TypeKind.ERROR) {
+			return null;
+		}
+		if (superClass.getKind() == TypeKind.DECLARED) {
+			superClassName = getBinaryName(this.types.asElement(superClass));
+		}
+		List<String> interfaceNames = new ArrayList<>();
+		for (TypeMirror candidate : type.getInterfaces()) {
+			if (candidate.getKind() == TypeKind.ERROR) {
+				return null;
+			}
+			interfaceNames.add(getBinaryName(this.types.asElement(candidate)));
+		}
+		String enclosingClassName = null;
+		if (type.getNestingKind() == NestingKind.MEMBER) {
+			enclosingClassName = getBinaryName(type.getEnclosingElement());
+		}
+		List<String> memberClassNames = new ArrayList<>();
+		for (Element enclosed : type.getEnclosedElements()) {
+			if (enclosed instanceof TypeElement) {
+				memberClassNames.add(getBinaryName(enclosed));
+			}
+		}
+		return new TypeMetadata(flags, superClassName, enclosingClassName, interfaceNames, memberClassNames);
+	}
+
+	private String getBinaryName(Element element) {
+		return this.env.getElementUtils().getBinaryName((TypeElement) element).toString();
+	}
+
 }
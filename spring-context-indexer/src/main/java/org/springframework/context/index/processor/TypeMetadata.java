@@ -0,0 +1,124 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Class-level metadata of an indexed type, precomputed at build time so that
+ * it does not have to be read from the class file at runtime.
+ *
+ * @since 5.2
+ * @see ItemMetadata#getTypeMetadata()
+ */
+class TypeMetadata {
+
+	static final int INTERFACE = 0x01;
+
+	static final int ANNOTATION = 0x02;
+
+	static final int ABSTRACT = 0x04;
+
+	static final int FINAL = 0x08;
+
+	static final int INDEPENDENT = 0x10;
+
+
+	private final int flags;
+
+	private final String superClassName;
+
+	private final String enclosingClassName;
+
+	private final List<String> interfaceNames;
+
+	private final List<String> memberClassNames;
+
+
+	public TypeMetadata(int flags, String superClassName, String enclosingClassName,
+			List<String> interfaceNames, List<String> memberClassNames) {
+
+		this.flags = flags;
+		this.superClassName = superClassName;
+		this.enclosingClassName = enclosingClassName;
+		this.interfaceNames = Collections.unmodifiableList(interfaceNames);
+		this.memberClassNames = Collections.unmodifiableList(memberClassNames);
+	}
+
+
+	/**
+	 * Return the modifier flags of the type, as a combination of the
+	 * constants defined by this class.
+	 */
+	public int getFlags() {
+		return this.flags;
+	}
+
+	/**
+	 * Return the binary name of the super class, or {@code null} if none.
+	 */
+	public String getSuperClassName() {
+		return this.superClassName;
+	}
+
+	/**
+	 * Return the binary name of the enclosing class, or {@code null} if none.
+	 */
+	public String getEnclosingClassName() {
+		return this.enclosingClassName;
+	}
+
+	public List<String> getInterfaceNames() {
+		return this.interfaceNames;
+	}
+
+	public List<String> getMemberClassNames() {
+		return this.memberClassNames;
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		if (this == other) {
+			return true;
+		}
+		if (!(other instanceof TypeMetadata)) {
+			return false;
+		}
+		TypeMetadata otherMetadata = (TypeMetadata) other;
+		return (this.flags == otherMetadata.flags &&
+				Objects.equals(this.superClassName, otherMetadata.superClassName) &&
+				Objects.equals(this.enclosingClassName, otherMetadata.enclosingClassName) &&
+				this.interfaceNames.equals(otherMetadata.interfaceNames) &&
+				this.memberClassNames.equals(otherMetadata.memberClassNames));
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.flags, this.superClassName, this.enclosingClassName,
+				this.interfaceNames, this.memberClassNames);
+	}
+
+	@Override
+	public String toString() {
+		return "TypeMetadata{flags=" + this.flags + ", superClassName=" + this.superClassName +
+				", enclosingClassName=" + this.enclosingClassName + ", interfaceNames=" +
+				this.interfaceNames + ", memberClassNames=" + this.memberClassNames + '}';
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link BinaryIndexMarshaller}.
+ */
+class BinaryIndexMarshallerTests {
+
+	@Test
+	void readWrite() throws IOException {
+		TypeMetadata typeMetadata = new TypeMetadata(TypeMetadata.FINAL | TypeMetadata.INDEPENDENT,
+				"java.lang.Object", "com.Outer", Arrays.asList("java.io.Serializable", "java.lang.Runnable"),
+				Collections.singletonList("com.Outer$Inner$Nested"));
+		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
+		metadata.add(new ItemMetadata("com.foo", new HashSet<>(Arrays.asList("first", "second"))));
+		metadata.add(new ItemMetadata("com.Outer$Inner", Collections.singleton("first"), typeMetadata));
+
+		CandidateComponentsMetadata readMetadata = BinaryIndexMarshaller.read(new ByteArrayInputStream(write(metadata)));
+		assertThat(readMetadata).has(Metadata.of("com.foo", "first", "second"));
+		assertThat(readMetadata).has(Metadata.of("com.Outer$Inner", "first"));
+		assertThat(readMetadata.getItems()).hasSize(2);
+		assertThat(readMetadata.getItems().get(0).getType()).isEqualTo("com.Outer$Inner");
+		assertThat(readMetadata.getItems().get(0).getTypeMetadata()).isEqualTo(typeMetadata);
+		assertThat(readMetadata.getItems().get(1).getTypeMetadata()).isNull();
+	}
+
+	@Test
+	void metadataIsWrittenDeterministically() throws IOException {
+		CandidateComponentsMetadata metadata = new CandidateComponentsMetadata();
+		metadata.add(new ItemMetadata("com.b", Collections.singleton("type")));
+		metadata.add(new ItemMetadata("com.a", Collections.singleton("type")));
+		CandidateComponentsMetadata reversed = new CandidateComponentsMetadata();
+		reversed.add(new ItemMetadata("com.a", Collections.singleton("type")));
+		reversed.add(new ItemMetadata("com.b", Collections.singleton("type")));
+		assertThat(write(metadata)).isEqualTo(write(reversed));
+	}
+
+	private static byte[] write(CandidateComponentsMetadata metadata) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BinaryIndexMarshaller.write(metadata, out);
+		return out.toByteArray();
+	}
+
+}
@@ -218,6 +218,24 @@ class CandidateComponentsIndexerTests {
 		assertThat(metadata.getItems()).hasSize(0);
 	}
 
+	@Test
+	void binaryIndexContainsTypeMetadata() {
+		this.compiler.getTask(AbstractController.class, SampleEmbedded.class).call(new CandidateComponentsIndexer());
+		CandidateComponentsMetadata metadata = readGeneratedIndex(this.compiler.getOutputLocation());
+		assertThat(metadata).has(Metadata.of(AbstractController.class, Component.class));
+		assertThat(metadata.getItems()).hasSize(3);
+
+		TypeMetadata abstractController = getTypeMetadata(metadata, AbstractController.class.getName());
+		assertThat(abstractController.getFlags()).isEqualTo(TypeMetadata.ABSTRACT | TypeMetadata.INDEPENDENT);
+		assertThat(abstractController.getSuperClassName()).isEqualTo(Object.class.getName());
+		assertThat(abstractController.getEnclosingClassName()).isNull();
+		assertThat(abstractController.getInterfaceNames()).isEmpty();
+
+		TypeMetadata embedded = getTypeMetadata(metadata, SampleEmbedded.PublicCandidate.class.getName());
+		assertThat(embedded.getFlags()).isEqualTo(TypeMetadata.INDEPENDENT);
+		assertThat(embedded.getEnclosingClassName()).isEqualTo(SampleEmbedded.class.getName());
+	}
+
 	private void testComponent(Class<?>... classes) {
 		CandidateComponentsMetadata metadata = compile(classes);
 		for (Class<?> c : classes) {
@@ -260,4 +278,19 @@ class CandidateComponentsIndexerTests {
 		}
 	}
 
+	private CandidateComponentsMetadata readGeneratedIndex(File outputLocation) {
+		File indexFile = new File(outputLocation, MetadataStore.INDEX_PATH);
+		try (FileInputStream fileInputStream = new FileInputStream(indexFile)) {
+			return BinaryIndexMarshaller.read(fileInputStream);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to read index from disk", ex);
+		}
+	}
+
+	private static TypeMetadata getTypeMetadata(CandidateComponentsMetadata metadata, String type) {
+		return metadata.getItems().stream().filter(item -> item.getType().equals(type))
+				.map(ItemMetadata::getTypeMetadata).findFirst().orElse(null);
+	}
+
 }
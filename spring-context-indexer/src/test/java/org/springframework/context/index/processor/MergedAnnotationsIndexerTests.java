@@ -0,0 +1,125 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index.processor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.annotation.Documented;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.context.index.sample.MetaController;
+import org.springframework.context.index.sample.SampleEmbedded;
+import org.springframework.context.index.sample.SampleMetaController;
+import org.springframework.context.index.sample.type.SampleEntity;
+import org.springframework.context.index.sample.type.SampleRepo;
+import org.springframework.context.index.test.TestCompiler;
+import org.springframework.stereotype.Component;
+import org.springframework.stereotype.Controller;
+import org.springframework.stereotype.Indexed;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MergedAnnotationsIndexer}.
+ */
+class MergedAnnotationsIndexerTests {
+
+	private TestCompiler compiler;
+
+
+	@BeforeEach
+	void createCompiler(@TempDir Path tempDir) throws IOException {
+		this.compiler = new TestCompiler(tempDir);
+	}
+
+
+	@Test
+	void metaAnnotationsIndexed() {
+		Map<String, Set<String>> index = compile(SampleMetaController.class);
+		assertThat(index.get(SampleMetaController.class.getName())).contains(
+				MetaController.class.getName(), Controller.class.getName(),
+				Component.class.getName(), Indexed.class.getName(), Documented.class.getName());
+	}
+
+	@Test
+	void superTypeAnnotationsIndexed() {
+		Map<String, Set<String>> index = compile(SampleRepo.class);
+		assertThat(index.get(SampleRepo.class.getName()))
+				.contains(Indexed.class.getName()).doesNotContain(Component.class.getName());
+	}
+
+	@Test
+	void typeWithoutAnnotationsIndexedAsEmpty() {
+		Map<String, Set<String>> index = compile(SampleEntity.class);
+		assertThat(index).containsEntry(SampleEntity.class.getName(), Collections.emptySet());
+	}
+
+	@Test
+	void nestedTypesIndexedByBinaryName() {
+		Map<String, Set<String>> index = compile(SampleEmbedded.class);
+		assertThat(index.get(SampleEmbedded.PublicCandidate.class.getName())).contains(Component.class.getName());
+		assertThat(index.get(SampleEmbedded.Another.AnotherPublicCandidate.class.getName()))
+				.contains(Component.class.getName());
+		assertThat(index.get(SampleEmbedded.Another.class.getName())).isEmpty();
+	}
+
+	@Test
+	void indexNotGeneratedByDefault() {
+		this.compiler.getTask(SampleMetaController.class).call(new MergedAnnotationsIndexer());
+		assertThat(new File(this.compiler.getOutputLocation(), MergedAnnotationsIndexer.INDEX_PATH)).doesNotExist();
+	}
+
+	@Test
+	void marshallerRoundTrip() throws IOException {
+		Map<String, Set<String>> index = new LinkedHashMap<>();
+		index.put("com.example.A", new TreeSet<>(Arrays.asList("com.example.X", "com.example.Y")));
+		index.put("com.example.B", new TreeSet<>(Collections.singleton("com.example.Y")));
+		index.put("com.example.C", new TreeSet<>());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		MergedAnnotationsIndexMarshaller.write(index, out);
+		Map<String, Set<String>> read = MergedAnnotationsIndexMarshaller.read(new ByteArrayInputStream(out.toByteArray()));
+		assertThat(read).isEqualTo(index);
+	}
+
+
+	private Map<String, Set<String>> compile(Class<?>... types) {
+		MergedAnnotationsIndexer processor = new MergedAnnotationsIndexer();
+		this.compiler.getTask(Collections.singletonList(
+				"-A" + MergedAnnotationsIndexer.ENABLE_OPTION + "=true"), types).call(processor);
+		File indexFile = new File(this.compiler.getOutputLocation(), MergedAnnotationsIndexer.INDEX_PATH);
+		try (FileInputStream in = new FileInputStream(indexFile)) {
+			return MergedAnnotationsIndexMarshaller.read(in);
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Failed to read index from disk", ex);
+		}
+	}
+
+}
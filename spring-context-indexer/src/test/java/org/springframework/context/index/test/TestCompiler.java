@@ -63,18 +63,24 @@ public class TestCompiler {
 
 
 	public TestCompilationTask getTask(Class<?>... types) {
+		return getTask(null, types);
+	}
+
+	public TestCompilationTask getTask(Iterable<String> options, Class<?>... types) {
 		List<String> names = Arrays.stream(types).map(Class::getName).collect(Collectors.toList());
-		return getTask(names.toArray(new String[names.size()]));
+		return getTask(options, getJavaFileObjects(names.toArray(new String[names.size()])));
 	}
 
 	public TestCompilationTask getTask(String... types) {
 		Iterable<? extends JavaFileObject> javaFileObjects = getJavaFileObjects(types);
-		return getTask(javaFileObjects);
+		return getTask(null, javaFileObjects);
 	}
 
-	private TestCompilationTask getTask(Iterable<? extends JavaFileObject> javaFileObjects) {
+	private TestCompilationTask getTask(Iterable<String> options,
+			Iterable<? extends JavaFileObject> javaFileObjects) {
+
 		return new TestCompilationTask(
-				this.compiler.getTask(null, this.fileManager, null, null, null, javaFileObjects));
+				this.compiler.getTask(null, this.fileManager, null, options, null, javaFileObjects));
 	}
 
 	public File getOutputLocation() {
@@ -18,11 +18,14 @@ package org.springframework.context.annotation;
 
 import java.io.IOException;
 import java.lang.annotation.Annotation;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -94,6 +97,8 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 
 	private String resourcePattern = DEFAULT_RESOURCE_PATTERN;
 
+	private int scanParallelism = 1;
+
 	private final List<TypeFilter> includeFilters = new LinkedList<>();
 
 	private final List<TypeFilter> excludeFilters = new LinkedList<>();
@@ -162,6 +167,22 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		this.resourcePattern = resourcePattern;
 	}
 
+	/**
+	 * Set the number of threads to use for reading class files when scanning
+	 * the classpath. Default is 1, i.e. class files are read sequentially.
+	 * <p>With a higher value, class files are parsed in parallel through a
+	 * dedicated {@link ForkJoinPool}. Type filters and conditions are still
+	 * evaluated on the calling thread in resource order, so the resulting
+	 * candidate components are the same, and in the same order, as with a
+	 * sequential scan. The {@link #setMetadataReaderFactory MetadataReaderFactory}
+	 * in use needs to be thread-safe, as the default one is.
+	 * @since 5.2
+	 */
+	public void setScanParallelism(int scanParallelism) {
+		Assert.isTrue(scanParallelism > 0, "'scanParallelism' must be greater than 0");
+		this.scanParallelism = scanParallelism;
+	}
+
 	/**
 	 * Add an include type filter to the <i>end</i> of the inclusion list.
 	 */
@@ -419,15 +440,20 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 			String packageSearchPath = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX +
 					resolveBasePackage(basePackage) + '/' + this.resourcePattern;
 			Resource[] resources = getResourcePatternResolver().getResources(packageSearchPath);
+			Object[] preReadResults = (this.scanParallelism > 1 && resources.length > 1 ?
+					readMetadataInParallel(resources) : null);
 			boolean traceEnabled = logger.isTraceEnabled();
 			boolean debugEnabled = logger.isDebugEnabled();
-			for (Resource resource : resources) {
+			for (int i = 0; i < resources.length; i++) {
+				Resource resource = resources[i];
 				if (traceEnabled) {
 					logger.trace("Scanning " + resource);
 				}
-				if (resource.isReadable()) {
+				if (preReadResults != null ? preReadResults[i] != null : resource.isReadable()) {
 					try {
-						MetadataReader metadataReader = getMetadataReaderFactory().getMetadataReader(resource);
+						MetadataReader metadataReader = (preReadResults != null ?
+								getPreReadMetadataReader(preReadResults[i]) :
+								getMetadataReaderFactory().getMetadataReader(resource));
 						if (isCandidateComponent(metadataReader)) {
 							ScannedGenericBeanDefinition sbd = new ScannedGenericBeanDefinition(metadataReader);
 							sbd.setResource(resource);
@@ -468,6 +494,43 @@ public class ClassPathScanningCandidateComponentProvider implements EnvironmentC
 		return candidates;
 	}
 
+	/**
+	 * Read the metadata of the given resources in parallel.
+	 * @return for each resource, either its {@link MetadataReader}, the exception
+	 * thrown when reading it, or {@code null} if the resource is not readable
+	 */
+	private Object[] readMetadataInParallel(Resource[] resources) {
+		MetadataReaderFactory metadataReaderFactory = getMetadataReaderFactory();
+		ForkJoinPool pool = new ForkJoinPool(this.scanParallelism);
+		try {
+			return pool.submit(() -> Arrays.stream(resources).parallel().map(resource -> {
+				try {
+					return (resource.isReadable() ? metadataReaderFactory.getMetadataReader(resource) : null);
+				}
+				catch (Throwable ex) {
+					return ex;
+				}
+			}).toArray()).get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new BeanDefinitionStoreException("Interrupted during classpath scanning", ex);
+		}
+		catch (ExecutionException ex) {
+			throw new BeanDefinitionStoreException("Failure during parallel classpath scanning", ex.getCause());
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private static MetadataReader getPreReadMetadataReader(Object preReadResult) throws Throwable {
+		if (preReadResult instanceof Throwable) {
+			throw (Throwable) preReadResult;
+		}
+		return (MetadataReader) preReadResult;
+	}
+
 
 	/**
 	 * Resolve the specified base package into a pattern specification for
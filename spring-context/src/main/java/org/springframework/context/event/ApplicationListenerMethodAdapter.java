@@ -16,14 +16,19 @@
 
 package org.springframework.context.event;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.UndeclaredThrowableException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletionStage;
 
 import org.apache.commons.logging.Log;
@@ -36,15 +41,20 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.PayloadApplicationEvent;
 import org.springframework.context.expression.AnnotatedElementKey;
+import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.core.BridgeMethodResolver;
 import org.springframework.core.ReactiveAdapter;
 import org.springframework.core.ReactiveAdapterRegistry;
 import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.Order;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.Expression;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.ObjectUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
@@ -60,6 +70,11 @@ import org.springframework.util.concurrent.ListenableFuture;
  * to define any arbitrary event type. If a condition is defined, it is
  * evaluated prior to invoking the underlying method.
  *
+ * <p>The underlying method is invoked through a {@link MethodHandle} bound at
+ * construction time, and the declared event type matching a given event is
+ * cached per event class (or payload class), so that repeated dispatch does
+ * not go through reflective argument checks.
+ *
  * @author Stephane Nicoll
  * @author Juergen Hoeller
  * @author Sam Brannen
@@ -79,31 +94,49 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	private final Method targetMethod;
 
+	@Nullable
+	private final MethodHandle methodHandle;
+
 	private final AnnotatedElementKey methodKey;
 
 	private final List<ResolvableType> declaredEventTypes;
 
+	@Nullable
+	private final ResolvableType batchEventType;
+
 	@Nullable
 	private final String condition;
 
 	private final int order;
 
+	private final Map<Class<?>, ResolvableType> eventTypeCache = new ConcurrentReferenceHashMap<>(16);
+
+	private final Map<Class<?>, ResolvableType> payloadTypeCache = new ConcurrentReferenceHashMap<>(16);
+
 	@Nullable
 	private ApplicationContext applicationContext;
 
 	@Nullable
 	private EventExpressionEvaluator evaluator;
 
+	@Nullable
+	private BeanResolver beanResolver;
+
+	@Nullable
+	private Expression conditionExpression;
+
 
 	public ApplicationListenerMethodAdapter(String beanName, Class<?> targetClass, Method method) {
 		this.beanName = beanName;
 		this.method = BridgeMethodResolver.findBridgedMethod(method);
 		this.targetMethod = (!Proxy.isProxyClass(targetClass) ?
 				AopUtils.getMostSpecificMethod(method, targetClass) : this.method);
+		this.methodHandle = createMethodHandle(this.method);
 		this.methodKey = new AnnotatedElementKey(this.targetMethod, targetClass);
 
 		EventListener ann = AnnotatedElementUtils.findMergedAnnotation(this.targetMethod, EventListener.class);
 		this.declaredEventTypes = resolveDeclaredEventTypes(method, ann);
+		this.batchEventType = resolveBatchEventType(method, ann);
 		this.condition = (ann != null ? ann.condition() : null);
 		this.order = resolveOrder(this.targetMethod);
 	}
@@ -133,11 +166,41 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		return Collections.singletonList(ResolvableType.forMethodParameter(method, 0));
 	}
 
+	@Nullable
+	private static ResolvableType resolveBatchEventType(Method method, @Nullable EventListener ann) {
+		if (method.getParameterCount() != 1 || (ann != null && ann.classes().length > 0) ||
+				method.getParameterTypes()[0] != List.class) {
+			return null;
+		}
+		ResolvableType elementType = ResolvableType.forMethodParameter(method, 0).getGeneric();
+		return (elementType.resolve(Object.class) != Object.class ? elementType : null);
+	}
+
 	private static int resolveOrder(Method method) {
 		Order ann = AnnotatedElementUtils.findMergedAnnotation(method, Order.class);
 		return (ann != null ? ann.value() : 0);
 	}
 
+	/**
+	 * Create a {@link MethodHandle} for the given method, taking the target bean
+	 * and arguments as plain objects, or {@code null} if the method is not
+	 * accessible that way, in which case reflection is used instead.
+	 */
+	@Nullable
+	private static MethodHandle createMethodHandle(Method method) {
+		try {
+			ReflectionUtils.makeAccessible(method);
+			MethodHandle handle = MethodHandles.lookup().unreflect(method);
+			if (Modifier.isStatic(method.getModifiers())) {
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			}
+			return handle.asType(MethodType.genericMethodType(method.getParameterCount() + 1));
+		}
+		catch (IllegalAccessException | RuntimeException ex) {
+			return null;
+		}
+	}
+
 
 	/**
 	 * Initialize this instance.
@@ -145,6 +208,10 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	void init(ApplicationContext applicationContext, EventExpressionEvaluator evaluator) {
 		this.applicationContext = applicationContext;
 		this.evaluator = evaluator;
+		this.beanResolver = new BeanFactoryResolver(applicationContext);
+		if (StringUtils.hasText(this.condition)) {
+			this.conditionExpression = evaluator.parseCondition(this.condition, this.methodKey);
+		}
 	}
 
 
@@ -169,6 +236,32 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		return eventType.hasUnresolvableGenerics();
 	}
 
+	/**
+	 * Determine whether this listener is able to receive the given event type
+	 * as part of a batch, i.e. whether the listener method declares a single
+	 * {@code List<E>} parameter with an element type matching the event type
+	 * or the payload type of a {@link PayloadApplicationEvent}.
+	 * <p>Only consulted by multicasters that support batched delivery: the
+	 * regular dispatch of an event matches the declared {@code List} type.
+	 * @param eventType the event type to check
+	 * @since 5.2
+	 * @see #processEvents(List)
+	 * @see PartitionedApplicationEventMulticaster
+	 */
+	public boolean supportsBatchOf(ResolvableType eventType) {
+		if (this.batchEventType == null) {
+			return false;
+		}
+		if (this.batchEventType.isAssignableFrom(eventType)) {
+			return true;
+		}
+		if (PayloadApplicationEvent.class.isAssignableFrom(eventType.toClass())) {
+			ResolvableType payloadType = eventType.as(PayloadApplicationEvent.class).getGeneric();
+			return this.batchEventType.isAssignableFrom(payloadType);
+		}
+		return false;
+	}
+
 	@Override
 	public boolean supportsSourceType(@Nullable Class<?> sourceType) {
 		return true;
@@ -197,6 +290,40 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		}
 	}
 
+	/**
+	 * Process the specified batch of {@link ApplicationEvent ApplicationEvents}
+	 * with a single invocation of a listener method declaring a {@code List<E>}
+	 * parameter, unwrapping payloads as necessary.
+	 * <p>The condition, if any, is evaluated for each event individually, with
+	 * the list element as argument. The method is not invoked if no event matches.
+	 * @param events the events to process, in publication order
+	 * @since 5.2
+	 * @see #supportsBatchOf(ResolvableType)
+	 */
+	public void processEvents(List<ApplicationEvent> events) {
+		Assert.state(this.batchEventType != null, () -> "Not a batch event listener method: " + this.method);
+		Class<?> elementClass = this.batchEventType.toClass();
+		List<Object> elements = new ArrayList<>(events.size());
+		for (ApplicationEvent event : events) {
+			Object element = event;
+			if (!ApplicationEvent.class.isAssignableFrom(elementClass) && event instanceof PayloadApplicationEvent) {
+				element = ((PayloadApplicationEvent<?>) event).getPayload();
+			}
+			if (elementClass.isInstance(element) && shouldHandle(event, new Object[] {element})) {
+				elements.add(element);
+			}
+		}
+		if (!elements.isEmpty()) {
+			Object result = doInvoke(elements);
+			if (result != null) {
+				handleResult(result);
+			}
+			else {
+				logger.trace("No result object given - no result to handle");
+			}
+		}
+	}
+
 	/**
 	 * Resolve the method arguments to use for the specified {@link ApplicationEvent}.
 	 * <p>These arguments will be used to invoke the method handled by this instance.
@@ -283,8 +410,11 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		String condition = getCondition();
 		if (StringUtils.hasText(condition)) {
 			Assert.notNull(this.evaluator, "EventExpressionEvaluator must not be null");
-			return this.evaluator.condition(
-					condition, event, this.targetMethod, this.methodKey, args, this.applicationContext);
+			Expression expression = (condition.equals(this.condition) ? this.conditionExpression : null);
+			if (expression == null) {
+				expression = this.evaluator.parseCondition(condition, this.methodKey);
+			}
+			return this.evaluator.condition(expression, event, this.targetMethod, args, this.beanResolver);
 		}
 		return true;
 	}
@@ -295,6 +425,19 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 	@Nullable
 	protected Object doInvoke(Object... args) {
 		Object bean = getTargetBean();
+		if (this.methodHandle != null && isInvocableWithHandle(bean, args)) {
+			try {
+				return (args.length == 0 ? (Object) this.methodHandle.invokeExact(bean) :
+						(Object) this.methodHandle.invokeExact(bean, args[0]));
+			}
+			catch (RuntimeException ex) {
+				throw ex;
+			}
+			catch (Throwable ex) {
+				String msg = getInvocationErrorMessage(bean, "Failed to invoke event listener method", args);
+				throw new UndeclaredThrowableException(ex, msg);
+			}
+		}
 		ReflectionUtils.makeAccessible(this.method);
 		try {
 			return this.method.invoke(bean, args);
@@ -319,6 +462,19 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 		}
 	}
 
+	/**
+	 * Check that the method handle can be invoked with the given target and
+	 * arguments, as a mismatch would be indistinguishable from an exception
+	 * thrown by the method itself. Reflective invocation reports such errors.
+	 */
+	private boolean isInvocableWithHandle(Object bean, Object[] args) {
+		if (args.length != this.method.getParameterCount() ||
+				(!Modifier.isStatic(this.method.getModifiers()) && !this.method.getDeclaringClass().isInstance(bean))) {
+			return false;
+		}
+		return (args.length == 0 || ClassUtils.isAssignableValue(this.method.getParameterTypes()[0], args[0]));
+	}
+
 	/**
 	 * Return the target bean instance to use.
 	 */
@@ -388,6 +544,35 @@ public class ApplicationListenerMethodAdapter implements GenericApplicationListe
 
 	@Nullable
 	private ResolvableType getResolvableType(ApplicationEvent event) {
+		// The match only depends on the class of the event, or of the payload of
+		// a plain PayloadApplicationEvent unless it provides its own type
+		Map<Class<?>, ResolvableType> cache = null;
+		Class<?> cacheKey = null;
+		if (!(event instanceof PayloadApplicationEvent)) {
+			cache = this.eventTypeCache;
+			cacheKey = event.getClass();
+		}
+		else if (event.getClass() == PayloadApplicationEvent.class) {
+			Object payload = ((PayloadApplicationEvent<?>) event).getPayload();
+			if (!(payload instanceof ResolvableTypeProvider)) {
+				cache = this.payloadTypeCache;
+				cacheKey = payload.getClass();
+			}
+		}
+		if (cache == null || cacheKey == null) {
+			return doGetResolvableType(event);
+		}
+		ResolvableType type = cache.get(cacheKey);
+		if (type == null) {
+			ResolvableType resolved = doGetResolvableType(event);
+			type = (resolved != null ? resolved : ResolvableType.NONE);
+			cache.put(cacheKey, type);
+		}
+		return (type != ResolvableType.NONE ? type : null);
+	}
+
+	@Nullable
+	private ResolvableType doGetResolvableType(ApplicationEvent event) {
 		ResolvableType payloadType = null;
 		if (event instanceof PayloadApplicationEvent) {
 			PayloadApplicationEvent<?> payloadEvent = (PayloadApplicationEvent<?>) event;
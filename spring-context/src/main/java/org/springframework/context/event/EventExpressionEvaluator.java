@@ -26,6 +26,7 @@ import org.springframework.context.expression.AnnotatedElementKey;
 import org.springframework.context.expression.BeanFactoryResolver;
 import org.springframework.context.expression.CachedExpressionEvaluator;
 import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.expression.BeanResolver;
 import org.springframework.expression.Expression;
 import org.springframework.lang.Nullable;
 
@@ -49,15 +50,35 @@ class EventExpressionEvaluator extends CachedExpressionEvaluator {
 	public boolean condition(String conditionExpression, ApplicationEvent event, Method targetMethod,
 			AnnotatedElementKey methodKey, Object[] args, @Nullable BeanFactory beanFactory) {
 
+		return condition(parseCondition(conditionExpression, methodKey), event, targetMethod, args,
+				(beanFactory != null ? new BeanFactoryResolver(beanFactory) : null));
+	}
+
+	/**
+	 * Determine if the specified, previously parsed, condition evaluates
+	 * to {@code true}.
+	 * @since 5.2
+	 * @see #parseCondition(String, AnnotatedElementKey)
+	 */
+	public boolean condition(Expression condition, ApplicationEvent event, Method targetMethod,
+			Object[] args, @Nullable BeanResolver beanResolver) {
+
 		EventExpressionRootObject root = new EventExpressionRootObject(event, args);
 		MethodBasedEvaluationContext evaluationContext = new MethodBasedEvaluationContext(
 				root, targetMethod, args, getParameterNameDiscoverer());
-		if (beanFactory != null) {
-			evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
+		if (beanResolver != null) {
+			evaluationContext.setBeanResolver(beanResolver);
 		}
+		return Boolean.TRUE.equals(condition.getValue(evaluationContext, Boolean.class));
+	}
 
-		return (Boolean.TRUE.equals(getExpression(this.conditionCache, methodKey, conditionExpression).getValue(
-				evaluationContext, Boolean.class)));
+	/**
+	 * Parse the specified condition expression, reusing a previously parsed
+	 * expression for the same method if any.
+	 * @since 5.2
+	 */
+	public Expression parseCondition(String conditionExpression, AnnotatedElementKey methodKey) {
+		return getExpression(this.conditionCache, methodKey, conditionExpression);
 	}
 
 }
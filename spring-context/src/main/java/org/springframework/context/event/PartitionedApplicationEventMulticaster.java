@@ -0,0 +1,597 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.SimpleEvaluationContext;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ErrorHandler;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * {@link ApplicationEventMulticaster} that publishes events asynchronously
+ * through a fixed number of partitions, each served by a single thread.
+ *
+ * <p>Events are assigned to a partition based on a partition key, resolved
+ * from the {@linkplain #setPartitionKeyExpression key expression} if any, or
+ * the event source otherwise. All listeners of a given event are invoked
+ * by the same thread, in their usual order, and events with the same
+ * partition key are delivered in publication order. As opposed to a
+ * {@link SimpleApplicationEventMulticaster} with a
+ * {@linkplain #setTaskExecutor task executor}, no task is created per
+ * listener: the inherited task executor setting is not used.
+ *
+ * <p>Each partition holds a bounded queue of pending events. When a queue is
+ * full, the configured {@link OverflowPolicy} applies, blocking the publisher
+ * by default.
+ *
+ * <p>{@link EventListener @EventListener} methods declaring a single
+ * {@code List<E>} parameter receive the matching events as a batch: the
+ * events that are pending in a partition when it wakes up, up to the
+ * {@linkplain #setMaxBatchSize maximum batch size}, are delivered through
+ * one invocation, after the other listeners processed them.
+ *
+ * <p>Invocation count and latency are recorded per listener, see
+ * {@link #getListenerStatistics()}.
+ *
+ * <p>To use this multicaster in an application context, register it as a
+ * bean named "applicationEventMulticaster". Partitions are started lazily
+ * and shut down when the bean is destroyed: each partition still delivers
+ * its pending events, with events published from then on being delivered
+ * synchronously once the partition has terminated.
+ *
+ * @since 5.2
+ * @see ApplicationListenerMethodAdapter#processEvents(List)
+ */
+public class PartitionedApplicationEventMulticaster extends SimpleApplicationEventMulticaster
+		implements DisposableBean {
+
+	/** Default capacity of the queue of each partition: 1024. */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	/** Default maximum number of events processed as a batch: 64. */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+
+	private static final PendingEvent SHUTDOWN = new PendingEvent(null, ResolvableType.NONE);
+
+	private static final SpelExpressionParser parser = new SpelExpressionParser();
+
+	private static final EvaluationContext evaluationContext =
+			SimpleEvaluationContext.forReadOnlyDataBinding().build();
+
+
+	protected final Log logger = LogFactory.getLog(getClass());
+
+	private int partitionCount = Runtime.getRuntime().availableProcessors();
+
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+	private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+	private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+	@Nullable
+	private Expression partitionKeyExpression;
+
+	private ThreadFactory threadFactory = createDefaultThreadFactory();
+
+	private long awaitTerminationMillis = 0;
+
+	private final Map<ApplicationListener<?>, ListenerStatistics> statistics =
+			new ConcurrentReferenceHashMap<>(16, ConcurrentReferenceHashMap.ReferenceType.WEAK);
+
+	private final Object partitionMonitor = new Object();
+
+	@Nullable
+	private volatile Partition[] partitions;
+
+	private volatile boolean closed;
+
+
+	/**
+	 * Create a new PartitionedApplicationEventMulticaster.
+	 */
+	public PartitionedApplicationEventMulticaster() {
+	}
+
+	/**
+	 * Create a new PartitionedApplicationEventMulticaster for the given BeanFactory.
+	 */
+	public PartitionedApplicationEventMulticaster(BeanFactory beanFactory) {
+		super(beanFactory);
+	}
+
+
+	/**
+	 * Set the number of partitions, each served by its own thread.
+	 * <p>Default is the number of available processors.
+	 */
+	public void setPartitionCount(int partitionCount) {
+		Assert.isTrue(partitionCount > 0, "Partition count must be greater than 0");
+		this.partitionCount = partitionCount;
+	}
+
+	/**
+	 * Set the maximum number of pending events per partition.
+	 * <p>Default is {@value #DEFAULT_QUEUE_CAPACITY}.
+	 * @see #setOverflowPolicy
+	 */
+	public void setQueueCapacity(int queueCapacity) {
+		Assert.isTrue(queueCapacity > 0, "Queue capacity must be greater than 0");
+		this.queueCapacity = queueCapacity;
+	}
+
+	/**
+	 * Set the maximum number of pending events that a partition takes at once,
+	 * delivering them to batch listeners through a single invocation.
+	 * <p>Default is {@value #DEFAULT_MAX_BATCH_SIZE}.
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Set the policy to apply when the queue of a partition is full.
+	 * <p>Default is {@link OverflowPolicy#BLOCK}.
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		Assert.notNull(overflowPolicy, "OverflowPolicy must not be null");
+		this.overflowPolicy = overflowPolicy;
+	}
+
+	/**
+	 * Set a SpEL expression resolving the partition key of an event, for
+	 * instance {@code "orderId"}. The expression is evaluated against the
+	 * payload of a {@link PayloadApplicationEvent}, or the event itself
+	 * otherwise, with read-only access to its properties.
+	 * <p>Default is none, using the source of the event as partition key.
+	 * Events with a {@code null} key are assigned to the first partition.
+	 */
+	public void setPartitionKeyExpression(@Nullable String partitionKeyExpression) {
+		this.partitionKeyExpression = (partitionKeyExpression != null ?
+				parser.parseExpression(partitionKeyExpression) : null);
+	}
+
+	/**
+	 * Set the {@link ThreadFactory} to create partition threads with.
+	 * <p>Default is a factory of daemon threads named "event-partition-".
+	 */
+	public void setThreadFactory(ThreadFactory threadFactory) {
+		Assert.notNull(threadFactory, "ThreadFactory must not be null");
+		this.threadFactory = threadFactory;
+	}
+
+	/**
+	 * Set the maximum number of seconds to wait on shutdown for partitions to
+	 * deliver their pending events.
+	 * <p>Default is 0, not waiting at all: pending events are still delivered,
+	 * but possibly after the rest of the container has been shut down.
+	 */
+	public void setAwaitTerminationSeconds(int awaitTerminationSeconds) {
+		this.awaitTerminationMillis = TimeUnit.SECONDS.toMillis(awaitTerminationSeconds);
+	}
+
+
+	@Override
+	public void multicastEvent(ApplicationEvent event, @Nullable ResolvableType eventType) {
+		ResolvableType type = (eventType != null ? eventType : ResolvableType.forInstance(event));
+		if (getApplicationListeners(event, type).isEmpty()) {
+			return;
+		}
+		Partition[] partitions = obtainPartitions();
+		if (partitions == null) {
+			// Shut down before any partition got started: deliver synchronously
+			deliver(Collections.singletonList(new PendingEvent(event, type)));
+			return;
+		}
+		int hash = ObjectUtils.nullSafeHashCode(resolvePartitionKey(event));
+		partitions[Math.floorMod(hash ^ (hash >>> 16), partitions.length)].enqueue(new PendingEvent(event, type));
+	}
+
+	/**
+	 * Resolve the partition key for the given event.
+	 * @param event the event to publish
+	 * @return the key, or {@code null} for the first partition
+	 * @see #setPartitionKeyExpression
+	 */
+	@Nullable
+	protected Object resolvePartitionKey(ApplicationEvent event) {
+		if (this.partitionKeyExpression == null) {
+			return event.getSource();
+		}
+		Object root = (event instanceof PayloadApplicationEvent ?
+				((PayloadApplicationEvent<?>) event).getPayload() : event);
+		return this.partitionKeyExpression.getValue(evaluationContext, root);
+	}
+
+	@Override
+	protected boolean supportsEvent(
+			ApplicationListener<?> listener, ResolvableType eventType, @Nullable Class<?> sourceType) {
+
+		return (isBatchListener(listener, eventType) || super.supportsEvent(listener, eventType, sourceType));
+	}
+
+	private boolean isBatchListener(ApplicationListener<?> listener, ResolvableType eventType) {
+		return (listener instanceof ApplicationListenerMethodAdapter &&
+				((ApplicationListenerMethodAdapter) listener).supportsBatchOf(eventType));
+	}
+
+	/**
+	 * Return the invocation statistics recorded so far, per listener.
+	 * <p>Listener instances are weakly referenced: the statistics of listeners
+	 * that are not in use anymore, e.g. prototype beans, are discarded.
+	 */
+	public Map<ApplicationListener<?>, ListenerStatistics> getListenerStatistics() {
+		return Collections.unmodifiableMap(this.statistics);
+	}
+
+	/**
+	 * Return the number of events currently waiting to be delivered.
+	 */
+	public int getPendingEventCount() {
+		Partition[] partitions = this.partitions;
+		int count = 0;
+		if (partitions != null) {
+			for (Partition partition : partitions) {
+				count += partition.queue.size();
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void destroy() throws InterruptedException {
+		Partition[] partitions;
+		synchronized (this.partitionMonitor) {
+			// Partitions stay in place so that events keep their order after shutdown
+			partitions = this.partitions;
+			this.closed = true;
+		}
+		if (partitions != null) {
+			long deadline = System.currentTimeMillis() + this.awaitTerminationMillis;
+			for (Partition partition : partitions) {
+				partition.shutdown();
+			}
+			for (Partition partition : partitions) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining > 0) {
+					partition.thread.join(remaining);
+				}
+			}
+		}
+	}
+
+
+	@Nullable
+	private Partition[] obtainPartitions() {
+		Partition[] partitions = this.partitions;
+		if (partitions == null && !this.closed) {
+			synchronized (this.partitionMonitor) {
+				partitions = this.partitions;
+				if (partitions == null && !this.closed) {
+					partitions = new Partition[this.partitionCount];
+					for (int i = 0; i < partitions.length; i++) {
+						partitions[i] = new Partition(i);
+					}
+					this.partitions = partitions;
+				}
+			}
+		}
+		return partitions;
+	}
+
+	private void deliver(List<PendingEvent> events) {
+		Map<ApplicationListenerMethodAdapter, List<ApplicationEvent>> batches = null;
+		for (PendingEvent pending : events) {
+			ApplicationEvent event = pending.event;
+			if (event == null) {
+				continue;
+			}
+			for (ApplicationListener<?> listener : getApplicationListeners(event, pending.eventType)) {
+				if (isBatchListener(listener, pending.eventType)) {
+					if (batches == null) {
+						batches = new LinkedHashMap<>();
+					}
+					batches.computeIfAbsent((ApplicationListenerMethodAdapter) listener,
+							key -> new ArrayList<>()).add(event);
+				}
+				else {
+					invokeAndRecord(listener, 1, () -> invokeListener(listener, event));
+				}
+			}
+		}
+		if (batches != null) {
+			batches.forEach((listener, batch) ->
+					invokeAndRecord(listener, batch.size(), () -> invokeBatchListener(listener, batch)));
+		}
+	}
+
+	private void invokeAndRecord(ApplicationListener<?> listener, int eventCount, Runnable invocation) {
+		long start = System.nanoTime();
+		try {
+			invocation.run();
+		}
+		catch (Throwable ex) {
+			// Nobody to propagate to: the publisher is long gone
+			logger.error("Event listener " + listener + " failed", ex);
+		}
+		finally {
+			this.statistics.computeIfAbsent(listener, key -> new ListenerStatistics())
+					.record(eventCount, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Invoke the given batch listener with the given events.
+	 * @param listener the batch listener to invoke
+	 * @param events the events to propagate, in publication order
+	 */
+	protected void invokeBatchListener(ApplicationListenerMethodAdapter listener, List<ApplicationEvent> events) {
+		ErrorHandler errorHandler = getErrorHandler();
+		if (errorHandler != null) {
+			try {
+				listener.processEvents(events);
+			}
+			catch (Throwable err) {
+				errorHandler.handleError(err);
+			}
+		}
+		else {
+			listener.processEvents(events);
+		}
+	}
+
+	private static ThreadFactory createDefaultThreadFactory() {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("event-partition-");
+		threadFactory.setDaemon(true);
+		return threadFactory;
+	}
+
+
+	/**
+	 * Policy applied when publishing an event to a partition whose queue is full.
+	 */
+	public enum OverflowPolicy {
+
+		/**
+		 * Block the publishing thread until the partition has room for the event.
+		 */
+		BLOCK,
+
+		/**
+		 * Deliver the event in the publishing thread, bypassing the queue.
+		 * The event may then be delivered before earlier events of the same
+		 * partition.
+		 */
+		CALLER_RUNS,
+
+		/**
+		 * Discard the event, logging a warning.
+		 */
+		DISCARD,
+
+		/**
+		 * Throw a {@link TaskRejectedException} to the publisher.
+		 */
+		ABORT
+	}
+
+
+	/**
+	 * Invocation statistics of a listener.
+	 */
+	public static final class ListenerStatistics {
+
+		private final AtomicLong invocationCount = new AtomicLong();
+
+		private final AtomicLong eventCount = new AtomicLong();
+
+		private final AtomicLong totalNanos = new AtomicLong();
+
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		void record(int events, long nanos) {
+			this.invocationCount.incrementAndGet();
+			this.eventCount.addAndGet(events);
+			this.totalNanos.addAndGet(nanos);
+			this.maxNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		/**
+		 * Return the number of invocations of the listener.
+		 */
+		public long getInvocationCount() {
+			return this.invocationCount.get();
+		}
+
+		/**
+		 * Return the number of events delivered to the listener, which is
+		 * greater than the number of invocations for batch listeners.
+		 */
+		public long getEventCount() {
+			return this.eventCount.get();
+		}
+
+		/**
+		 * Return the total time spent in the listener, in nanoseconds.
+		 */
+		public long getTotalTimeNanos() {
+			return this.totalNanos.get();
+		}
+
+		/**
+		 * Return the longest time spent in a single invocation, in nanoseconds.
+		 */
+		public long getMaxTimeNanos() {
+			return this.maxNanos.get();
+		}
+
+		/**
+		 * Return the average time spent in an invocation, in nanoseconds.
+		 */
+		public long getAverageTimeNanos() {
+			long count = getInvocationCount();
+			return (count > 0 ? getTotalTimeNanos() / count : 0);
+		}
+
+		@Override
+		public String toString() {
+			return "invocations=" + getInvocationCount() + ", events=" + getEventCount() +
+					", avg=" + getAverageTimeNanos() + "ns, max=" + getMaxTimeNanos() + "ns";
+		}
+	}
+
+
+	private static final class PendingEvent {
+
+		/** The event to deliver, or {@code null} for waking up a partition on shutdown. */
+		@Nullable
+		final ApplicationEvent event;
+
+		final ResolvableType eventType;
+
+		PendingEvent(@Nullable ApplicationEvent event, ResolvableType eventType) {
+			this.event = event;
+			this.eventType = eventType;
+		}
+	}
+
+
+	private final class Partition implements Runnable {
+
+		private final int index;
+
+		private final BlockingQueue<PendingEvent> queue;
+
+		private final Thread thread;
+
+		private final Object terminationMonitor = new Object();
+
+		private volatile boolean terminated;
+
+		Partition(int index) {
+			this.index = index;
+			this.queue = new ArrayBlockingQueue<>(queueCapacity);
+			this.thread = threadFactory.newThread(this);
+			this.thread.start();
+		}
+
+		void enqueue(PendingEvent pending) {
+			if (!this.queue.offer(pending)) {
+				switch (overflowPolicy) {
+					case BLOCK:
+						try {
+							this.queue.put(pending);
+						}
+						catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+							throw new TaskRejectedException(
+									"Interrupted while waiting for room in event partition " + this.index, ex);
+						}
+						break;
+					case CALLER_RUNS:
+						deliver(Collections.singletonList(pending));
+						break;
+					case DISCARD:
+						if (logger.isWarnEnabled()) {
+							logger.warn("Event partition " + this.index + " is full - discarding " + pending.event);
+						}
+						break;
+					case ABORT:
+						throw new TaskRejectedException("Event partition " + this.index + " is full");
+				}
+			}
+			if (this.terminated) {
+				// Not picked up by the partition thread anymore
+				deliverPending();
+			}
+		}
+
+		/**
+		 * Wake up the partition thread, which terminates once its queue is empty.
+		 */
+		void shutdown() {
+			// A full queue keeps the thread busy: no need to wake it up then
+			this.queue.offer(SHUTDOWN);
+		}
+
+		/**
+		 * Deliver the events left in the queue in the calling thread, once the
+		 * partition thread has terminated: one thread at a time, in order.
+		 */
+		private void deliverPending() {
+			synchronized (this.terminationMonitor) {
+				List<PendingEvent> batch = new ArrayList<>(maxBatchSize);
+				while (this.queue.drainTo(batch, maxBatchSize) > 0) {
+					deliver(batch);
+					batch.clear();
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			List<PendingEvent> batch = new ArrayList<>(maxBatchSize);
+			try {
+				while (!closed || !this.queue.isEmpty()) {
+					try {
+						batch.add(this.queue.take());
+					}
+					catch (InterruptedException ex) {
+						return;
+					}
+					this.queue.drainTo(batch, maxBatchSize - 1);
+					deliver(batch);
+					batch.clear();
+				}
+			}
+			finally {
+				// Publishers deliver events enqueued from now on themselves
+				this.terminated = true;
+				deliverPending();
+			}
+		}
+	}
+
+}
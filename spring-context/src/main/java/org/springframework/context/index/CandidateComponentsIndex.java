@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,19 +16,28 @@
 
 package org.springframework.context.index;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
 
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.lang.Nullable;
 import org.springframework.util.AntPathMatcher;
 import org.springframework.util.ClassUtils;
-import org.springframework.util.LinkedMultiValueMap;
-import org.springframework.util.MultiValueMap;
 
 /**
- * Provide access to the candidates that are defined in {@code META-INF/spring.components}.
+ * Provide access to the candidates that are defined in {@code META-INF/spring.components}
+ * or in the binary {@code META-INF/spring.components.idx} index.
  *
  * <p>An arbitrary number of stereotypes can be registered (and queried) on the index: a
  * typical example is the fully qualified name of an annotation that flags the class for
@@ -43,6 +52,12 @@ import org.springframework.util.MultiValueMap;
  * not a rule. Similarly, the {@code stereotype} is usually the fully qualified name of
  * a target type but it can be any marker really.
  *
+ * <p>Candidates are kept sorted by type, so that the candidates of a given package
+ * are looked up as a contiguous range rather than by scanning all entries. When
+ * read from the binary index, the {@link ClassMetadata} of each candidate type is
+ * also available without having to read its class file, see
+ * {@link #getClassMetadata(String)}.
+ *
  * @author Stephane Nicoll
  * @since 5.0
  */
@@ -50,11 +65,60 @@ public class CandidateComponentsIndex {
 
 	private static final AntPathMatcher pathMatcher = new AntPathMatcher(".");
 
-	private final MultiValueMap<String, Entry> index;
+	private static final int INDEX_MAGIC = 0x53434958;
+
+	private static final int INDEX_VERSION = 1;
+
+	private static final int HAS_CLASS_METADATA = 0x80;
+
+	private static final String[] NO_NAMES = new String[0];
+
+
+	/** All candidate types, sorted. */
+	private final String[] types;
+
+	/** Class metadata for each candidate type, if available. */
+	private final IndexedClassMetadata[] classMetadata;
+
+	/** Sorted positions in {@link #types} of the candidates for each stereotype. */
+	private final Map<String, int[]> stereotypes;
 
 
 	CandidateComponentsIndex(List<Properties> content) {
-		this.index = parseIndex(content);
+		this(content, Collections.emptyList());
+	}
+
+	CandidateComponentsIndex(List<Properties> content, List<byte[]> binaryContent) {
+		TreeMap<String, Candidate> candidates = new TreeMap<>();
+		for (Properties entry : content) {
+			entry.forEach((type, values) -> {
+				String[] stereotypes = ((String) values).split(",");
+				candidates.computeIfAbsent((String) type, Candidate::new).stereotypes.addAll(Arrays.asList(stereotypes));
+			});
+		}
+		for (byte[] index : binaryContent) {
+			try {
+				readIndex(index, candidates);
+			}
+			catch (IOException ex) {
+				throw new IllegalArgumentException("Invalid candidate components index", ex);
+			}
+		}
+		this.types = new String[candidates.size()];
+		this.classMetadata = new IndexedClassMetadata[candidates.size()];
+		Map<String, List<Integer>> positions = new LinkedHashMap<>();
+		int position = 0;
+		for (Candidate candidate : candidates.values()) {
+			this.types[position] = candidate.type;
+			this.classMetadata[position] = candidate.classMetadata;
+			for (String stereotype : candidate.stereotypes) {
+				positions.computeIfAbsent(stereotype, key -> new ArrayList<>()).add(position);
+			}
+			position++;
+		}
+		this.stereotypes = new LinkedHashMap<>(positions.size());
+		positions.forEach((stereotype, list) ->
+				this.stereotypes.put(stereotype, list.stream().mapToInt(Integer::intValue).toArray()));
 	}
 
 
@@ -66,47 +130,129 @@ public class CandidateComponentsIndex {
 	 * or an empty set if none has been found for the specified {@code basePackage}
 	 */
 	public Set<String> getCandidateTypes(String basePackage, String stereotype) {
-		List<Entry> candidates = this.index.get(stereotype);
-		if (candidates != null) {
-			return candidates.parallelStream()
-					.filter(t -> t.match(basePackage))
-					.map(t -> t.type)
-					.collect(Collectors.toSet());
+		int[] candidates = this.stereotypes.get(stereotype);
+		if (candidates == null) {
+			return Collections.emptySet();
+		}
+		Set<String> result = new LinkedHashSet<>();
+		if (pathMatcher.isPattern(basePackage)) {
+			for (int candidate : candidates) {
+				String type = this.types[candidate];
+				if (pathMatcher.match(basePackage, ClassUtils.getPackageName(type))) {
+					result.add(type);
+				}
+			}
 		}
-		return Collections.emptySet();
+		else {
+			// Types starting with the base package form a contiguous range
+			int from = insertionPoint(this.types, basePackage);
+			int to = insertionPoint(this.types, basePackage + Character.MAX_VALUE);
+			for (int i = insertionPoint(candidates, from); i < candidates.length && candidates[i] < to; i++) {
+				result.add(this.types[candidates[i]]);
+			}
+		}
+		return result;
 	}
 
-	private static MultiValueMap<String, Entry> parseIndex(List<Properties> content) {
-		MultiValueMap<String, Entry> index = new LinkedMultiValueMap<>();
-		for (Properties entry : content) {
-			entry.forEach((type, values) -> {
-				String[] stereotypes = ((String) values).split(",");
-				for (String stereotype : stereotypes) {
-					index.add(stereotype, new Entry((String) type));
-				}
-			});
+	/**
+	 * Return the {@link ClassMetadata} of the specified candidate type, as
+	 * precomputed at build time.
+	 * @param type the candidate type
+	 * @return the class metadata, or {@code null} if the type is not a candidate
+	 * or if its metadata is not part of the index
+	 * @since 5.2
+	 */
+	@Nullable
+	public ClassMetadata getClassMetadata(String type) {
+		int position = Arrays.binarySearch(this.types, type);
+		return (position >= 0 ? this.classMetadata[position] : null);
+	}
+
+	int size() {
+		return this.types.length;
+	}
+
+
+	private static int insertionPoint(String[] array, String key) {
+		int index = Arrays.binarySearch(array, key);
+		return (index >= 0 ? index : -index - 1);
+	}
+
+	private static int insertionPoint(int[] array, int key) {
+		int index = Arrays.binarySearch(array, key);
+		return (index >= 0 ? index : -index - 1);
+	}
+
+	private static void readIndex(byte[] index, Map<String, Candidate> candidates) throws IOException {
+		DataInputStream data = new DataInputStream(new ByteArrayInputStream(index));
+		if (data.readInt() != INDEX_MAGIC || data.readByte() != INDEX_VERSION) {
+			throw new IOException("Unsupported candidate components index format");
+		}
+		String[] strings = new String[readVarInt(data)];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = data.readUTF().intern();
+		}
+		int candidateCount = readVarInt(data);
+		for (int i = 0; i < candidateCount; i++) {
+			String type = strings[readVarInt(data)];
+			Candidate candidate = candidates.computeIfAbsent(type, Candidate::new);
+			int flags = data.readUnsignedByte();
+			if ((flags & HAS_CLASS_METADATA) != 0) {
+				String superClassName = readOptionalString(data, strings);
+				String enclosingClassName = readOptionalString(data, strings);
+				String[] interfaceNames = readStrings(data, strings);
+				String[] memberClassNames = readStrings(data, strings);
+				candidate.classMetadata = new IndexedClassMetadata(type, flags & ~HAS_CLASS_METADATA,
+						superClassName, enclosingClassName, interfaceNames, memberClassNames);
+			}
+			Collections.addAll(candidate.stereotypes, readStrings(data, strings));
 		}
-		return index;
 	}
 
-	private static class Entry {
-		private final String type;
-		private final String packageName;
+	@Nullable
+	private static String readOptionalString(DataInputStream data, String[] strings) throws IOException {
+		int id = readVarInt(data);
+		return (id != 0 ? strings[id - 1] : null);
+	}
 
-		Entry(String type) {
-			this.type = type;
-			this.packageName = ClassUtils.getPackageName(type);
+	private static String[] readStrings(DataInputStream data, String[] strings) throws IOException {
+		int count = readVarInt(data);
+		if (count == 0) {
+			return NO_NAMES;
 		}
+		String[] result = new String[count];
+		for (int i = 0; i < count; i++) {
+			result[i] = strings[readVarInt(data)];
+		}
+		return result;
+	}
 
-		public boolean match(String basePackage) {
-			if (pathMatcher.isPattern(basePackage)) {
-				return pathMatcher.match(basePackage, this.packageName);
-			}
-			else {
-				return this.type.startsWith(basePackage);
-			}
+	private static int readVarInt(DataInputStream data) throws IOException {
+		int value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = data.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
 		}
+		while ((b & 0x80) != 0);
+		return value;
+	}
+
 
+	private static class Candidate {
+
+		private final String type;
+
+		private final Set<String> stereotypes = new LinkedHashSet<>();
+
+		@Nullable
+		private IndexedClassMetadata classMetadata;
+
+		Candidate(String type) {
+			this.type = type;
+		}
 	}
 
 }
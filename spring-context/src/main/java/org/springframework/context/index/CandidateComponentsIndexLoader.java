@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@
 package org.springframework.context.index;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Enumeration;
@@ -32,6 +33,7 @@ import org.springframework.core.io.UrlResource;
 import org.springframework.core.io.support.PropertiesLoaderUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.StreamUtils;
 
 /**
  * Candidate components index loading mechanism for internal use within the framework.
@@ -47,6 +49,14 @@ public final class CandidateComponentsIndexLoader {
 	 */
 	public static final String COMPONENTS_RESOURCE_LOCATION = "META-INF/spring.components";
 
+	/**
+	 * The location to look for the binary components index, which is merged
+	 * with the candidates from {@value #COMPONENTS_RESOURCE_LOCATION}.
+	 * <p>Can be present in multiple JAR files.
+	 * @since 5.2
+	 */
+	public static final String COMPONENTS_INDEX_LOCATION = "META-INF/spring.components.idx";
+
 	/**
 	 * System property that instructs Spring to ignore the index, i.e.
 	 * to always return {@code null} from {@link #loadIndex(ClassLoader)}.
@@ -96,21 +106,28 @@ public final class CandidateComponentsIndexLoader {
 		}
 
 		try {
-			Enumeration<URL> urls = classLoader.getResources(COMPONENTS_RESOURCE_LOCATION);
-			if (!urls.hasMoreElements()) {
-				return null;
+			List<byte[]> binaryContent = new ArrayList<>();
+			Enumeration<URL> urls = classLoader.getResources(COMPONENTS_INDEX_LOCATION);
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				try (InputStream in = url.openStream()) {
+					binaryContent.add(StreamUtils.copyToByteArray(in));
+				}
 			}
-			List<Properties> result = new ArrayList<>();
+			List<Properties> content = new ArrayList<>();
+			urls = classLoader.getResources(COMPONENTS_RESOURCE_LOCATION);
 			while (urls.hasMoreElements()) {
 				URL url = urls.nextElement();
-				Properties properties = PropertiesLoaderUtils.loadProperties(new UrlResource(url));
-				result.add(properties);
+				content.add(PropertiesLoaderUtils.loadProperties(new UrlResource(url)));
+			}
+			if (binaryContent.isEmpty() && content.isEmpty()) {
+				return null;
 			}
 			if (logger.isDebugEnabled()) {
-				logger.debug("Loaded " + result.size() + "] index(es)");
+				logger.debug("Loaded " + (binaryContent.size() + content.size()) + "] index(es)");
 			}
-			int totalCount = result.stream().mapToInt(Properties::size).sum();
-			return (totalCount > 0 ? new CandidateComponentsIndex(result) : null);
+			CandidateComponentsIndex index = new CandidateComponentsIndex(content, binaryContent);
+			return (index.size() > 0 ? index : null);
 		}
 		catch (IOException ex) {
 			throw new IllegalStateException("Unable to load indexes from location [" +
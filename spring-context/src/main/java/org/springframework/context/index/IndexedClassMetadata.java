@@ -0,0 +1,126 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.index;
+
+import org.springframework.core.type.ClassMetadata;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link ClassMetadata} of a candidate component, as precomputed at build time
+ * and stored in the binary candidate components index.
+ *
+ * @since 5.2
+ * @see CandidateComponentsIndex#getClassMetadata(String)
+ */
+final class IndexedClassMetadata implements ClassMetadata {
+
+	static final int INTERFACE = 0x01;
+
+	static final int ANNOTATION = 0x02;
+
+	static final int ABSTRACT = 0x04;
+
+	static final int FINAL = 0x08;
+
+	static final int INDEPENDENT = 0x10;
+
+
+	private final String className;
+
+	private final int flags;
+
+	@Nullable
+	private final String superClassName;
+
+	@Nullable
+	private final String enclosingClassName;
+
+	private final String[] interfaceNames;
+
+	private final String[] memberClassNames;
+
+
+	IndexedClassMetadata(String className, int flags, @Nullable String superClassName,
+			@Nullable String enclosingClassName, String[] interfaceNames, String[] memberClassNames) {
+
+		this.className = className;
+		this.flags = flags;
+		this.superClassName = superClassName;
+		this.enclosingClassName = enclosingClassName;
+		this.interfaceNames = interfaceNames;
+		this.memberClassNames = memberClassNames;
+	}
+
+
+	@Override
+	public String getClassName() {
+		return this.className;
+	}
+
+	@Override
+	public boolean isInterface() {
+		return (this.flags & INTERFACE) != 0;
+	}
+
+	@Override
+	public boolean isAnnotation() {
+		return (this.flags & ANNOTATION) != 0;
+	}
+
+	@Override
+	public boolean isAbstract() {
+		return (this.flags & ABSTRACT) != 0;
+	}
+
+	@Override
+	public boolean isFinal() {
+		return (this.flags & FINAL) != 0;
+	}
+
+	@Override
+	public boolean isIndependent() {
+		return (this.flags & INDEPENDENT) != 0;
+	}
+
+	@Override
+	@Nullable
+	public String getEnclosingClassName() {
+		return this.enclosingClassName;
+	}
+
+	@Override
+	@Nullable
+	public String getSuperClassName() {
+		return this.superClassName;
+	}
+
+	@Override
+	public String[] getInterfaceNames() {
+		return this.interfaceNames.clone();
+	}
+
+	@Override
+	public String[] getMemberClassNames() {
+		return this.memberClassNames.clone();
+	}
+
+	@Override
+	public String toString() {
+		return this.className;
+	}
+
+}
@@ -28,6 +28,7 @@ import org.springframework.aop.MethodMatcher;
 import org.springframework.aop.Pointcut;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
@@ -232,6 +233,31 @@ public class CglibProxyTests extends AbstractAopProxyTests implements Serializab
 		return (ITestBean) pf.getProxy();
 	}
 
+	@Test
+	public void testFrozenProxyWithPartiallyAdvisedMethods() {
+		TestBean target = new TestBean();
+		target.setAge(20);
+		target.setName("Juergen");
+		NopInterceptor advice = new NopInterceptor();
+		NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(advice);
+		advisor.setMappedName("getAge");
+
+		ProxyFactory pf = new ProxyFactory();
+		pf.setProxyTargetClass(true);
+		pf.addAdvisor(advisor);
+		pf.setTarget(target);
+		pf.setFrozen(true);
+		TestBean proxy = (TestBean) pf.getProxy();
+
+		assertThat(proxy.getAge()).isEqualTo(20);
+		assertThat(advice.getCount()).isEqualTo(1);
+		assertThat(proxy.getName()).isEqualTo("Juergen");
+		proxy.setAge(21);
+		assertThat(advice.getCount()).isEqualTo(1);
+		assertThat(proxy.getAge()).isEqualTo(21);
+		assertThat(advice.getCount()).isEqualTo(2);
+	}
+
 	@Test
 	public void testMultipleProxiesForIntroductionAdvisor() {
 		TestBean target1 = new TestBean();
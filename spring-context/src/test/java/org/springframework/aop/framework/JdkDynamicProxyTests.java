@@ -24,6 +24,8 @@ import org.junit.jupiter.api.Test;
 
 import org.springframework.aop.interceptor.ExposeInvocationInterceptor;
 import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.NameMatchMethodPointcutAdvisor;
+import org.springframework.tests.aop.interceptor.NopInterceptor;
 import org.springframework.tests.sample.beans.IOther;
 import org.springframework.tests.sample.beans.ITestBean;
 import org.springframework.tests.sample.beans.TestBean;
@@ -140,6 +142,25 @@ public class JdkDynamicProxyTests extends AbstractAopProxyTests implements Seria
 		assertThat(named.hashCode()).isEqualTo(proxy.hashCode());
 	}
 
+	@Test
+	public void testFrozenProxyWithUnadvisedMethods() {
+		NopInterceptor ni = new NopInterceptor();
+		NameMatchMethodPointcutAdvisor advisor = new NameMatchMethodPointcutAdvisor(ni);
+		advisor.setMappedName("getBarThis");
+		ProxyFactory pf = new ProxyFactory(new FooBar());
+		pf.setInterfaces(Foo.class);
+		pf.addAdvisor(advisor);
+		pf.setFrozen(true);
+		Foo proxy = (Foo) createProxy(pf);
+
+		assertThat(proxy.getFooThis()).as("Proxy should be returned for unadvised method").isSameAs(proxy);
+		assertThat(ni.getCount()).isEqualTo(0);
+		assertThat(proxy.getBarThis()).isNotNull();
+		assertThat(ni.getCount()).isEqualTo(1);
+		assertThat(((Advised) proxy).isFrozen()).isTrue();
+		assertThat(proxy).isEqualTo(createProxy(pf));
+	}
+
 	@Test  // SPR-13328
 	public void testVarargsWithEnumArray() {
 		ProxyFactory proxyFactory = new ProxyFactory(new VarargTestBean());
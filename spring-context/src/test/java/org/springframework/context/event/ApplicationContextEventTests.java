@@ -16,6 +16,7 @@
 
 package org.springframework.context.event;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -208,6 +209,26 @@ public class ApplicationContextEventTests extends AbstractApplicationEventListen
 		assertThat(listener1.seenEvents.size()).isEqualTo(2);
 	}
 
+	@Test
+	public void cachedListenersSortedAndReused() {
+		MyOrderedListener3 listener1 = new MyOrderedListener3();
+		MyOrderedListener4 listener2 = new MyOrderedListener4(listener1);
+
+		SimpleApplicationEventMulticaster smc = new SimpleApplicationEventMulticaster();
+		smc.addApplicationListener(listener2);
+		smc.addApplicationListener(listener1);
+
+		MyEvent event = new MyEvent(this);
+		ResolvableType eventType = ResolvableType.forClass(MyEvent.class);
+		Collection<ApplicationListener<?>> listeners = smc.getApplicationListeners(event, eventType);
+		assertThat(listeners).containsExactly(listener1, listener2);
+		assertThat(smc.getApplicationListeners(event, eventType)).isSameAs(listeners);
+
+		MyOrderedListener1 listener3 = new MyOrderedListener1();
+		smc.addApplicationListener(listener3);
+		assertThat(smc.getApplicationListeners(event, eventType)).containsExactly(listener3, listener1, listener2);
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void proxiedListeners() {
@@ -304,6 +304,32 @@ public class ApplicationListenerMethodAdapterTests extends AbstractApplicationEv
 		verify(this.sampleEvents, times(2)).handleStringOrInteger();
 	}
 
+	@Test
+	public void invokeListenerRepeatedlyWithDifferentPayloadTypes() {
+		Method method = ReflectionUtils.findMethod(SampleEvents.class, "handleString", String.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, 123L));
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "test"));
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, 456L));
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, "test2"));
+		verify(this.sampleEvents, times(1)).handleString("test");
+		verify(this.sampleEvents, times(1)).handleString("test2");
+		verify(this.sampleEvents, times(2)).handleString(anyString());
+	}
+
+	@Test
+	public void invokeListenerRepeatedlyWithResolvableTypeProviderPayloads() {
+		Method method = ReflectionUtils.findMethod(
+				SampleEvents.class, "handleGenericStringPayload", EntityWrapper.class);
+		ApplicationListenerMethodAdapter adapter = createTestInstance(method);
+		EntityWrapper<Integer> integerPayload = new EntityWrapper<>(123);
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, integerPayload));
+		EntityWrapper<String> stringPayload = new EntityWrapper<>("test");
+		adapter.onApplicationEvent(new PayloadApplicationEvent<>(this, stringPayload));
+		verify(this.sampleEvents, times(1)).handleGenericStringPayload(stringPayload);
+		verify(this.sampleEvents, never()).handleGenericStringPayload(integerPayload);
+	}
+
 	@Test
 	public void beanInstanceRetrievedAtEveryInvocation() {
 		Method method = ReflectionUtils.findMethod(
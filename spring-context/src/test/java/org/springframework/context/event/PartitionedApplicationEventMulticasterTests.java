@@ -0,0 +1,295 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.context.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.PartitionedApplicationEventMulticaster.ListenerStatistics;
+import org.springframework.context.event.PartitionedApplicationEventMulticaster.OverflowPolicy;
+import org.springframework.core.task.TaskRejectedException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link PartitionedApplicationEventMulticaster}.
+ */
+class PartitionedApplicationEventMulticasterTests {
+
+	private AnnotationConfigApplicationContext context;
+
+
+	@AfterEach
+	void closeContext() {
+		if (this.context != null) {
+			this.context.close();
+		}
+	}
+
+
+	@Test
+	void eventsWithSameKeyDeliveredInOrder() {
+		load(OrderListener.class);
+		for (int i = 0; i < 1000; i++) {
+			this.context.publishEvent(new OrderEvent(i % 10, i));
+		}
+		OrderListener listener = this.context.getBean(OrderListener.class);
+		this.context.close();
+
+		assertThat(listener.received).hasSize(10);
+		listener.received.values().forEach(sequences -> {
+			assertThat(sequences).hasSize(100);
+			assertThat(sequences).isSorted();
+		});
+		assertThat(listener.threads).hasSizeLessThanOrEqualTo(4);
+		assertThat(listener.threads).allMatch(name -> name.startsWith("event-partition-"));
+	}
+
+	@Test
+	void batchListenerReceivesAllEvents() {
+		load(OrderListener.class);
+		for (int i = 0; i < 1000; i++) {
+			this.context.publishEvent(new OrderEvent(i % 10, i));
+		}
+		OrderListener listener = this.context.getBean(OrderListener.class);
+		this.context.close();
+
+		assertThat(listener.batches.stream().mapToInt(List::size).sum()).isEqualTo(1000);
+		assertThat(listener.batches).allMatch(batch -> !batch.isEmpty() && batch.size() <= 16);
+	}
+
+	@Test
+	void listenerStatisticsRecorded() {
+		load(OrderListener.class);
+		for (int i = 0; i < 100; i++) {
+			this.context.publishEvent(new OrderEvent(i % 10, i));
+		}
+		PartitionedApplicationEventMulticaster multicaster =
+				this.context.getBean(PartitionedApplicationEventMulticaster.class);
+		this.context.close();
+
+		Map<ApplicationListener<?>, ListenerStatistics> statistics = multicaster.getListenerStatistics();
+		ListenerStatistics single = findStatistics(statistics, "onOrder");
+		assertThat(single.getInvocationCount()).isEqualTo(100);
+		assertThat(single.getEventCount()).isEqualTo(100);
+		assertThat(single.getMaxTimeNanos()).isLessThanOrEqualTo(single.getTotalTimeNanos());
+		ListenerStatistics batch = findStatistics(statistics, "onOrders");
+		assertThat(batch.getEventCount()).isEqualTo(100);
+		assertThat(batch.getInvocationCount()).isBetween(1L, 100L);
+	}
+
+	@Test
+	void abortPolicyRejectsEventsWhenQueueIsFull() throws InterruptedException {
+		PartitionedApplicationEventMulticaster multicaster = new PartitionedApplicationEventMulticaster();
+		multicaster.setPartitionCount(1);
+		multicaster.setQueueCapacity(1);
+		multicaster.setOverflowPolicy(OverflowPolicy.ABORT);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		multicaster.addApplicationListener((ApplicationListener<OrderEvent>) event -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		try {
+			multicaster.multicastEvent(new OrderEvent(1, 1));
+			assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+			multicaster.multicastEvent(new OrderEvent(1, 2));
+			assertThatExceptionOfType(TaskRejectedException.class).isThrownBy(() ->
+					multicaster.multicastEvent(new OrderEvent(1, 3)));
+			assertThat(multicaster.getPendingEventCount()).isEqualTo(1);
+		}
+		finally {
+			release.countDown();
+			multicaster.destroy();
+		}
+	}
+
+	@Test
+	void discardPolicyDropsEventsWhenQueueIsFull() throws InterruptedException {
+		PartitionedApplicationEventMulticaster multicaster = new PartitionedApplicationEventMulticaster();
+		multicaster.setPartitionCount(1);
+		multicaster.setQueueCapacity(1);
+		multicaster.setOverflowPolicy(OverflowPolicy.DISCARD);
+		multicaster.setAwaitTerminationSeconds(5);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Integer> received = new CopyOnWriteArrayList<>();
+		multicaster.addApplicationListener((ApplicationListener<OrderEvent>) event -> {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			received.add(event.getSequence());
+		});
+		multicaster.multicastEvent(new OrderEvent(1, 1));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		multicaster.multicastEvent(new OrderEvent(1, 2));
+		multicaster.multicastEvent(new OrderEvent(1, 3));
+		release.countDown();
+		multicaster.destroy();
+		assertThat(received).containsExactly(1, 2);
+	}
+
+	@Test
+	void pendingEventsDeliveredInOrderOnShutdown() throws InterruptedException {
+		PartitionedApplicationEventMulticaster multicaster = new PartitionedApplicationEventMulticaster();
+		multicaster.setPartitionCount(1);
+		multicaster.setQueueCapacity(1);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Integer> received = new CopyOnWriteArrayList<>();
+		multicaster.addApplicationListener((ApplicationListener<OrderEvent>) event -> {
+			if (event.getSequence() == 1) {
+				started.countDown();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			received.add(event.getSequence());
+		});
+		multicaster.multicastEvent(new OrderEvent(1, 1));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		multicaster.multicastEvent(new OrderEvent(1, 2));
+		Thread publisher = new Thread(() -> multicaster.multicastEvent(new OrderEvent(1, 3)));
+		publisher.start();
+		while (publisher.getState() != Thread.State.WAITING) {
+			Thread.sleep(10);
+		}
+
+		multicaster.destroy();
+		release.countDown();
+		publisher.join(5000);
+		assertThat(publisher.isAlive()).isFalse();
+		multicaster.multicastEvent(new OrderEvent(1, 4));
+		for (int i = 0; i < 500 && received.size() < 4; i++) {
+			Thread.sleep(10);
+		}
+		assertThat(received).containsExactly(1, 2, 3, 4);
+	}
+
+	@Test
+	void eventsDeliveredSynchronouslyAfterShutdown() throws InterruptedException {
+		PartitionedApplicationEventMulticaster multicaster = new PartitionedApplicationEventMulticaster();
+		List<String> threads = new CopyOnWriteArrayList<>();
+		multicaster.addApplicationListener((ApplicationListener<OrderEvent>) event ->
+				threads.add(Thread.currentThread().getName()));
+		multicaster.destroy();
+		multicaster.multicastEvent(new OrderEvent(1, 1));
+		assertThat(threads).containsExactly(Thread.currentThread().getName());
+	}
+
+
+	private void load(Class<?>... classes) {
+		this.context = new AnnotationConfigApplicationContext();
+		this.context.register(MulticasterConfig.class);
+		this.context.register(classes);
+		this.context.refresh();
+	}
+
+	private ListenerStatistics findStatistics(Map<ApplicationListener<?>, ListenerStatistics> statistics, String methodName) {
+		return statistics.entrySet().stream()
+				.filter(entry -> entry.getKey().toString().contains("." + methodName + "("))
+				.map(Map.Entry::getValue).findFirst().get();
+	}
+
+
+	@Configuration
+	static class MulticasterConfig {
+
+		@Bean
+		public PartitionedApplicationEventMulticaster applicationEventMulticaster() {
+			PartitionedApplicationEventMulticaster multicaster = new PartitionedApplicationEventMulticaster();
+			multicaster.setPartitionCount(4);
+			multicaster.setMaxBatchSize(16);
+			multicaster.setPartitionKeyExpression("orderId");
+			multicaster.setAwaitTerminationSeconds(10);
+			return multicaster;
+		}
+	}
+
+
+	static class OrderListener {
+
+		final Map<Integer, List<Integer>> received = new ConcurrentHashMap<>();
+
+		final List<String> threads = new CopyOnWriteArrayList<>();
+
+		final List<List<OrderEvent>> batches = new CopyOnWriteArrayList<>();
+
+		@EventListener
+		public void onOrder(OrderEvent event) {
+			this.received.computeIfAbsent(event.getOrderId(), key -> new CopyOnWriteArrayList<>()).add(event.getSequence());
+			if (!this.threads.contains(Thread.currentThread().getName())) {
+				this.threads.add(Thread.currentThread().getName());
+			}
+		}
+
+		@EventListener
+		public void onOrders(List<OrderEvent> events) {
+			this.batches.add(new ArrayList<>(events));
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	static class OrderEvent extends ApplicationEvent {
+
+		private final int orderId;
+
+		private final int sequence;
+
+		OrderEvent(int orderId, int sequence) {
+			super(PartitionedApplicationEventMulticasterTests.class);
+			this.orderId = orderId;
+			this.sequence = sequence;
+		}
+
+		public int getOrderId() {
+			return this.orderId;
+		}
+
+		public int getSequence() {
+			return this.sequence;
+		}
+	}
+
+}
@@ -16,6 +16,9 @@
 
 package org.springframework.context.index;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Properties;
@@ -23,6 +26,8 @@ import java.util.Set;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.core.type.ClassMetadata;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 
@@ -80,6 +85,48 @@ public class CandidateComponentsIndexTests {
 				.contains("com.example.Foo");
 	}
 
+	@Test
+	public void getCandidateTypesFromBinaryIndex() throws IOException {
+		CandidateComponentsIndex index = new CandidateComponentsIndex(Collections.emptyList(),
+				Collections.singletonList(createSampleIndex()));
+		assertThat(index.getCandidateTypes("com.example.service", "service")).containsExactly(
+				"com.example.service.One", "com.example.service.sub.Two");
+		assertThat(index.getCandidateTypes("com.example.service.sub", "service")).containsExactly(
+				"com.example.service.sub.Two");
+		assertThat(index.getCandidateTypes("com.example.*", "service")).containsExactly(
+				"com.example.service.One");
+		assertThat(index.getCandidateTypes("com.example", "entity")).containsExactly(
+				"com.example.domain.Four");
+		assertThat(index.getCandidateTypes("com.example.domain", "service")).isEmpty();
+	}
+
+	@Test
+	public void getClassMetadataFromBinaryIndex() throws IOException {
+		CandidateComponentsIndex index = new CandidateComponentsIndex(Collections.emptyList(),
+				Collections.singletonList(createSampleIndex()));
+		ClassMetadata metadata = index.getClassMetadata("com.example.service.One");
+		assertThat(metadata).isNotNull();
+		assertThat(metadata.getClassName()).isEqualTo("com.example.service.One");
+		assertThat(metadata.isConcrete()).isTrue();
+		assertThat(metadata.isIndependent()).isTrue();
+		assertThat(metadata.isFinal()).isTrue();
+		assertThat(metadata.getSuperClassName()).isEqualTo("java.lang.Object");
+		assertThat(metadata.getInterfaceNames()).containsExactly("java.io.Serializable");
+		assertThat(metadata.hasEnclosingClass()).isFalse();
+		assertThat(index.getClassMetadata("com.example.domain.Four")).isNull();
+		assertThat(index.getClassMetadata("com.example.Unknown")).isNull();
+	}
+
+	@Test
+	public void mergeBinaryIndexAndProperties() throws IOException {
+		CandidateComponentsIndex index = new CandidateComponentsIndex(
+				Collections.singletonList(createProperties("com.example.service.Three", "service")),
+				Collections.singletonList(createSampleIndex()));
+		assertThat(index.getCandidateTypes("com.example.service", "service")).containsExactly(
+				"com.example.service.One", "com.example.service.Three", "com.example.service.sub.Two");
+		assertThat(index.getClassMetadata("com.example.service.Three")).isNull();
+	}
+
 	private static Properties createProperties(String key, String stereotypes) {
 		Properties properties = new Properties();
 		properties.put(key, String.join(",", stereotypes));
@@ -95,4 +142,32 @@ public class CandidateComponentsIndexTests {
 		return properties;
 	}
 
+	/**
+	 * Create a binary index in the format written by the indexer, with class
+	 * metadata for {@code One} (final, implementing {@code Serializable}) and
+	 * {@code Two}, and none for {@code Four}.
+	 */
+	private static byte[] createSampleIndex() throws IOException {
+		// Sorted string table
+		String[] strings = {"com.example.domain.Four", "com.example.service.One", "com.example.service.sub.Two",
+				"entity", "java.io.Serializable", "java.lang.Object", "service"};
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(0x53434958);
+		data.writeByte(1);
+		data.writeByte(strings.length);
+		for (String string : strings) {
+			data.writeUTF(string);
+		}
+		data.writeByte(3);
+		// Four: no class metadata, stereotype "entity"
+		data.write(new byte[] {0, 0, 1, 3});
+		// One: final and independent, extends Object, implements Serializable
+		data.write(new byte[] {1, (byte) 0x98, 6, 0, 1, 4, 0, 1, 6});
+		// Two: independent, extends Object
+		data.write(new byte[] {2, (byte) 0x90, 6, 0, 0, 0, 1, 6});
+		data.flush();
+		return out.toByteArray();
+	}
+
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -90,6 +90,9 @@ public class CandidateComponentsTestClassLoader extends ClassLoader {
 			}
 			throw this.cause;
 		}
+		if (CandidateComponentsIndexLoader.COMPONENTS_INDEX_LOCATION.equals(name)) {
+			return Collections.emptyEnumeration();
+		}
 		return super.getResources(name);
 	}
 
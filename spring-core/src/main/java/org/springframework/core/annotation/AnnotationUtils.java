@@ -1270,6 +1270,7 @@ public abstract class AnnotationUtils {
 	public static void clearCache() {
 		AnnotationTypeMappings.clearCache();
 		AnnotationsScanner.clearCache();
+		MergedAnnotationsIndex.clearCache();
 	}
 
 
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.core.SpringProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Index of the annotation types present in the type hierarchy of application
+ * classes, generated at build time by the {@code spring-context-indexer}
+ * annotation processor and loaded from {@value #INDEX_LOCATION}.
+ *
+ * <p>Used by {@link TypeMappedAnnotations} to rule out annotations on indexed
+ * classes without reflectively scanning their hierarchy and meta-annotations.
+ * The index is conservative: an annotation type listed for a class is not
+ * necessarily present at runtime, but an annotation type that is not listed
+ * is guaranteed to be absent, as long as the index is up to date.
+ *
+ * <p>Since the index also reflects superclasses, interfaces and meta-annotations
+ * from dependencies as seen at build time, it is only used if explicitly enabled
+ * through the {@value #ENABLE_INDEX} property, for applications that run against
+ * the same dependency versions they were compiled with.
+ *
+ * @since 5.2
+ */
+final class MergedAnnotationsIndex {
+
+	/**
+	 * The location of the index. Can be present in multiple JAR files.
+	 */
+	static final String INDEX_LOCATION = "META-INF/spring.annotations.idx";
+
+	/**
+	 * System property that instructs Spring to use the merged annotations index:
+	 * {@code "spring.annotations.index.enabled"}. Not enabled by default.
+	 * <p>Read once, when this class is initialized. The same option has to be
+	 * passed to the {@code spring-context-indexer} annotation processor for the
+	 * index to be generated.
+	 */
+	static final String ENABLE_INDEX = "spring.annotations.index.enabled";
+
+	private static final boolean indexEnabled = SpringProperties.getFlag(ENABLE_INDEX);
+
+	private static final int MAGIC = 0x53414958;
+
+	private static final int VERSION = 1;
+
+	private static final Log logger = LogFactory.getLog(MergedAnnotationsIndex.class);
+
+	private static final MergedAnnotationsIndex NO_INDEX = new MergedAnnotationsIndex();
+
+	private static final Map<ClassLoader, MergedAnnotationsIndex> cache = new ConcurrentReferenceHashMap<>();
+
+
+	private final Map<String, Integer> annotationIds = new HashMap<>();
+
+	private final Map<String, int[]> classAnnotationIds = new HashMap<>();
+
+
+	private MergedAnnotationsIndex() {
+	}
+
+
+	/**
+	 * Determine whether the given annotation type is known to be absent from
+	 * the type hierarchy of the given class, meta-annotations included.
+	 * @param className the name of the class
+	 * @param annotationType the name of the annotation type
+	 * @return {@code true} if the annotation is definitely absent, {@code false}
+	 * if it may be present or if the class is not indexed
+	 */
+	boolean isKnownAbsent(String className, String annotationType) {
+		int[] ids = this.classAnnotationIds.get(className);
+		if (ids == null) {
+			return false;
+		}
+		Integer id = this.annotationIds.get(annotationType);
+		return (id == null || Arrays.binarySearch(ids, id) < 0);
+	}
+
+	/**
+	 * Determine whether the type hierarchy of the given class is known to
+	 * be free of annotations.
+	 * @param className the name of the class
+	 */
+	boolean isKnownEmpty(String className) {
+		int[] ids = this.classAnnotationIds.get(className);
+		return (ids != null && ids.length == 0);
+	}
+
+	private void read(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(in);
+		if (data.readInt() != MAGIC || data.readByte() != VERSION) {
+			throw new IOException("Unsupported merged annotations index format");
+		}
+		int annotationCount = readVarInt(data);
+		int[] globalIds = new int[annotationCount];
+		for (int i = 0; i < annotationCount; i++) {
+			String name = data.readUTF();
+			Integer id = this.annotationIds.get(name);
+			if (id == null) {
+				id = this.annotationIds.size();
+				this.annotationIds.put(name, id);
+			}
+			globalIds[i] = id;
+		}
+		int classCount = readVarInt(data);
+		for (int i = 0; i < classCount; i++) {
+			String className = data.readUTF();
+			int[] ids = new int[readVarInt(data)];
+			int localId = 0;
+			for (int j = 0; j < ids.length; j++) {
+				localId += readVarInt(data);
+				ids[j] = globalIds[localId];
+			}
+			Arrays.sort(ids);
+			int[] existing = this.classAnnotationIds.get(className);
+			if (existing != null) {
+				// Indexed in several places: keep the union to remain conservative
+				int[] merged = Arrays.copyOf(existing, existing.length + ids.length);
+				System.arraycopy(ids, 0, merged, existing.length, ids.length);
+				ids = Arrays.stream(merged).sorted().distinct().toArray();
+			}
+			this.classAnnotationIds.put(className, ids);
+		}
+	}
+
+	private static int readVarInt(DataInputStream data) throws IOException {
+		int value = 0;
+		int shift = 0;
+		int b;
+		do {
+			b = data.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while ((b & 0x80) != 0);
+		return value;
+	}
+
+
+	/**
+	 * Return the index for the given class, or {@code null} if none is available
+	 * or if the index is not {@linkplain #ENABLE_INDEX enabled}.
+	 * @param type the class to look up
+	 */
+	@Nullable
+	static MergedAnnotationsIndex forClass(Class<?> type) {
+		if (!indexEnabled) {
+			return null;
+		}
+		ClassLoader classLoader = type.getClassLoader();
+		if (classLoader == null) {
+			return null;
+		}
+		MergedAnnotationsIndex index = load(classLoader);
+		return (index != NO_INDEX ? index : null);
+	}
+
+	/**
+	 * Load the index from all {@value #INDEX_LOCATION} resources visible to
+	 * the given class loader.
+	 * @param classLoader the class loader to use
+	 * @return the index, possibly empty
+	 */
+	static MergedAnnotationsIndex load(ClassLoader classLoader) {
+		return cache.computeIfAbsent(classLoader, MergedAnnotationsIndex::doLoad);
+	}
+
+	private static MergedAnnotationsIndex doLoad(ClassLoader classLoader) {
+		try {
+			Enumeration<URL> urls = classLoader.getResources(INDEX_LOCATION);
+			if (!urls.hasMoreElements()) {
+				return NO_INDEX;
+			}
+			MergedAnnotationsIndex index = new MergedAnnotationsIndex();
+			while (urls.hasMoreElements()) {
+				URL url = urls.nextElement();
+				try (InputStream in = new BufferedInputStream(url.openStream())) {
+					index.read(in);
+				}
+			}
+			if (logger.isDebugEnabled()) {
+				logger.debug("Loaded merged annotations index for " + index.classAnnotationIds.size() + " classes");
+			}
+			return index;
+		}
+		catch (IOException ex) {
+			// An incomplete index could yield wrong answers: fall back to scanning
+			if (logger.isInfoEnabled()) {
+				logger.info("Unable to load merged annotations index from [" + INDEX_LOCATION + "]", ex);
+			}
+			return NO_INDEX;
+		}
+	}
+
+	static void clearCache() {
+		cache.clear();
+	}
+
+}
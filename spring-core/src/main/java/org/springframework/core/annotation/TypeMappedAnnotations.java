@@ -92,7 +92,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Override
 	public <A extends Annotation> boolean isPresent(Class<A> annotationType) {
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || isKnownAbsent(annotationType)) {
 			return false;
 		}
 		return Boolean.TRUE.equals(scan(annotationType,
@@ -101,7 +101,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Override
 	public boolean isPresent(String annotationType) {
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || isKnownAbsent(annotationType)) {
 			return false;
 		}
 		return Boolean.TRUE.equals(scan(annotationType,
@@ -110,7 +110,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Override
 	public <A extends Annotation> boolean isDirectlyPresent(Class<A> annotationType) {
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || isKnownAbsent(annotationType)) {
 			return false;
 		}
 		return Boolean.TRUE.equals(scan(annotationType,
@@ -119,7 +119,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 
 	@Override
 	public boolean isDirectlyPresent(String annotationType) {
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || isKnownAbsent(annotationType)) {
 			return false;
 		}
 		return Boolean.TRUE.equals(scan(annotationType,
@@ -143,7 +143,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 			@Nullable Predicate<? super MergedAnnotation<A>> predicate,
 			@Nullable MergedAnnotationSelector<A> selector) {
 
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || isKnownAbsent(annotationType)) {
 			return MergedAnnotation.missing();
 		}
 		MergedAnnotation<A> result = scan(annotationType,
@@ -168,7 +168,7 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 			@Nullable Predicate<? super MergedAnnotation<A>> predicate,
 			@Nullable MergedAnnotationSelector<A> selector) {
 
-		if (this.annotationFilter.matches(annotationType)) {
+		if (this.annotationFilter.matches(annotationType) || isKnownAbsent(annotationType)) {
 			return MergedAnnotation.missing();
 		}
 		MergedAnnotation<A> result = scan(annotationType,
@@ -232,6 +232,20 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		return aggregates;
 	}
 
+	/**
+	 * Check the build-time {@link MergedAnnotationsIndex} for the given
+	 * annotation type, avoiding a scan if it cannot be present.
+	 */
+	private boolean isKnownAbsent(Object annotationType) {
+		if (!(this.element instanceof Class) || !isIndexable(this.searchStrategy)) {
+			return false;
+		}
+		Class<?> type = (Class<?>) this.element;
+		MergedAnnotationsIndex index = MergedAnnotationsIndex.forClass(type);
+		return (index != null && index.isKnownAbsent(type.getName(), (annotationType instanceof Class ?
+				((Class<?>) annotationType).getName() : annotationType.toString())));
+	}
+
 	@Nullable
 	private <C, R> R scan(C criteria, AnnotationsProcessor<C, R> processor) {
 		if (this.annotations != null) {
@@ -251,6 +265,12 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		if (AnnotationsScanner.isKnownEmpty(element, searchStrategy)) {
 			return NONE;
 		}
+		if (element instanceof Class && isIndexable(searchStrategy)) {
+			MergedAnnotationsIndex index = MergedAnnotationsIndex.forClass((Class<?>) element);
+			if (index != null && index.isKnownEmpty(((Class<?>) element).getName())) {
+				return NONE;
+			}
+		}
 		return new TypeMappedAnnotations(element, searchStrategy, repeatableContainers, annotationFilter);
 	}
 
@@ -263,6 +283,14 @@ final class TypeMappedAnnotations implements MergedAnnotations {
 		return new TypeMappedAnnotations(source, annotations, repeatableContainers, annotationFilter);
 	}
 
+	/**
+	 * Determine whether the {@link MergedAnnotationsIndex} covers the given search
+	 * strategy: the index does not include enclosing classes.
+	 */
+	private static boolean isIndexable(@Nullable SearchStrategy searchStrategy) {
+		return (searchStrategy != null && searchStrategy != SearchStrategy.TYPE_HIERARCHY_AND_ENCLOSING_CLASSES);
+	}
+
 	private static boolean isMappingForType(AnnotationTypeMapping mapping,
 			AnnotationFilter annotationFilter, @Nullable Object requiredType) {
 
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -116,30 +116,49 @@ public class CachingMetadataReaderFactory extends SimpleMetadataReaderFactory {
 
 	@Override
 	public MetadataReader getMetadataReader(Resource resource) throws IOException {
-		if (this.metadataReaderCache instanceof ConcurrentMap) {
+		Map<Resource, MetadataReader> cache = this.metadataReaderCache;
+		if (cache instanceof ConcurrentMap) {
 			// No synchronization necessary...
-			MetadataReader metadataReader = this.metadataReaderCache.get(resource);
+			MetadataReader metadataReader = cache.get(resource);
 			if (metadataReader == null) {
-				metadataReader = super.getMetadataReader(resource);
-				this.metadataReaderCache.put(resource, metadataReader);
+				metadataReader = createMetadataReader(resource);
+				cache.put(resource, metadataReader);
 			}
 			return metadataReader;
 		}
-		else if (this.metadataReaderCache != null) {
-			synchronized (this.metadataReaderCache) {
-				MetadataReader metadataReader = this.metadataReaderCache.get(resource);
-				if (metadataReader == null) {
-					metadataReader = super.getMetadataReader(resource);
-					this.metadataReaderCache.put(resource, metadataReader);
+		else if (cache != null) {
+			MetadataReader metadataReader;
+			synchronized (cache) {
+				metadataReader = cache.get(resource);
+			}
+			if (metadataReader == null) {
+				// Read outside of the lock, allowing for concurrent reads of different
+				// resources: a concurrent read of the same resource is harmless.
+				metadataReader = createMetadataReader(resource);
+				synchronized (cache) {
+					cache.put(resource, metadataReader);
 				}
-				return metadataReader;
 			}
+			return metadataReader;
 		}
 		else {
-			return super.getMetadataReader(resource);
+			return createMetadataReader(resource);
 		}
 	}
 
+	/**
+	 * Create a new MetadataReader for the given resource, to be cached by this factory.
+	 * <p>The default implementation reads the class file of the given resource.
+	 * @param resource the resource (pointing to a ".class" file)
+	 * @return a holder for the ClassReader instance (never {@code null})
+	 * @throws IOException in case of I/O failure
+	 * @since 5.2
+	 * @see SimpleMetadataReaderFactory#getMetadataReader(Resource)
+	 */
+	protected MetadataReader createMetadataReader(Resource resource) throws IOException {
+		return super.getMetadataReader(resource);
+	}
+
 	/**
 	 * Clear the local MetadataReader cache, if any, removing all cached class metadata.
 	 */
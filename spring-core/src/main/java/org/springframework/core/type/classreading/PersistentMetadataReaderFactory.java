@@ -0,0 +1,136 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import org.springframework.asm.ClassReader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.ResourceUtils;
+
+/**
+ * {@link CachingMetadataReaderFactory} extension that additionally persists
+ * the class metadata of JAR-resident classes to a local file, so that it does
+ * not have to be read from the JAR files again on the next start.
+ *
+ * <p>{@link MetadataReader} instances are cached in memory just like with a
+ * regular {@code CachingMetadataReaderFactory}, and released through
+ * {@link #clearCache()} once configuration class processing is done. For classes
+ * located in JAR files on the file system, the relevant parts of the class file
+ * are also recorded in the store file, keyed by the path, size and last
+ * modification time of the JAR file. Classes in directories are not persisted
+ * since they are likely to change during development.
+ *
+ * <p>The store file is read on creation of the factory. Recorded entries are
+ * only written to it on {@link #save()}, which the application is expected to
+ * call once the application context has been refreshed, e.g. from a listener
+ * for the {@code ContextRefreshedEvent}.
+ * The factory needs to be registered wherever class metadata is read, that is,
+ * with the {@code ConfigurationClassPostProcessor} and with the
+ * {@code ClassPathScanningCandidateComponentProvider} used for component scanning,
+ * via their {@code setMetadataReaderFactory} methods.
+ *
+ * @since 5.2
+ * @see CachingMetadataReaderFactory
+ */
+public class PersistentMetadataReaderFactory extends CachingMetadataReaderFactory {
+
+	private final PersistentMetadataStore store;
+
+
+	/**
+	 * Create a new PersistentMetadataReaderFactory for the default class loader,
+	 * using a local resource cache.
+	 * @param storeFile the file to persist class metadata to
+	 */
+	public PersistentMetadataReaderFactory(File storeFile) {
+		super();
+		this.store = createStore(storeFile);
+	}
+
+	/**
+	 * Create a new PersistentMetadataReaderFactory for the given resource loader,
+	 * using a shared resource cache if supported or a local resource cache otherwise.
+	 * @param storeFile the file to persist class metadata to
+	 * @param resourceLoader the Spring ResourceLoader to use
+	 * (also determines the ClassLoader to use)
+	 */
+	public PersistentMetadataReaderFactory(File storeFile, @Nullable ResourceLoader resourceLoader) {
+		super(resourceLoader);
+		this.store = createStore(storeFile);
+	}
+
+	/**
+	 * Create a new PersistentMetadataReaderFactory for the given class loader,
+	 * using a local resource cache.
+	 * @param storeFile the file to persist class metadata to
+	 * @param classLoader the ClassLoader to use
+	 */
+	public PersistentMetadataReaderFactory(File storeFile, @Nullable ClassLoader classLoader) {
+		super(classLoader);
+		this.store = createStore(storeFile);
+	}
+
+	private static PersistentMetadataStore createStore(File storeFile) {
+		Assert.notNull(storeFile, "Store file must not be null");
+		return new PersistentMetadataStore(storeFile);
+	}
+
+
+	@Override
+	protected MetadataReader createMetadataReader(Resource resource) throws IOException {
+		ClassLoader classLoader = getResourceLoader().getClassLoader();
+		URL url = resource.getURL();
+		if (!ResourceUtils.isJarURL(url)) {
+			return new SimpleMetadataReader(resource, classLoader);
+		}
+		URL jarFileUrl = ResourceUtils.extractJarFileURL(url);
+		if (!ResourceUtils.isFileURL(jarFileUrl)) {
+			return new SimpleMetadataReader(resource, classLoader);
+		}
+		File jarFile = ResourceUtils.getFile(jarFileUrl);
+		String urlString = url.toString();
+		String entryName = urlString.substring(
+				urlString.indexOf(ResourceUtils.JAR_URL_SEPARATOR) + ResourceUtils.JAR_URL_SEPARATOR.length());
+		byte[] classFile = this.store.get(jarFile, entryName);
+		if (classFile != null) {
+			return new SimpleMetadataReader(resource, new ClassReader(classFile), classLoader);
+		}
+		ClassReader classReader = SimpleMetadataReader.getClassReader(resource);
+		MetadataReader metadataReader = new SimpleMetadataReader(resource, classReader, classLoader);
+		this.store.put(jarFile, entryName, classReader);
+		return metadataReader;
+	}
+
+	/**
+	 * Write the class metadata recorded since this factory has been created
+	 * to the store file, along with still valid previously stored metadata.
+	 * <p>To be called once the application context has been refreshed, so that
+	 * the metadata of all classes read during startup is recorded. Not affected
+	 * by {@link #clearCache()}.
+	 * @throws IOException in case of I/O errors while writing the store file
+	 */
+	public void save() throws IOException {
+		this.store.save();
+	}
+
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.asm.AnnotationVisitor;
+import org.springframework.asm.ClassReader;
+import org.springframework.asm.ClassVisitor;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.SpringAsmInfo;
+import org.springframework.lang.Nullable;
+
+/**
+ * File-based store of the class files read by a {@link PersistentMetadataReaderFactory},
+ * stripped down to the parts that contribute to {@link SimpleAnnotationMetadata}: the
+ * class header, inner class entries, runtime-visible annotations and the methods
+ * declaring such annotations, without any code.
+ *
+ * <p>Entries are grouped per JAR file and only used as long as the size and last
+ * modification time of that JAR file match the ones recorded when storing them.
+ * An existing store file is read into a single buffer on creation, with entries being
+ * copied out on demand, so that it does not remain open while being replaced on save.
+ *
+ * @since 5.2
+ */
+class PersistentMetadataStore {
+
+	private static final int MAGIC = 0x534d4443;
+
+	private static final int VERSION = 1;
+
+	private static final Log logger = LogFactory.getLog(PersistentMetadataStore.class);
+
+
+	private final File file;
+
+	/** Valid entries loaded from the store file, per JAR path. */
+	private final Map<String, JarEntries> persistedEntries;
+
+	/** Entries recorded since the store file has been loaded, per JAR path. */
+	private final ConcurrentMap<String, JarEntries> recordedEntries = new ConcurrentHashMap<>();
+
+	private volatile boolean dirty;
+
+
+	PersistentMetadataStore(File file) {
+		this.file = file;
+		this.persistedEntries = load(file);
+	}
+
+
+	/**
+	 * Return the stripped class file stored for the given JAR entry, if any.
+	 * @param jarFile the JAR file
+	 * @param entryName the name of the entry within the JAR file
+	 */
+	@Nullable
+	byte[] get(File jarFile, String entryName) {
+		JarEntries entries = this.persistedEntries.get(jarFile.getPath());
+		byte[] classFile = (entries != null ? entries.get(entryName) : null);
+		if (classFile == null) {
+			entries = this.recordedEntries.get(jarFile.getPath());
+			classFile = (entries != null ? entries.get(entryName) : null);
+		}
+		return classFile;
+	}
+
+	/**
+	 * Record the given class file for the given JAR entry.
+	 * @param jarFile the JAR file
+	 * @param entryName the name of the entry within the JAR file
+	 * @param classReader the class file to strip and record
+	 */
+	void put(File jarFile, String entryName, ClassReader classReader) {
+		JarEntries entries = this.recordedEntries.computeIfAbsent(jarFile.getPath(),
+				path -> new JarEntries(jarFile.length(), jarFile.lastModified(), null, new ConcurrentHashMap<>()));
+		entries.entries.put(entryName, strip(classReader));
+		this.dirty = true;
+	}
+
+	/**
+	 * Write all valid entries to a temporary file which atomically replaces the store
+	 * file, where supported by the file system. Does nothing if no entries have been recorded or invalidated since loading.
+	 */
+	synchronized void save() throws IOException {
+		if (!this.dirty) {
+			return;
+		}
+		Map<String, Map<String, byte[]>> content = new HashMap<>();
+		Map<String, JarEntries> jars = new HashMap<>(this.persistedEntries);
+		jars.putAll(this.recordedEntries);
+		this.persistedEntries.forEach((path, entries) -> content.put(path, entries.copyEntries()));
+		this.recordedEntries.forEach((path, entries) -> {
+			JarEntries persisted = this.persistedEntries.get(path);
+			if (persisted != null && !persisted.isSameJar(entries)) {
+				// JAR file changed in the meantime
+				content.remove(path);
+			}
+			content.computeIfAbsent(path, key -> new HashMap<>()).putAll(entries.copyEntries());
+		});
+
+		File parent = this.file.getAbsoluteFile().getParentFile();
+		if (parent != null) {
+			Files.createDirectories(parent.toPath());
+		}
+		Path tempFile = Files.createTempFile(parent != null ? parent.toPath() : null, this.file.getName(), ".tmp");
+		try {
+			try (OutputStream out = Files.newOutputStream(tempFile)) {
+				write(content, jars, out);
+			}
+			try {
+				Files.move(tempFile, this.file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (AtomicMoveNotSupportedException ex) {
+				Files.move(tempFile, this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		finally {
+			Files.deleteIfExists(tempFile);
+		}
+		this.dirty = false;
+		if (logger.isDebugEnabled()) {
+			logger.debug("Stored class metadata for " + content.size() + " JAR file(s) in " + this.file);
+		}
+	}
+
+	private void write(Map<String, Map<String, byte[]>> content, Map<String, JarEntries> jars, OutputStream out)
+			throws IOException {
+
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(content.size());
+		for (Map.Entry<String, Map<String, byte[]>> jar : content.entrySet()) {
+			JarEntries jarEntries = jars.get(jar.getKey());
+			writeString(data, jar.getKey());
+			data.writeLong(jarEntries.size);
+			data.writeLong(jarEntries.lastModified);
+			data.writeInt(jar.getValue().size());
+			for (Map.Entry<String, byte[]> entry : jar.getValue().entrySet()) {
+				writeString(data, entry.getKey());
+				data.writeInt(entry.getValue().length);
+				data.write(entry.getValue());
+			}
+		}
+		data.flush();
+	}
+
+	private static void writeString(DataOutputStream data, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		data.writeInt(bytes.length);
+		data.write(bytes);
+	}
+
+
+	private static Map<String, JarEntries> load(File file) {
+		if (!file.isFile()) {
+			return Collections.emptyMap();
+		}
+		try {
+			// Not memory-mapped: a mapping would keep the file locked until garbage
+			// collection, preventing it from being replaced on some platforms
+			ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				throw new IOException("Unsupported class metadata store format");
+			}
+			Map<String, JarEntries> result = new HashMap<>();
+			int jarCount = buffer.getInt();
+			for (int i = 0; i < jarCount; i++) {
+				String path = readString(buffer);
+				long size = buffer.getLong();
+				long lastModified = buffer.getLong();
+				int entryCount = buffer.getInt();
+				Map<String, Object> entries = new HashMap<>(entryCount * 2);
+				for (int j = 0; j < entryCount; j++) {
+					String entryName = readString(buffer);
+					int length = buffer.getInt();
+					entries.put(entryName, new int[] {buffer.position(), length});
+					buffer.position(buffer.position() + length);
+				}
+				File jarFile = new File(path);
+				if (jarFile.length() == size && jarFile.lastModified() == lastModified) {
+					result.put(path, new JarEntries(size, lastModified, buffer, entries));
+				}
+			}
+			return result;
+		}
+		catch (IOException | BufferUnderflowException | IllegalArgumentException ex) {
+			// An unreadable store is simply rebuilt on the next save
+			if (logger.isInfoEnabled()) {
+				logger.info("Ignoring invalid class metadata store " + file, ex);
+			}
+			return Collections.emptyMap();
+		}
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+
+	/**
+	 * Strip the given class file down to what {@link SimpleAnnotationMetadataReadingVisitor}
+	 * makes use of.
+	 */
+	static byte[] strip(ClassReader classReader) {
+		ClassWriter writer = new ClassWriter(0);
+		classReader.accept(new StrippingClassVisitor(writer), SimpleMetadataReader.PARSING_OPTIONS);
+		return writer.toByteArray();
+	}
+
+
+	/**
+	 * The entries of a single JAR file, either backed by the store file, as
+	 * {@code int[] {offset, length}} pairs into the buffer holding the store file, or by
+	 * in-memory {@code byte[]} content.
+	 */
+	private static class JarEntries {
+
+		final long size;
+
+		final long lastModified;
+
+		@Nullable
+		final ByteBuffer buffer;
+
+		final Map<String, Object> entries;
+
+		@SuppressWarnings("unchecked")
+		JarEntries(long size, long lastModified, @Nullable ByteBuffer buffer, Map<String, ?> entries) {
+			this.size = size;
+			this.lastModified = lastModified;
+			this.buffer = buffer;
+			this.entries = (Map<String, Object>) entries;
+		}
+
+		@Nullable
+		byte[] get(String entryName) {
+			Object entry = this.entries.get(entryName);
+			if (entry instanceof byte[]) {
+				return (byte[]) entry;
+			}
+			if (entry instanceof int[] && this.buffer != null) {
+				int[] location = (int[]) entry;
+				byte[] classFile = new byte[location[1]];
+				ByteBuffer buffer = this.buffer.duplicate();
+				buffer.position(location[0]);
+				buffer.get(classFile);
+				return classFile;
+			}
+			return null;
+		}
+
+		boolean isSameJar(JarEntries other) {
+			return (this.size == other.size && this.lastModified == other.lastModified);
+		}
+
+		Map<String, byte[]> copyEntries() {
+			Map<String, byte[]> result = new HashMap<>(this.entries.size() * 2);
+			for (String entryName : this.entries.keySet()) {
+				byte[] classFile = get(entryName);
+				if (classFile != null) {
+					result.put(entryName, classFile);
+				}
+			}
+			return result;
+		}
+	}
+
+
+	/**
+	 * {@link ClassVisitor} that only copies the parts of a class file that
+	 * contribute to its {@link SimpleAnnotationMetadata} to a {@link ClassWriter}.
+	 */
+	private static class StrippingClassVisitor extends ClassVisitor {
+
+		private final ClassWriter writer;
+
+		StrippingClassVisitor(ClassWriter writer) {
+			super(SpringAsmInfo.ASM_VERSION);
+			this.writer = writer;
+		}
+
+		@Override
+		public void visit(int version, int access, String name, String signature,
+				@Nullable String supername, String[] interfaces) {
+
+			this.writer.visit(version, access, name, null, supername, interfaces);
+		}
+
+		@Override
+		public void visitOuterClass(String owner, String name, String descriptor) {
+			this.writer.visitOuterClass(owner, name, descriptor);
+		}
+
+		@Override
+		public void visitInnerClass(String name, @Nullable String outerName, String innerName, int access) {
+			this.writer.visitInnerClass(name, outerName, innerName, access);
+		}
+
+		@Override
+		@Nullable
+		public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+			return (visible ? this.writer.visitAnnotation(descriptor, true) : null);
+		}
+
+		@Override
+		public MethodVisitor visitMethod(
+				int access, String name, String descriptor, String signature, String[] exceptions) {
+
+			return new MethodVisitor(SpringAsmInfo.ASM_VERSION) {
+				@Nullable
+				private MethodVisitor methodWriter;
+
+				@Override
+				@Nullable
+				public AnnotationVisitor visitAnnotation(String annotationDescriptor, boolean visible) {
+					if (!visible) {
+						return null;
+					}
+					if (this.methodWriter == null) {
+						// Only keep methods that declare annotations
+						this.methodWriter = writer.visitMethod(access, name, descriptor, null, null);
+					}
+					return this.methodWriter.visitAnnotation(annotationDescriptor, true);
+				}
+
+				@Override
+				public void visitEnd() {
+					if (this.methodWriter != null) {
+						this.methodWriter.visitEnd();
+					}
+				}
+			};
+		}
+
+		@Override
+		public void visitEnd() {
+			this.writer.visitEnd();
+		}
+	}
+
+}
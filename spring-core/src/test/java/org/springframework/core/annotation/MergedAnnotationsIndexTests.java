@@ -0,0 +1,193 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.annotation;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.OverridingClassLoader;
+import org.springframework.core.annotation.MergedAnnotations.SearchStrategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link MergedAnnotationsIndex}.
+ */
+class MergedAnnotationsIndexTests {
+
+	@TempDir
+	Path tempDir;
+
+
+	@AfterEach
+	void clearCache() {
+		MergedAnnotationsIndex.clearCache();
+	}
+
+	@Test
+	void knownAbsentAnnotations() throws IOException {
+		MergedAnnotationsIndex index = MergedAnnotationsIndex.load(classLoaderFor(
+				writeIndex("first", new String[] {"com.example.X", "com.example.Y"},
+						"com.example.A", 0, 1, "com.example.B", 1, "com.example.C")));
+
+		assertThat(index.isKnownAbsent("com.example.A", "com.example.X")).isFalse();
+		assertThat(index.isKnownAbsent("com.example.A", "com.example.Y")).isFalse();
+		assertThat(index.isKnownAbsent("com.example.B", "com.example.X")).isTrue();
+		assertThat(index.isKnownAbsent("com.example.B", "com.example.Z")).isTrue();
+		assertThat(index.isKnownAbsent("com.example.Unknown", "com.example.X")).isFalse();
+		assertThat(index.isKnownEmpty("com.example.C")).isTrue();
+		assertThat(index.isKnownEmpty("com.example.A")).isFalse();
+		assertThat(index.isKnownEmpty("com.example.Unknown")).isFalse();
+	}
+
+	@Test
+	void indexesMerged() throws IOException {
+		MergedAnnotationsIndex index = MergedAnnotationsIndex.load(classLoaderFor(
+				writeIndex("first", new String[] {"com.example.X"}, "com.example.A", 0),
+				writeIndex("second", new String[] {"com.example.Y"}, "com.example.A", 0, "com.example.B", 0)));
+
+		assertThat(index.isKnownAbsent("com.example.A", "com.example.X")).isFalse();
+		assertThat(index.isKnownAbsent("com.example.A", "com.example.Y")).isFalse();
+		assertThat(index.isKnownAbsent("com.example.B", "com.example.X")).isTrue();
+		assertThat(index.isKnownAbsent("com.example.B", "com.example.Y")).isFalse();
+	}
+
+	@Test
+	void invalidIndexIgnored() throws IOException {
+		File file = this.tempDir.resolve("invalid").toFile();
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write(new byte[] {1, 2, 3});
+		}
+		MergedAnnotationsIndex index = MergedAnnotationsIndex.load(classLoaderFor(file));
+		assertThat(index.isKnownEmpty("com.example.A")).isFalse();
+	}
+
+	@Test
+	@EnabledIfSystemProperty(named = MergedAnnotationsIndex.ENABLE_INDEX, matches = "true")
+	void mergedAnnotationsConsultIndexWhenEnabled() throws Exception {
+		Class<?> type = loadIndexed(writeIndex("empty", new String[0], Indexed.class.getName()));
+		// The index was generated before @IndexedAnnotation was added
+		assertThat(MergedAnnotations.from(type).isPresent(IndexedAnnotation.class)).isFalse();
+		assertThat(MergedAnnotations.from(type, SearchStrategy.TYPE_HIERARCHY_AND_ENCLOSING_CLASSES)
+				.isPresent(IndexedAnnotation.class)).isTrue();
+	}
+
+	@Test
+	@DisabledIfSystemProperty(named = MergedAnnotationsIndex.ENABLE_INDEX, matches = "true")
+	void mergedAnnotationsIgnoreIndexByDefault() throws Exception {
+		Class<?> type = loadIndexed(writeIndex("empty", new String[0], Indexed.class.getName()));
+		assertThat(MergedAnnotations.from(type).isPresent(IndexedAnnotation.class)).isTrue();
+		assertThat(MergedAnnotations.from(type).get(IndexedAnnotation.class).isPresent()).isTrue();
+	}
+
+
+	/**
+	 * Write an index with the given annotation names, followed by class names
+	 * each followed by the ids of their annotations.
+	 */
+	private File writeIndex(String name, String[] annotationNames, Object... classes) throws IOException {
+		File file = this.tempDir.resolve(name).toFile();
+		try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+			out.writeInt(0x53414958);
+			out.writeByte(1);
+			out.writeByte(annotationNames.length);
+			for (String annotationName : annotationNames) {
+				out.writeUTF(annotationName);
+			}
+			List<List<Object>> entries = new ArrayList<>();
+			for (Object element : classes) {
+				if (element instanceof String) {
+					entries.add(new ArrayList<>());
+				}
+				entries.get(entries.size() - 1).add(element);
+			}
+			out.writeByte(entries.size());
+			for (List<Object> entry : entries) {
+				out.writeUTF((String) entry.get(0));
+				out.writeByte(entry.size() - 1);
+				int previous = 0;
+				for (int i = 1; i < entry.size(); i++) {
+					int id = (Integer) entry.get(i);
+					out.writeByte(id - previous);
+					previous = id;
+				}
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Load a copy of {@link Indexed} through a class loader that exposes the given index.
+	 */
+	private Class<?> loadIndexed(File index) throws ClassNotFoundException {
+		ClassLoader classLoader = new OverridingClassLoader(classLoaderFor(index)) {
+			@Override
+			protected boolean isEligibleForOverriding(String className) {
+				return Indexed.class.getName().equals(className);
+			}
+		};
+		Class<?> type = classLoader.loadClass(Indexed.class.getName());
+		assertThat(type).isNotSameAs(Indexed.class);
+		return type;
+	}
+
+	private ClassLoader classLoaderFor(File... files) {
+		return new ClassLoader(getClass().getClassLoader()) {
+			@Override
+			public Enumeration<URL> getResources(String name) throws IOException {
+				if (!MergedAnnotationsIndex.INDEX_LOCATION.equals(name)) {
+					return super.getResources(name);
+				}
+				List<URL> urls = new ArrayList<>();
+				for (File file : files) {
+					urls.add(file.toURI().toURL());
+				}
+				return Collections.enumeration(urls);
+			}
+		};
+	}
+
+}
+
+
+@Retention(RetentionPolicy.RUNTIME)
+@interface IndexedAnnotation {
+}
+
+
+/**
+ * Top-level class, so that a copy can be loaded by a different class loader.
+ */
+@IndexedAnnotation
+class Indexed {
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.core.type.classreading;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.type.AbstractAnnotationMetadataTests;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link PersistentMetadataReaderFactory}, running the
+ * {@link AnnotationMetadata} tests against metadata read back from the store.
+ */
+class PersistentMetadataReaderFactoryTests extends AbstractAnnotationMetadataTests {
+
+	@TempDir
+	Path tempDir;
+
+
+	@Override
+	protected AnnotationMetadata get(Class<?> source) {
+		try {
+			File jarFile = createJar(source.getName(), source);
+			File storeFile = getStoreFile();
+			PersistentMetadataReaderFactory factory = new PersistentMetadataReaderFactory(
+					storeFile, source.getClassLoader());
+			factory.getMetadataReader(getJarResource(jarFile, source.getName()));
+			factory.save();
+			return new PersistentMetadataReaderFactory(storeFile, source.getClassLoader())
+					.getMetadataReader(getStoredOnlyResource(jarFile, source.getName())).getAnnotationMetadata();
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	@Test
+	void storedMetadataIgnoredWhenJarFileChanged() throws IOException {
+		File jarFile = createJar(getClass().getName(), ClassUtils.class);
+		PersistentMetadataReaderFactory factory = new PersistentMetadataReaderFactory(getStoreFile());
+		assertThat(factory.getMetadataReader(getJarResource(jarFile, getClass().getName()))
+				.getClassMetadata().getClassName()).isEqualTo(ClassUtils.class.getName());
+		factory.save();
+
+		createJar(getClass().getName(), StreamUtils.class);
+		assertThat(jarFile.setLastModified(jarFile.lastModified() + 10_000)).isTrue();
+		factory = new PersistentMetadataReaderFactory(getStoreFile());
+		assertThat(factory.getMetadataReader(getJarResource(jarFile, getClass().getName()))
+				.getClassMetadata().getClassName()).isEqualTo(StreamUtils.class.getName());
+	}
+
+	@Test
+	void storeFileReplacedWithLoadedAndRecordedEntries() throws IOException {
+		File jarFile = createJar(getClass().getName(), ClassUtils.class);
+		File otherJarFile = createJar(StreamUtils.class.getName(), StreamUtils.class);
+		PersistentMetadataReaderFactory factory = new PersistentMetadataReaderFactory(getStoreFile());
+		factory.getMetadataReader(getJarResource(jarFile, getClass().getName()));
+		factory.save();
+
+		factory = new PersistentMetadataReaderFactory(getStoreFile());
+		factory.getMetadataReader(getJarResource(otherJarFile, StreamUtils.class.getName()));
+		factory.save();
+
+		factory = new PersistentMetadataReaderFactory(getStoreFile());
+		assertThat(factory.getMetadataReader(getStoredOnlyResource(jarFile, getClass().getName()))
+				.getClassMetadata().getClassName()).isEqualTo(ClassUtils.class.getName());
+		assertThat(factory.getMetadataReader(getStoredOnlyResource(otherJarFile, StreamUtils.class.getName()))
+				.getClassMetadata().getClassName()).isEqualTo(StreamUtils.class.getName());
+		assertThat(this.tempDir.toFile().list((dir, name) -> name.endsWith(".tmp"))).isEmpty();
+	}
+
+	@Test
+	void metadataFromDirectoriesNotStored() throws IOException {
+		PersistentMetadataReaderFactory factory = new PersistentMetadataReaderFactory(getStoreFile());
+		MetadataReader metadataReader = factory.getMetadataReader(new ClassPathResource(
+				ClassUtils.convertClassNameToResourcePath(getClass().getName()) + ClassUtils.CLASS_FILE_SUFFIX));
+		assertThat(metadataReader.getClassMetadata().getClassName()).isEqualTo(getClass().getName());
+		factory.save();
+		assertThat(getStoreFile()).doesNotExist();
+	}
+
+	@Test
+	void metadataReadersCachedInMemory() throws IOException {
+		File jarFile = createJar(getClass().getName(), getClass());
+		PersistentMetadataReaderFactory factory = new PersistentMetadataReaderFactory(getStoreFile());
+		Resource resource = getJarResource(jarFile, getClass().getName());
+		assertThat(factory.getMetadataReader(resource)).isSameAs(factory.getMetadataReader(resource));
+	}
+
+	@Test
+	void metadataReadersReleasedOnClearCache() throws IOException {
+		File jarFile = createJar(getClass().getName(), getClass());
+		PersistentMetadataReaderFactory factory = new PersistentMetadataReaderFactory(getStoreFile());
+		assertThat(factory).isInstanceOf(CachingMetadataReaderFactory.class);
+		Resource resource = getJarResource(jarFile, getClass().getName());
+		MetadataReader metadataReader = factory.getMetadataReader(resource);
+
+		factory.clearCache();
+		assertThat(factory.getMetadataReader(resource)).isNotSameAs(metadataReader);
+		factory.save();
+		assertThat(getStoreFile()).exists();
+	}
+
+
+	private File getStoreFile() {
+		return this.tempDir.resolve("metadata").toFile();
+	}
+
+	/**
+	 * Create a JAR file holding the class file of the given type as the entry
+	 * for the given class name.
+	 */
+	private File createJar(String className, Class<?> type) throws IOException {
+		File jarFile = this.tempDir.resolve(className + ".jar").toFile();
+		try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jarFile))) {
+			out.putNextEntry(new JarEntry(getEntryName(className)));
+			try (InputStream in = new ClassPathResource(getEntryName(type.getName())).getInputStream()) {
+				StreamUtils.copy(in, out);
+			}
+			out.closeEntry();
+		}
+		return jarFile;
+	}
+
+	private static Resource getJarResource(File jarFile, String className) throws IOException {
+		return new UrlResource(getJarUrl(jarFile, className));
+	}
+
+	private static Resource getStoredOnlyResource(File jarFile, String className) throws IOException {
+		return new UrlResource(getJarUrl(jarFile, className)) {
+			@Override
+			public InputStream getInputStream() throws IOException {
+				throw new IOException("Metadata should have been read from the store");
+			}
+		};
+	}
+
+	private static URL getJarUrl(File jarFile, String className) throws IOException {
+		return new URL("jar:" + jarFile.toURI() + "!/" + getEntryName(className));
+	}
+
+	private static String getEntryName(String className) {
+		return ClassUtils.convertClassNameToResourcePath(className) + ClassUtils.CLASS_FILE_SUFFIX;
+	}
+
+}
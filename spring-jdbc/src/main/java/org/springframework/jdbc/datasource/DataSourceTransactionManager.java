@@ -18,10 +18,14 @@ package org.springframework.jdbc.datasource;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
 
 import javax.sql.DataSource;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.CannotCreateTransactionException;
@@ -30,6 +34,7 @@ import org.springframework.transaction.TransactionSystemException;
 import org.springframework.transaction.support.AbstractPlatformTransactionManager;
 import org.springframework.transaction.support.DefaultTransactionStatus;
 import org.springframework.transaction.support.ResourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.transaction.support.TransactionSynchronizationUtils;
 import org.springframework.util.Assert;
@@ -98,6 +103,10 @@ import org.springframework.util.Assert;
  * setup analogous to {@code JtaTransactionManager}, in particular with respect to
  * lazily registered ORM resources (e.g. a Hibernate {@code Session}).
  *
+ * <p>As of 5.2, this transaction manager can optionally coalesce tiny
+ * {@link #isDeferrable deferrable} transactions into shared physical transactions
+ * ("group commit"), see {@link #setGroupCommitSize}.
+ *
  * @author Juergen Hoeller
  * @since 02.05.2003
  * @see #setNestedTransactionAllowed
@@ -111,13 +120,20 @@ import org.springframework.util.Assert;
  */
 @SuppressWarnings("serial")
 public class DataSourceTransactionManager extends AbstractPlatformTransactionManager
-		implements ResourceTransactionManager, InitializingBean {
+		implements ResourceTransactionManager, InitializingBean, DisposableBean {
 
 	@Nullable
 	private DataSource dataSource;
 
 	private boolean enforceReadOnly = false;
 
+	private int groupCommitSize = 0;
+
+	private long groupCommitDelay = 10;
+
+	@Nullable
+	private transient volatile DeferredCommitGroup deferredCommitGroup;
+
 
 	/**
 	 * Create a new DataSourceTransactionManager instance.
@@ -220,6 +236,71 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 		return this.enforceReadOnly;
 	}
 
+	/**
+	 * Specify the maximum number of {@link #isDeferrable deferrable} transactions
+	 * to coalesce into a single physical transaction ("group commit").
+	 * <p>Deferrable transactions take turns on a shared JDBC Connection, each one
+	 * starting from a savepoint so that it can still be rolled back individually.
+	 * Their commit merely records them as pending; the physical transaction is
+	 * committed once the given number of transactions is pending or once the
+	 * oldest of them has been pending for the {@link #setGroupCommitDelay
+	 * group commit delay}, trading commit latency for fewer round trips and
+	 * log flushes in the database.
+	 * <p>{@code afterCommit} and {@code afterCompletion} callbacks of deferrable
+	 * transactions are invoked once the physical transaction completed, with its
+	 * actual outcome, potentially on a different thread. A commit of a deferrable
+	 * transaction therefore does not guarantee durability by itself: use such
+	 * callbacks for anything that depends on the data having been committed.
+	 * <p>A deferrable transaction holds the shared Connection until it completes;
+	 * other deferrable transactions wait for it for at most the group commit delay
+	 * before falling back to a regular transaction. Transactions that start other
+	 * transactions (e.g. with {@code PROPAGATION_REQUIRES_NEW}) are best excluded
+	 * through {@link #isDeferrable}: the inner transaction may have to wait for
+	 * locks held by the shared physical transaction. Once detected, transactions
+	 * with the same {@link TransactionDefinition#getName() name} are not deferred
+	 * anymore.
+	 * <p>Default is 0, i.e. group commit is disabled.
+	 * @since 5.2
+	 * @see #setGroupCommitDelay
+	 * @see #isDeferrable
+	 */
+	public void setGroupCommitSize(int groupCommitSize) {
+		Assert.isTrue(groupCommitSize >= 0, "Group commit size must not be negative");
+		this.groupCommitSize = groupCommitSize;
+		resetDeferredCommitGroup();
+	}
+
+	/**
+	 * Return the maximum number of deferrable transactions to coalesce
+	 * into a single physical transaction, or 0 if group commit is disabled.
+	 * @since 5.2
+	 */
+	public int getGroupCommitSize() {
+		return this.groupCommitSize;
+	}
+
+	/**
+	 * Specify the maximum time in milliseconds that a committed deferrable
+	 * transaction may remain pending before the physical transaction gets
+	 * committed. Default is 10.
+	 * @since 5.2
+	 * @see #setGroupCommitSize
+	 */
+	public void setGroupCommitDelay(long groupCommitDelay) {
+		Assert.isTrue(groupCommitDelay > 0, "Group commit delay must be greater than 0");
+		this.groupCommitDelay = groupCommitDelay;
+		resetDeferredCommitGroup();
+	}
+
+	/**
+	 * Return the maximum time in milliseconds that a committed deferrable
+	 * transaction may remain pending.
+	 * @since 5.2
+	 */
+	public long getGroupCommitDelay() {
+		return this.groupCommitDelay;
+	}
+
 	@Override
 	public void afterPropertiesSet() {
 		if (getDataSource() == null) {
@@ -227,6 +308,31 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 		}
 	}
 
+	/**
+	 * Commit any pending deferrable transactions on shutdown.
+	 * @since 5.2
+	 * @see #setGroupCommitSize
+	 */
+	@Override
+	public void destroy() {
+		resetDeferredCommitGroup();
+	}
+
+	/**
+	 * Shut down the current group of deferrable transactions, if any,
+	 * committing its pending transactions and stopping its background flush.
+	 */
+	private void resetDeferredCommitGroup() {
+		DeferredCommitGroup group;
+		synchronized (this) {
+			group = this.deferredCommitGroup;
+			this.deferredCommitGroup = null;
+		}
+		if (group != null) {
+			group.shutdown();
+		}
+	}
+
 
 	@Override
 	public Object getResourceFactory() {
@@ -255,8 +361,21 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 	@Override
 	protected void doBegin(Object transaction, TransactionDefinition definition) {
 		DataSourceTransactionObject txObject = (DataSourceTransactionObject) transaction;
-		Connection con = null;
+		if (!txObject.hasConnectionHolder() && isDeferrable(definition)) {
+			DeferredCommitGroup group = obtainDeferredCommitGroup();
+			if (group.join(definition.getName())) {
+				doBeginDeferred(txObject, group);
+				return;
+			}
+		}
+		DeferredCommitGroup group = this.deferredCommitGroup;
+		if (group != null && group.isHeldByCurrentThread()) {
+			// Another transaction within a deferrable one: it may have to wait for locks
+			// held by the shared physical transaction, so don't defer the outer one again.
+			group.disableDeferralForCurrentTransaction();
+		}
 
+		Connection con = null;
 		try {
 			if (!txObject.hasConnectionHolder() ||
 					txObject.getConnectionHolder().isSynchronizedWithTransaction()) {
@@ -307,6 +426,50 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 		}
 	}
 
+	private void doBeginDeferred(DataSourceTransactionObject txObject, DeferredCommitGroup group) {
+		try {
+			ConnectionHolder conHolder = group.obtainConnectionHolder();
+			Savepoint savepoint = conHolder.getConnection().setSavepoint();
+			txObject.setConnectionHolder(conHolder, false);
+			txObject.setDeferredCommitGroup(group, savepoint);
+			conHolder.setSynchronizedWithTransaction(true);
+			conHolder.setTransactionActive(true);
+			TransactionSynchronizationManager.bindResource(obtainDataSource(), conHolder);
+		}
+		catch (Throwable ex) {
+			txObject.setConnectionHolder(null, false);
+			txObject.setDeferredCommitGroup(null, null);
+			group.abort();
+			throw new CannotCreateTransactionException("Could not join group-committed JDBC transaction", ex);
+		}
+	}
+
+	private void releaseDeferredCommitSavepoint(DataSourceTransactionObject txObject) {
+		Savepoint savepoint = txObject.getDeferredCommitSavepoint();
+		if (savepoint != null) {
+			try {
+				txObject.getConnectionHolder().getConnection().releaseSavepoint(savepoint);
+			}
+			catch (Throwable ex) {
+				logger.debug("Could not explicitly release JDBC savepoint", ex);
+			}
+		}
+	}
+
+	private DeferredCommitGroup obtainDeferredCommitGroup() {
+		DeferredCommitGroup group = this.deferredCommitGroup;
+		if (group == null) {
+			synchronized (this) {
+				group = this.deferredCommitGroup;
+				if (group == null) {
+					group = new DeferredCommitGroup(obtainDataSource(), this.groupCommitSize, this.groupCommitDelay);
+					this.deferredCommitGroup = group;
+				}
+			}
+		}
+		return group;
+	}
+
 	@Override
 	protected Object doSuspend(Object transaction) {
 		DataSourceTransactionObject txObject = (DataSourceTransactionObject) transaction;
@@ -322,6 +485,24 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 	@Override
 	protected void doCommit(DefaultTransactionStatus status) {
 		DataSourceTransactionObject txObject = (DataSourceTransactionObject) status.getTransaction();
+		DeferredCommitGroup group = txObject.getDeferredCommitGroup();
+		if (group != null) {
+			releaseDeferredCommitSavepoint(txObject);
+			// Hand our synchronizations over to the group, to be notified of the
+			// outcome of the physical transaction rather than right away.
+			List<TransactionSynchronization> synchronizations = Collections.emptyList();
+			if (status.isNewSynchronization()) {
+				synchronizations = TransactionSynchronizationManager.getSynchronizations();
+				TransactionSynchronizationManager.clearSynchronization();
+				TransactionSynchronizationManager.initSynchronization();
+			}
+			if (status.isDebug()) {
+				logger.debug("Deferring commit of JDBC transaction to group commit");
+			}
+			group.addCommitted(synchronizations);
+			return;
+		}
+
 		Connection con = txObject.getConnectionHolder().getConnection();
 		if (status.isDebug()) {
 			logger.debug("Committing JDBC transaction on Connection [" + con + "]");
@@ -341,10 +522,23 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 		if (status.isDebug()) {
 			logger.debug("Rolling back JDBC transaction on Connection [" + con + "]");
 		}
+		DeferredCommitGroup group = txObject.getDeferredCommitGroup();
+		Savepoint savepoint = txObject.getDeferredCommitSavepoint();
 		try {
-			con.rollback();
+			if (savepoint != null) {
+				con.rollback(savepoint);
+				releaseDeferredCommitSavepoint(txObject);
+			}
+			else {
+				con.rollback();
+			}
 		}
 		catch (SQLException ex) {
+			if (group != null) {
+				// The physical transaction may be gone: roll it back as a whole,
+				// rather than committing the other pending transactions later on.
+				group.markFailed();
+			}
 			throw new TransactionSystemException("Could not roll back JDBC transaction", ex);
 		}
 	}
@@ -363,6 +557,15 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 	protected void doCleanupAfterCompletion(Object transaction) {
 		DataSourceTransactionObject txObject = (DataSourceTransactionObject) transaction;
 
+		DeferredCommitGroup group = txObject.getDeferredCommitGroup();
+		if (group != null) {
+			// Leave the shared connection to the next deferrable transaction.
+			TransactionSynchronizationManager.unbindResource(obtainDataSource());
+			txObject.getConnectionHolder().clear();
+			group.leave();
+			return;
+		}
+
 		// Remove the connection holder from the thread, if exposed.
 		if (txObject.isNewConnectionHolder()) {
 			TransactionSynchronizationManager.unbindResource(obtainDataSource());
@@ -416,6 +619,26 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 	}
 
 
+	/**
+	 * Determine whether the given transaction may be coalesced with other
+	 * transactions into a shared physical transaction.
+	 * <p>The default implementation accepts all transactions with default
+	 * isolation level and timeout that are not read-only, provided that
+	 * group commit has been enabled through {@link #setGroupCommitSize}.
+	 * Override this method to restrict group commit to specific transactions,
+	 * e.g. based on {@link TransactionDefinition#getName() their name}.
+	 * @param definition the definition of the transaction to begin
+	 * @return {@code true} to defer the commit of the transaction
+	 * @since 5.2
+	 * @see #setGroupCommitSize
+	 */
+	protected boolean isDeferrable(TransactionDefinition definition) {
+		return (this.groupCommitSize > 0 && !definition.isReadOnly() &&
+				definition.getIsolationLevel() == TransactionDefinition.ISOLATION_DEFAULT &&
+				determineTimeout(definition) == TransactionDefinition.TIMEOUT_DEFAULT);
+	}
+
+
 	/**
 	 * DataSource transaction object, representing a ConnectionHolder.
 	 * Used as transaction object by DataSourceTransactionManager.
@@ -426,6 +649,12 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 
 		private boolean mustRestoreAutoCommit;
 
+		@Nullable
+		private DeferredCommitGroup deferredCommitGroup;
+
+		@Nullable
+		private Savepoint deferredCommitSavepoint;
+
 		public void setConnectionHolder(@Nullable ConnectionHolder connectionHolder, boolean newConnectionHolder) {
 			super.setConnectionHolder(connectionHolder);
 			this.newConnectionHolder = newConnectionHolder;
@@ -443,6 +672,21 @@ public class DataSourceTransactionManager extends AbstractPlatformTransactionMan
 			return this.mustRestoreAutoCommit;
 		}
 
+		public void setDeferredCommitGroup(@Nullable DeferredCommitGroup group, @Nullable Savepoint savepoint) {
+			this.deferredCommitGroup = group;
+			this.deferredCommitSavepoint = savepoint;
+		}
+
+		@Nullable
+		public DeferredCommitGroup getDeferredCommitGroup() {
+			return this.deferredCommitGroup;
+		}
+
+		@Nullable
+		public Savepoint getDeferredCommitSavepoint() {
+			return this.deferredCommitSavepoint;
+		}
+
 		public void setRollbackOnly() {
 			getConnectionHolder().setRollbackOnly();
 		}
@@ -0,0 +1,415 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+/**
+ * Coordinates the deferrable transactions of a {@link DataSourceTransactionManager}
+ * that are coalesced into a shared physical JDBC transaction.
+ *
+ * <p>Logical transactions take turns on a single shared Connection, each of them
+ * starting from a savepoint so that it can be rolled back individually. Committed
+ * logical transactions are only recorded, together with their synchronizations;
+ * the physical transaction is committed once a given number of logical transactions
+ * is pending or the oldest of them has been pending for a given delay, either by the
+ * thread completing a logical transaction or by a background flush. Deferred
+ * {@code afterCommit} / {@code afterCompletion} callbacks are then invoked with
+ * the actual outcome of the physical transaction, on the flushing thread once it
+ * has handed the shared Connection over to the next logical transaction. If the
+ * shared Connection fails, the physical transaction is rolled back as a whole and
+ * all pending logical transactions are notified accordingly.
+ *
+ * <p>A logical transaction holds the shared Connection for its entire duration.
+ * Threads waiting for it give up after the commit delay, falling back to a
+ * regular transaction. A logical transaction that starts another transaction
+ * (which might have to wait for locks held by the physical transaction) is
+ * remembered by name, and transactions of that name are not deferred anymore.
+ *
+ * @since 5.2
+ * @see DataSourceTransactionManager#setGroupCommitSize
+ */
+final class DeferredCommitGroup {
+
+	private static final Log logger = LogFactory.getLog(DeferredCommitGroup.class);
+
+	private static final Runnable NO_CALLBACKS = () -> { };
+
+
+	private final DataSource dataSource;
+
+	private final int maxTransactions;
+
+	private final long maxDelay;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Set<String> nonDeferrableNames = ConcurrentHashMap.newKeySet();
+
+	@Nullable
+	private ConnectionHolder connectionHolder;
+
+	@Nullable
+	private String currentName;
+
+	private boolean failed;
+
+	private boolean mustRestoreAutoCommit;
+
+	private final List<List<TransactionSynchronization>> pendingSynchronizations = new ArrayList<>();
+
+	private long firstPendingTime;
+
+	@Nullable
+	private volatile ScheduledExecutorService scheduler;
+
+	private boolean flushScheduled;
+
+	private boolean shutdown;
+
+
+	DeferredCommitGroup(DataSource dataSource, int maxTransactions, long maxDelay) {
+		this.dataSource = dataSource;
+		this.maxTransactions = maxTransactions;
+		this.maxDelay = maxDelay;
+	}
+
+
+	/**
+	 * Wait for the shared Connection to become available to the current thread,
+	 * for at most the commit delay.
+	 * @param name the name of the logical transaction, if any
+	 * @return {@code false} if the current thread already holds the shared Connection
+	 * for an outer logical transaction, if transactions of the given name have
+	 * started other transactions before, if the shared Connection did not become
+	 * available in time, or if this group has been shut down
+	 */
+	boolean join(@Nullable String name) {
+		if (this.lock.isHeldByCurrentThread() || (name != null && this.nonDeferrableNames.contains(name))) {
+			return false;
+		}
+		try {
+			if (!this.lock.tryLock(this.maxDelay, TimeUnit.MILLISECONDS)) {
+				return false;
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		if (this.shutdown) {
+			this.lock.unlock();
+			return false;
+		}
+		this.currentName = name;
+		return true;
+	}
+
+	/**
+	 * Return whether the current thread holds the shared Connection.
+	 */
+	boolean isHeldByCurrentThread() {
+		return this.lock.isHeldByCurrentThread();
+	}
+
+	/**
+	 * Stop deferring transactions with the name of the current logical transaction,
+	 * since it started another transaction. To be called by the thread holding
+	 * the shared Connection.
+	 */
+	void disableDeferralForCurrentTransaction() {
+		String name = this.currentName;
+		if (name != null && this.nonDeferrableNames.add(name) && logger.isDebugEnabled()) {
+			logger.debug("Transaction '" + name + "' started another transaction - " +
+					"not deferring its commit anymore");
+		}
+	}
+
+	/**
+	 * Mark the physical transaction as failed after the shared Connection turned
+	 * out to be unusable: it will be rolled back as a whole when the current
+	 * logical transaction leaves, notifying all pending logical transactions.
+	 * To be called by the thread holding the shared Connection.
+	 */
+	void markFailed() {
+		this.failed = true;
+	}
+
+	/**
+	 * Return the holder for the shared Connection, opening the physical
+	 * transaction if necessary. To be called after {@link #join()}.
+	 */
+	ConnectionHolder obtainConnectionHolder() throws SQLException {
+		ConnectionHolder conHolder = this.connectionHolder;
+		if (conHolder == null) {
+			Connection con = this.dataSource.getConnection();
+			if (logger.isDebugEnabled()) {
+				logger.debug("Acquired Connection [" + con + "] for group-committed JDBC transactions");
+			}
+			try {
+				this.mustRestoreAutoCommit = con.getAutoCommit();
+				if (this.mustRestoreAutoCommit) {
+					con.setAutoCommit(false);
+				}
+			}
+			catch (SQLException | RuntimeException ex) {
+				DataSourceUtils.releaseConnection(con, this.dataSource);
+				throw ex;
+			}
+			conHolder = new ConnectionHolder(con);
+			this.connectionHolder = conHolder;
+		}
+		return conHolder;
+	}
+
+	/**
+	 * Record a committed logical transaction, to be made durable with the next flush.
+	 * @param synchronizations the synchronizations of the logical transaction,
+	 * to be notified of the outcome of the physical transaction
+	 */
+	void addCommitted(List<TransactionSynchronization> synchronizations) {
+		this.pendingSynchronizations.add(synchronizations);
+		if (this.pendingSynchronizations.size() == 1) {
+			this.firstPendingTime = System.currentTimeMillis();
+			scheduleFlush();
+		}
+	}
+
+	/**
+	 * Hand the shared Connection over to the next logical transaction,
+	 * committing the physical transaction first if it is due.
+	 */
+	void leave() {
+		Runnable callbacks = NO_CALLBACKS;
+		try {
+			this.currentName = null;
+			if (this.failed) {
+				callbacks = completePhysicalTransaction(false);
+			}
+			else if (this.pendingSynchronizations.isEmpty()) {
+				// Nothing to make durable: don't hold on to the Connection
+				callbacks = completePhysicalTransaction(false);
+			}
+			else if (this.pendingSynchronizations.size() >= this.maxTransactions ||
+					System.currentTimeMillis() - this.firstPendingTime >= this.maxDelay) {
+				callbacks = completePhysicalTransaction(true);
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+		callbacks.run();
+	}
+
+	/**
+	 * Roll back the entire physical transaction after the shared Connection
+	 * turned out to be unusable. To be called after {@link #join()}.
+	 */
+	void abort() {
+		Runnable callbacks;
+		try {
+			this.currentName = null;
+			callbacks = completePhysicalTransaction(false);
+		}
+		finally {
+			this.lock.unlock();
+		}
+		callbacks.run();
+	}
+
+	/**
+	 * Commit pending logical transactions and stop the background flush.
+	 */
+	void shutdown() {
+		Runnable callbacks = NO_CALLBACKS;
+		this.lock.lock();
+		try {
+			this.shutdown = true;
+			if (this.connectionHolder != null) {
+				callbacks = completePhysicalTransaction(!this.pendingSynchronizations.isEmpty());
+			}
+			ScheduledExecutorService scheduler = this.scheduler;
+			if (scheduler != null) {
+				scheduler.shutdownNow();
+				this.scheduler = null;
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+		callbacks.run();
+	}
+
+	private void scheduleFlush() {
+		if (this.flushScheduled || this.shutdown) {
+			return;
+		}
+		ScheduledExecutorService scheduler = this.scheduler;
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "DeferredCommitGroup");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.scheduler = scheduler;
+		}
+		try {
+			scheduler.schedule(this::flushIfDue, this.maxDelay, TimeUnit.MILLISECONDS);
+			this.flushScheduled = true;
+		}
+		catch (RejectedExecutionException ex) {
+			// Only flushed by subsequent transactions then
+		}
+	}
+
+	private void flushIfDue() {
+		if (!this.lock.tryLock()) {
+			// A logical transaction is in progress: check again later, unless
+			// the current owner flushes when leaving
+			ScheduledExecutorService scheduler = this.scheduler;
+			if (scheduler != null) {
+				try {
+					scheduler.schedule(this::flushIfDue, Math.max(this.maxDelay / 2, 1), TimeUnit.MILLISECONDS);
+				}
+				catch (RejectedExecutionException ex) {
+					// Shut down in the meantime
+				}
+			}
+			return;
+		}
+		Runnable callbacks = NO_CALLBACKS;
+		try {
+			this.flushScheduled = false;
+			if (!this.pendingSynchronizations.isEmpty()) {
+				callbacks = completePhysicalTransaction(true);
+			}
+		}
+		finally {
+			this.lock.unlock();
+		}
+		callbacks.run();
+	}
+
+	/**
+	 * Commit or roll back the physical transaction and release the shared Connection.
+	 * @return the deferred callbacks of the pending logical transactions, to be
+	 * invoked once the lock has been released
+	 */
+	private Runnable completePhysicalTransaction(boolean commit) {
+		ConnectionHolder conHolder = this.connectionHolder;
+		this.failed = false;
+		if (conHolder == null) {
+			return NO_CALLBACKS;
+		}
+		this.connectionHolder = null;
+		Connection con = conHolder.getConnection();
+		boolean committed = false;
+		try {
+			if (commit) {
+				if (logger.isDebugEnabled()) {
+					logger.debug("Committing " + this.pendingSynchronizations.size() +
+							" group-committed JDBC transactions on Connection [" + con + "]");
+				}
+				con.commit();
+				committed = true;
+			}
+			else {
+				if (logger.isDebugEnabled() && !this.pendingSynchronizations.isEmpty()) {
+					logger.debug("Rolling back " + this.pendingSynchronizations.size() +
+							" group-committed JDBC transactions on Connection [" + con + "]");
+				}
+				con.rollback();
+			}
+		}
+		catch (SQLException ex) {
+			logger.error("Could not complete group-committed JDBC transactions - rolling back", ex);
+			try {
+				con.rollback();
+			}
+			catch (SQLException ex2) {
+				logger.debug("Could not roll back group-committed JDBC transactions", ex2);
+			}
+		}
+		finally {
+			try {
+				if (this.mustRestoreAutoCommit) {
+					con.setAutoCommit(true);
+				}
+			}
+			catch (Throwable ex) {
+				logger.debug("Could not reset JDBC Connection after transaction", ex);
+			}
+			DataSourceUtils.releaseConnection(con, this.dataSource);
+		}
+
+		List<List<TransactionSynchronization>> completed = new ArrayList<>(this.pendingSynchronizations);
+		this.pendingSynchronizations.clear();
+		if (completed.isEmpty()) {
+			return NO_CALLBACKS;
+		}
+		boolean outcome = committed;
+		return () -> {
+			for (List<TransactionSynchronization> synchronizations : completed) {
+				invokeCompletionCallbacks(synchronizations, outcome);
+			}
+		};
+	}
+
+	private void invokeCompletionCallbacks(List<TransactionSynchronization> synchronizations, boolean committed) {
+		if (synchronizations.isEmpty()) {
+			return;
+		}
+		try {
+			if (committed) {
+				try {
+					TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+				}
+				finally {
+					TransactionSynchronizationUtils.invokeAfterCompletion(
+							synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+				}
+			}
+			else {
+				TransactionSynchronizationUtils.invokeAfterCompletion(
+						synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+			}
+		}
+		catch (RuntimeException | Error ex) {
+			logger.error("Deferred afterCommit callback threw exception", ex);
+		}
+	}
+
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jdbc.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Integration tests for group commit support in {@link DataSourceTransactionManager}.
+ */
+public class DataSourceTransactionManagerGroupCommitTests {
+
+	private EmbeddedDatabase db;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private DataSourceTransactionManager tm;
+
+	private final List<Integer> completions = new CopyOnWriteArrayList<>();
+
+
+	@BeforeEach
+	public void setup() {
+		db = new EmbeddedDatabaseBuilder().generateUniqueName(true).setType(EmbeddedDatabaseType.H2).build();
+		jdbcTemplate = new JdbcTemplate(db);
+		jdbcTemplate.execute("CREATE TABLE item (id INT PRIMARY KEY)");
+		tm = new DataSourceTransactionManager(db);
+		tm.setGroupCommitSize(3);
+		tm.setGroupCommitDelay(60000);
+	}
+
+	@AfterEach
+	public void shutdown() {
+		tm.destroy();
+		db.shutdown();
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+	}
+
+
+	@Test
+	public void commitDeferredUntilGroupSizeReached() {
+		insert(1, false);
+		insert(2, false);
+		assertThat(completions).isEmpty();
+
+		insert(3, false);
+		assertThat(completions).containsExactly(TransactionSynchronization.STATUS_COMMITTED,
+				TransactionSynchronization.STATUS_COMMITTED, TransactionSynchronization.STATUS_COMMITTED);
+		assertThat(count()).isEqualTo(3);
+	}
+
+	@Test
+	public void rollbackOfDeferrableTransactionIsIsolated() {
+		insert(1, false);
+		insert(2, true);
+		assertThat(completions).containsExactly(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+		insert(3, false);
+		insert(4, false);
+		assertThat(completions).hasSize(4);
+		assertThat(jdbcTemplate.queryForList("SELECT id FROM item ORDER BY id", Integer.class))
+				.containsExactly(1, 3, 4);
+	}
+
+	@Test
+	public void pendingTransactionsCommittedOnDestroy() {
+		insert(1, false);
+		assertThat(completions).isEmpty();
+
+		tm.destroy();
+		assertThat(completions).containsExactly(TransactionSynchronization.STATUS_COMMITTED);
+		assertThat(count()).isEqualTo(1);
+	}
+
+	@Test
+	public void pendingTransactionsCommittedAfterDelay() throws Exception {
+		tm.setGroupCommitSize(100);
+		tm.setGroupCommitDelay(20);
+		CountDownLatch latch = new CountDownLatch(1);
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		tt.executeWithoutResult(status -> {
+			jdbcTemplate.update("INSERT INTO item VALUES (1)");
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCompletion(int status) {
+					latch.countDown();
+				}
+			});
+		});
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(count()).isEqualTo(1);
+	}
+
+	@Test
+	public void deferredCallbacksInvokedAfterSharedConnectionHandedOver() {
+		List<Boolean> joined = new CopyOnWriteArrayList<>();
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		tt.executeWithoutResult(status -> {
+			jdbcTemplate.update("INSERT INTO item VALUES (1)");
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					Thread thread = new Thread(() -> insert(4, false));
+					thread.start();
+					try {
+						thread.join(5000);
+					}
+					catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+					joined.add(!thread.isAlive());
+				}
+			});
+		});
+		insert(2, false);
+		insert(3, false);
+
+		assertThat(joined).containsExactly(true);
+		tm.destroy();
+		assertThat(count()).isEqualTo(4);
+	}
+
+	@Test
+	public void nonDeferrableTransactionCommittedImmediately() {
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		tt.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+		tt.executeWithoutResult(status -> {
+			jdbcTemplate.update("INSERT INTO item VALUES (1)");
+			registerCompletionCallback();
+		});
+		assertThat(completions).containsExactly(TransactionSynchronization.STATUS_COMMITTED);
+	}
+
+	@Test
+	public void nestedNewTransactionNotDeferred() {
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		TransactionTemplate inner = new TransactionTemplate(tm);
+		inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		tt.executeWithoutResult(status -> {
+			jdbcTemplate.update("INSERT INTO item VALUES (1)");
+			inner.executeWithoutResult(innerStatus -> {
+				jdbcTemplate.update("INSERT INTO item VALUES (2)");
+				registerCompletionCallback();
+			});
+			assertThat(completions).containsExactly(TransactionSynchronization.STATUS_COMMITTED);
+		});
+		assertThat(completions).hasSize(1);
+
+		tm.destroy();
+		assertThat(count()).isEqualTo(2);
+	}
+
+	@Test
+	public void nestedNewTransactionDisablesDeferralOfOuterTransaction() {
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		tt.setName("outer");
+		TransactionTemplate inner = new TransactionTemplate(tm);
+		inner.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		tt.executeWithoutResult(status -> {
+			jdbcTemplate.update("INSERT INTO item VALUES (1)");
+			inner.executeWithoutResult(innerStatus -> jdbcTemplate.update("INSERT INTO item VALUES (2)"));
+		});
+
+		tt.executeWithoutResult(status -> {
+			jdbcTemplate.update("INSERT INTO item VALUES (3)");
+			registerCompletionCallback();
+		});
+		assertThat(completions).containsExactly(TransactionSynchronization.STATUS_COMMITTED);
+	}
+
+	@Test
+	public void pendingTransactionsCommittedOnReconfiguration() {
+		insert(1, false);
+		assertThat(completions).isEmpty();
+
+		tm.setGroupCommitSize(5);
+		assertThat(completions).containsExactly(TransactionSynchronization.STATUS_COMMITTED);
+		assertThat(count()).isEqualTo(1);
+	}
+
+	@Test
+	public void failedRollbackToSavepointRollsBackPendingTransactions() throws Exception {
+		Connection con = mock(Connection.class);
+		Savepoint savepoint = mock(Savepoint.class);
+		DataSource ds = mock(DataSource.class);
+		given(ds.getConnection()).willReturn(con);
+		given(con.getAutoCommit()).willReturn(true);
+		given(con.setSavepoint()).willReturn(savepoint);
+		willThrow(new SQLException("Transaction aborted")).given(con).rollback(savepoint);
+
+		DataSourceTransactionManager tm = new DataSourceTransactionManager(ds);
+		tm.setGroupCommitSize(3);
+		tm.setGroupCommitDelay(60000);
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		tt.executeWithoutResult(status -> registerCompletionCallback());
+		verify(con).releaseSavepoint(savepoint);
+		assertThat(completions).isEmpty();
+
+		assertThatExceptionOfType(TransactionSystemException.class).isThrownBy(() ->
+				tt.executeWithoutResult(TransactionStatus::setRollbackOnly));
+		assertThat(completions).containsExactly(TransactionSynchronization.STATUS_ROLLED_BACK);
+		verify(con).rollback();
+		verify(con, never()).commit();
+		tm.destroy();
+	}
+
+
+	private void insert(int id, boolean rollback) {
+		TransactionTemplate tt = new TransactionTemplate(tm);
+		tt.executeWithoutResult(status -> {
+			jdbcTemplate.update("INSERT INTO item VALUES (?)", id);
+			registerCompletionCallback();
+			if (rollback) {
+				status.setRollbackOnly();
+			}
+		});
+	}
+
+	private void registerCompletionCallback() {
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCompletion(int status) {
+				completions.add(status);
+			}
+		});
+	}
+
+	private int count() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item", Integer.class);
+	}
+
+}
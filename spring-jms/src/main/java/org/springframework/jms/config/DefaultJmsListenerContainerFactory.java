@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package org.springframework.jms.config;
 
 import java.util.concurrent.Executor;
 
+import org.springframework.jms.listener.ConsumerScalingPolicy;
 import org.springframework.jms.listener.DefaultMessageListenerContainer;
 import org.springframework.lang.Nullable;
 import org.springframework.transaction.PlatformTransactionManager;
@@ -57,6 +58,15 @@ public class DefaultJmsListenerContainerFactory
 	@Nullable
 	private Long receiveTimeout;
 
+	@Nullable
+	private Integer batchSize;
+
+	@Nullable
+	private Long batchTimeout;
+
+	@Nullable
+	private ConsumerScalingPolicy consumerScalingPolicy;
+
 	@Nullable
 	private Long recoveryInterval;
 
@@ -113,6 +123,30 @@ public class DefaultJmsListenerContainerFactory
 		this.receiveTimeout = receiveTimeout;
 	}
 
+	/**
+	 * @since 5.2
+	 * @see DefaultMessageListenerContainer#setBatchSize
+	 */
+	public void setBatchSize(Integer batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * @since 5.2
+	 * @see DefaultMessageListenerContainer#setBatchTimeout
+	 */
+	public void setBatchTimeout(Long batchTimeout) {
+		this.batchTimeout = batchTimeout;
+	}
+
+	/**
+	 * @since 5.2
+	 * @see DefaultMessageListenerContainer#setConsumerScalingPolicy
+	 */
+	public void setConsumerScalingPolicy(ConsumerScalingPolicy consumerScalingPolicy) {
+		this.consumerScalingPolicy = consumerScalingPolicy;
+	}
+
 	/**
 	 * @see DefaultMessageListenerContainer#setRecoveryInterval
 	 */
@@ -158,6 +192,15 @@ public class DefaultJmsListenerContainerFactory
 		if (this.receiveTimeout != null) {
 			container.setReceiveTimeout(this.receiveTimeout);
 		}
+		if (this.batchSize != null) {
+			container.setBatchSize(this.batchSize);
+		}
+		if (this.batchTimeout != null) {
+			container.setBatchTimeout(this.batchTimeout);
+		}
+		if (this.consumerScalingPolicy != null) {
+			container.setConsumerScalingPolicy(this.consumerScalingPolicy);
+		}
 
 		if (this.backOff != null) {
 			container.setBackOff(this.backOff);
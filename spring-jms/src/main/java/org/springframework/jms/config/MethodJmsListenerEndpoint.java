@@ -26,7 +26,9 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.config.ConfigurableBeanFactory;
 import org.springframework.beans.factory.config.EmbeddedValueResolver;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.jms.listener.AbstractPollingMessageListenerContainer;
 import org.springframework.jms.listener.MessageListenerContainer;
+import org.springframework.jms.listener.adapter.BatchMessagingMessageListenerAdapter;
 import org.springframework.jms.listener.adapter.MessagingMessageListenerAdapter;
 import org.springframework.jms.support.QosSettings;
 import org.springframework.jms.support.converter.MessageConverter;
@@ -146,10 +148,18 @@ public class MethodJmsListenerEndpoint extends AbstractJmsListenerEndpoint imple
 	protected MessagingMessageListenerAdapter createMessageListener(MessageListenerContainer container) {
 		Assert.state(this.messageHandlerMethodFactory != null,
 				"Could not create message listener - MessageHandlerMethodFactory not set");
-		MessagingMessageListenerAdapter messageListener = createMessageListenerInstance();
 		Object bean = getBean();
 		Method method = getMethod();
 		Assert.state(bean != null && method != null, "No bean+method set on endpoint");
+		MessagingMessageListenerAdapter messageListener;
+		if (isBatchContainer(container) && isBatchListenerMethod(method)) {
+			Assert.state(void.class == method.getReturnType(), () -> "Batch listener method '" +
+					method.toGenericString() + "' must not return a value: replies are not supported for batches");
+			messageListener = createBatchMessageListenerInstance();
+		}
+		else {
+			messageListener = createMessageListenerInstance();
+		}
 		InvocableHandlerMethod invocableHandlerMethod =
 				this.messageHandlerMethodFactory.createInvocableHandlerMethod(bean, method);
 		messageListener.setHandlerMethod(invocableHandlerMethod);
@@ -185,6 +195,27 @@ public class MethodJmsListenerEndpoint extends AbstractJmsListenerEndpoint imple
 		return new MessagingMessageListenerAdapter();
 	}
 
+	/**
+	 * Create an empty {@link BatchMessagingMessageListenerAdapter} instance, used
+	 * for listener methods declaring a {@code List} or {@code Collection} payload
+	 * parameter if the container is configured to receive messages in batches.
+	 * @return a new {@code BatchMessagingMessageListenerAdapter} or subclass thereof
+	 * @since 5.2
+	 * @see AbstractPollingMessageListenerContainer#setBatchSize
+	 */
+	protected BatchMessagingMessageListenerAdapter createBatchMessageListenerInstance() {
+		return new BatchMessagingMessageListenerAdapter();
+	}
+
+	private boolean isBatchContainer(MessageListenerContainer container) {
+		return (container instanceof AbstractPollingMessageListenerContainer &&
+				((AbstractPollingMessageListenerContainer) container).getBatchSize() > 1);
+	}
+
+	private boolean isBatchListenerMethod(Method method) {
+		return (BatchMessagingMessageListenerAdapter.getBatchPayloadParameter(method) != null);
+	}
+
 	/**
 	 * Return the default response destination, if any.
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,6 +19,7 @@ package org.springframework.jms.connection;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
+import javax.jms.MessageProducer;
 import javax.jms.QueueConnection;
 import javax.jms.QueueConnectionFactory;
 import javax.jms.QueueSession;
@@ -101,6 +102,19 @@ public abstract class ConnectionFactoryUtils {
 		return sessionToUse;
 	}
 
+	/**
+	 * Determine whether the given MessageProducer is cached by a
+	 * {@link CachingConnectionFactory}, that is, not physically closed
+	 * when {@link MessageProducer#close()} is called.
+	 * @param producer the MessageProducer to check
+	 * @return whether the MessageProducer is a cached one
+	 * @since 5.2
+	 * @see CachingConnectionFactory#setCacheProducers
+	 */
+	public static boolean isCachedMessageProducer(MessageProducer producer) {
+		return (producer instanceof CachedMessageProducer);
+	}
+
 
 
 	/**
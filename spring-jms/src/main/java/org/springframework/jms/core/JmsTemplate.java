@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.jms.core;
 
+import java.util.concurrent.CompletableFuture;
+
+import javax.jms.CompletionListener;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.DeliveryMode;
@@ -30,6 +33,7 @@ import javax.jms.Session;
 import javax.jms.TemporaryQueue;
 
 import org.springframework.jms.JmsException;
+import org.springframework.jms.connection.CachingConnectionFactory;
 import org.springframework.jms.connection.ConnectionFactoryUtils;
 import org.springframework.jms.connection.JmsResourceHolder;
 import org.springframework.jms.support.JmsUtils;
@@ -118,6 +122,8 @@ public class JmsTemplate extends JmsDestinationAccessor implements JmsOperations
 
 	private long timeToLive = Message.DEFAULT_TIME_TO_LIVE;
 
+	private volatile boolean asyncSendChecked;
+
 
 	/**
 	 * Create a new JmsTemplate for bean-style usage.
@@ -636,6 +642,165 @@ public class JmsTemplate extends JmsDestinationAccessor implements JmsOperations
 	}
 
 
+	//---------------------------------------------------------------------------------------
+	// Convenience methods for sending messages asynchronously
+	//---------------------------------------------------------------------------------------
+
+	/**
+	 * Send a message to the default destination without waiting for the
+	 * JMS provider to acknowledge it.
+	 * <p>This will only work with a default destination specified!
+	 * @param messageCreator callback to create a message
+	 * @return a future completed once the JMS provider acknowledged the message
+	 * @throws JmsException checked JMSException converted to unchecked,
+	 * if the message could not be handed to the JMS provider
+	 * @since 5.2
+	 * @see #sendAsync(Destination, MessageCreator)
+	 */
+	public CompletableFuture<Void> sendAsync(MessageCreator messageCreator) throws JmsException {
+		Destination defaultDestination = getDefaultDestination();
+		if (defaultDestination != null) {
+			return sendAsync(defaultDestination, messageCreator);
+		}
+		else {
+			return sendAsync(getRequiredDefaultDestinationName(), messageCreator);
+		}
+	}
+
+	/**
+	 * Send a message to the specified destination without waiting for the
+	 * JMS provider to acknowledge it, using JMS 2.0 asynchronous send.
+	 * <p>The returned future is completed by the JMS provider, typically on a
+	 * thread of its own, so dependent actions should not block. If the session
+	 * is transacted, a commit waits for the acknowledgement of the message.
+	 * <p>Note that closing a Session or MessageProducer waits for outstanding
+	 * acknowledgements as well, turning this into a synchronous send unless
+	 * the Session and MessageProducer are cached. This method is therefore
+	 * meant to be used with a {@link CachingConnectionFactory} that has
+	 * {@link CachingConnectionFactory#setCacheProducers "cacheProducers"}
+	 * enabled; a warning is logged otherwise.
+	 * <p>Requires a JMS 2.0 compliant provider.
+	 * @param destination the destination to send this message to
+	 * @param messageCreator callback to create a message
+	 * @return a future completed once the JMS provider acknowledged the message,
+	 * or completed exceptionally with a {@link JmsException} if it failed
+	 * @throws JmsException checked JMSException converted to unchecked,
+	 * if the message could not be handed to the JMS provider
+	 * @since 5.2
+	 * @see javax.jms.MessageProducer#send(Message, CompletionListener)
+	 */
+	public CompletableFuture<Void> sendAsync(final Destination destination, final MessageCreator messageCreator)
+			throws JmsException {
+
+		return execute(session -> doSendAsync(session, destination, messageCreator), false);
+	}
+
+	/**
+	 * Send a message to the specified destination without waiting for the
+	 * JMS provider to acknowledge it, using JMS 2.0 asynchronous send.
+	 * @param destinationName the name of the destination to send this message to
+	 * (to be resolved to an actual destination by a DestinationResolver)
+	 * @param messageCreator callback to create a message
+	 * @return a future completed once the JMS provider acknowledged the message,
+	 * or completed exceptionally with a {@link JmsException} if it failed
+	 * @throws JmsException checked JMSException converted to unchecked,
+	 * if the message could not be handed to the JMS provider
+	 * @since 5.2
+	 * @see #sendAsync(Destination, MessageCreator)
+	 */
+	public CompletableFuture<Void> sendAsync(final String destinationName, final MessageCreator messageCreator)
+			throws JmsException {
+
+		return execute(session -> {
+			Destination destination = resolveDestinationName(session, destinationName);
+			return doSendAsync(session, destination, messageCreator);
+		}, false);
+	}
+
+	/**
+	 * Log a warning (once) if the given MessageProducer is physically closed
+	 * after sending, which blocks until outstanding sends are acknowledged.
+	 */
+	private void checkAsyncSendSupport(MessageProducer producer) {
+		if (!this.asyncSendChecked) {
+			if (!ConnectionFactoryUtils.isCachedMessageProducer(producer) && logger.isWarnEnabled()) {
+				logger.warn("Asynchronous send effectively waits for the JMS provider's acknowledgement " +
+						"since the MessageProducer is closed right away - consider a CachingConnectionFactory " +
+						"with cached producers instead of " + getConnectionFactory());
+			}
+			this.asyncSendChecked = true;
+		}
+	}
+
+	/**
+	 * Send the given JMS message without waiting for the JMS provider to acknowledge it.
+	 * @param session the JMS Session to operate on
+	 * @param destination the JMS Destination to send to
+	 * @param messageCreator callback to create a JMS Message
+	 * @return a future completed once the JMS provider acknowledged the message
+	 * @throws JMSException if thrown by JMS API methods
+	 * @since 5.2
+	 */
+	protected CompletableFuture<Void> doSendAsync(Session session, Destination destination,
+			MessageCreator messageCreator) throws JMSException {
+
+		Assert.notNull(messageCreator, "MessageCreator must not be null");
+		CompletableFuture<Void> future = new CompletableFuture<>();
+		MessageProducer producer = createProducer(session, destination);
+		checkAsyncSendSupport(producer);
+		try {
+			Message message = messageCreator.createMessage(session);
+			if (logger.isDebugEnabled()) {
+				logger.debug("Sending created message asynchronously: " + message);
+			}
+			doSend(producer, message, new CompletionListener() {
+				@Override
+				public void onCompletion(Message message) {
+					future.complete(null);
+				}
+				@Override
+				public void onException(Message message, Exception ex) {
+					future.completeExceptionally(ex instanceof JMSException ?
+							convertJmsAccessException((JMSException) ex) : ex);
+				}
+			});
+			// Check commit - avoid commit call within a JTA transaction.
+			if (session.getTransacted() && isSessionLocallyTransacted(session)) {
+				// Transacted session created by this template -> commit.
+				JmsUtils.commitIfNecessary(session);
+			}
+		}
+		finally {
+			JmsUtils.closeMessageProducer(producer);
+		}
+		return future;
+	}
+
+	/**
+	 * Actually send the given JMS message without waiting for the JMS provider
+	 * to acknowledge it.
+	 * @param producer the JMS MessageProducer to send with
+	 * @param message the JMS Message to send
+	 * @param completionListener the listener to notify once the JMS provider
+	 * acknowledged the message, or failed to do so
+	 * @throws JMSException if thrown by JMS API methods
+	 * @since 5.2
+	 */
+	protected void doSend(MessageProducer producer, Message message, CompletionListener completionListener)
+			throws JMSException {
+
+		if (this.deliveryDelay >= 0) {
+			producer.setDeliveryDelay(this.deliveryDelay);
+		}
+		if (isExplicitQosEnabled()) {
+			producer.send(message, getDeliveryMode(), getPriority(), getTimeToLive(), completionListener);
+		}
+		else {
+			producer.send(message, completionListener);
+		}
+	}
+
+
 	//---------------------------------------------------------------------------------------
 	// Convenience methods for sending auto-converted messages
 	//---------------------------------------------------------------------------------------
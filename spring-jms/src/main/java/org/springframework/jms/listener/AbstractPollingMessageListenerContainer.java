@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 
 package org.springframework.jms.listener;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.jms.Connection;
 import javax.jms.Destination;
 import javax.jms.JMSException;
@@ -94,6 +97,10 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 
 	private long receiveTimeout = DEFAULT_RECEIVE_TIMEOUT;
 
+	private int batchSize = 1;
+
+	private long batchTimeout = 0;
+
 
 	@Override
 	public void setSessionTransacted(boolean sessionTransacted) {
@@ -182,6 +189,53 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 		return this.receiveTimeout;
 	}
 
+	/**
+	 * Specify the maximum number of messages to receive and process as one
+	 * batch, within a single transaction or acknowledgement.
+	 * <p>Default is 1, i.e. processing one message at a time. With a larger
+	 * value, once a message has been received, further messages are received
+	 * until the batch is full or until the {@link #setBatchTimeout batch timeout}
+	 * has elapsed. A {@link SessionAwareBatchMessageListener} gets invoked
+	 * once for the entire batch, whereas other listeners get invoked for each
+	 * message in turn, with a single commit for the batch in both cases.
+	 * @since 5.2
+	 * @see #setBatchTimeout
+	 * @see SessionAwareBatchMessageListener
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "'batchSize' must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the maximum number of messages to process as one batch.
+	 * @since 5.2
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Set the time to wait for further messages of a batch, in <b>milliseconds</b>,
+	 * measured from the reception of the first message of the batch.
+	 * <p>Default is 0, only collecting messages that are immediately available.
+	 * Note that this adds to the overall processing time of a batch and needs to
+	 * be smaller than the transaction timeout, if any.
+	 * @since 5.2
+	 * @see #setBatchSize
+	 */
+	public void setBatchTimeout(long batchTimeout) {
+		this.batchTimeout = batchTimeout;
+	}
+
+	/**
+	 * Return the time to wait for further messages of a batch.
+	 * @since 5.2
+	 */
+	public long getBatchTimeout() {
+		return this.batchTimeout;
+	}
+
 
 	@Override
 	public void initialize() {
@@ -302,10 +356,11 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 			}
 			Message message = receiveMessage(consumerToUse);
 			if (message != null) {
+				List<Message> batch = (this.batchSize > 1 ? receiveBatch(consumerToUse, message) : null);
 				if (logger.isDebugEnabled()) {
-					logger.debug("Received message of type [" + message.getClass() + "] from consumer [" +
-							consumerToUse + "] of " + (transactional ? "transactional " : "") + "session [" +
-							sessionToUse + "]");
+					logger.debug("Received " + (batch != null ? batch.size() + " messages, the first " : "message ") +
+							"of type [" + message.getClass() + "] from consumer [" + consumerToUse + "] of " +
+							(transactional ? "transactional " : "") + "session [" + sessionToUse + "]");
 				}
 				messageReceived(invoker, sessionToUse);
 				boolean exposeResource = (!transactional && isExposeListenerSession() &&
@@ -315,7 +370,12 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 							obtainConnectionFactory(), new LocallyExposedJmsResourceHolder(sessionToUse));
 				}
 				try {
-					doExecuteListener(sessionToUse, message);
+					if (batch != null) {
+						doExecuteListener(sessionToUse, batch);
+					}
+					else {
+						doExecuteListener(sessionToUse, message);
+					}
 				}
 				catch (Throwable ex) {
 					if (status != null) {
@@ -418,6 +478,32 @@ public abstract class AbstractPollingMessageListenerContainer extends AbstractMe
 		return receiveFromConsumer(consumer, getReceiveTimeout());
 	}
 
+	/**
+	 * Receive further messages for a batch from the given consumer, up to
+	 * the configured {@link #setBatchSize batch size} and for no longer than
+	 * the configured {@link #setBatchTimeout batch timeout}.
+	 * @param consumer the MessageConsumer to use
+	 * @param firstMessage the message that has been received already
+	 * @return the batch of messages, starting with the given message
+	 * @throws JMSException if thrown by JMS methods
+	 * @since 5.2
+	 */
+	protected List<Message> receiveBatch(MessageConsumer consumer, Message firstMessage) throws JMSException {
+		List<Message> messages = new ArrayList<>(this.batchSize);
+		messages.add(firstMessage);
+		long deadline = System.currentTimeMillis() + this.batchTimeout;
+		while (messages.size() < this.batchSize) {
+			long remaining = deadline - System.currentTimeMillis();
+			// A negative timeout indicates a no-wait receive operation
+			Message message = receiveFromConsumer(consumer, remaining > 0 ? remaining : -1);
+			if (message == null) {
+				break;
+			}
+			messages.add(message);
+		}
+		return messages;
+	}
+
 	/**
 	 * Template method that gets called right when a new message has been received,
 	 * before attempting to process it. Allows subclasses to react to the event
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import org.springframework.util.Assert;
+
+/**
+ * {@link ConsumerScalingPolicy} that adds consumers while there is a backlog
+ * of messages, and retires them once receive attempts frequently return
+ * without a message.
+ *
+ * <p>A backlog is assumed if hardly any receive attempt returns empty-handed
+ * and consumers spend most of their time processing rather than waiting for
+ * messages, i.e. if the average processing time is high compared to the
+ * average receive time. Consumers are retired if a large share of receive
+ * attempts returns without a message.
+ *
+ * <p>To avoid oscillation, consumers are added no more often than the
+ * {@link #setScaleUpInterval scale-up interval}, and retired no more often
+ * than the {@link #setRetireInterval retire interval}, which also has to have
+ * elapsed since the last consumer was added.
+ *
+ * @since 5.2
+ * @see DefaultMessageListenerContainer#setConsumerScalingPolicy
+ */
+public class AdaptiveConsumerScalingPolicy implements ConsumerScalingPolicy {
+
+	private double maxEmptyReceiveRatioForScaleUp = 0.1;
+
+	private double minUtilizationForScaleUp = 0.5;
+
+	private long scaleUpInterval = 100;
+
+	private double minEmptyReceiveRatioForRetire = 0.5;
+
+	private int minIdleReceivesForRetire = 1;
+
+	private long retireInterval = 5000;
+
+
+	/**
+	 * Specify the empty receive ratio up to which consumers may be added.
+	 * <p>The default is 0.1, i.e. consumers are only added if no more than
+	 * 10% of recent receive attempts returned without a message.
+	 * @see ConsumerStatistics#getEmptyReceiveRatio()
+	 */
+	public void setMaxEmptyReceiveRatioForScaleUp(double maxEmptyReceiveRatioForScaleUp) {
+		Assert.isTrue(maxEmptyReceiveRatioForScaleUp >= 0 && maxEmptyReceiveRatioForScaleUp <= 1,
+				"'maxEmptyReceiveRatioForScaleUp' must be between 0 and 1");
+		this.maxEmptyReceiveRatioForScaleUp = maxEmptyReceiveRatioForScaleUp;
+	}
+
+	/**
+	 * Specify the share of time that consumers need to spend processing
+	 * messages (as opposed to waiting for them) for consumers to be added.
+	 * <p>The default is 0.5, i.e. the average processing time needs to be at
+	 * least as high as the average receive time.
+	 * @see ConsumerStatistics#getAverageProcessingTime()
+	 * @see ConsumerStatistics#getAverageReceiveTime()
+	 */
+	public void setMinUtilizationForScaleUp(double minUtilizationForScaleUp) {
+		Assert.isTrue(minUtilizationForScaleUp >= 0 && minUtilizationForScaleUp <= 1,
+				"'minUtilizationForScaleUp' must be between 0 and 1");
+		this.minUtilizationForScaleUp = minUtilizationForScaleUp;
+	}
+
+	/**
+	 * Specify the minimum time in milliseconds between two additions of a consumer.
+	 * <p>The default is 100 milliseconds.
+	 */
+	public void setScaleUpInterval(long scaleUpInterval) {
+		Assert.isTrue(scaleUpInterval >= 0, "'scaleUpInterval' must not be negative");
+		this.scaleUpInterval = scaleUpInterval;
+	}
+
+	/**
+	 * Specify the empty receive ratio from which consumers may be retired.
+	 * <p>The default is 0.5, i.e. consumers are retired once at least half
+	 * of recent receive attempts returned without a message.
+	 * @see ConsumerStatistics#getEmptyReceiveRatio()
+	 */
+	public void setMinEmptyReceiveRatioForRetire(double minEmptyReceiveRatioForRetire) {
+		Assert.isTrue(minEmptyReceiveRatioForRetire >= 0 && minEmptyReceiveRatioForRetire <= 1,
+				"'minEmptyReceiveRatioForRetire' must be between 0 and 1");
+		this.minEmptyReceiveRatioForRetire = minEmptyReceiveRatioForRetire;
+	}
+
+	/**
+	 * Specify the number of receive attempts in a row without a message after
+	 * which a consumer may be retired.
+	 * <p>The default is 1.
+	 */
+	public void setMinIdleReceivesForRetire(int minIdleReceivesForRetire) {
+		Assert.isTrue(minIdleReceivesForRetire > 0, "'minIdleReceivesForRetire' must be 1 or higher");
+		this.minIdleReceivesForRetire = minIdleReceivesForRetire;
+	}
+
+	/**
+	 * Specify the minimum time in milliseconds between two retirements of a
+	 * consumer, as well as between the addition and the retirement of a consumer.
+	 * <p>The default is 5000 milliseconds.
+	 */
+	public void setRetireInterval(long retireInterval) {
+		Assert.isTrue(retireInterval >= 0, "'retireInterval' must not be negative");
+		this.retireInterval = retireInterval;
+	}
+
+
+	@Override
+	public boolean shouldAddConsumer(ConsumerStatistics statistics) {
+		return (statistics.getEmptyReceiveRatio() <= this.maxEmptyReceiveRatioForScaleUp &&
+				getUtilization(statistics) >= this.minUtilizationForScaleUp &&
+				elapsedSince(statistics.getLastConsumerAddedTime()) >= this.scaleUpInterval);
+	}
+
+	@Override
+	public boolean shouldRetireConsumer(ConsumerStatistics statistics, int idleReceiveCount) {
+		return (idleReceiveCount >= this.minIdleReceivesForRetire &&
+				statistics.getEmptyReceiveRatio() >= this.minEmptyReceiveRatioForRetire &&
+				elapsedSince(statistics.getLastConsumerAddedTime()) >= this.retireInterval &&
+				elapsedSince(statistics.getLastConsumerRetiredTime()) >= this.retireInterval);
+	}
+
+	/**
+	 * Determine the share of time that consumers spend processing messages
+	 * rather than waiting for them, between 0 and 1.
+	 */
+	protected double getUtilization(ConsumerStatistics statistics) {
+		double processingTime = statistics.getAverageProcessingTime();
+		double totalTime = processingTime + statistics.getAverageReceiveTime();
+		return (totalTime > 0 ? processingTime / totalTime : 0);
+	}
+
+	private long elapsedSince(long time) {
+		return System.currentTimeMillis() - time;
+	}
+
+}
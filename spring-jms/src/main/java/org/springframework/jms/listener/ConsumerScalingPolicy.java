@@ -0,0 +1,54 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+/**
+ * Strategy for dynamically scaling the number of consumers of a
+ * {@link DefaultMessageListenerContainer} between its
+ * {@link DefaultMessageListenerContainer#setConcurrentConsumers "concurrentConsumers"}
+ * and {@link DefaultMessageListenerContainer#setMaxConcurrentConsumers "maxConcurrentConsumers"}
+ * limits, based on the container's {@link ConsumerStatistics}.
+ *
+ * <p>The container enforces these limits itself, only asking the policy
+ * within them. Implementations are called while holding the container's
+ * lifecycle lock and must therefore return quickly and without blocking.
+ *
+ * @since 5.2
+ * @see DefaultMessageListenerContainer#setConsumerScalingPolicy
+ * @see AdaptiveConsumerScalingPolicy
+ */
+public interface ConsumerScalingPolicy {
+
+	/**
+	 * Determine whether a consumer should be added. Called after a consumer
+	 * received a message, in order to scale up while processing the message.
+	 * @param statistics the current statistics of the container
+	 * @return {@code true} to schedule an additional consumer
+	 */
+	boolean shouldAddConsumer(ConsumerStatistics statistics);
+
+	/**
+	 * Determine whether a consumer should be retired. Called after a receive
+	 * attempt of the consumer returned without a message.
+	 * @param statistics the current statistics of the container
+	 * @param idleReceiveCount the number of receive attempts in a row that
+	 * returned without a message for the consumer in question
+	 * @return {@code true} to shut down the consumer in question
+	 */
+	boolean shouldRetireConsumer(ConsumerStatistics statistics, int idleReceiveCount);
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+/**
+ * Runtime statistics about the consumers of a {@link DefaultMessageListenerContainer},
+ * as exposed through {@link DefaultMessageListenerContainer#getConsumerStatistics()}
+ * and as taken into account by a {@link ConsumerScalingPolicy}.
+ *
+ * <p>Latencies and the empty receive ratio are exponentially weighted moving
+ * averages, giving more weight to recent receive attempts than to older ones.
+ *
+ * @since 5.2
+ * @see DefaultMessageListenerContainer#getConsumerStatistics()
+ */
+public interface ConsumerStatistics {
+
+	/**
+	 * Return the configured minimum number of concurrent consumers.
+	 * @see DefaultMessageListenerContainer#getConcurrentConsumers()
+	 */
+	int getConcurrentConsumers();
+
+	/**
+	 * Return the configured maximum number of concurrent consumers.
+	 * @see DefaultMessageListenerContainer#getMaxConcurrentConsumers()
+	 */
+	int getMaxConcurrentConsumers();
+
+	/**
+	 * Return the number of currently scheduled consumers.
+	 * @see DefaultMessageListenerContainer#getScheduledConsumerCount()
+	 */
+	int getScheduledConsumerCount();
+
+	/**
+	 * Return the number of scheduled consumers whose last receive attempt
+	 * returned without a message.
+	 */
+	int getIdleConsumerCount();
+
+	/**
+	 * Return the total number of messages received.
+	 */
+	long getReceivedMessageCount();
+
+	/**
+	 * Return the total number of receive attempts that returned without a message.
+	 */
+	long getEmptyReceiveCount();
+
+	/**
+	 * Return the recent ratio of receive attempts that returned without a
+	 * message, between 0 (every attempt received a message) and 1 (no attempt
+	 * received a message).
+	 */
+	double getEmptyReceiveRatio();
+
+	/**
+	 * Return the recent average time in milliseconds that consumers waited
+	 * for a message to arrive, considering successful receive attempts only.
+	 */
+	double getAverageReceiveTime();
+
+	/**
+	 * Return the recent average time in milliseconds that it took to process
+	 * a received message (or batch of messages), including the commit.
+	 */
+	double getAverageProcessingTime();
+
+	/**
+	 * Return the number of consumers added because of the message load.
+	 */
+	long getConsumerAddedCount();
+
+	/**
+	 * Return the number of consumers retired because of a lack of messages.
+	 */
+	long getConsumerRetiredCount();
+
+	/**
+	 * Return the time of the most recent addition of a consumer because of
+	 * the message load, in milliseconds since the epoch, or 0 if none.
+	 */
+	long getLastConsumerAddedTime();
+
+	/**
+	 * Return the time of the most recent retirement of a consumer because
+	 * of a lack of messages, in milliseconds since the epoch, or 0 if none.
+	 */
+	long getLastConsumerRetiredTime();
+
+}
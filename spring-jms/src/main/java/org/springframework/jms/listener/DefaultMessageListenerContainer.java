@@ -19,6 +19,8 @@ package org.springframework.jms.listener;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.jms.Connection;
 import javax.jms.JMSException;
@@ -97,7 +99,9 @@ import org.springframework.util.backoff.FixedBackOff;
  * your configuration!). Note that dynamic scaling only really makes sense for a
  * queue in the first place; for a topic, you will typically stick with the default
  * number of 1 consumer, otherwise you'd receive the same message multiple times on
- * the same node.
+ * the same node. As an alternative to the idle limits, a {@link ConsumerScalingPolicy}
+ * such as {@link AdaptiveConsumerScalingPolicy} can make scaling decisions based on
+ * the measured {@link #getConsumerStatistics() consumer statistics}.
  *
  * <p><b>Note: Don't use Spring's {@link org.springframework.jms.connection.CachingConnectionFactory}
  * in combination with dynamic scaling.</b> Ideally, don't use it with a message
@@ -192,8 +196,13 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 
 	private int idleTaskExecutionLimit = 1;
 
+	@Nullable
+	private ConsumerScalingPolicy consumerScalingPolicy;
+
 	private final Set<AsyncMessageListenerInvoker> scheduledInvokers = new HashSet<>();
 
+	private final ContainerConsumerStatistics consumerStatistics = new ContainerConsumerStatistics();
+
 	private int activeInvokerCount = 0;
 
 	private int registeredWithDestination = 0;
@@ -508,6 +517,37 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		}
 	}
 
+	/**
+	 * Specify a {@link ConsumerScalingPolicy} that decides when to add and when
+	 * to retire consumers, based on the measured {@link #getConsumerStatistics()
+	 * consumer statistics}, in case of dynamic scaling.
+	 * <p>If set, the policy replaces the {@link #setIdleConsumerLimit "idleConsumerLimit"}
+	 * and {@link #setIdleTaskExecutionLimit "idleTaskExecutionLimit"} settings.
+	 * Consumers may also be retired within a long-lived task then, so there is
+	 * no need to specify a {@link #setMaxMessagesPerTask "maxMessagesPerTask"} value.
+	 * The number of consumers always remains between "concurrentConsumers"
+	 * and "maxConcurrentConsumers".
+	 * <p><b>This setting can be modified at runtime, for example through JMX.</b>
+	 * @since 5.2
+	 * @see AdaptiveConsumerScalingPolicy
+	 */
+	public void setConsumerScalingPolicy(@Nullable ConsumerScalingPolicy consumerScalingPolicy) {
+		synchronized (this.lifecycleMonitor) {
+			this.consumerScalingPolicy = consumerScalingPolicy;
+		}
+	}
+
+	/**
+	 * Return the {@link ConsumerScalingPolicy}, if any.
+	 * @since 5.2
+	 */
+	@Nullable
+	public final ConsumerScalingPolicy getConsumerScalingPolicy() {
+		synchronized (this.lifecycleMonitor) {
+			return this.consumerScalingPolicy;
+		}
+	}
+
 
 	//-------------------------------------------------------------------------
 	// Implementation of AbstractMessageListenerContainer's template methods
@@ -690,6 +730,19 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 		}
 	}
 
+	/**
+	 * Return runtime statistics about the consumers of this listener container,
+	 * such as the ratio of receive attempts without a message and the average
+	 * receive and processing times.
+	 * <p>The returned object is a live view, reflecting the current statistics
+	 * on every access.
+	 * @since 5.2
+	 * @see #setConsumerScalingPolicy
+	 */
+	public ConsumerStatistics getConsumerStatistics() {
+		return this.consumerStatistics;
+	}
+
 
 	/**
 	 * Create a default TaskExecutor. Called if no explicit TaskExecutor has been specified.
@@ -741,7 +794,7 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	 */
 	@Override
 	protected void messageReceived(Object invoker, Session session) {
-		((AsyncMessageListenerInvoker) invoker).setIdle(false);
+		((AsyncMessageListenerInvoker) invoker).messageReceived();
 		scheduleNewInvokerIfAppropriate();
 	}
 
@@ -763,14 +816,18 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	 * @see #setTaskExecutor
 	 * @see #getMaxConcurrentConsumers()
 	 * @see #getIdleConsumerLimit()
+	 * @see #getConsumerScalingPolicy()
 	 */
 	protected void scheduleNewInvokerIfAppropriate() {
 		if (isRunning()) {
 			resumePausedTasks();
 			synchronized (this.lifecycleMonitor) {
 				if (this.scheduledInvokers.size() < this.maxConcurrentConsumers &&
-						getIdleInvokerCount() < this.idleConsumerLimit) {
+						(this.consumerScalingPolicy != null ?
+								this.consumerScalingPolicy.shouldAddConsumer(this.consumerStatistics) :
+								getIdleInvokerCount() < this.idleConsumerLimit)) {
 					scheduleNewInvoker();
+					this.consumerStatistics.consumerAdded();
 					if (logger.isDebugEnabled()) {
 						logger.debug("Raised scheduled invoker count: " + this.scheduledInvokers.size());
 					}
@@ -782,16 +839,39 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 	/**
 	 * Determine whether the current invoker should be rescheduled,
 	 * given that it might not have received a message in a while.
-	 * @param idleTaskExecutionCount the number of idle executions
-	 * that this invoker task has already accumulated (in a row)
+	 * @param invoker the invoker task that has just completed an execution
 	 */
-	private boolean shouldRescheduleInvoker(int idleTaskExecutionCount) {
+	private boolean shouldRescheduleInvoker(AsyncMessageListenerInvoker invoker) {
+		if (this.consumerScalingPolicy != null) {
+			return (this.scheduledInvokers.size() <= this.maxConcurrentConsumers &&
+					!retireInvokerIfAppropriate(invoker));
+		}
 		boolean superfluous =
-				(idleTaskExecutionCount >= this.idleTaskExecutionLimit && getIdleInvokerCount() > 1);
+				(invoker.idleTaskExecutionCount >= this.idleTaskExecutionLimit && getIdleInvokerCount() > 1);
 		return (this.scheduledInvokers.size() <=
 				(superfluous ? this.concurrentConsumers : this.maxConcurrentConsumers));
 	}
 
+	/**
+	 * Retire the given invoker if the {@link ConsumerScalingPolicy} indicates so,
+	 * removing it from the scheduled invokers right away so that concurrently
+	 * retiring invokers do not drop below the "concurrentConsumers" limit.
+	 * @param invoker the invoker whose last receive attempt returned without a message
+	 * @return whether the invoker has been retired
+	 */
+	private boolean retireInvokerIfAppropriate(AsyncMessageListenerInvoker invoker) {
+		synchronized (this.lifecycleMonitor) {
+			if (this.consumerScalingPolicy != null && invoker.idleReceiveCount > 0 &&
+					this.scheduledInvokers.size() > this.concurrentConsumers &&
+					this.consumerScalingPolicy.shouldRetireConsumer(this.consumerStatistics, invoker.idleReceiveCount)) {
+				this.scheduledInvokers.remove(invoker);
+				this.consumerStatistics.consumerRetired();
+				return true;
+			}
+			return false;
+		}
+	}
+
 	/**
 	 * Determine whether this listener container currently has more
 	 * than one idle instance among its scheduled invokers.
@@ -1061,6 +1141,12 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 
 		private volatile boolean idle = true;
 
+		private int idleReceiveCount = 0;
+
+		private long processingStartTime;
+
+		private boolean retired;
+
 		@Nullable
 		private volatile Thread currentReceiveThread;
 
@@ -1118,7 +1204,7 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 					this.idleTaskExecutionCount = 0;
 				}
 				synchronized (lifecycleMonitor) {
-					if (!shouldRescheduleInvoker(this.idleTaskExecutionCount) || !rescheduleTaskIfNecessary(this)) {
+					if (this.retired || !shouldRescheduleInvoker(this) || !rescheduleTaskIfNecessary(this)) {
 						// We're shutting down completely.
 						scheduledInvokers.remove(this);
 						if (logger.isDebugEnabled()) {
@@ -1176,7 +1262,13 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 					}
 				}
 				if (active) {
-					messageReceived = (invokeListener() || messageReceived);
+					if (invokeListener()) {
+						messageReceived = true;
+					}
+					else if (consumerScalingPolicy != null && retireInvokerIfAppropriate(this)) {
+						this.retired = true;
+						active = false;
+					}
 				}
 			}
 			return messageReceived;
@@ -1186,7 +1278,18 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 			this.currentReceiveThread = Thread.currentThread();
 			try {
 				initResourcesIfNecessary();
+				long receiveStartTime = System.nanoTime();
+				this.processingStartTime = 0;
 				boolean messageReceived = receiveAndExecute(this, this.session, this.consumer);
+				long endTime = System.nanoTime();
+				if (messageReceived && this.processingStartTime != 0) {
+					consumerStatistics.messageReceived(
+							this.processingStartTime - receiveStartTime, endTime - this.processingStartTime);
+				}
+				else if (!messageReceived) {
+					this.idleReceiveCount++;
+					consumerStatistics.noMessageReceived();
+				}
 				this.lastMessageSucceeded = true;
 				return messageReceived;
 			}
@@ -1274,9 +1377,146 @@ public class DefaultMessageListenerContainer extends AbstractPollingMessageListe
 			this.idle = idle;
 		}
 
+		public void messageReceived() {
+			this.idle = false;
+			this.idleReceiveCount = 0;
+			this.processingStartTime = System.nanoTime();
+		}
+
 		public boolean isIdle() {
 			return this.idle;
 		}
 	}
 
+
+	/**
+	 * {@link ConsumerStatistics} implementation that records receive attempts
+	 * of all invokers of this listener container.
+	 */
+	private class ContainerConsumerStatistics implements ConsumerStatistics {
+
+		/** Weight of the most recent receive attempt in the moving averages. */
+		private static final double ALPHA = 0.2;
+
+		private final LongAdder receivedMessageCount = new LongAdder();
+
+		private final LongAdder emptyReceiveCount = new LongAdder();
+
+		private final AtomicLong consumerAddedCount = new AtomicLong();
+
+		private final AtomicLong consumerRetiredCount = new AtomicLong();
+
+		private volatile long lastConsumerAddedTime;
+
+		private volatile long lastConsumerRetiredTime;
+
+		private double emptyReceiveRatio;
+
+		private double averageReceiveNanos;
+
+		private double averageProcessingNanos;
+
+		void messageReceived(long receiveNanos, long processingNanos) {
+			this.receivedMessageCount.increment();
+			synchronized (this) {
+				this.emptyReceiveRatio -= ALPHA * this.emptyReceiveRatio;
+				this.averageReceiveNanos += ALPHA * (receiveNanos - this.averageReceiveNanos);
+				this.averageProcessingNanos += ALPHA * (processingNanos - this.averageProcessingNanos);
+			}
+		}
+
+		void noMessageReceived() {
+			this.emptyReceiveCount.increment();
+			synchronized (this) {
+				this.emptyReceiveRatio += ALPHA * (1 - this.emptyReceiveRatio);
+			}
+		}
+
+		void consumerAdded() {
+			this.consumerAddedCount.incrementAndGet();
+			this.lastConsumerAddedTime = System.currentTimeMillis();
+		}
+
+		void consumerRetired() {
+			this.consumerRetiredCount.incrementAndGet();
+			this.lastConsumerRetiredTime = System.currentTimeMillis();
+		}
+
+		@Override
+		public int getConcurrentConsumers() {
+			return DefaultMessageListenerContainer.this.getConcurrentConsumers();
+		}
+
+		@Override
+		public int getMaxConcurrentConsumers() {
+			return DefaultMessageListenerContainer.this.getMaxConcurrentConsumers();
+		}
+
+		@Override
+		public int getScheduledConsumerCount() {
+			return DefaultMessageListenerContainer.this.getScheduledConsumerCount();
+		}
+
+		@Override
+		public int getIdleConsumerCount() {
+			synchronized (lifecycleMonitor) {
+				return getIdleInvokerCount();
+			}
+		}
+
+		@Override
+		public long getReceivedMessageCount() {
+			return this.receivedMessageCount.sum();
+		}
+
+		@Override
+		public long getEmptyReceiveCount() {
+			return this.emptyReceiveCount.sum();
+		}
+
+		@Override
+		public synchronized double getEmptyReceiveRatio() {
+			return this.emptyReceiveRatio;
+		}
+
+		@Override
+		public synchronized double getAverageReceiveTime() {
+			return this.averageReceiveNanos / 1_000_000;
+		}
+
+		@Override
+		public synchronized double getAverageProcessingTime() {
+			return this.averageProcessingNanos / 1_000_000;
+		}
+
+		@Override
+		public long getConsumerAddedCount() {
+			return this.consumerAddedCount.get();
+		}
+
+		@Override
+		public long getConsumerRetiredCount() {
+			return this.consumerRetiredCount.get();
+		}
+
+		@Override
+		public long getLastConsumerAddedTime() {
+			return this.lastConsumerAddedTime;
+		}
+
+		@Override
+		public long getLastConsumerRetiredTime() {
+			return this.lastConsumerRetiredTime;
+		}
+
+		@Override
+		public String toString() {
+			return "ConsumerStatistics: scheduled=" + getScheduledConsumerCount() +
+					", received=" + getReceivedMessageCount() + ", emptyReceives=" + getEmptyReceiveCount() +
+					", emptyReceiveRatio=" + getEmptyReceiveRatio() +
+					", averageReceiveTime=" + getAverageReceiveTime() + "ms" +
+					", averageProcessingTime=" + getAverageProcessingTime() + "ms";
+		}
+	}
+
 }
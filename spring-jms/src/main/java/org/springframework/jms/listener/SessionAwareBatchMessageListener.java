@@ -0,0 +1,52 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import java.util.List;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+
+/**
+ * Variant of {@link SessionAwareMessageListener} that processes several
+ * received messages at once, within the same unit of work: with a transacted
+ * Session, all messages of a batch are committed or rolled back together.
+ *
+ * <p>Supported by Spring's {@link DefaultMessageListenerContainer} when
+ * configured with a {@link AbstractPollingMessageListenerContainer#setBatchSize
+ * "batchSize"} greater than 1. Otherwise, each message is passed in as a
+ * single-element list.
+ *
+ * @since 5.2
+ * @param <M> the message type
+ * @see AbstractPollingMessageListenerContainer#setBatchSize
+ * @see AbstractPollingMessageListenerContainer#setBatchTimeout
+ */
+@FunctionalInterface
+public interface SessionAwareBatchMessageListener<M extends Message> {
+
+	/**
+	 * Callback for processing a batch of received JMS messages.
+	 * @param messages the received JMS messages, in the order of reception
+	 * (never {@code null} or empty)
+	 * @param session the underlying JMS Session (never {@code null})
+	 * @throws JMSException if thrown by JMS methods
+	 */
+	void onMessages(List<M> messages, Session session) throws JMSException;
+
+}
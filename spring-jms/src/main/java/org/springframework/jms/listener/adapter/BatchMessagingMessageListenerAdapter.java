@@ -0,0 +1,196 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener.adapter;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import javax.jms.JMSException;
+import javax.jms.Session;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.jms.listener.SessionAwareBatchMessageListener;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.jms.support.converter.SmartMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Headers;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.util.ClassUtils;
+
+/**
+ * A {@link MessagingMessageListenerAdapter} that also supports batches of
+ * messages, invoking a handler method with a {@link List} payload parameter
+ * once for the entire batch.
+ *
+ * <p>The payload of the batch is a list of the payloads extracted from each
+ * {@link javax.jms.Message}, converted to the element type of the payload
+ * parameter. A {@link SmartMessageConverter} receives the element type as
+ * conversion hint; any other converter has to produce a compatible payload on
+ * its own. If the payload parameter declares {@link javax.jms.Message} (or a
+ * subtype) as element type, the JMS messages are passed in as-is. The
+ * {@link Session} can be injected as an additional argument. Batch handler
+ * methods must not return a value since there is no single message to reply to.
+ *
+ * @since 5.2
+ * @see #getBatchPayloadParameter(Method)
+ * @see org.springframework.jms.listener.AbstractPollingMessageListenerContainer#setBatchSize
+ */
+public class BatchMessagingMessageListenerAdapter extends MessagingMessageListenerAdapter
+		implements SessionAwareBatchMessageListener<javax.jms.Message> {
+
+	@Nullable
+	private MethodParameter elementParameter;
+
+
+	@Override
+	public void setHandlerMethod(InvocableHandlerMethod handlerMethod) {
+		super.setHandlerMethod(handlerMethod);
+		MethodParameter payloadParameter = getBatchPayloadParameter(handlerMethod.getMethod());
+		this.elementParameter = (payloadParameter != null ?
+				handlerMethod.getMethodParameters()[payloadParameter.getParameterIndex()].nested() : null);
+	}
+
+	@Override
+	public void onMessages(List<javax.jms.Message> jmsMessages, Session session) throws JMSException {
+		Message<?> message = toMessagingMessage(jmsMessages);
+		if (logger.isDebugEnabled()) {
+			logger.debug("Processing batch of " + jmsMessages.size() + " messages");
+		}
+		invokeHandler(session, message);
+	}
+
+	/**
+	 * Create the {@link Message} to invoke the handler method with for the given
+	 * batch of JMS messages.
+	 */
+	protected Message<List<Object>> toMessagingMessage(List<javax.jms.Message> jmsMessages) {
+		List<Object> payloads = new ArrayList<>(jmsMessages.size());
+		for (javax.jms.Message jmsMessage : jmsMessages) {
+			payloads.add(extractPayload(jmsMessage));
+		}
+		return MessageBuilder.withPayload(payloads).build();
+	}
+
+	/**
+	 * Extract the payload of the given JMS message as an element of the batch,
+	 * converting it to the element type of the payload parameter.
+	 */
+	@Nullable
+	protected Object extractPayload(javax.jms.Message jmsMessage) {
+		MethodParameter elementParameter = this.elementParameter;
+		if (elementParameter == null) {
+			return toMessagingMessage(jmsMessage).getPayload();
+		}
+		Class<?> elementType = elementParameter.getNestedParameterType();
+		if (javax.jms.Message.class.isAssignableFrom(elementType)) {
+			return jmsMessage;
+		}
+		Object payload;
+		MessageConverter converter = getMessageConverter();
+		if (converter instanceof SmartMessageConverter) {
+			try {
+				payload = ((SmartMessageConverter) converter).fromMessage(jmsMessage, elementParameter);
+			}
+			catch (JMSException ex) {
+				throw new MessageConversionException("Could not convert JMS message", ex);
+			}
+		}
+		else {
+			payload = toMessagingMessage(jmsMessage).getPayload();
+		}
+		if (!ClassUtils.isAssignableValue(elementType, payload)) {
+			throw new MessageConversionException("Cannot convert payload of type [" + payload.getClass().getName() +
+					"] to batch element type [" + elementType.getName() + "] for listener method '" +
+					getHandlerMethod().getMethod().toGenericString() + "'");
+		}
+		return payload;
+	}
+
+	private void invokeHandler(Session session, Message<?> message) {
+		InvocableHandlerMethod handlerMethod = getHandlerMethod();
+		try {
+			handlerMethod.invoke(message, session);
+		}
+		catch (MessagingException ex) {
+			throw new ListenerExecutionFailedException("Listener method '" +
+					handlerMethod.getMethod().toGenericString() + "' could not be invoked with batch of messages", ex);
+		}
+		catch (Exception ex) {
+			throw new ListenerExecutionFailedException("Listener method '" +
+					handlerMethod.getMethod().toGenericString() + "' threw exception", ex);
+		}
+	}
+
+
+	/**
+	 * Determine the payload parameter of the given listener method if it
+	 * receives a batch of messages, that is if it is declared as {@link List}
+	 * or {@link Collection}.
+	 * <p>The payload parameter is the parameter annotated with {@link Payload},
+	 * or else the first parameter that is not annotated with {@link Header} or
+	 * {@link Headers} and not resolved from the message itself (such as the
+	 * {@link Session}). Other collection parameters, e.g. a header holding a
+	 * list of values, do not make a batch listener method.
+	 * @param method the listener method to introspect
+	 * @return the batch payload parameter, or {@code null} if the method does
+	 * not receive a batch of messages
+	 */
+	@Nullable
+	public static MethodParameter getBatchPayloadParameter(Method method) {
+		MethodParameter payloadParameter = null;
+		for (int i = 0; i < method.getParameterCount(); i++) {
+			MethodParameter parameter = new MethodParameter(method, i);
+			if (parameter.hasParameterAnnotation(Payload.class)) {
+				payloadParameter = parameter;
+				break;
+			}
+			if (payloadParameter == null && isPayloadCandidate(parameter)) {
+				payloadParameter = parameter;
+			}
+		}
+		if (payloadParameter != null) {
+			Class<?> parameterType = payloadParameter.getParameterType();
+			if (parameterType == List.class || parameterType == Collection.class) {
+				return payloadParameter;
+			}
+		}
+		return null;
+	}
+
+	private static boolean isPayloadCandidate(MethodParameter parameter) {
+		if (parameter.hasParameterAnnotation(Header.class) || parameter.hasParameterAnnotation(Headers.class)) {
+			return false;
+		}
+		Class<?> parameterType = parameter.getParameterType();
+		return !(Session.class.isAssignableFrom(parameterType) ||
+				javax.jms.Message.class.isAssignableFrom(parameterType) ||
+				Message.class.isAssignableFrom(parameterType) ||
+				MessageHeaders.class.isAssignableFrom(parameterType) ||
+				MessageHeaderAccessor.class.isAssignableFrom(parameterType));
+	}
+
+}
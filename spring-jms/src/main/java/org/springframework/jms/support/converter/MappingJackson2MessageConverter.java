@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -38,6 +39,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 
 import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.MethodParameter;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
@@ -228,8 +230,18 @@ public class MappingJackson2MessageConverter implements SmartMessageConverter, B
 
 	@Override
 	public Object fromMessage(Message message) throws JMSException, MessageConversionException {
+		return fromMessage(message, null);
+	}
+
+	@Override
+	public Object fromMessage(Message message, @Nullable Object conversionHint)
+			throws JMSException, MessageConversionException {
+
 		try {
-			JavaType targetJavaType = getJavaTypeForMessage(message);
+			JavaType targetJavaType = getJavaTypeForConversionHint(conversionHint);
+			if (targetJavaType == null) {
+				targetJavaType = getJavaTypeForMessage(message);
+			}
 			return convertToObject(message, targetJavaType);
 		}
 		catch (IOException ex) {
@@ -468,6 +480,30 @@ public class MappingJackson2MessageConverter implements SmartMessageConverter, B
 		}
 	}
 
+	/**
+	 * Determine a Jackson JavaType based on the given conversion hint, taking
+	 * precedence over the type id on the message if specified.
+	 * <p>The default implementation resolves the (nested) type of a
+	 * {@link MethodParameter}, unless it is {@code Object}.
+	 * @param conversionHint the conversion hint Object as passed into the
+	 * converter for the current conversion attempt
+	 * @return the target type, or {@code null} to determine it from the message
+	 * @since 5.2
+	 * @see #getJavaTypeForMessage(javax.jms.Message)
+	 */
+	@Nullable
+	protected JavaType getJavaTypeForConversionHint(@Nullable Object conversionHint) {
+		if (conversionHint instanceof MethodParameter) {
+			MethodParameter methodParam = (MethodParameter) conversionHint;
+			Type type = GenericTypeResolver.resolveType(
+					methodParam.getNestedGenericParameterType(), methodParam.getContainingClass());
+			if (type != Object.class) {
+				return this.objectMapper.getTypeFactory().constructType(type);
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Determine a Jackson serialization view based on the given conversion hint.
 	 * @param conversionHint the conversion hint Object as passed into the
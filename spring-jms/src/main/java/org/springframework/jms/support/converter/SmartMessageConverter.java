@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2016 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -50,4 +50,25 @@ public interface SmartMessageConverter extends MessageConverter {
 	Message toMessage(Object object, Session session, @Nullable Object conversionHint)
 			throws JMSException, MessageConversionException;
 
+	/**
+	 * A variant of {@link #fromMessage(Message)} which takes an extra conversion
+	 * context as an argument, allowing to take e.g. the target type of a payload
+	 * parameter into account.
+	 * <p>The default implementation ignores the conversion hint and delegates
+	 * to {@link #fromMessage(Message)}.
+	 * @param message the message to convert
+	 * @param conversionHint an extra object passed to the {@link MessageConverter},
+	 * e.g. the associated {@code MethodParameter} (may be {@code null}}
+	 * @return the converted Java object
+	 * @throws javax.jms.JMSException if thrown by JMS API methods
+	 * @throws MessageConversionException in case of conversion failure
+	 * @since 5.2
+	 * @see #fromMessage(Message)
+	 */
+	default Object fromMessage(Message message, @Nullable Object conversionHint)
+			throws JMSException, MessageConversionException {
+
+		return fromMessage(message);
+	}
+
 }
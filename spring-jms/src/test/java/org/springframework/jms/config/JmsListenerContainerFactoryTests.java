@@ -26,6 +26,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.DirectFieldAccessor;
 import org.springframework.jms.StubConnectionFactory;
 import org.springframework.jms.listener.AbstractMessageListenerContainer;
+import org.springframework.jms.listener.AdaptiveConsumerScalingPolicy;
+import org.springframework.jms.listener.ConsumerScalingPolicy;
 import org.springframework.jms.listener.DefaultMessageListenerContainer;
 import org.springframework.jms.listener.SimpleMessageListenerContainer;
 import org.springframework.jms.listener.adapter.MessageListenerAdapter;
@@ -82,6 +84,10 @@ public class JmsListenerContainerFactoryTests {
 		factory.setCacheLevel(DefaultMessageListenerContainer.CACHE_CONSUMER);
 		factory.setConcurrency("3-10");
 		factory.setMaxMessagesPerTask(5);
+		factory.setBatchSize(20);
+		factory.setBatchTimeout(100L);
+		ConsumerScalingPolicy consumerScalingPolicy = new AdaptiveConsumerScalingPolicy();
+		factory.setConsumerScalingPolicy(consumerScalingPolicy);
 
 		SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
 		MessageListener messageListener = new MessageListenerAdapter();
@@ -94,6 +100,9 @@ public class JmsListenerContainerFactoryTests {
 		assertThat(container.getConcurrentConsumers()).isEqualTo(3);
 		assertThat(container.getMaxConcurrentConsumers()).isEqualTo(10);
 		assertThat(container.getMaxMessagesPerTask()).isEqualTo(5);
+		assertThat(container.getBatchSize()).isEqualTo(20);
+		assertThat(container.getBatchTimeout()).isEqualTo(100L);
+		assertThat(container.getConsumerScalingPolicy()).isSameAs(consumerScalingPolicy);
 
 		assertThat(container.getMessageListener()).isEqualTo(messageListener);
 		assertThat(container.getDestinationName()).isEqualTo("myQueue");
@@ -20,6 +20,7 @@ import java.io.Serializable;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import javax.jms.Destination;
@@ -40,12 +41,14 @@ import org.springframework.jms.StubTextMessage;
 import org.springframework.jms.listener.DefaultMessageListenerContainer;
 import org.springframework.jms.listener.MessageListenerContainer;
 import org.springframework.jms.listener.SimpleMessageListenerContainer;
+import org.springframework.jms.listener.adapter.BatchMessagingMessageListenerAdapter;
 import org.springframework.jms.listener.adapter.ListenerExecutionFailedException;
 import org.springframework.jms.listener.adapter.MessagingMessageListenerAdapter;
 import org.springframework.jms.listener.adapter.ReplyFailureException;
 import org.springframework.jms.support.JmsHeaders;
 import org.springframework.jms.support.JmsMessageHeaderAccessor;
 import org.springframework.jms.support.QosSettings;
+import org.springframework.jms.support.converter.MappingJackson2MessageConverter;
 import org.springframework.jms.support.converter.MessageConverter;
 import org.springframework.jms.support.destination.DestinationResolver;
 import org.springframework.lang.Nullable;
@@ -449,6 +452,105 @@ class MethodJmsListenerEndpointTests {
 			.withCauseInstanceOf(MessageConversionException.class);
 	}
 
+	@Test
+	void resolveBatchPayloads() throws JMSException {
+		MessagingMessageListenerAdapter listener = createBatchInstance(List.class, Session.class);
+		assertThat(listener).isInstanceOf(BatchMessagingMessageListenerAdapter.class);
+
+		Session session = mock(Session.class);
+		((BatchMessagingMessageListenerAdapter) listener).onMessages(Arrays.asList(
+				createSimpleJmsTextMessage("first"), createSimpleJmsTextMessage("second")), session);
+		assertDefaultListenerMethodInvocation();
+	}
+
+	@Test
+	void resolveBatchJmsMessages() throws JMSException {
+		BatchMessagingMessageListenerAdapter listener =
+				(BatchMessagingMessageListenerAdapter) createBatchInstance(List.class);
+
+		Session session = mock(Session.class);
+		listener.onMessages(Arrays.asList(
+				createSimpleJmsTextMessage("first"), createSimpleJmsTextMessage("second")), session);
+		assertDefaultListenerMethodInvocation();
+	}
+
+	@Test
+	void resolveBatchConvertedPayloads() throws JMSException {
+		BatchMessagingMessageListenerAdapter listener =
+				(BatchMessagingMessageListenerAdapter) createBatchInstance(List.class);
+		listener.setMessageConverter(new MappingJackson2MessageConverter());
+
+		listener.onMessages(Arrays.asList(createSimpleJmsTextMessage("{\"name\":\"first\"}"),
+				createSimpleJmsTextMessage("{\"name\":\"second\"}")), mock(Session.class));
+		assertDefaultListenerMethodInvocation();
+	}
+
+	@Test
+	void invalidBatchPayloadType() {
+		BatchMessagingMessageListenerAdapter listener =
+				(BatchMessagingMessageListenerAdapter) createBatchInstance(List.class);
+
+		assertThatExceptionOfType(org.springframework.jms.support.converter.MessageConversionException.class)
+				.isThrownBy(() -> listener.onMessages(Arrays.asList(
+						createSimpleJmsTextMessage("first"), createSimpleJmsTextMessage("second")), mock(Session.class)))
+				.withMessageContaining(Integer.class.getName());
+	}
+
+	@Test
+	void singleMessageListenerWithHeaderList() throws JMSException {
+		DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+		container.setBatchSize(10);
+		MessagingMessageListenerAdapter listener = createInstance(this.factory,
+				getDefaultListenerMethod(String.class, List.class), container);
+		assertThat(listener).isNotInstanceOf(BatchMessagingMessageListenerAdapter.class);
+
+		StubTextMessage message = createSimpleJmsTextMessage("my payload");
+		message.setStringProperty("ids", "1,2");
+		listener.onMessage(message, mock(Session.class));
+		assertDefaultListenerMethodInvocation();
+	}
+
+	@Test
+	void invalidBatchReturnType() {
+		assertThatIllegalStateException().isThrownBy(() ->
+				createBatchInstance(List.class));
+	}
+
+	@Test
+	void singleMessageListenerWithoutBatchSize() {
+		MessagingMessageListenerAdapter listener = createInstance(this.factory,
+				getListenerMethod("resolveBatchJmsMessages", List.class), new DefaultMessageListenerContainer());
+		assertThat(listener).isNotInstanceOf(BatchMessagingMessageListenerAdapter.class);
+	}
+
+	@Test
+	void singleMessageListenerOnBatchContainer() throws JMSException {
+		DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+		container.setBatchSize(10);
+		String methodName = "resolveMessageAndSession";
+		MessagingMessageListenerAdapter listener = createInstance(this.factory,
+				getListenerMethod(methodName, javax.jms.Message.class, Session.class), container);
+		assertThat(listener).isNotInstanceOf(BatchMessagingMessageListenerAdapter.class);
+
+		listener.onMessage(createSimpleJmsTextMessage("test"), mock(Session.class));
+		assertListenerMethodInvocation(this.sample, methodName);
+	}
+
+	@Test
+	void replyListenerOnBatchContainer() {
+		DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+		container.setBatchSize(10);
+		MessagingMessageListenerAdapter listener = createInstance(this.factory,
+				getListenerMethod("processAndReply", String.class), container);
+		assertThat(listener).isNotInstanceOf(BatchMessagingMessageListenerAdapter.class);
+	}
+
+
+	private MessagingMessageListenerAdapter createBatchInstance(Class<?>... parameterTypes) {
+		DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+		container.setBatchSize(10);
+		return createInstance(this.factory, getDefaultListenerMethod(parameterTypes), container);
+	}
 
 	private MessagingMessageListenerAdapter createInstance(
 			DefaultMessageHandlerMethodFactory factory, Method method, MessageListenerContainer container) {
@@ -625,6 +727,36 @@ class MethodJmsListenerEndpointTests {
 			throw new IllegalStateException("Should never be called.");
 		}
 
+		public void resolveBatchPayloads(List<String> payloads, Session session) {
+			this.invocations.put("resolveBatchPayloads", true);
+			assertThat(payloads).as("Wrong batch payloads").containsExactly("first", "second");
+			assertThat(session).as("Session not injected").isNotNull();
+		}
+
+		public void resolveBatchJmsMessages(List<javax.jms.Message> messages) {
+			this.invocations.put("resolveBatchJmsMessages", true);
+			assertThat(messages).as("Wrong batch messages").hasSize(2).allMatch(TextMessage.class::isInstance);
+		}
+
+		public void resolveBatchConvertedPayloads(@Payload List<MyBean> payloads) {
+			this.invocations.put("resolveBatchConvertedPayloads", true);
+			assertThat(payloads).as("Wrong batch payloads").extracting(MyBean::getName).containsExactly("first", "second");
+		}
+
+		public void invalidBatchPayloadType(List<Integer> payloads) {
+			throw new IllegalStateException("Should never be called.");
+		}
+
+		public void singleMessageListenerWithHeaderList(String content, @Header("ids") List<String> ids) {
+			this.invocations.put("singleMessageListenerWithHeaderList", true);
+			assertThat(content).as("Wrong payload resolution").isEqualTo("my payload");
+			assertThat(ids).as("Wrong @Header resolution").containsExactly("1", "2");
+		}
+
+		public String invalidBatchReturnType(List<String> payloads) {
+			throw new IllegalStateException("Should never be called.");
+		}
+
 	}
 
 
@@ -632,6 +764,14 @@ class MethodJmsListenerEndpointTests {
 	static class MyBean implements Serializable {
 
 		private String name;
+
+		public String getName() {
+			return this.name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
 	}
 
 }
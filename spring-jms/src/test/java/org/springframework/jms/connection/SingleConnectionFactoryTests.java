@@ -20,6 +20,8 @@ import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
 import javax.jms.QueueConnection;
 import javax.jms.QueueConnectionFactory;
 import javax.jms.QueueSession;
@@ -454,6 +456,31 @@ public class SingleConnectionFactoryTests {
 		verify(con).close();
 	}
 
+	@Test
+	public void testCachingConnectionFactoryWithCachedMessageProducers() throws Exception {
+		ConnectionFactory cf = mock(ConnectionFactory.class);
+		Connection con = mock(Connection.class);
+		Session targetSession = mock(Session.class);
+		Queue queue = mock(Queue.class);
+
+		given(cf.createConnection()).willReturn(con);
+		given(con.createSession(false, Session.AUTO_ACKNOWLEDGE)).willReturn(targetSession);
+		given(targetSession.createProducer(queue)).willReturn(mock(MessageProducer.class));
+
+		CachingConnectionFactory scf = new CachingConnectionFactory(cf);
+		TransactionAwareConnectionFactoryProxy proxy = new TransactionAwareConnectionFactoryProxy(scf);
+		Session session = proxy.createConnection().createSession(false, Session.AUTO_ACKNOWLEDGE);
+		MessageProducer producer = session.createProducer(queue);
+		assertThat(ConnectionFactoryUtils.isCachedMessageProducer(producer)).isTrue();
+		producer.close();
+		session.close();
+
+		scf.setCacheProducers(false);
+		session = scf.createConnection().createSession(false, Session.AUTO_ACKNOWLEDGE);
+		assertThat(ConnectionFactoryUtils.isCachedMessageProducer(session.createProducer(queue))).isFalse();
+		scf.destroy();
+	}
+
 	@Test
 	public void testCachingConnectionFactoryWithQueueConnectionFactoryAndJms102Usage() throws JMSException {
 		QueueConnectionFactory cf = mock(QueueConnectionFactory.class);
@@ -19,7 +19,10 @@ package org.springframework.jms.core;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
+import javax.jms.CompletionListener;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.DeliveryMode;
@@ -36,6 +39,7 @@ import javax.naming.Context;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import org.springframework.jms.InvalidClientIDException;
 import org.springframework.jms.InvalidDestinationException;
@@ -50,6 +54,7 @@ import org.springframework.jms.ResourceAllocationException;
 import org.springframework.jms.TransactionInProgressException;
 import org.springframework.jms.TransactionRolledBackException;
 import org.springframework.jms.UncategorizedJmsException;
+import org.springframework.jms.connection.CachingConnectionFactory;
 import org.springframework.jms.connection.ConnectionFactoryUtils;
 import org.springframework.jms.connection.SingleConnectionFactory;
 import org.springframework.jms.connection.TransactionAwareConnectionFactoryProxy;
@@ -63,9 +68,11 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 
@@ -421,6 +428,80 @@ class JmsTemplateTests {
 		verify(this.connection).close();
 	}
 
+	@Test
+	void testSendAsyncCompleted() throws Exception {
+		JmsTemplate template = createTemplate();
+		template.setConnectionFactory(this.connectionFactory);
+
+		MessageProducer messageProducer = mock(MessageProducer.class);
+		TextMessage textMessage = mock(TextMessage.class);
+		given(this.session.createProducer(this.queue)).willReturn(messageProducer);
+		given(this.session.createTextMessage("just testing")).willReturn(textMessage);
+
+		CompletableFuture<Void> future = template.sendAsync(this.queue,
+				session -> session.createTextMessage("just testing"));
+
+		ArgumentCaptor<CompletionListener> listener = ArgumentCaptor.forClass(CompletionListener.class);
+		verify(messageProducer).send(eq(textMessage), listener.capture());
+		if (useTransactedTemplate()) {
+			verify(this.session).commit();
+		}
+		verify(messageProducer).close();
+		verify(this.session).close();
+		verify(this.connection).close();
+		assertThat(future).isNotDone();
+
+		listener.getValue().onCompletion(textMessage);
+		assertThat(future).isCompleted();
+	}
+
+	@Test
+	void testSendAsyncFailed() throws Exception {
+		JmsTemplate template = createTemplate();
+		template.setConnectionFactory(this.connectionFactory);
+		template.setDefaultDestinationName("testDestination");
+
+		MessageProducer messageProducer = mock(MessageProducer.class);
+		TextMessage textMessage = mock(TextMessage.class);
+		given(this.session.createProducer(this.queue)).willReturn(messageProducer);
+		given(this.session.createTextMessage("just testing")).willReturn(textMessage);
+
+		CompletableFuture<Void> future = template.sendAsync(session -> session.createTextMessage("just testing"));
+
+		ArgumentCaptor<CompletionListener> listener = ArgumentCaptor.forClass(CompletionListener.class);
+		verify(messageProducer).send(eq(textMessage), listener.capture());
+		listener.getValue().onException(textMessage, new javax.jms.JMSSecurityException("not authorized"));
+		assertThat(future).isCompletedExceptionally();
+		assertThatExceptionOfType(ExecutionException.class).isThrownBy(future::get)
+				.withCauseInstanceOf(JmsSecurityException.class);
+	}
+
+	@Test
+	void testSendAsyncWithCachingConnectionFactory() throws Exception {
+		CachingConnectionFactory ccf = new CachingConnectionFactory(this.connectionFactory);
+		JmsTemplate template = createTemplate();
+		template.setConnectionFactory(ccf);
+
+		MessageProducer messageProducer = mock(MessageProducer.class);
+		TextMessage textMessage = mock(TextMessage.class);
+		given(this.session.createProducer(this.queue)).willReturn(messageProducer);
+		given(this.session.createTextMessage("just testing")).willReturn(textMessage);
+
+		CompletableFuture<Void> future = template.sendAsync(this.queue,
+				session -> session.createTextMessage("just testing"));
+
+		ArgumentCaptor<CompletionListener> listener = ArgumentCaptor.forClass(CompletionListener.class);
+		verify(messageProducer).send(eq(textMessage), listener.capture());
+		// Cached Session and MessageProducer: nothing waits for the acknowledgement
+		verify(messageProducer, never()).close();
+		verify(this.session, never()).close();
+		assertThat(future).isNotDone();
+
+		listener.getValue().onCompletion(textMessage);
+		assertThat(future).isCompleted();
+		ccf.destroy();
+	}
+
 	@Test
 	void testConverter() throws Exception {
 		JmsTemplate template = createTemplate();
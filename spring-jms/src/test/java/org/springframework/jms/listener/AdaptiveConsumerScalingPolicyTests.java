@@ -0,0 +1,112 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.jms.listener;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link AdaptiveConsumerScalingPolicy}.
+ */
+public class AdaptiveConsumerScalingPolicyTests {
+
+	private final AdaptiveConsumerScalingPolicy policy = new AdaptiveConsumerScalingPolicy();
+
+	private final ConsumerStatistics statistics = mock(ConsumerStatistics.class);
+
+
+	@Test
+	public void addConsumerWithBacklog() {
+		given(this.statistics.getEmptyReceiveRatio()).willReturn(0.0);
+		given(this.statistics.getAverageReceiveTime()).willReturn(1.0);
+		given(this.statistics.getAverageProcessingTime()).willReturn(10.0);
+
+		assertThat(this.policy.shouldAddConsumer(this.statistics)).isTrue();
+	}
+
+	@Test
+	public void noConsumerAddedWithEmptyReceives() {
+		given(this.statistics.getEmptyReceiveRatio()).willReturn(0.3);
+		given(this.statistics.getAverageReceiveTime()).willReturn(1.0);
+		given(this.statistics.getAverageProcessingTime()).willReturn(10.0);
+
+		assertThat(this.policy.shouldAddConsumer(this.statistics)).isFalse();
+	}
+
+	@Test
+	public void noConsumerAddedWhileWaitingForMessages() {
+		given(this.statistics.getEmptyReceiveRatio()).willReturn(0.0);
+		given(this.statistics.getAverageReceiveTime()).willReturn(100.0);
+		given(this.statistics.getAverageProcessingTime()).willReturn(1.0);
+
+		assertThat(this.policy.shouldAddConsumer(this.statistics)).isFalse();
+	}
+
+	@Test
+	public void noConsumerAddedWithinScaleUpInterval() {
+		given(this.statistics.getEmptyReceiveRatio()).willReturn(0.0);
+		given(this.statistics.getAverageReceiveTime()).willReturn(1.0);
+		given(this.statistics.getAverageProcessingTime()).willReturn(10.0);
+		given(this.statistics.getLastConsumerAddedTime()).willReturn(System.currentTimeMillis());
+
+		assertThat(this.policy.shouldAddConsumer(this.statistics)).isFalse();
+		this.policy.setScaleUpInterval(0);
+		assertThat(this.policy.shouldAddConsumer(this.statistics)).isTrue();
+	}
+
+	@Test
+	public void retireConsumerWithEmptyReceives() {
+		given(this.statistics.getEmptyReceiveRatio()).willReturn(0.8);
+
+		assertThat(this.policy.shouldRetireConsumer(this.statistics, 1)).isTrue();
+	}
+
+	@Test
+	public void noConsumerRetiredWithBacklog() {
+		given(this.statistics.getEmptyReceiveRatio()).willReturn(0.2);
+
+		assertThat(this.policy.shouldRetireConsumer(this.statistics, 1)).isFalse();
+	}
+
+	@Test
+	public void noConsumerRetiredBeforeIdleReceiveLimit() {
+		given(this.statistics.getEmptyReceiveRatio()).willReturn(0.8);
+		this.policy.setMinIdleReceivesForRetire(3);
+
+		assertThat(this.policy.shouldRetireConsumer(this.statistics, 2)).isFalse();
+		assertThat(this.policy.shouldRetireConsumer(this.statistics, 3)).isTrue();
+	}
+
+	@Test
+	public void noConsumerRetiredWithinRetireInterval() {
+		given(this.statistics.getEmptyReceiveRatio()).willReturn(0.8);
+		given(this.statistics.getLastConsumerAddedTime()).willReturn(System.currentTimeMillis());
+
+		assertThat(this.policy.shouldRetireConsumer(this.statistics, 1)).isFalse();
+
+		given(this.statistics.getLastConsumerAddedTime()).willReturn(0L);
+		given(this.statistics.getLastConsumerRetiredTime()).willReturn(System.currentTimeMillis());
+
+		assertThat(this.policy.shouldRetireConsumer(this.statistics, 1)).isFalse();
+		this.policy.setRetireInterval(0);
+		assertThat(this.policy.shouldRetireConsumer(this.statistics, 1)).isTrue();
+	}
+
+}
@@ -16,6 +16,9 @@
 
 package org.springframework.jms.listener;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -23,19 +26,31 @@ import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.Destination;
 import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
+import org.springframework.lang.Nullable;
 import org.springframework.util.backoff.BackOff;
 import org.springframework.util.backoff.BackOffExecution;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 /**
  * @author Stephane Nicoll
@@ -107,6 +122,176 @@ public class DefaultMessageListenerContainerTests {
 	}
 
 
+	@Test
+	public void receiveBatchWithSingleCommit() throws JMSException {
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		Message message1 = mock(Message.class);
+		Message message2 = mock(Message.class);
+		Message message3 = mock(Message.class);
+		given(consumer.receive(anyLong())).willReturn(message1, message2, message3);
+
+		List<List<Message>> batches = new ArrayList<>();
+		DefaultMessageListenerContainer container = createBatchContainer(batches);
+		container.setBatchTimeout(5000L);
+
+		assertThat(container.doReceiveAndExecute(this, session, consumer, null)).isTrue();
+		assertThat(batches).hasSize(1);
+		assertThat(batches.get(0)).containsExactly(message1, message2, message3);
+		verify(session, times(1)).commit();
+		verify(session, never()).rollback();
+	}
+
+	@Test
+	public void receiveBatchCompletedWhenNoMoreMessages() throws JMSException {
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		Message message1 = mock(Message.class);
+		Message message2 = mock(Message.class);
+		given(consumer.receive(1000L)).willReturn(message1);
+		given(consumer.receiveNoWait()).willReturn(message2, (Message) null);
+
+		List<List<Message>> batches = new ArrayList<>();
+		DefaultMessageListenerContainer container = createBatchContainer(batches);
+
+		assertThat(container.doReceiveAndExecute(this, session, consumer, null)).isTrue();
+		assertThat(batches).hasSize(1);
+		assertThat(batches.get(0)).containsExactly(message1, message2);
+		verify(session, times(1)).commit();
+	}
+
+	@Test
+	public void receiveBatchRolledBackOnListenerException() throws JMSException {
+		Session session = mock(Session.class);
+		given(session.getTransacted()).willReturn(true);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		given(consumer.receive(1000L)).willReturn(mock(Message.class));
+
+		DefaultMessageListenerContainer container = createBatchContainer(null);
+		container.setMessageListener((SessionAwareBatchMessageListener<Message>) (messages, s) -> {
+			throw new IllegalStateException("Test exception");
+		});
+
+		assertThat(container.doReceiveAndExecute(this, session, consumer, null)).isTrue();
+		verify(session).rollback();
+		verify(session, never()).commit();
+	}
+
+	@Test
+	public void invalidBatchSize() {
+		DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+		assertThatIllegalArgumentException().isThrownBy(() -> container.setBatchSize(0));
+	}
+
+	@Test
+	public void consumerStatisticsRecordedPerReceive() throws JMSException {
+		List<Runnable> tasks = new ArrayList<>();
+		ConsumerScalingPolicy policy = mock(ConsumerScalingPolicy.class);
+		DefaultMessageListenerContainer container = createScalingContainer(tasks, policy, mock(Message.class), null, null);
+		container.setMaxMessagesPerTask(3);
+		container.afterPropertiesSet();
+		container.start();
+
+		assertThat(tasks).hasSize(1);
+		tasks.remove(0).run();
+
+		ConsumerStatistics statistics = container.getConsumerStatistics();
+		assertThat(statistics.getReceivedMessageCount()).isEqualTo(1);
+		assertThat(statistics.getEmptyReceiveCount()).isEqualTo(2);
+		assertThat(statistics.getEmptyReceiveRatio()).isGreaterThan(0);
+		assertThat(statistics.getAverageReceiveTime()).isGreaterThanOrEqualTo(0);
+		assertThat(statistics.getAverageProcessingTime()).isGreaterThanOrEqualTo(0);
+		verify(policy).shouldAddConsumer(statistics);
+		container.shutdown();
+	}
+
+	@Test
+	public void invokerRetiredWithinOngoingTask() throws JMSException {
+		List<Runnable> tasks = new ArrayList<>();
+		ConsumerScalingPolicy policy = mock(ConsumerScalingPolicy.class);
+		given(policy.shouldRetireConsumer(any(), anyInt())).willReturn(true);
+		DefaultMessageListenerContainer container = createScalingContainer(tasks, policy, (Message) null);
+		container.setConcurrentConsumers(2);
+		container.afterPropertiesSet();
+		container.start();
+		assertThat(tasks).hasSize(2);
+
+		container.setConcurrentConsumers(1);
+		tasks.remove(0).run();
+
+		assertThat(container.getScheduledConsumerCount()).isEqualTo(1);
+		assertThat(container.getConsumerStatistics().getConsumerRetiredCount()).isEqualTo(1);
+		assertThat(tasks).hasSize(1);
+		container.shutdown();
+	}
+
+	@Test
+	public void invokerNotRetiredBelowConcurrentConsumers() throws JMSException {
+		List<Runnable> tasks = new ArrayList<>();
+		ConsumerScalingPolicy policy = mock(ConsumerScalingPolicy.class);
+		given(policy.shouldRetireConsumer(any(), anyInt())).willReturn(true);
+		DefaultMessageListenerContainer container = createScalingContainer(tasks, policy, (Message) null);
+		container.setMaxMessagesPerTask(1);
+		container.afterPropertiesSet();
+		container.start();
+
+		tasks.remove(0).run();
+
+		assertThat(container.getScheduledConsumerCount()).isEqualTo(1);
+		assertThat(container.getConsumerStatistics().getConsumerRetiredCount()).isEqualTo(0);
+		assertThat(tasks).as("invoker rescheduled").hasSize(1);
+		verifyNoMoreInteractions(policy);
+		container.shutdown();
+	}
+
+	@Test
+	public void invokerRescheduledUnlessRetired() throws JMSException {
+		List<Runnable> tasks = new ArrayList<>();
+		ConsumerScalingPolicy policy = mock(ConsumerScalingPolicy.class);
+		given(policy.shouldRetireConsumer(any(), anyInt())).willReturn(false, true);
+		DefaultMessageListenerContainer container = createScalingContainer(tasks, policy, (Message) null);
+		container.setConcurrentConsumers(2);
+		container.setMaxMessagesPerTask(1);
+		container.afterPropertiesSet();
+		container.start();
+		container.setConcurrentConsumers(1);
+
+		tasks.remove(0).run();
+		assertThat(container.getScheduledConsumerCount()).isEqualTo(2);
+		assertThat(tasks).as("invoker rescheduled").hasSize(2);
+
+		tasks.remove(1).run();
+		assertThat(container.getScheduledConsumerCount()).isEqualTo(1);
+		assertThat(tasks).as("retired invoker not rescheduled").hasSize(1);
+		assertThat(container.getConsumerStatistics().getConsumerRetiredCount()).isEqualTo(1);
+		verify(policy).shouldRetireConsumer(container.getConsumerStatistics(), 1);
+		verify(policy).shouldRetireConsumer(container.getConsumerStatistics(), 2);
+		container.shutdown();
+	}
+
+	private DefaultMessageListenerContainer createScalingContainer(
+			List<Runnable> tasks, ConsumerScalingPolicy policy, @Nullable Message... messages) throws JMSException {
+
+		Session session = mock(Session.class);
+		MessageConsumer consumer = mock(MessageConsumer.class);
+		given(consumer.receive(anyLong())).willReturn(messages[0],
+				(messages.length > 1 ? Arrays.copyOfRange(messages, 1, messages.length) : new Message[0]));
+		given(session.createConsumer(any(Destination.class), any())).willReturn(consumer);
+		Connection connection = mock(Connection.class);
+		given(connection.createSession(anyBoolean(), anyInt())).willReturn(session);
+		ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+		given(connectionFactory.createConnection()).willReturn(connection);
+
+		DefaultMessageListenerContainer container = createContainer(connectionFactory);
+		container.setTaskExecutor(tasks::add);
+		container.setMaxConcurrentConsumers(2);
+		container.setConsumerScalingPolicy(policy);
+		container.setMessageListener((MessageListener) message -> {});
+		return container;
+	}
+
 	private DefaultMessageListenerContainer createRunningContainer() {
 		DefaultMessageListenerContainer container = createContainer(createSuccessfulConnectionFactory());
 		container.afterPropertiesSet();
@@ -124,6 +309,19 @@ public class DefaultMessageListenerContainerTests {
 		return container;
 	}
 
+	private DefaultMessageListenerContainer createBatchContainer(@Nullable List<List<Message>> batches) {
+		DefaultMessageListenerContainer container = createContainer(createSuccessfulConnectionFactory());
+		container.setSessionTransacted(true);
+		container.setAcceptMessagesWhileStopping(true);
+		container.setReceiveTimeout(1000L);
+		container.setBatchSize(3);
+		if (batches != null) {
+			container.setMessageListener((SessionAwareBatchMessageListener<Message>) (messages, session) ->
+					batches.add(new ArrayList<>(messages)));
+		}
+		return container;
+	}
+
 	private ConnectionFactory createFailingContainerFactory() {
 		try {
 			ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * A header {@link Map} that shares an existing, never-modified base map and
+ * keeps modifications in a small array-based delta. Used by {@link MessageHeaders}
+ * to avoid copying all entries when headers are derived from another message.
+ *
+ * <p>Once the delta grows beyond a fixed size, the current entries are
+ * flattened into a new base map, which from then on is treated as immutable
+ * as well since it may in turn be shared by copies of this map.
+ *
+ * @since 5.2
+ */
+@SuppressWarnings("serial")
+final class DeltaHeaderMap extends AbstractMap<String, Object> implements Serializable {
+
+	private static final int MAX_DELTA_SIZE = 16;
+
+	/** Marker for entries of the base map that have been removed. */
+	private static final Object REMOVED = new Object();
+
+
+	private Map<String, Object> base;
+
+	private String[] keys;
+
+	private Object[] values;
+
+	private int deltaSize;
+
+	private int size;
+
+
+	/**
+	 * Create a map on top of the given base map.
+	 * @param base the base map which must not be modified afterwards
+	 */
+	DeltaHeaderMap(Map<String, Object> base) {
+		this.base = base;
+		this.keys = new String[4];
+		this.values = new Object[4];
+		this.size = base.size();
+	}
+
+	private DeltaHeaderMap(DeltaHeaderMap original) {
+		this.base = original.base;
+		this.keys = Arrays.copyOf(original.keys, Math.max(original.deltaSize, 4));
+		this.values = Arrays.copyOf(original.values, Math.max(original.deltaSize, 4));
+		this.deltaSize = original.deltaSize;
+		this.size = original.size;
+	}
+
+
+	/**
+	 * Return a copy of this map sharing the same base map.
+	 */
+	DeltaHeaderMap copy() {
+		return new DeltaHeaderMap(this);
+	}
+
+	private int indexOf(Object key) {
+		for (int i = 0; i < this.deltaSize; i++) {
+			if (this.keys[i].equals(key)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int size() {
+		return this.size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		int index = indexOf(key);
+		return (index != -1 ? this.values[index] != REMOVED : this.base.containsKey(key));
+	}
+
+	@Override
+	@Nullable
+	public Object get(Object key) {
+		int index = indexOf(key);
+		if (index != -1) {
+			Object value = this.values[index];
+			return (value != REMOVED ? value : null);
+		}
+		return this.base.get(key);
+	}
+
+	@Override
+	@Nullable
+	public Object put(String key, Object value) {
+		int index = indexOf(key);
+		if (index != -1) {
+			Object oldValue = this.values[index];
+			this.values[index] = value;
+			if (oldValue == REMOVED) {
+				this.size++;
+				return null;
+			}
+			return oldValue;
+		}
+		boolean existing = this.base.containsKey(key);
+		Object oldValue = this.base.get(key);
+		addDelta(key, value);
+		if (!existing) {
+			this.size++;
+		}
+		return oldValue;
+	}
+
+	@Override
+	@Nullable
+	public Object remove(Object key) {
+		int index = indexOf(key);
+		if (index != -1) {
+			Object oldValue = this.values[index];
+			if (oldValue == REMOVED) {
+				return null;
+			}
+			this.values[index] = REMOVED;
+			this.size--;
+			return oldValue;
+		}
+		if (key instanceof String && this.base.containsKey(key)) {
+			Object oldValue = this.base.get(key);
+			addDelta((String) key, REMOVED);
+			this.size--;
+			return oldValue;
+		}
+		return null;
+	}
+
+	@Override
+	public void clear() {
+		this.base = new HashMap<>();
+		this.deltaSize = 0;
+		Arrays.fill(this.keys, null);
+		Arrays.fill(this.values, null);
+		this.size = 0;
+	}
+
+	private void addDelta(String key, Object value) {
+		// Removals never flatten, so that they are safe during iteration
+		if (this.deltaSize >= MAX_DELTA_SIZE && value != REMOVED) {
+			flatten();
+		}
+		if (this.deltaSize == this.keys.length) {
+			this.keys = Arrays.copyOf(this.keys, this.keys.length * 2);
+			this.values = Arrays.copyOf(this.values, this.values.length * 2);
+		}
+		this.keys[this.deltaSize] = key;
+		this.values[this.deltaSize] = value;
+		this.deltaSize++;
+	}
+
+	private void flatten() {
+		Map<String, Object> newBase = new HashMap<>(this);
+		this.base = newBase;
+		this.deltaSize = 0;
+		Arrays.fill(this.keys, null);
+		Arrays.fill(this.values, null);
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new EntrySet();
+	}
+
+	private Object writeReplace() {
+		// Serialize as a plain HashMap, without the shared base
+		return new HashMap<>(this);
+	}
+
+
+	private class EntrySet extends AbstractSet<Entry<String, Object>> {
+
+		@Override
+		public Iterator<Entry<String, Object>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return DeltaHeaderMap.this.size;
+		}
+	}
+
+
+	/**
+	 * Iterate over base entries not overridden in the delta, followed by the
+	 * entries of the delta that have not been removed.
+	 */
+	private class EntryIterator implements Iterator<Entry<String, Object>> {
+
+		private final Map<String, Object> iteratedBase = base;
+
+		private final Iterator<Entry<String, Object>> baseIterator = base.entrySet().iterator();
+
+		private int deltaIndex = 0;
+
+		@Nullable
+		private Entry<String, Object> next;
+
+		@Nullable
+		private String lastKey;
+
+		@Override
+		public boolean hasNext() {
+			if (this.next != null) {
+				return true;
+			}
+			if (this.iteratedBase != base) {
+				throw new IllegalStateException("DeltaHeaderMap modified during iteration");
+			}
+			while (this.baseIterator.hasNext()) {
+				Entry<String, Object> entry = this.baseIterator.next();
+				if (indexOf(entry.getKey()) == -1) {
+					// Do not expose mutable entries of the shared base map
+					this.next = new SimpleImmutableEntry<>(entry);
+					return true;
+				}
+			}
+			while (this.deltaIndex < deltaSize) {
+				int index = this.deltaIndex++;
+				if (values[index] != REMOVED) {
+					this.next = new SimpleImmutableEntry<>(keys[index], values[index]);
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Entry<String, Object> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Entry<String, Object> entry = this.next;
+			this.next = null;
+			this.lastKey = entry.getKey();
+			return entry;
+		}
+
+		@Override
+		public void remove() {
+			if (this.lastKey == null) {
+				throw new IllegalStateException();
+			}
+			DeltaHeaderMap.this.remove(this.lastKey);
+			this.lastKey = null;
+		}
+	}
+
+}
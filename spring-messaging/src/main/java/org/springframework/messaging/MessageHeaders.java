@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -134,7 +134,7 @@ public class MessageHeaders implements Map<String, Object>, Serializable {
 	 * @param timestamp the {@link #TIMESTAMP} header value
 	 */
 	protected MessageHeaders(@Nullable Map<String, Object> headers, @Nullable UUID id, @Nullable Long timestamp) {
-		this.headers = (headers != null ? new HashMap<>(headers) : new HashMap<>());
+		this.headers = copyHeaders(headers);
 
 		if (id == null) {
 			this.headers.put(ID, getIdGenerator().generateId());
@@ -173,10 +173,40 @@ public class MessageHeaders implements Map<String, Object>, Serializable {
 	}
 
 
+	/**
+	 * Copy the given headers, sharing the entries of another {@code MessageHeaders}
+	 * instance where possible rather than copying them one by one.
+	 */
+	private static Map<String, Object> copyHeaders(@Nullable Map<String, Object> headers) {
+		if (headers instanceof MessageHeaders) {
+			MessageHeaders other = (MessageHeaders) headers;
+			if (other.headers instanceof DeltaHeaderMap) {
+				return ((DeltaHeaderMap) other.headers).copy();
+			}
+			if (other.isRawHeadersShareable()) {
+				return new DeltaHeaderMap(other.headers);
+			}
+		}
+		return (headers != null ? new HashMap<>(headers) : new HashMap<>());
+	}
+
+
 	protected Map<String, Object> getRawHeaders() {
 		return this.headers;
 	}
 
+	/**
+	 * Whether the {@link #getRawHeaders() raw headers} of this instance are
+	 * guaranteed not to change anymore, in which case copies of this instance
+	 * share them rather than copying every entry.
+	 * <p>By default this is {@code true} for plain {@code MessageHeaders} only,
+	 * since subclasses may modify the raw headers.
+	 * @since 5.2
+	 */
+	protected boolean isRawHeadersShareable() {
+		return (getClass() == MessageHeaders.class);
+	}
+
 	protected static IdGenerator getIdGenerator() {
 		IdGenerator generator = idGenerator;
 		return (generator != null ? generator : defaultIdGenerator);
@@ -45,6 +45,9 @@ import org.springframework.util.MimeType;
  * <p>By default only {@code "message/x.rsocket.routing.v0""} is extracted and
  * saved under {@link MetadataExtractor#ROUTE_KEY}. Use {@code metadataToExtract}
  * methods to specify other metadata mime types of interest to extract.
+ * <p>Entries are decoded lazily, i.e. the content of composite metadata entries
+ * is only decoded for mime types that were registered, and metadata is not
+ * parsed at all for payloads without metadata.
  *
  * @author Rossen Stoyanchev
  * @since 5.2
@@ -110,6 +113,9 @@ public class DefaultMetadataExtractor implements MetadataExtractor, MetadataExtr
 	@Override
 	public Map<String, Object> extract(Payload payload, MimeType metadataMimeType) {
 		Map<String, Object> result = new HashMap<>();
+		if (!payload.hasMetadata()) {
+			return result;
+		}
 		if (metadataMimeType.toString().equals(WellKnownMimeType.MESSAGE_RSOCKET_COMPOSITE_METADATA.toString())) {
 			for (CompositeMetadata.Entry entry : new CompositeMetadata(payload.metadata(), false)) {
 				extractEntry(entry.getContent(), entry.getMimeType(), result);
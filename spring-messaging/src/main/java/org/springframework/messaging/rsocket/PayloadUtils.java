@@ -44,6 +44,10 @@ public abstract class PayloadUtils {
 	 * {@code Payload}, and also to release the {@code Payload}. This assumes
 	 * the Payload metadata has been read by now and ensures downstream code
 	 * need only be aware of {@code DataBuffer}s.
+	 * <p>With a {@link NettyDataBufferFactory}, or for a {@link DefaultPayload},
+	 * the data is wrapped without copying. Otherwise the data of a
+	 * {@code ByteBuf} based payload is copied, since its memory may be reused
+	 * once the payload is released.
 	 * @param payload the payload to process
 	 * @param bufferFactory the DataBufferFactory to wrap with
 	 * @return the created {@code DataBuffer} instance
@@ -54,9 +58,15 @@ public abstract class PayloadUtils {
 				ByteBuf byteBuf = payload.sliceData().retain();
 				return ((NettyDataBufferFactory) bufferFactory).wrap(byteBuf);
 			}
-			else {
+			else if (payload instanceof DefaultPayload) {
 				return bufferFactory.wrap(payload.getData());
 			}
+			else {
+				ByteBuf byteBuf = payload.sliceData();
+				byte[] bytes = new byte[byteBuf.readableBytes()];
+				byteBuf.getBytes(byteBuf.readerIndex(), bytes);
+				return bufferFactory.wrap(bytes);
+			}
 		}
 		finally {
 			if (payload.refCnt() > 0) {
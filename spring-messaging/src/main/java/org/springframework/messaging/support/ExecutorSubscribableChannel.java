@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -95,7 +95,7 @@ public class ExecutorSubscribableChannel extends AbstractSubscribableChannel {
 	@Override
 	public boolean sendInternal(Message<?> message, long timeout) {
 		for (MessageHandler handler : getSubscribers()) {
-			SendTask sendTask = new SendTask(message, handler);
+			MessageHandlingRunnable sendTask = createSendTask(message, handler);
 			if (this.executor == null) {
 				sendTask.run();
 			}
@@ -106,6 +106,15 @@ public class ExecutorSubscribableChannel extends AbstractSubscribableChannel {
 		return true;
 	}
 
+	/**
+	 * Create a task that invokes the given handler for the given message,
+	 * applying any configured {@link ExecutorChannelInterceptor}s around it.
+	 * @since 5.2
+	 */
+	MessageHandlingRunnable createSendTask(Message<?> message, MessageHandler handler) {
+		return new SendTask(message, handler);
+	}
+
 
 	/**
 	 * Invoke a MessageHandler with ExecutorChannelInterceptors.
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2017 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,10 @@
 
 package org.springframework.messaging.support;
 
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.springframework.lang.Nullable;
 import org.springframework.messaging.MessageHeaders;
 import org.springframework.util.IdGenerator;
@@ -65,6 +69,18 @@ public class IdTimestampMessageHeaderInitializer implements MessageHeaderInitial
 		this.idGenerator = ID_VALUE_NONE_GENERATOR;
 	}
 
+	/**
+	 * A shortcut for calling {@link #setIdGenerator} with a cheap, monotonic id
+	 * generation strategy: a random prefix chosen once per initializer, followed
+	 * by an incrementing counter. This avoids generating random bits for every
+	 * message while keeping ids unique across application instances with high
+	 * probability.
+	 * @since 5.2
+	 */
+	public void setMonotonicIdGeneration() {
+		this.idGenerator = new MonotonicIdGenerator();
+	}
+
 	/**
 	 * Whether to enable the automatic addition of the
 	 * {@link org.springframework.messaging.MessageHeaders#TIMESTAMP} header on
@@ -92,4 +108,21 @@ public class IdTimestampMessageHeaderInitializer implements MessageHeaderInitial
 		headerAccessor.setEnableTimestamp(isEnableTimestamp());
 	}
 
+
+	/**
+	 * {@link IdGenerator} with a random most significant part and an
+	 * incrementing least significant part.
+	 */
+	private static class MonotonicIdGenerator implements IdGenerator {
+
+		private final long mostSigBits = new SecureRandom().nextLong();
+
+		private final AtomicLong leastSigBits = new AtomicLong();
+
+		@Override
+		public UUID generateId() {
+			return new UUID(this.mostSigBits, this.leastSigBits.incrementAndGet());
+		}
+	}
+
 }
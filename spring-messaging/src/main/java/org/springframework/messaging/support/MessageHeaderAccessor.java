@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -669,6 +669,11 @@ public class MessageHeaderAccessor {
 			return this.mutable;
 		}
 
+		@Override
+		protected boolean isRawHeadersShareable() {
+			return !this.mutable;
+		}
+
 		public MessageHeaderAccessor getAccessor() {
 			return MessageHeaderAccessor.this;
 		}
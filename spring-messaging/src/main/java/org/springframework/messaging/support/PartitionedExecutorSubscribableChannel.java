@@ -0,0 +1,223 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.support;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.util.Assert;
+
+/**
+ * An {@link ExecutorSubscribableChannel} that partitions messages into a fixed
+ * number of lanes based on the value of a message header, by default
+ * {@code "simpSessionId"}. Each lane is drained by at most one thread at a time,
+ * so messages with the same header value are handled in the order in which they
+ * were sent, without the need for an additional ordering mechanism.
+ *
+ * <p>Rather than submitting one task per message and per subscriber, a lane is
+ * submitted to the {@link Executor} only when it transitions from idle to
+ * active, and then drains up to {@link #setBatchSize batchSize} messages before
+ * yielding the thread back to the executor.
+ *
+ * <p>{@link ExecutorChannelInterceptor} callbacks are applied for every message
+ * and subscriber, just like with {@link ExecutorSubscribableChannel}. Messages
+ * without the partition header are all routed to the same lane.
+ *
+ * @since 5.2
+ */
+public class PartitionedExecutorSubscribableChannel extends ExecutorSubscribableChannel {
+
+	/** The default header used to select a lane. */
+	public static final String DEFAULT_PARTITION_HEADER = "simpSessionId";
+
+
+	private final Lane[] lanes;
+
+	private String partitionHeaderName = DEFAULT_PARTITION_HEADER;
+
+	private int batchSize = 64;
+
+
+	/**
+	 * Create an instance with the given executor and as many lanes as there are
+	 * available processors.
+	 * @param executor the executor used to drain the lanes
+	 */
+	public PartitionedExecutorSubscribableChannel(Executor executor) {
+		this(executor, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Create an instance with the given executor and number of lanes.
+	 * @param executor the executor used to drain the lanes
+	 * @param partitionCount the number of lanes to use
+	 */
+	public PartitionedExecutorSubscribableChannel(Executor executor, int partitionCount) {
+		super(executor);
+		Assert.notNull(executor, "Executor must not be null");
+		Assert.isTrue(partitionCount > 0, "Partition count must be greater than 0");
+		this.lanes = new Lane[partitionCount];
+		for (int i = 0; i < partitionCount; i++) {
+			this.lanes[i] = new Lane();
+		}
+	}
+
+
+	/**
+	 * Configure the name of the header whose value is used to select a lane.
+	 * <p>By default this is {@link #DEFAULT_PARTITION_HEADER}.
+	 */
+	public void setPartitionHeaderName(String partitionHeaderName) {
+		Assert.hasText(partitionHeaderName, "Partition header name must not be empty");
+		this.partitionHeaderName = partitionHeaderName;
+	}
+
+	/**
+	 * Return the configured partition header name.
+	 */
+	public String getPartitionHeaderName() {
+		return this.partitionHeaderName;
+	}
+
+	/**
+	 * Configure the maximum number of messages a lane handles in one executor
+	 * task before it is re-submitted, allowing other lanes to make progress.
+	 * <p>By default this is set to 64.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Return the configured batch size.
+	 */
+	public int getBatchSize() {
+		return this.batchSize;
+	}
+
+	/**
+	 * Return the number of lanes.
+	 */
+	public int getPartitionCount() {
+		return this.lanes.length;
+	}
+
+
+	@Override
+	public boolean sendInternal(Message<?> message, long timeout) {
+		getLane(message).add(message);
+		return true;
+	}
+
+	private Lane getLane(Message<?> message) {
+		Object key = message.getHeaders().get(this.partitionHeaderName);
+		return this.lanes[getPartition(key)];
+	}
+
+	/**
+	 * Determine the index of the lane to use for the given partition key.
+	 * @param key the value of the partition header, possibly {@code null}
+	 * @return an index between 0 (inclusive) and the partition count (exclusive)
+	 */
+	protected int getPartition(@Nullable Object key) {
+		return (key != null ? (key.hashCode() & Integer.MAX_VALUE) % this.lanes.length : 0);
+	}
+
+
+	/**
+	 * A queue of messages drained by at most one thread at a time.
+	 */
+	private class Lane implements Runnable {
+
+		private final Queue<Message<?>> messages = new ConcurrentLinkedQueue<>();
+
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		public void add(Message<?> message) {
+			this.messages.add(message);
+			// Take the scheduled flag only if the lane is not being drained already
+			if (this.scheduled.compareAndSet(false, true)) {
+				try {
+					getRequiredExecutor().execute(this);
+				}
+				catch (RuntimeException ex) {
+					// The send fails, so the message must not be delivered later on
+					this.messages.remove(message);
+					this.scheduled.set(false);
+					// Messages added concurrently found the lane scheduled: drain them here
+					if (!this.messages.isEmpty() && this.scheduled.compareAndSet(false, true)) {
+						run();
+					}
+					throw ex;
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				for (int i = 0; i < batchSize; i++) {
+					Message<?> message = this.messages.poll();
+					if (message == null) {
+						break;
+					}
+					handle(message);
+				}
+				this.scheduled.set(false);
+				if (this.messages.isEmpty() || !this.scheduled.compareAndSet(false, true)) {
+					return;
+				}
+				try {
+					getRequiredExecutor().execute(this);
+					return;
+				}
+				catch (RuntimeException ex) {
+					// Keep draining on the current thread rather than stranding the lane
+					if (logger.isDebugEnabled()) {
+						logger.debug("Failed to re-submit lane, continuing on current thread: " + ex);
+					}
+				}
+			}
+		}
+
+		private void handle(Message<?> message) {
+			for (MessageHandler handler : getSubscribers()) {
+				try {
+					createSendTask(message, handler).run();
+				}
+				catch (Throwable ex) {
+					if (logger.isErrorEnabled()) {
+						logger.error("Failed to handle " + message + " in " + handler, ex);
+					}
+				}
+			}
+		}
+
+		private Executor getRequiredExecutor() {
+			Executor executor = getExecutor();
+			Assert.state(executor != null, "No Executor");
+			return executor;
+		}
+	}
+
+}
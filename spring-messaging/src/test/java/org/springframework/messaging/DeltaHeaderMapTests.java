@@ -0,0 +1,108 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Unit tests for {@link DeltaHeaderMap}.
+ */
+public class DeltaHeaderMapTests {
+
+	private final Map<String, Object> base = new HashMap<>();
+
+	{
+		this.base.put("a", 1);
+		this.base.put("b", 2);
+	}
+
+
+	@Test
+	public void putAndRemove() {
+		DeltaHeaderMap map = new DeltaHeaderMap(this.base);
+		assertThat(map.put("a", 10)).isEqualTo(1);
+		assertThat(map.put("c", 3)).isNull();
+		assertThat(map.remove("b")).isEqualTo(2);
+		assertThat(map.remove("b")).isNull();
+
+		assertThat(map).hasSize(2).containsEntry("a", 10).containsEntry("c", 3).doesNotContainKey("b");
+		assertThat(this.base).hasSize(2).containsEntry("a", 1).containsEntry("b", 2);
+	}
+
+	@Test
+	public void putAfterRemove() {
+		DeltaHeaderMap map = new DeltaHeaderMap(this.base);
+		map.remove("a");
+		assertThat(map.put("a", 10)).isNull();
+		assertThat(map).hasSize(2).containsEntry("a", 10).containsEntry("b", 2);
+	}
+
+	@Test
+	public void copyIsIndependent() {
+		DeltaHeaderMap map = new DeltaHeaderMap(this.base);
+		map.put("c", 3);
+		DeltaHeaderMap copy = map.copy();
+		copy.put("c", 30);
+		copy.remove("a");
+
+		assertThat(map).hasSize(3).containsEntry("a", 1).containsEntry("c", 3);
+		assertThat(copy).hasSize(2).containsEntry("b", 2).containsEntry("c", 30);
+	}
+
+	@Test
+	public void flattenWhenDeltaGrows() {
+		DeltaHeaderMap map = new DeltaHeaderMap(this.base);
+		Map<String, Object> expected = new HashMap<>(this.base);
+		for (int i = 0; i < 100; i++) {
+			map.put("key" + i, i);
+			expected.put("key" + i, i);
+		}
+		assertThat(map).isEqualTo(expected);
+		assertThat(expected).isEqualTo(map);
+		assertThat(map.hashCode()).isEqualTo(expected.hashCode());
+		assertThat(this.base).hasSize(2);
+	}
+
+	@Test
+	public void iteratorRemove() {
+		DeltaHeaderMap map = new DeltaHeaderMap(this.base);
+		map.put("c", 3);
+		Iterator<Map.Entry<String, Object>> iterator = map.entrySet().iterator();
+		while (iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+		}
+		assertThat(map).isEmpty();
+		assertThat(this.base).hasSize(2);
+	}
+
+	@Test
+	public void entriesOfBaseAreImmutable() {
+		DeltaHeaderMap map = new DeltaHeaderMap(this.base);
+		Map.Entry<String, Object> entry = map.entrySet().iterator().next();
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() ->
+				entry.setValue(100));
+	}
+
+}
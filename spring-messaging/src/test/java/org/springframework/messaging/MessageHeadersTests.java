@@ -185,6 +185,33 @@ public class MessageHeadersTests {
 		assertThat(input.get("address")).isSameAs(address);
 	}
 
+	@Test
+	public void copyOfCopyShareBaseHeaders() {
+		Map<String, Object> map = new HashMap<>();
+		map.put("name", "joe");
+		map.put("age", 42);
+		MessageHeaders headers1 = new MessageHeaders(map);
+		MessageHeaders headers2 = new MessageHeaders(headers1);
+		MessageHeaders headers3 = new MessageHeaders(headers2);
+
+		assertThat(headers3.getRawHeaders()).isInstanceOf(DeltaHeaderMap.class);
+		assertThat(headers3.size()).isEqualTo(4);
+		assertThat(headers3.get("name")).isEqualTo("joe");
+		assertThat(headers3.get("age")).isEqualTo(42);
+		assertThat(headers3.getId()).isNotEqualTo(headers2.getId()).isNotEqualTo(headers1.getId());
+		assertThat(headers1.size()).isEqualTo(4);
+	}
+
+	@Test
+	public void serializeCopyWithSharedBaseHeaders() throws Exception {
+		Map<String, Object> map = new HashMap<>();
+		map.put("name", "joe");
+		MessageHeaders input = new MessageHeaders(new MessageHeaders(map));
+		MessageHeaders output = (MessageHeaders) SerializationTestUtils.serializeAndDeserialize(input);
+		assertThat(output.getRawHeaders()).isInstanceOf(HashMap.class);
+		assertThat(output).isEqualTo(input);
+	}
+
 	@Test
 	public void subclassWithCustomIdAndNoTimestamp() {
 		final AtomicLong id = new AtomicLong();
@@ -179,6 +179,16 @@ public class DefaultMetadataExtractorTests {
 		payload.release();
 	}
 
+	@Test
+	public void noMetadata() {
+		this.extractor.metadataToExtract(TEXT_PLAIN, String.class, "text-entry");
+		Payload payload = PayloadUtils.createPayload(this.strategies.dataBufferFactory().allocateBuffer());
+		Map<String, Object> result = this.extractor.extract(payload, COMPOSITE_METADATA);
+		payload.release();
+
+		assertThat(result).isEmpty();
+	}
+
 	@Test
 	public void noDecoder() {
 		DefaultMetadataExtractor extractor =
@@ -73,9 +73,21 @@ public class PayloadUtilsTests {
 		DataBuffer buffer = PayloadUtils.retainDataAndReleasePayload(payload, this.defaultBufferFactory);
 
 		assertThat(buffer).isInstanceOf(DefaultDataBuffer.class);
+		assertThat(dataBufferToString(buffer)).isEqualTo("sample data");
 		assertThat(payload.refCnt()).isEqualTo(0);
 	}
 
+	@Test
+	public void retainAndReleaseDefaultPayloadWithDefaultFactory() {
+		Payload payload = DefaultPayload.create("sample data");
+		DataBuffer buffer = PayloadUtils.retainDataAndReleasePayload(payload, this.defaultBufferFactory);
+
+		assertThat(buffer).isInstanceOf(DefaultDataBuffer.class);
+		assertThat(((DefaultDataBuffer) buffer).getNativeBuffer().array())
+				.isSameAs(payload.getData().array());
+		assertThat(dataBufferToString(buffer)).isEqualTo("sample data");
+	}
+
 	@Test
 	public void createWithNettyBuffers() {
 		NettyDataBuffer data = createNettyDataBuffer("sample data");
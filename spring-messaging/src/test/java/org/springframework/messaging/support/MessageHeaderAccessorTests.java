@@ -276,6 +276,22 @@ public class MessageHeaderAccessorTests {
 		assertThat(accessor.getMessageHeaders().getId()).isSameAs(id);
 	}
 
+	@Test
+	public void idGeneratorMonotonic() {
+		IdTimestampMessageHeaderInitializer initializer = new IdTimestampMessageHeaderInitializer();
+		initializer.setMonotonicIdGeneration();
+
+		MessageHeaderAccessor accessor1 = new MessageHeaderAccessor();
+		initializer.initHeaders(accessor1);
+		MessageHeaderAccessor accessor2 = new MessageHeaderAccessor();
+		initializer.initHeaders(accessor2);
+
+		UUID id1 = accessor1.getMessageHeaders().getId();
+		UUID id2 = accessor2.getMessageHeaders().getId();
+		assertThat(id2.getMostSignificantBits()).isEqualTo(id1.getMostSignificantBits());
+		assertThat(id2.getLeastSignificantBits()).isEqualTo(id1.getLeastSignificantBits() + 1);
+	}
+
 	@Test
 	public void idGeneratorDefaultBehavior() {
 		MessageHeaderAccessor accessor = new MessageHeaderAccessor();
@@ -303,6 +319,29 @@ public class MessageHeaderAccessorTests {
 		assertThat(headers.getTimestamp()).isNotNull();
 	}
 
+	@Test
+	public void modifyHeadersOfExistingMessage() {
+		Map<String, Object> map = new HashMap<>();
+		map.put("foo", "bar");
+		map.put("bar", "baz");
+		GenericMessage<String> message = new GenericMessage<>("payload", map);
+
+		MessageHeaderAccessor accessor = new MessageHeaderAccessor(message);
+		accessor.setHeader("foo", "BAR");
+		accessor.removeHeader("bar");
+		accessor.setHeader("baz", "qux");
+		MessageHeaders actual = accessor.toMessageHeaders();
+
+		assertThat(actual.size()).isEqualTo(4);
+		assertThat(actual.get("foo")).isEqualTo("BAR");
+		assertThat(actual.get("bar")).isNull();
+		assertThat(actual.get("baz")).isEqualTo("qux");
+		assertThat(actual.getId()).isNotEqualTo(message.getHeaders().getId());
+		assertThat(message.getHeaders().get("foo")).isEqualTo("bar");
+		assertThat(message.getHeaders().get("bar")).isEqualTo("baz");
+		assertThat(message.getHeaders().get("baz")).isNull();
+	}
+
 	@Test
 	public void getShortLogMessagePayload() {
 		MessageHeaderAccessor accessor = new MessageHeaderAccessor();
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.messaging.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.lang.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.MessageHandler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Unit tests for {@link PartitionedExecutorSubscribableChannel}.
+ */
+public class PartitionedExecutorSubscribableChannelTests {
+
+	@Test
+	public void invalidPartitionCount() {
+		assertThatIllegalArgumentException().isThrownBy(() ->
+				new PartitionedExecutorSubscribableChannel(Runnable::run, 0));
+	}
+
+	@Test
+	public void batchDrainedWithSingleExecutorTask() {
+		List<Runnable> tasks = new ArrayList<>();
+		PartitionedExecutorSubscribableChannel channel = new PartitionedExecutorSubscribableChannel(tasks::add, 4);
+		List<Message<?>> received = new ArrayList<>();
+		channel.subscribe(received::add);
+
+		for (int i = 0; i < 10; i++) {
+			channel.send(createMessage("sess1", i));
+		}
+
+		assertThat(tasks).hasSize(1);
+		assertThat(received).isEmpty();
+
+		tasks.remove(0).run();
+		assertThat(received).hasSize(10);
+		assertThat(tasks).isEmpty();
+	}
+
+	@Test
+	public void batchSizeLimitsMessagesPerTask() {
+		List<Runnable> tasks = new ArrayList<>();
+		PartitionedExecutorSubscribableChannel channel = new PartitionedExecutorSubscribableChannel(tasks::add, 1);
+		channel.setBatchSize(3);
+		List<Message<?>> received = new ArrayList<>();
+		channel.subscribe(received::add);
+
+		for (int i = 0; i < 5; i++) {
+			channel.send(createMessage("sess1", i));
+		}
+
+		tasks.remove(0).run();
+		assertThat(received).hasSize(3);
+		assertThat(tasks).hasSize(1);
+
+		tasks.remove(0).run();
+		assertThat(received).hasSize(5);
+		assertThat(tasks).isEmpty();
+	}
+
+	@Test
+	public void customPartitionHeader() {
+		List<Runnable> tasks = new ArrayList<>();
+		PartitionedExecutorSubscribableChannel channel = new PartitionedExecutorSubscribableChannel(tasks::add, 2);
+		channel.setPartitionHeaderName("key");
+		channel.subscribe(message -> {});
+
+		channel.send(MessageBuilder.withPayload("a").setHeader("key", 0).build());
+		channel.send(MessageBuilder.withPayload("b").setHeader("key", 1).build());
+
+		assertThat(tasks).hasSize(2);
+	}
+
+	@Test
+	public void orderPreservedPerPartition() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			PartitionedExecutorSubscribableChannel channel = new PartitionedExecutorSubscribableChannel(executor, 4);
+			channel.setBatchSize(5);
+			int sessionCount = 8;
+			int messageCount = 500;
+			List<List<Integer>> received = new ArrayList<>();
+			for (int i = 0; i < sessionCount; i++) {
+				received.add(new CopyOnWriteArrayList<>());
+			}
+			CountDownLatch latch = new CountDownLatch(sessionCount * messageCount);
+			channel.subscribe(message -> {
+				int session = Integer.parseInt((String) message.getHeaders().get("simpSessionId"));
+				received.get(session).add((Integer) message.getPayload());
+				latch.countDown();
+			});
+
+			for (int i = 0; i < messageCount; i++) {
+				for (int session = 0; session < sessionCount; session++) {
+					channel.send(createMessage(String.valueOf(session), i));
+				}
+			}
+
+			assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+			for (List<Integer> payloads : received) {
+				assertThat(payloads).hasSize(messageCount).isSorted();
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void executorInterceptorsApplied() {
+		PartitionedExecutorSubscribableChannel channel = new PartitionedExecutorSubscribableChannel(Runnable::run, 2);
+		CountingInterceptor interceptor = new CountingInterceptor();
+		channel.addInterceptor(interceptor);
+		channel.subscribe(message -> {});
+		channel.subscribe(message -> {});
+
+		channel.send(createMessage("sess1", 1));
+
+		assertThat(interceptor.beforeHandleCount.get()).isEqualTo(2);
+		assertThat(interceptor.afterHandledCount.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void handlerFailureDoesNotStallPartition() {
+		PartitionedExecutorSubscribableChannel channel = new PartitionedExecutorSubscribableChannel(Runnable::run, 1);
+		List<Object> received = new ArrayList<>();
+		channel.subscribe(message -> {
+			if (message.getPayload().equals(1)) {
+				throw new IllegalStateException("Fake exception");
+			}
+			received.add(message.getPayload());
+		});
+
+		channel.send(createMessage("sess1", 1));
+		channel.send(createMessage("sess1", 2));
+
+		assertThat(received).containsExactly(2);
+	}
+
+	@Test
+	public void rejectedMessageNotDeliveredLater() {
+		List<Runnable> tasks = new ArrayList<>();
+		AtomicInteger rejections = new AtomicInteger(1);
+		PartitionedExecutorSubscribableChannel channel = new PartitionedExecutorSubscribableChannel(task -> {
+			if (rejections.getAndDecrement() > 0) {
+				throw new RejectedExecutionException("Fake rejection");
+			}
+			tasks.add(task);
+		}, 1);
+		List<Object> received = new ArrayList<>();
+		channel.subscribe(message -> received.add(message.getPayload()));
+
+		assertThatExceptionOfType(MessageDeliveryException.class).isThrownBy(() ->
+				channel.send(createMessage("sess1", 1)));
+		channel.send(createMessage("sess1", 2));
+
+		assertThat(tasks).hasSize(1);
+		tasks.remove(0).run();
+		assertThat(received).containsExactly(2);
+	}
+
+	@Test
+	public void messageAddedConcurrentlyWithRejectionNotStranded() {
+		List<Runnable> tasks = new ArrayList<>();
+		AtomicReference<MessageChannel> channelRef = new AtomicReference<>();
+		AtomicInteger rejections = new AtomicInteger(1);
+		PartitionedExecutorSubscribableChannel channel = new PartitionedExecutorSubscribableChannel(task -> {
+			if (rejections.getAndDecrement() > 0) {
+				// Another sender adds to the lane while it is still marked as scheduled
+				channelRef.get().send(createMessage("sess1", 2));
+				throw new RejectedExecutionException("Fake rejection");
+			}
+			tasks.add(task);
+		}, 1);
+		channelRef.set(channel);
+		List<Object> received = new ArrayList<>();
+		channel.subscribe(message -> received.add(message.getPayload()));
+
+		assertThatExceptionOfType(MessageDeliveryException.class).isThrownBy(() ->
+				channel.send(createMessage("sess1", 1)));
+
+		assertThat(received).containsExactly(2);
+		assertThat(tasks).isEmpty();
+	}
+
+	@Test
+	public void rejectedRescheduleDrainsOnCurrentThread() {
+		List<Runnable> tasks = new ArrayList<>();
+		AtomicInteger accepted = new AtomicInteger(1);
+		PartitionedExecutorSubscribableChannel channel = new PartitionedExecutorSubscribableChannel(task -> {
+			if (accepted.getAndDecrement() <= 0) {
+				throw new RejectedExecutionException("Fake rejection");
+			}
+			tasks.add(task);
+		}, 1);
+		channel.setBatchSize(2);
+		List<Object> received = new ArrayList<>();
+		channel.subscribe(message -> received.add(message.getPayload()));
+
+		for (int i = 0; i < 5; i++) {
+			channel.send(createMessage("sess1", i));
+		}
+
+		tasks.remove(0).run();
+		assertThat(received).containsExactly(0, 1, 2, 3, 4);
+		assertThat(tasks).isEmpty();
+	}
+
+	private static Message<Integer> createMessage(String sessionId, int payload) {
+		return MessageBuilder.withPayload(payload)
+				.setHeader(PartitionedExecutorSubscribableChannel.DEFAULT_PARTITION_HEADER, sessionId)
+				.build();
+	}
+
+
+	private static class CountingInterceptor implements ExecutorChannelInterceptor {
+
+		private final AtomicInteger beforeHandleCount = new AtomicInteger();
+
+		private final AtomicInteger afterHandledCount = new AtomicInteger();
+
+		@Override
+		public Message<?> beforeHandle(Message<?> message, MessageChannel channel, MessageHandler handler) {
+			this.beforeHandleCount.incrementAndGet();
+			return message;
+		}
+
+		@Override
+		public void afterMessageHandled(
+				Message<?> message, MessageChannel channel, MessageHandler handler, @Nullable Exception ex) {
+
+			this.afterHandledCount.incrementAndGet();
+		}
+	}
+
+}
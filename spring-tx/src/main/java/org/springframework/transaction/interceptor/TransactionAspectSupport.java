@@ -18,6 +18,7 @@ package org.springframework.transaction.interceptor;
 
 import java.lang.reflect.Method;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import io.vavr.control.Try;
@@ -33,6 +34,7 @@ import org.springframework.beans.factory.BeanFactoryAware;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.BeanFactoryAnnotationUtils;
 import org.springframework.core.KotlinDetector;
+import org.springframework.core.MethodClassKey;
 import org.springframework.core.NamedThreadLocal;
 import org.springframework.core.ReactiveAdapter;
 import org.springframework.core.ReactiveAdapterRegistry;
@@ -41,15 +43,21 @@ import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.ReactiveTransaction;
 import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionManager;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.TransactionSystemException;
 import org.springframework.transaction.TransactionUsageException;
 import org.springframework.transaction.reactive.TransactionContextManager;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
 import org.springframework.transaction.support.CallbackPreferringPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.ResourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -175,6 +183,12 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 
 	private final ConcurrentMap<Object, Object> transactionManagerCache = new ConcurrentReferenceHashMap<>(4);
 
+	private final ConcurrentMap<MethodClassKey, TransactionPlan> transactionPlanCache = new ConcurrentHashMap<>(64);
+
+	private final boolean transactionManagerOverridden;
+
+	private boolean lightweightParticipation = false;
+
 
 	protected TransactionAspectSupport() {
 		if (reactiveStreamsPresent) {
@@ -183,6 +197,11 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		else {
 			this.reactiveAdapterRegistry = null;
 		}
+		// A custom determineTransactionManager implementation may route per invocation
+		Method determineMethod = ReflectionUtils.findMethod(
+				getClass(), "determineTransactionManager", TransactionAttribute.class);
+		this.transactionManagerOverridden =
+				(determineMethod != null && determineMethod.getDeclaringClass() != TransactionAspectSupport.class);
 	}
 
 
@@ -193,6 +212,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionManagerBeanName(@Nullable String transactionManagerBeanName) {
 		this.transactionManagerBeanName = transactionManagerBeanName;
+		this.transactionPlanCache.clear();
 	}
 
 	/**
@@ -214,6 +234,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionManager(@Nullable TransactionManager transactionManager) {
 		this.transactionManager = transactionManager;
+		this.transactionPlanCache.clear();
 	}
 
 	/**
@@ -242,6 +263,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		NameMatchTransactionAttributeSource tas = new NameMatchTransactionAttributeSource();
 		tas.setProperties(transactionAttributes);
 		this.transactionAttributeSource = tas;
+		this.transactionPlanCache.clear();
 	}
 
 	/**
@@ -254,6 +276,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionAttributeSources(TransactionAttributeSource... transactionAttributeSources) {
 		this.transactionAttributeSource = new CompositeTransactionAttributeSource(transactionAttributeSources);
+		this.transactionPlanCache.clear();
 	}
 
 	/**
@@ -267,6 +290,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	 */
 	public void setTransactionAttributeSource(@Nullable TransactionAttributeSource transactionAttributeSource) {
 		this.transactionAttributeSource = transactionAttributeSource;
+		this.transactionPlanCache.clear();
 	}
 
 	/**
@@ -283,6 +307,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	@Override
 	public void setBeanFactory(@Nullable BeanFactory beanFactory) {
 		this.beanFactory = beanFactory;
+		this.transactionPlanCache.clear();
 	}
 
 	/**
@@ -293,6 +318,40 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		return this.beanFactory;
 	}
 
+	/**
+	 * Set whether methods with {@code PROPAGATION_SUPPORTS}, or read-only methods
+	 * with {@code PROPAGATION_REQUIRED} or {@code PROPAGATION_MANDATORY}, should
+	 * participate in an existing transaction started by this aspect for the same
+	 * transaction manager without going through the transaction manager at all.
+	 * <p>Default is "false". Switch this to "true" to avoid the overhead of
+	 * {@code getTransaction}/{@code commit} for nested read operations. The
+	 * transaction manager is still consulted to mark the existing transaction
+	 * rollback-only if such a method throws an exception that requires a rollback.
+	 * Note that {@link #currentTransactionStatus()} exposes the status of the
+	 * outer transaction within such methods, so a rollback-only marker set there
+	 * applies to the outer transaction directly, not leading to an
+	 * {@link org.springframework.transaction.UnexpectedRollbackException}.
+	 * <p>Only applies to a {@link ResourceTransactionManager} as long as the
+	 * resource of the outer transaction is still bound to the thread, i.e. not
+	 * while the outer transaction is suspended by a programmatically demarcated
+	 * transaction. Does not apply to a {@link CallbackPreferringPlatformTransactionManager}
+	 * or to transaction managers with
+	 * {@link AbstractPlatformTransactionManager#setValidateExistingTransaction
+	 * "validateExistingTransaction"} switched on.
+	 * @since 5.2
+	 */
+	public void setLightweightParticipation(boolean lightweightParticipation) {
+		this.lightweightParticipation = lightweightParticipation;
+	}
+
+	/**
+	 * Return whether lightweight participation in existing transactions is active.
+	 * @since 5.2
+	 */
+	public boolean isLightweightParticipation() {
+		return this.lightweightParticipation;
+	}
+
 	/**
 	 * Check that required properties were set.
 	 */
@@ -337,14 +396,22 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		}
 
 		// If the transaction attribute is null, the method is non-transactional.
-		TransactionAttributeSource tas = getTransactionAttributeSource();
-		final TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
-		final PlatformTransactionManager tm = determineTransactionManager(txAttr);
-		final String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
+		TransactionPlan plan = getTransactionPlan(method, targetClass);
+		final TransactionAttribute txAttr = plan.transactionAttribute;
+		final PlatformTransactionManager tm = (this.transactionManagerOverridden ?
+				determineTransactionManager(txAttr) : plan.transactionManager);
+		final String joinpointIdentification = plan.joinpointIdentification;
 
 		if (txAttr == null || !(tm instanceof CallbackPreferringPlatformTransactionManager)) {
+			if (plan.participationCandidate && this.lightweightParticipation) {
+				TransactionInfo outerTxInfo = transactionInfoHolder.get();
+				if (canParticipateDirectly(outerTxInfo, tm)) {
+					return invokeParticipating(outerTxInfo, plan, invocation);
+				}
+			}
+
 			// Standard transaction demarcation with getTransaction and commit/rollback calls.
-			TransactionInfo txInfo = createTransactionIfNecessary(tm, txAttr, joinpointIdentification);
+			TransactionInfo txInfo = createTransactionIfNecessary(tm, plan.namedTransactionAttribute, joinpointIdentification);
 
 			Object retVal;
 			try {
@@ -434,11 +501,102 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		}
 	}
 
+	/**
+	 * Return the pre-resolved transaction plan for the given method and target
+	 * class, holding the transaction attribute, the transaction manager and the
+	 * joinpoint identification.
+	 * <p>The plan is cached per method and target class, which avoids resolving
+	 * the transaction attribute and transaction manager for subsequent invocations.
+	 */
+	private TransactionPlan getTransactionPlan(Method method, @Nullable Class<?> targetClass) {
+		MethodClassKey cacheKey = new MethodClassKey(method, targetClass);
+		TransactionPlan plan = this.transactionPlanCache.get(cacheKey);
+		if (plan == null) {
+			TransactionAttributeSource tas = getTransactionAttributeSource();
+			TransactionAttribute txAttr = (tas != null ? tas.getTransactionAttribute(method, targetClass) : null);
+			PlatformTransactionManager tm = (this.transactionManagerOverridden ? null : determineTransactionManager(txAttr));
+			String joinpointIdentification = methodIdentification(method, targetClass, txAttr);
+			plan = new TransactionPlan(txAttr, tm, joinpointIdentification);
+			this.transactionPlanCache.put(cacheKey, plan);
+		}
+		return plan;
+	}
+
+	private boolean canParticipateDirectly(@Nullable TransactionInfo outerTxInfo, @Nullable PlatformTransactionManager tm) {
+		if (outerTxInfo == null || outerTxInfo.transactionManager != tm ||
+				!(tm instanceof AbstractPlatformTransactionManager) || !(tm instanceof ResourceTransactionManager) ||
+				((AbstractPlatformTransactionManager) tm).isValidateExistingTransaction()) {
+			return false;
+		}
+		TransactionStatus outerStatus = outerTxInfo.transactionStatus;
+		if (!(outerStatus instanceof DefaultTransactionStatus) || outerStatus.isCompleted() ||
+				!((DefaultTransactionStatus) outerStatus).hasTransaction()) {
+			return false;
+		}
+		// The outer transaction might have been suspended by a programmatic transaction in the meantime
+		Object boundResource = outerTxInfo.boundResource;
+		return (boundResource != null &&
+				boundResource == getBoundResource((ResourceTransactionManager) tm));
+	}
+
+	@Nullable
+	private static Object getBoundResource(ResourceTransactionManager tm) {
+		return TransactionSynchronizationManager.getResource(tm.getResourceFactory());
+	}
+
+	/**
+	 * Invoke a method that participates in the outer transaction, exposing the
+	 * outer transaction status and only consulting the transaction manager in
+	 * case of an exception that requires a rollback.
+	 * @see #setLightweightParticipation
+	 */
+	@Nullable
+	private Object invokeParticipating(TransactionInfo outerTxInfo, TransactionPlan plan,
+			InvocationCallback invocation) throws Throwable {
+
+		PlatformTransactionManager tm = outerTxInfo.getTransactionManager();
+		TransactionAttribute txAttr = plan.namedTransactionAttribute;
+		Assert.state(txAttr != null, "No TransactionAttribute");
+		if (logger.isTraceEnabled()) {
+			logger.trace("Participating in existing transaction for [" + plan.joinpointIdentification + "]");
+		}
+		TransactionInfo txInfo = new TransactionInfo(tm, txAttr, plan.joinpointIdentification);
+		txInfo.newTransactionStatus(outerTxInfo.transactionStatus);
+		txInfo.boundResource = outerTxInfo.boundResource;
+		txInfo.bindToThread();
+
+		Object retVal;
+		try {
+			retVal = invocation.proceedWithInvocation();
+		}
+		catch (Throwable ex) {
+			if (txAttr.rollbackOn(ex)) {
+				// Let the transaction manager apply its participation failure policy
+				TransactionInfo participatingTxInfo = new TransactionInfo(tm, txAttr, plan.joinpointIdentification);
+				participatingTxInfo.newTransactionStatus(tm.getTransaction(txAttr));
+				completeTransactionAfterThrowing(participatingTxInfo, ex);
+			}
+			throw ex;
+		}
+		finally {
+			cleanupTransactionInfo(txInfo);
+		}
+
+		if (vavrPresent && VavrDelegate.isVavrTry(retVal)) {
+			// Evaluate Vavr failure against a regular participating status
+			TransactionStatus status = tm.getTransaction(txAttr);
+			retVal = VavrDelegate.evaluateTryFailure(retVal, txAttr, status);
+			tm.commit(status);
+		}
+		return retVal;
+	}
+
 	/**
 	 * Clear the cache.
 	 */
 	protected void clearTransactionManagerCache() {
 		this.transactionManagerCache.clear();
+		this.transactionPlanCache.clear();
 		this.beanFactory = null;
 	}
 
@@ -589,6 +747,10 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 			}
 			// The transaction manager will flag an error if an incompatible tx already exists.
 			txInfo.newTransactionStatus(status);
+			if (status != null && this.lightweightParticipation && tm instanceof ResourceTransactionManager) {
+				// Remember the resource of this transaction for direct participation checks
+				txInfo.boundResource = getBoundResource((ResourceTransactionManager) tm);
+			}
 		}
 		else {
 			// The TransactionInfo.hasTransaction() method will return false. We created it only
@@ -694,6 +856,9 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 		@Nullable
 		private TransactionStatus transactionStatus;
 
+		@Nullable
+		private Object boundResource;
+
 		@Nullable
 		private TransactionInfo oldTransactionInfo;
 
@@ -760,6 +925,52 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 	}
 
 
+	/**
+	 * Pre-resolved transaction settings for a method.
+	 */
+	@SuppressWarnings("serial")
+	private static final class TransactionPlan {
+
+		@Nullable
+		private final TransactionAttribute transactionAttribute;
+
+		@Nullable
+		private final TransactionAttribute namedTransactionAttribute;
+
+		@Nullable
+		private final PlatformTransactionManager transactionManager;
+
+		private final String joinpointIdentification;
+
+		private final boolean participationCandidate;
+
+		public TransactionPlan(@Nullable TransactionAttribute txAttr, @Nullable PlatformTransactionManager tm,
+				String joinpointIdentification) {
+
+			this.transactionAttribute = txAttr;
+			this.transactionManager = tm;
+			this.joinpointIdentification = joinpointIdentification;
+			if (txAttr != null && txAttr.getName() == null) {
+				// Apply method identification as transaction name once
+				this.namedTransactionAttribute = new DelegatingTransactionAttribute(txAttr) {
+					@Override
+					public String getName() {
+						return joinpointIdentification;
+					}
+				};
+			}
+			else {
+				this.namedTransactionAttribute = txAttr;
+			}
+			this.participationCandidate = (txAttr != null &&
+					(txAttr.getPropagationBehavior() == TransactionDefinition.PROPAGATION_SUPPORTS ||
+					(txAttr.isReadOnly() &&
+							(txAttr.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRED ||
+							txAttr.getPropagationBehavior() == TransactionDefinition.PROPAGATION_MANDATORY))));
+		}
+	}
+
+
 	/**
 	 * Simple callback interface for proceeding with the target invocation.
 	 * Concrete interceptors/aspects adapt this to their invocation mechanism.
@@ -875,8 +1086,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 								// target invocation exception
 								return completeTransactionAfterThrowing(it, ex).then(Mono.error(ex));
 							}
-						})).subscriberContext(TransactionContextManager.getOrCreateContext())
-						.subscriberContext(TransactionContextManager.getOrCreateContextHolder());
+						})).subscriberContext(TransactionContextManager.getOrCreateContextWithHolder());
 			}
 
 			// Any other reactive type, typically a Flux
@@ -905,8 +1115,7 @@ public abstract class TransactionAspectSupport implements BeanFactoryAware, Init
 							// target invocation exception
 							return completeTransactionAfterThrowing(it, ex).then(Mono.error(ex));
 						}
-					})).subscriberContext(TransactionContextManager.getOrCreateContext())
-					.subscriberContext(TransactionContextManager.getOrCreateContextHolder()));
+					})).subscriberContext(TransactionContextManager.getOrCreateContextWithHolder()));
 		}
 
 		@Nullable
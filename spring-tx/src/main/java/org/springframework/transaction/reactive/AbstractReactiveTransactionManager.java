@@ -128,27 +128,24 @@ public abstract class AbstractReactiveTransactionManager implements ReactiveTran
 					def.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW ||
 					def.getPropagationBehavior() == TransactionDefinition.PROPAGATION_NESTED) {
 
-				return TransactionContextManager.currentContext()
-						.map(TransactionSynchronizationManager::new)
-						.flatMap(nestedSynchronizationManager ->
-								suspend(nestedSynchronizationManager, null)
-								.map(Optional::of)
-								.defaultIfEmpty(Optional.empty())
-								.flatMap(suspendedResources -> {
-							if (debugEnabled) {
-								logger.debug("Creating new transaction with name [" + def.getName() + "]: " + def);
-							}
-							return Mono.defer(() -> {
-								GenericReactiveTransaction status = newReactiveTransaction(
-										nestedSynchronizationManager, def, transaction, true,
-										debugEnabled, suspendedResources.orElse(null));
-								return doBegin(nestedSynchronizationManager, transaction, def)
-										.doOnSuccess(ignore -> prepareSynchronization(nestedSynchronizationManager, status, def))
-										.thenReturn(status);
-							}).onErrorResume(ErrorPredicates.RUNTIME_OR_ERROR,
-									ex -> resume(nestedSynchronizationManager, null, suspendedResources.orElse(null))
-									.then(Mono.error(ex)));
-						}));
+				return suspend(synchronizationManager, null)
+						.map(Optional::of)
+						.defaultIfEmpty(Optional.empty())
+						.flatMap(suspendedResources -> {
+					if (debugEnabled) {
+						logger.debug("Creating new transaction with name [" + def.getName() + "]: " + def);
+					}
+					return Mono.defer(() -> {
+						GenericReactiveTransaction status = newReactiveTransaction(
+								synchronizationManager, def, transaction, true,
+								debugEnabled, suspendedResources.orElse(null));
+						return doBegin(synchronizationManager, transaction, def)
+								.doOnSuccess(ignore -> prepareSynchronization(synchronizationManager, status, def))
+								.thenReturn(status);
+					}).onErrorResume(ErrorPredicates.RUNTIME_OR_ERROR,
+							ex -> resume(synchronizationManager, null, suspendedResources.orElse(null))
+							.then(Mono.error(ex)));
+				});
 			}
 			else {
 				// Create "empty" transaction: no actual transaction, but potentially synchronization.
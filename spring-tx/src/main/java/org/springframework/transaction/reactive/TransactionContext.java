@@ -40,7 +40,8 @@ public class TransactionContext {
 
 	private final @Nullable TransactionContext parent;
 
-	private final UUID contextId = UUID.randomUUID();
+	@Nullable
+	private volatile UUID contextId;
 
 	private final Map<Object, Object> resources = new LinkedHashMap<>();
 
@@ -72,13 +73,24 @@ public class TransactionContext {
 
 	public String getName() {
 		if (StringUtils.hasText(this.currentTransactionName)) {
-			return this.contextId + ": " + this.currentTransactionName;
+			return getContextId() + ": " + this.currentTransactionName;
 		}
-		return this.contextId.toString();
+		return getContextId().toString();
 	}
 
 	public UUID getContextId() {
-		return this.contextId;
+		// Generated lazily: only needed for logging and error messages
+		UUID contextId = this.contextId;
+		if (contextId == null) {
+			synchronized (this) {
+				contextId = this.contextId;
+				if (contextId == null) {
+					contextId = UUID.randomUUID();
+					this.contextId = contextId;
+				}
+			}
+		}
+		return contextId;
 	}
 
 	public Map<Object, Object> getResources() {
@@ -16,13 +16,13 @@
 
 package org.springframework.transaction.reactive;
 
-import java.util.Deque;
-
+import org.springframework.lang.Nullable;
 import org.springframework.transaction.NoTransactionException;
 
 /**
  * Mutable holder for reactive transaction {@link TransactionContext contexts}.
- * This holder keeps references to individual {@link TransactionContext}s.
+ * This holder keeps a reference to the innermost {@link TransactionContext};
+ * outer contexts remain reachable through {@link TransactionContext#getParent()}.
  *
  * @author Mark Paluch
  * @author Juergen Hoeller
@@ -31,11 +31,15 @@ import org.springframework.transaction.NoTransactionException;
  */
 final class TransactionContextHolder {
 
-	private final Deque<TransactionContext> transactionStack;
+	@Nullable
+	private volatile TransactionContext currentContext;
+
 
+	TransactionContextHolder() {
+	}
 
-	TransactionContextHolder(Deque<TransactionContext> transactionStack) {
-		this.transactionStack = transactionStack;
+	TransactionContextHolder(TransactionContext context) {
+		this.currentContext = context;
 	}
 
 
@@ -44,7 +48,7 @@ final class TransactionContextHolder {
 	 * @throws NoTransactionException if no transaction is ongoing
 	 */
 	TransactionContext currentContext() {
-		TransactionContext context = this.transactionStack.peek();
+		TransactionContext context = this.currentContext;
 		if (context == null) {
 			throw new NoTransactionException("No transaction in context");
 		}
@@ -55,14 +59,14 @@ final class TransactionContextHolder {
 	 * Create a new {@link TransactionContext}.
 	 */
 	TransactionContext createContext() {
-		TransactionContext context = this.transactionStack.peek();
+		TransactionContext context = this.currentContext;
 		if (context != null) {
 			context = new TransactionContext(context);
 		}
 		else {
 			context = new TransactionContext();
 		}
-		this.transactionStack.push(context);
+		this.currentContext = context;
 		return context;
 	}
 
@@ -71,7 +75,7 @@ final class TransactionContextHolder {
 	 * @return {@literal true} if a {@link TransactionContext} is associated
 	 */
 	boolean hasContext() {
-		return !this.transactionStack.isEmpty();
+		return (this.currentContext != null);
 	}
 
 }
@@ -16,7 +16,6 @@
 
 package org.springframework.transaction.reactive;
 
-import java.util.ArrayDeque;
 import java.util.function.Function;
 
 import reactor.core.publisher.Flux;
@@ -37,6 +36,49 @@ import org.springframework.transaction.NoTransactionException;
  */
 public abstract class TransactionContextManager {
 
+	private static final Mono<TransactionContext> CURRENT_CONTEXT =
+			Mono.subscriberContext().handle((ctx, sink) -> {
+				TransactionContext context = ctx.getOrDefault(TransactionContext.class, null);
+				if (context != null) {
+					sink.next(context);
+					return;
+				}
+				TransactionContextHolder holder = ctx.getOrDefault(TransactionContextHolder.class, null);
+				if (holder != null && holder.hasContext()) {
+					sink.next(holder.currentContext());
+					return;
+				}
+				sink.error(new NoTransactionInContextException());
+			});
+
+	private static final Function<Context, Context> GET_OR_CREATE_CONTEXT = context -> {
+		TransactionContextHolder holder = context.get(TransactionContextHolder.class);
+		if (holder.hasContext()) {
+			return context.put(TransactionContext.class, holder.currentContext());
+		}
+		return context.put(TransactionContext.class, holder.createContext());
+	};
+
+	private static final Function<Context, Context> GET_OR_CREATE_CONTEXT_HOLDER = context -> {
+		if (!context.hasKey(TransactionContextHolder.class)) {
+			return context.put(TransactionContextHolder.class, new TransactionContextHolder());
+		}
+		return context;
+	};
+
+	private static final Function<Context, Context> GET_OR_CREATE_CONTEXT_WITH_HOLDER = context -> {
+		TransactionContextHolder holder = context.getOrDefault(TransactionContextHolder.class, null);
+		if (holder == null) {
+			// Outermost transactional flow: no need to consult the holder
+			TransactionContext transactionContext = new TransactionContext();
+			return context.put(TransactionContextHolder.class, new TransactionContextHolder(transactionContext))
+					.put(TransactionContext.class, transactionContext);
+		}
+		return context.put(TransactionContext.class,
+				(holder.hasContext() ? holder.currentContext() : holder.createContext()));
+	};
+
+
 	private TransactionContextManager() {
 	}
 
@@ -50,20 +92,7 @@ public abstract class TransactionContextManager {
 	 * or no context found in a holder
 	 */
 	public static Mono<TransactionContext> currentContext() throws NoTransactionException {
-		return Mono.subscriberContext().handle((ctx, sink) -> {
-			if (ctx.hasKey(TransactionContext.class)) {
-				sink.next(ctx.get(TransactionContext.class));
-				return;
-			}
-			if (ctx.hasKey(TransactionContextHolder.class)) {
-				TransactionContextHolder holder = ctx.get(TransactionContextHolder.class);
-				if (holder.hasContext()) {
-					sink.next(holder.currentContext());
-					return;
-				}
-			}
-			sink.error(new NoTransactionInContextException());
-		});
+		return CURRENT_CONTEXT;
 	}
 
 	/**
@@ -85,13 +114,7 @@ public abstract class TransactionContextManager {
 	 * @return functional context registration.
 	 */
 	public static Function<Context, Context> getOrCreateContext() {
-		return context -> {
-			TransactionContextHolder holder = context.get(TransactionContextHolder.class);
-			if (holder.hasContext()) {
-				return context.put(TransactionContext.class, holder.currentContext());
-			}
-			return context.put(TransactionContext.class, holder.createContext());
-		};
+		return GET_OR_CREATE_CONTEXT;
 	}
 
 	/**
@@ -103,12 +126,19 @@ public abstract class TransactionContextManager {
 	 * @return functional context registration.
 	 */
 	public static Function<Context, Context> getOrCreateContextHolder() {
-		return context -> {
-			if (!context.hasKey(TransactionContextHolder.class)) {
-				return context.put(TransactionContextHolder.class, new TransactionContextHolder(new ArrayDeque<>()));
-			}
-			return context;
-		};
+		return GET_OR_CREATE_CONTEXT_HOLDER;
+	}
+
+	/**
+	 * Return a {@link Function} to create or associate a new {@link TransactionContext}
+	 * along with its {@link TransactionContextHolder}, as a single subscriber context
+	 * operation. Equivalent to applying {@link #getOrCreateContext()} on top of
+	 * {@link #getOrCreateContextHolder()}, with a fast path for transactional flows
+	 * that are not nested within another one.
+	 * @return functional context registration.
+	 */
+	public static Function<Context, Context> getOrCreateContextWithHolder() {
+		return GET_OR_CREATE_CONTEXT_WITH_HOLDER;
 	}
 
 
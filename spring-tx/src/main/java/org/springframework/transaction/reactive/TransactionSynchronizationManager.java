@@ -73,6 +73,9 @@ public class TransactionSynchronizationManager {
 
 	private static final Log logger = LogFactory.getLog(TransactionSynchronizationManager.class);
 
+	/** Marker for active synchronization without any synchronizations registered yet. */
+	private static final Set<TransactionSynchronization> NO_SYNCHRONIZATIONS = Collections.emptySet();
+
 	private final TransactionContext transactionContext;
 
 
@@ -214,7 +217,7 @@ public class TransactionSynchronizationManager {
 			throw new IllegalStateException("Cannot activate transaction synchronization - already active");
 		}
 		logger.trace("Initializing transaction synchronization");
-		this.transactionContext.setSynchronizations(new LinkedHashSet<>());
+		this.transactionContext.setSynchronizations(NO_SYNCHRONIZATIONS);
 	}
 
 	/**
@@ -235,6 +238,11 @@ public class TransactionSynchronizationManager {
 		if (synchs == null) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
+		if (synchs == NO_SYNCHRONIZATIONS) {
+			// Allocate the actual set on first registration only
+			synchs = new LinkedHashSet<>(4);
+			this.transactionContext.setSynchronizations(synchs);
+		}
 		synchs.add(synchronization);
 	}
 
@@ -83,8 +83,7 @@ final class TransactionalOperatorImpl implements TransactionalOperator {
 					this.transactionManager::commit, (res, err) -> Mono.empty(), s -> Mono.empty())
 					.onErrorResume(ex -> rollbackOnException(it, ex).then(Mono.error(ex))));
 		})
-		.subscriberContext(TransactionContextManager.getOrCreateContext())
-		.subscriberContext(TransactionContextManager.getOrCreateContextHolder());
+		.subscriberContext(TransactionContextManager.getOrCreateContextWithHolder());
 	}
 
 	@Override
@@ -105,8 +104,7 @@ final class TransactionalOperatorImpl implements TransactionalOperator {
 					.onErrorResume(ex ->
 							rollbackOnException(it, ex).then(Mono.error(ex))));
 		})
-		.subscriberContext(TransactionContextManager.getOrCreateContext())
-		.subscriberContext(TransactionContextManager.getOrCreateContextHolder());
+		.subscriberContext(TransactionContextManager.getOrCreateContextWithHolder());
 	}
 
 	/**
@@ -17,8 +17,9 @@
 package org.springframework.transaction.support;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -64,6 +65,11 @@ import org.springframework.util.Assert;
  * within a JTA transaction, e.g. a JDBC Connection or a Hibernate Session for
  * any given DataSource or SessionFactory, respectively.
  *
+ * <p>All state is held in a single thread-bound context object which is only
+ * present while the current thread has bound resources, active synchronization
+ * or exposed transaction characteristics, keeping thread-local access to a
+ * minimum and not leaving any state behind on pooled threads.
+ *
  * @author Juergen Hoeller
  * @since 02.06.2003
  * @see #isSynchronizationActive
@@ -78,23 +84,30 @@ public abstract class TransactionSynchronizationManager {
 
 	private static final Log logger = LogFactory.getLog(TransactionSynchronizationManager.class);
 
-	private static final ThreadLocal<Map<Object, Object>> resources =
-			new NamedThreadLocal<>("Transactional resources");
-
-	private static final ThreadLocal<Set<TransactionSynchronization>> synchronizations =
-			new NamedThreadLocal<>("Transaction synchronizations");
+	private static final ThreadLocal<SynchronizationContext> currentContext =
+			new NamedThreadLocal<>("Transaction synchronization context");
 
-	private static final ThreadLocal<String> currentTransactionName =
-			new NamedThreadLocal<>("Current transaction name");
 
-	private static final ThreadLocal<Boolean> currentTransactionReadOnly =
-			new NamedThreadLocal<>("Current transaction read-only status");
-
-	private static final ThreadLocal<Integer> currentTransactionIsolationLevel =
-			new NamedThreadLocal<>("Current transaction isolation level");
+	/**
+	 * Return the context bound to the current thread, creating it if necessary.
+	 */
+	private static SynchronizationContext obtainContext() {
+		SynchronizationContext context = currentContext.get();
+		if (context == null) {
+			context = new SynchronizationContext();
+			currentContext.set(context);
+		}
+		return context;
+	}
 
-	private static final ThreadLocal<Boolean> actualTransactionActive =
-			new NamedThreadLocal<>("Actual transaction active");
+	/**
+	 * Remove the given context from the current thread if it does not hold any state.
+	 */
+	private static void releaseContextIfEmpty(SynchronizationContext context) {
+		if (context.isEmpty()) {
+			currentContext.remove();
+		}
+	}
 
 
 	//-------------------------------------------------------------------------
@@ -111,8 +124,9 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #hasResource
 	 */
 	public static Map<Object, Object> getResourceMap() {
-		Map<Object, Object> map = resources.get();
-		return (map != null ? Collections.unmodifiableMap(map) : Collections.emptyMap());
+		SynchronizationContext context = currentContext.get();
+		return (context != null && context.resourceCount > 0 ?
+				Collections.unmodifiableMap(context.getResourceMap()) : Collections.emptyMap());
 	}
 
 	/**
@@ -150,18 +164,20 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	private static Object doGetResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+		SynchronizationContext context = currentContext.get();
+		if (context == null) {
+			return null;
+		}
+		int index = context.indexOfResource(actualKey);
+		if (index == -1) {
 			return null;
 		}
-		Object value = map.get(actualKey);
+		Object value = context.resourceValues[index];
 		// Transparently remove ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
-			map.remove(actualKey);
+			context.removeResource(index);
 			// Remove entire ThreadLocal if empty...
-			if (map.isEmpty()) {
-				resources.remove();
-			}
+			releaseContextIfEmpty(context);
 			value = null;
 		}
 		return value;
@@ -177,13 +193,7 @@ public abstract class TransactionSynchronizationManager {
 	public static void bindResource(Object key, Object value) throws IllegalStateException {
 		Object actualKey = TransactionSynchronizationUtils.unwrapResourceIfNecessary(key);
 		Assert.notNull(value, "Value must not be null");
-		Map<Object, Object> map = resources.get();
-		// set ThreadLocal Map if none found
-		if (map == null) {
-			map = new HashMap<>();
-			resources.set(map);
-		}
-		Object oldValue = map.put(actualKey, value);
+		Object oldValue = obtainContext().putResource(actualKey, value);
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (oldValue instanceof ResourceHolder && ((ResourceHolder) oldValue).isVoid()) {
 			oldValue = null;
@@ -231,15 +241,14 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	private static Object doUnbindResource(Object actualKey) {
-		Map<Object, Object> map = resources.get();
-		if (map == null) {
+		SynchronizationContext context = currentContext.get();
+		if (context == null) {
 			return null;
 		}
-		Object value = map.remove(actualKey);
+		int index = context.indexOfResource(actualKey);
+		Object value = (index != -1 ? context.removeResource(index) : null);
 		// Remove entire ThreadLocal if empty...
-		if (map.isEmpty()) {
-			resources.remove();
-		}
+		releaseContextIfEmpty(context);
 		// Transparently suppress a ResourceHolder that was marked as void...
 		if (value instanceof ResourceHolder && ((ResourceHolder) value).isVoid()) {
 			value = null;
@@ -262,7 +271,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #registerSynchronization
 	 */
 	public static boolean isSynchronizationActive() {
-		return (synchronizations.get() != null);
+		SynchronizationContext context = currentContext.get();
+		return (context != null && context.synchronizations != null);
 	}
 
 	/**
@@ -275,7 +285,7 @@ public abstract class TransactionSynchronizationManager {
 			throw new IllegalStateException("Cannot activate transaction synchronization - already active");
 		}
 		logger.trace("Initializing transaction synchronization");
-		synchronizations.set(new LinkedHashSet<>());
+		obtainContext().synchronizations = new LinkedHashSet<>();
 	}
 
 	/**
@@ -292,7 +302,8 @@ public abstract class TransactionSynchronizationManager {
 			throws IllegalStateException {
 
 		Assert.notNull(synchronization, "TransactionSynchronization must not be null");
-		Set<TransactionSynchronization> synchs = synchronizations.get();
+		SynchronizationContext context = currentContext.get();
+		Set<TransactionSynchronization> synchs = (context != null ? context.synchronizations : null);
 		if (synchs == null) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
@@ -307,7 +318,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization
 	 */
 	public static List<TransactionSynchronization> getSynchronizations() throws IllegalStateException {
-		Set<TransactionSynchronization> synchs = synchronizations.get();
+		SynchronizationContext context = currentContext.get();
+		Set<TransactionSynchronization> synchs = (context != null ? context.synchronizations : null);
 		if (synchs == null) {
 			throw new IllegalStateException("Transaction synchronization is not active");
 		}
@@ -331,11 +343,13 @@ public abstract class TransactionSynchronizationManager {
 	 * @throws IllegalStateException if synchronization is not active
 	 */
 	public static void clearSynchronization() throws IllegalStateException {
-		if (!isSynchronizationActive()) {
+		SynchronizationContext context = currentContext.get();
+		if (context == null || context.synchronizations == null) {
 			throw new IllegalStateException("Cannot deactivate transaction synchronization - not active");
 		}
 		logger.trace("Clearing transaction synchronization");
-		synchronizations.remove();
+		context.synchronizations = null;
+		releaseContextIfEmpty(context);
 	}
 
 
@@ -350,7 +364,16 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getName()
 	 */
 	public static void setCurrentTransactionName(@Nullable String name) {
-		currentTransactionName.set(name);
+		if (name != null) {
+			obtainContext().transactionName = name;
+		}
+		else {
+			SynchronizationContext context = currentContext.get();
+			if (context != null) {
+				context.transactionName = null;
+				releaseContextIfEmpty(context);
+			}
+		}
 	}
 
 	/**
@@ -361,7 +384,8 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static String getCurrentTransactionName() {
-		return currentTransactionName.get();
+		SynchronizationContext context = currentContext.get();
+		return (context != null ? context.transactionName : null);
 	}
 
 	/**
@@ -372,7 +396,16 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#isReadOnly()
 	 */
 	public static void setCurrentTransactionReadOnly(boolean readOnly) {
-		currentTransactionReadOnly.set(readOnly ? Boolean.TRUE : null);
+		if (readOnly) {
+			obtainContext().transactionReadOnly = true;
+		}
+		else {
+			SynchronizationContext context = currentContext.get();
+			if (context != null) {
+				context.transactionReadOnly = false;
+				releaseContextIfEmpty(context);
+			}
+		}
 	}
 
 	/**
@@ -388,7 +421,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see TransactionSynchronization#beforeCommit(boolean)
 	 */
 	public static boolean isCurrentTransactionReadOnly() {
-		return (currentTransactionReadOnly.get() != null);
+		SynchronizationContext context = currentContext.get();
+		return (context != null && context.transactionReadOnly);
 	}
 
 	/**
@@ -408,7 +442,16 @@ public abstract class TransactionSynchronizationManager {
 	 * @see org.springframework.transaction.TransactionDefinition#getIsolationLevel()
 	 */
 	public static void setCurrentTransactionIsolationLevel(@Nullable Integer isolationLevel) {
-		currentTransactionIsolationLevel.set(isolationLevel);
+		if (isolationLevel != null) {
+			obtainContext().transactionIsolationLevel = isolationLevel;
+		}
+		else {
+			SynchronizationContext context = currentContext.get();
+			if (context != null) {
+				context.transactionIsolationLevel = null;
+				releaseContextIfEmpty(context);
+			}
+		}
 	}
 
 	/**
@@ -430,7 +473,8 @@ public abstract class TransactionSynchronizationManager {
 	 */
 	@Nullable
 	public static Integer getCurrentTransactionIsolationLevel() {
-		return currentTransactionIsolationLevel.get();
+		SynchronizationContext context = currentContext.get();
+		return (context != null ? context.transactionIsolationLevel : null);
 	}
 
 	/**
@@ -440,7 +484,16 @@ public abstract class TransactionSynchronizationManager {
 	 * with an actual transaction; {@code false} to reset that marker
 	 */
 	public static void setActualTransactionActive(boolean active) {
-		actualTransactionActive.set(active ? Boolean.TRUE : null);
+		if (active) {
+			obtainContext().actualTransactionActive = true;
+		}
+		else {
+			SynchronizationContext context = currentContext.get();
+			if (context != null) {
+				context.actualTransactionActive = false;
+				releaseContextIfEmpty(context);
+			}
+		}
 	}
 
 	/**
@@ -455,7 +508,8 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #isSynchronizationActive()
 	 */
 	public static boolean isActualTransactionActive() {
-		return (actualTransactionActive.get() != null);
+		SynchronizationContext context = currentContext.get();
+		return (context != null && context.actualTransactionActive);
 	}
 
 
@@ -469,11 +523,95 @@ public abstract class TransactionSynchronizationManager {
 	 * @see #setActualTransactionActive
 	 */
 	public static void clear() {
-		synchronizations.remove();
-		currentTransactionName.remove();
-		currentTransactionReadOnly.remove();
-		currentTransactionIsolationLevel.remove();
-		actualTransactionActive.remove();
+		SynchronizationContext context = currentContext.get();
+		if (context != null) {
+			context.synchronizations = null;
+			context.transactionName = null;
+			context.transactionReadOnly = false;
+			context.transactionIsolationLevel = null;
+			context.actualTransactionActive = false;
+			releaseContextIfEmpty(context);
+		}
+	}
+
+
+	/**
+	 * Holder for all transaction synchronization state of a thread, with
+	 * resources kept in small arrays since there are usually very few of them.
+	 */
+	private static final class SynchronizationContext {
+
+		private Object[] resourceKeys = new Object[2];
+
+		private Object[] resourceValues = new Object[2];
+
+		private int resourceCount;
+
+		@Nullable
+		private Set<TransactionSynchronization> synchronizations;
+
+		@Nullable
+		private String transactionName;
+
+		private boolean transactionReadOnly;
+
+		@Nullable
+		private Integer transactionIsolationLevel;
+
+		private boolean actualTransactionActive;
+
+		int indexOfResource(Object key) {
+			for (int i = 0; i < this.resourceCount; i++) {
+				Object candidate = this.resourceKeys[i];
+				if (candidate == key || candidate.equals(key)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Nullable
+		Object putResource(Object key, Object value) {
+			int index = indexOfResource(key);
+			if (index != -1) {
+				Object oldValue = this.resourceValues[index];
+				this.resourceValues[index] = value;
+				return oldValue;
+			}
+			if (this.resourceCount == this.resourceKeys.length) {
+				this.resourceKeys = Arrays.copyOf(this.resourceKeys, this.resourceCount * 2);
+				this.resourceValues = Arrays.copyOf(this.resourceValues, this.resourceCount * 2);
+			}
+			this.resourceKeys[this.resourceCount] = key;
+			this.resourceValues[this.resourceCount] = value;
+			this.resourceCount++;
+			return null;
+		}
+
+		Object removeResource(int index) {
+			Object value = this.resourceValues[index];
+			int last = --this.resourceCount;
+			// Preserve binding order for getResourceMap
+			System.arraycopy(this.resourceKeys, index + 1, this.resourceKeys, index, last - index);
+			System.arraycopy(this.resourceValues, index + 1, this.resourceValues, index, last - index);
+			this.resourceKeys[last] = null;
+			this.resourceValues[last] = null;
+			return value;
+		}
+
+		Map<Object, Object> getResourceMap() {
+			Map<Object, Object> map = new LinkedHashMap<>(this.resourceCount * 2);
+			for (int i = 0; i < this.resourceCount; i++) {
+				map.put(this.resourceKeys[i], this.resourceValues[i]);
+			}
+			return map;
+		}
+
+		boolean isEmpty() {
+			return (this.resourceCount == 0 && this.synchronizations == null && this.transactionName == null &&
+					!this.transactionReadOnly && this.transactionIsolationLevel == null &&
+					!this.actualTransactionActive);
+		}
 	}
 
 }
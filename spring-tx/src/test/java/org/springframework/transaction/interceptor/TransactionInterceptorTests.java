@@ -17,6 +17,7 @@
 package org.springframework.transaction.interceptor;
 
 import java.io.Serializable;
+import java.lang.reflect.Method;
 import java.util.Properties;
 
 import org.junit.jupiter.api.Test;
@@ -25,10 +26,17 @@ import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.beans.factory.BeanFactory;
 import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.lang.Nullable;
+import org.springframework.tests.sample.beans.ITestBean;
+import org.springframework.tests.sample.beans.TestBean;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.ResourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.SerializationTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -126,6 +134,157 @@ public class TransactionInterceptorTests extends AbstractTransactionAspectTests
 		assertThat(condition).isTrue();
 	}
 
+	@Test
+	public void transactionAttributeResolvedOncePerMethod() throws Throwable {
+		TransactionAttribute txatt = new DefaultTransactionAttribute();
+		MapTransactionAttributeSource delegate = new MapTransactionAttributeSource();
+		delegate.register(getNameMethod, txatt);
+		int[] lookups = new int[1];
+		TransactionAttributeSource tas = (method, targetClass) -> {
+			lookups[0]++;
+			return delegate.getTransactionAttribute(method, targetClass);
+		};
+
+		TransactionStatus status = mock(TransactionStatus.class);
+		PlatformTransactionManager ptm = mock(PlatformTransactionManager.class);
+		given(ptm.getTransaction(txatt)).willReturn(status);
+
+		ITestBean itb = (ITestBean) advised(new TestBean(), ptm, tas);
+		itb.getName();
+		itb.getName();
+
+		assertThat(lookups[0]).isEqualTo(1);
+		verify(ptm, times(2)).commit(status);
+	}
+
+	@Test
+	public void transactionAttributeResolvedOncePerTargetClass() throws Throwable {
+		TransactionAttribute txatt = new DefaultTransactionAttribute();
+		MapTransactionAttributeSource delegate = new MapTransactionAttributeSource();
+		delegate.register(getNameMethod, txatt);
+		int[] lookups = new int[1];
+		TransactionAttributeSource tas = (method, targetClass) -> {
+			lookups[0]++;
+			return delegate.getTransactionAttribute(method, targetClass);
+		};
+
+		TransactionStatus status = mock(TransactionStatus.class);
+		PlatformTransactionManager ptm = mock(PlatformTransactionManager.class);
+		given(ptm.getTransaction(txatt)).willReturn(status);
+
+		TransactionInterceptor ti = new TransactionInterceptor(ptm, tas);
+		ProxyFactory pf1 = new ProxyFactory(new TestBean());
+		pf1.addAdvice(ti);
+		ITestBean itb1 = (ITestBean) pf1.getProxy();
+		ProxyFactory pf2 = new ProxyFactory(new TestBean() {});
+		pf2.addAdvice(ti);
+		ITestBean itb2 = (ITestBean) pf2.getProxy();
+		itb1.getName();
+		itb2.getName();
+		itb1.getName();
+		itb2.getName();
+
+		assertThat(lookups[0]).isEqualTo(2);
+		verify(ptm, times(4)).commit(status);
+	}
+
+	@Test
+	public void lightweightParticipationForSupportsMethod() throws Throwable {
+		ParticipationTransactionManager ptm = new ParticipationTransactionManager();
+		TestBean outer = new TestBean() {
+			@Override
+			public void exceptional(Throwable t) throws Throwable {
+				TransactionStatus outerStatus = TransactionAspectSupport.currentTransactionStatus();
+				assertThat(getSpouse().getName()).isEqualTo("inner");
+				assertThat(TransactionAspectSupport.currentTransactionStatus()).isSameAs(outerStatus);
+			}
+		};
+		TestBean inner = new TestBean("inner") {
+			@Override
+			public String getName() {
+				assertThat(TransactionAspectSupport.currentTransactionInfo().hasTransaction()).isTrue();
+				return super.getName();
+			}
+		};
+		createParticipationProxies(outer, inner, ptm).exceptional(null);
+
+		assertThat(ptm.transactionLookups).isEqualTo(1);
+		assertThat(ptm.commits).isEqualTo(1);
+		assertThat(ptm.rollbackOnlyMarkers).isEqualTo(0);
+	}
+
+	@Test
+	public void lightweightParticipationMarksRollbackOnlyOnException() throws Throwable {
+		ParticipationTransactionManager ptm = new ParticipationTransactionManager();
+		ptm.setGlobalRollbackOnParticipationFailure(true);
+		TestBean outer = new TestBean() {
+			@Override
+			public void exceptional(Throwable t) throws Throwable {
+				assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() ->
+						getSpouse().getName());
+			}
+		};
+		TestBean inner = new TestBean() {
+			@Override
+			public String getName() {
+				throw new IllegalStateException();
+			}
+		};
+		createParticipationProxies(outer, inner, ptm).exceptional(null);
+
+		assertThat(ptm.transactionLookups).isEqualTo(2);
+		assertThat(ptm.rollbackOnlyMarkers).isEqualTo(1);
+	}
+
+	@Test
+	public void lightweightParticipationSkippedWhileOuterTransactionSuspended() throws Throwable {
+		ParticipationTransactionManager ptm = new ParticipationTransactionManager();
+		TestBean outer = new TestBean() {
+			@Override
+			public void exceptional(Throwable t) throws Throwable {
+				TransactionStatus outerStatus = TransactionAspectSupport.currentTransactionStatus();
+				TransactionTemplate tt = new TransactionTemplate(ptm);
+				tt.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+				tt.executeWithoutResult(status -> {
+					assertThat(getSpouse().getName()).isEqualTo("inner");
+					assertThat(TransactionAspectSupport.currentTransactionStatus()).isSameAs(outerStatus);
+				});
+			}
+		};
+		TestBean inner = new TestBean("inner") {
+			@Override
+			public String getName() {
+				TransactionStatus status = TransactionAspectSupport.currentTransactionStatus();
+				assertThat(status.isNewTransaction()).isFalse();
+				assertThat(((DefaultTransactionStatus) status).getTransaction())
+						.isSameAs(TransactionSynchronizationManager.getResource(ptm.getResourceFactory()));
+				return super.getName();
+			}
+		};
+		createParticipationProxies(outer, inner, ptm).exceptional(null);
+
+		assertThat(ptm.transactionLookups).isEqualTo(3);
+		assertThat(ptm.commits).isEqualTo(2);
+	}
+
+	private ITestBean createParticipationProxies(TestBean outer, TestBean inner, PlatformTransactionManager ptm) {
+		Method outerMethod = exceptionalMethod;
+		Method innerMethod = getNameMethod;
+		MapTransactionAttributeSource tas = new MapTransactionAttributeSource();
+		tas.register(outerMethod, new DefaultTransactionAttribute());
+		tas.register(innerMethod, new DefaultTransactionAttribute(TransactionDefinition.PROPAGATION_SUPPORTS));
+
+		TransactionInterceptor ti = new TransactionInterceptor(ptm, tas);
+		ti.setLightweightParticipation(true);
+		assertThat(ti.isLightweightParticipation()).isTrue();
+		ProxyFactory outerPf = new ProxyFactory(outer);
+		outerPf.addAdvice(ti);
+		ProxyFactory innerPf = new ProxyFactory(inner);
+		innerPf.addAdvice(ti);
+		outer.setSpouse((ITestBean) innerPf.getProxy());
+		return (ITestBean) outerPf.getProxy();
+	}
+
 	@Test
 	public void determineTransactionManagerWithNoBeanFactory() {
 		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
@@ -304,6 +463,71 @@ public class TransactionInterceptorTests extends AbstractTransactionAspectTests
 	}
 
 
+	@SuppressWarnings("serial")
+	private static class ParticipationTransactionManager extends AbstractPlatformTransactionManager
+			implements ResourceTransactionManager {
+
+		private final Object resourceFactory = new Object();
+
+		int transactionLookups;
+
+		int commits;
+
+		int rollbackOnlyMarkers;
+
+		@Override
+		public Object getResourceFactory() {
+			return this.resourceFactory;
+		}
+
+		@Override
+		protected Object doGetTransaction() {
+			this.transactionLookups++;
+			Object currentTransaction = TransactionSynchronizationManager.getResource(this.resourceFactory);
+			return (currentTransaction != null ? currentTransaction : new Object());
+		}
+
+		@Override
+		protected boolean isExistingTransaction(Object transaction) {
+			return (transaction == TransactionSynchronizationManager.getResource(this.resourceFactory));
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+			TransactionSynchronizationManager.bindResource(this.resourceFactory, new Object());
+		}
+
+		@Override
+		protected Object doSuspend(Object transaction) {
+			return TransactionSynchronizationManager.unbindResource(this.resourceFactory);
+		}
+
+		@Override
+		protected void doResume(@Nullable Object transaction, Object suspendedResources) {
+			TransactionSynchronizationManager.bindResource(this.resourceFactory, suspendedResources);
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+			this.commits++;
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+			this.rollbackOnlyMarkers++;
+		}
+
+		@Override
+		protected void doCleanupAfterCompletion(Object transaction) {
+			TransactionSynchronizationManager.unbindResource(this.resourceFactory);
+		}
+	}
+
+
 	/**
 	 * We won't use this: we just want to know it's serializable.
 	 */
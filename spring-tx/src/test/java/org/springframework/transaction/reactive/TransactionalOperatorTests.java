@@ -17,12 +17,14 @@
 package org.springframework.transaction.reactive;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -92,4 +94,46 @@ public class TransactionalOperatorTests {
 		assertThat(tm.rollback).isTrue();
 	}
 
+	@Test
+	public void nestedFlowSharesTransactionContext() {
+		TransactionalOperator operator = TransactionalOperator.create(tm, new DefaultTransactionDefinition());
+		TransactionContextManager.currentContext()
+				.flatMap(outer -> TransactionContextManager.currentContext().as(operator::transactional)
+						.map(inner -> inner == outer))
+				.as(operator::transactional)
+				.as(StepVerifier::create)
+				.expectNext(true)
+				.verifyComplete();
+		assertThat(tm.commit).isTrue();
+	}
+
+	@Test
+	public void synchronizationInvokedOnCommit() {
+		AtomicInteger completionStatus = new AtomicInteger(-1);
+		TransactionalOperator operator = TransactionalOperator.create(tm, new DefaultTransactionDefinition());
+		TransactionSynchronizationManager.forCurrentTransaction()
+				.doOnNext(synchronizationManager -> {
+					assertThat(synchronizationManager.getSynchronizations()).isEmpty();
+					synchronizationManager.registerSynchronization(new TransactionSynchronization() {
+						@Override
+						public Mono<Void> afterCompletion(int status) {
+							return Mono.fromRunnable(() -> completionStatus.set(status));
+						}
+					});
+					assertThat(synchronizationManager.getSynchronizations()).hasSize(1);
+				})
+				.then()
+				.as(operator::transactional)
+				.as(StepVerifier::create)
+				.verifyComplete();
+		assertThat(completionStatus.get()).isEqualTo(TransactionSynchronization.STATUS_COMMITTED);
+	}
+
+	@Test
+	public void noTransactionContextOutsideOfTransactionalFlow() {
+		TransactionContextManager.currentContext()
+				.as(StepVerifier::create)
+				.verifyError(NoTransactionException.class);
+	}
+
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.transaction.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Unit tests for {@link TransactionSynchronizationManager}.
+ */
+public class TransactionSynchronizationManagerTests {
+
+	@AfterEach
+	public void cleanup() {
+		TransactionSynchronizationManager.clear();
+		TransactionSynchronizationManager.getResourceMap().keySet()
+				.forEach(TransactionSynchronizationManager::unbindResource);
+	}
+
+
+	@Test
+	public void bindAndUnbindResources() {
+		for (int i = 0; i < 5; i++) {
+			TransactionSynchronizationManager.bindResource("key" + i, "value" + i);
+		}
+		assertThat(TransactionSynchronizationManager.getResourceMap()).hasSize(5)
+				.containsKeys("key0", "key1", "key2", "key3", "key4");
+		assertThat(TransactionSynchronizationManager.getResource("key3")).isEqualTo("value3");
+		assertThatIllegalStateException().isThrownBy(() ->
+				TransactionSynchronizationManager.bindResource("key3", "other"));
+
+		assertThat(TransactionSynchronizationManager.unbindResource("key1")).isEqualTo("value1");
+		assertThat(TransactionSynchronizationManager.hasResource("key1")).isFalse();
+		assertThat(TransactionSynchronizationManager.unbindResourceIfPossible("key1")).isNull();
+		assertThat(TransactionSynchronizationManager.getResource("key4")).isEqualTo("value4");
+		assertThat(TransactionSynchronizationManager.getResourceMap()).hasSize(4);
+	}
+
+	@Test
+	public void voidResourceHolderRemoved() {
+		ResourceHolderSupport holder = new ResourceHolderSupport() {};
+		TransactionSynchronizationManager.bindResource("key", holder);
+		holder.unbound();
+
+		assertThat(TransactionSynchronizationManager.getResource("key")).isNull();
+		assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+		TransactionSynchronizationManager.bindResource("key", "value");
+		assertThat(TransactionSynchronizationManager.getResource("key")).isEqualTo("value");
+	}
+
+	@Test
+	public void transactionCharacteristics() {
+		TransactionSynchronizationManager.initSynchronization();
+		TransactionSynchronizationManager.setCurrentTransactionName("tx");
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		TransactionSynchronizationManager.setCurrentTransactionIsolationLevel(2);
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		TransactionSynchronizationManager.bindResource("key", "value");
+
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isTrue();
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionName()).isEqualTo("tx");
+		assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isTrue();
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel()).isEqualTo(2);
+		assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isTrue();
+
+		TransactionSynchronizationManager.clear();
+		assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionName()).isNull();
+		assertThat(TransactionSynchronizationManager.isCurrentTransactionReadOnly()).isFalse();
+		assertThat(TransactionSynchronizationManager.getCurrentTransactionIsolationLevel()).isNull();
+		assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+		assertThat(TransactionSynchronizationManager.getResource("key")).isEqualTo("value");
+		assertThatIllegalStateException().isThrownBy(TransactionSynchronizationManager::clearSynchronization);
+	}
+
+}
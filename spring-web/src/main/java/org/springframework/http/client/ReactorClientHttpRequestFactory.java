@@ -0,0 +1,236 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import reactor.netty.Connection;
+import reactor.netty.ConnectionObserver;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link ClientHttpRequestFactory} implementation that uses
+ * <a href="https://github.com/reactor/reactor-netty">Reactor Netty</a> to
+ * create requests, adapting a {@link ReactorClientHttpConnector} to the
+ * blocking {@code ClientHttpRequest} contract.
+ *
+ * <p>Connections are pooled by the underlying {@link ConnectionProvider}: by
+ * default the Reactor Netty global resources held in
+ * {@link reactor.netty.http.HttpResources} are used, so that connections are
+ * shared with any {@code WebClient} using the same resources. Request and
+ * response bodies are streamed in chunks rather than aggregated in memory.
+ *
+ * <p><b>NOTE:</b> requests created by this factory block the calling thread
+ * and must therefore not be executed on a Reactor Netty event loop thread.
+ *
+ * @since 5.2
+ * @see org.springframework.web.client.RestTemplate
+ */
+public class ReactorClientHttpRequestFactory implements ClientHttpRequestFactory {
+
+	private final ConnectionPoolMetrics connectionPoolMetrics = new ConnectionPoolMetrics();
+
+	private HttpClient httpClient;
+
+	private ClientHttpConnector connector;
+
+	private int chunkSize = 4096;
+
+	@Nullable
+	private Duration readTimeout;
+
+
+	/**
+	 * Create a factory with a default {@link HttpClient} instance,
+	 * participating in the Reactor Netty global resources.
+	 */
+	public ReactorClientHttpRequestFactory() {
+		this(HttpClient.create());
+	}
+
+	/**
+	 * Create a factory with externally managed Reactor Netty resources,
+	 * including {@link LoopResources} for event loop threads, and
+	 * {@link ConnectionProvider} for the connection pool.
+	 * @param factory the resource factory to obtain the resources from
+	 * @param mapper a mapper for further initialization of the created client
+	 * @see ReactorClientHttpConnector#ReactorClientHttpConnector(ReactorResourceFactory, Function)
+	 */
+	public ReactorClientHttpRequestFactory(ReactorResourceFactory factory, Function<HttpClient, HttpClient> mapper) {
+		this(mapper.apply(initHttpClient(factory)));
+	}
+
+	/**
+	 * Create a factory with the given pre-configured {@link HttpClient} instance.
+	 * @param httpClient the client to use
+	 */
+	public ReactorClientHttpRequestFactory(HttpClient httpClient) {
+		Assert.notNull(httpClient, "HttpClient must not be null");
+		setHttpClient(httpClient.observe(this.connectionPoolMetrics));
+	}
+
+	private static HttpClient initHttpClient(ReactorResourceFactory resourceFactory) {
+		ConnectionProvider provider = resourceFactory.getConnectionProvider();
+		LoopResources resources = resourceFactory.getLoopResources();
+		Assert.notNull(provider, "No ConnectionProvider: is ReactorResourceFactory not initialized yet?");
+		Assert.notNull(resources, "No LoopResources: is ReactorResourceFactory not initialized yet?");
+		return HttpClient.create(provider).tcpConfiguration(tcpClient -> tcpClient.runOn(resources));
+	}
+
+	private void setHttpClient(HttpClient httpClient) {
+		this.httpClient = httpClient;
+		this.connector = new ReactorClientHttpConnector(httpClient);
+	}
+
+
+	/**
+	 * Set the underlying connect timeout in milliseconds.
+	 * A value of 0 specifies an infinite timeout.
+	 * @see ChannelOption#CONNECT_TIMEOUT_MILLIS
+	 */
+	public void setConnectTimeout(int connectTimeout) {
+		Assert.isTrue(connectTimeout >= 0, "Timeout must be a non-negative value");
+		setHttpClient(this.httpClient.tcpConfiguration(tcpClient ->
+				tcpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeout)));
+	}
+
+	/**
+	 * Set the read timeout in milliseconds, applied to the wait for the
+	 * response as well as to the wait for each chunk of the response body.
+	 * A value of 0 specifies an infinite timeout.
+	 */
+	public void setReadTimeout(int readTimeout) {
+		Assert.isTrue(readTimeout >= 0, "Timeout must be a non-negative value");
+		this.readTimeout = (readTimeout > 0 ? Duration.ofMillis(readTimeout) : null);
+	}
+
+	/**
+	 * Set the number of bytes to write in each chunk of the request body.
+	 * <p>Default is 4096.
+	 */
+	public void setChunkSize(int chunkSize) {
+		Assert.isTrue(chunkSize > 0, "Chunk size must be greater than 0");
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Return the metrics of the connections used by this factory.
+	 * <p>Only connections acquired through this factory are accounted for,
+	 * even if the underlying connection pool is shared with other clients.
+	 */
+	public ConnectionPoolMetrics getConnectionPoolMetrics() {
+		return this.connectionPoolMetrics;
+	}
+
+
+	@Override
+	public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+		return new ReactorStreamingClientHttpRequest(this.connector, httpMethod, uri, this.chunkSize, this.readTimeout);
+	}
+
+
+	/**
+	 * Live metrics of the connections used by a {@link ReactorClientHttpRequestFactory}.
+	 */
+	public static final class ConnectionPoolMetrics implements ConnectionObserver {
+
+		private final LongAdder createdConnections = new LongAdder();
+
+		private final LongAdder reusedConnections = new LongAdder();
+
+		private final Set<Channel> openChannels = ConcurrentHashMap.newKeySet();
+
+		private final Set<Channel> activeChannels = ConcurrentHashMap.newKeySet();
+
+		private ConnectionPoolMetrics() {
+		}
+
+		@Override
+		public void onStateChange(Connection connection, State newState) {
+			Channel channel = connection.channel();
+			if (newState == State.CONNECTED) {
+				this.createdConnections.increment();
+				if (this.openChannels.add(channel)) {
+					channel.closeFuture().addListener(future -> {
+						this.openChannels.remove(channel);
+						this.activeChannels.remove(channel);
+					});
+				}
+				this.activeChannels.add(channel);
+			}
+			else if (newState == State.ACQUIRED) {
+				this.reusedConnections.increment();
+				this.activeChannels.add(channel);
+			}
+			else if (newState == State.RELEASED || newState == State.DISCONNECTING) {
+				this.activeChannels.remove(channel);
+			}
+		}
+
+		/**
+		 * Return the total number of connections opened for this factory.
+		 */
+		public long getCreatedConnectionCount() {
+			return this.createdConnections.sum();
+		}
+
+		/**
+		 * Return the total number of times a pooled connection was reused.
+		 */
+		public long getReusedConnectionCount() {
+			return this.reusedConnections.sum();
+		}
+
+		/**
+		 * Return the number of connections currently in use by a request.
+		 */
+		public int getActiveConnectionCount() {
+			return this.activeChannels.size();
+		}
+
+		/**
+		 * Return the number of open connections currently idle in the pool.
+		 */
+		public int getIdleConnectionCount() {
+			return Math.max(0, this.openChannels.size() - this.activeChannels.size());
+		}
+
+		@Override
+		public String toString() {
+			return "ConnectionPoolMetrics[created=" + getCreatedConnectionCount() +
+					", reused=" + getReusedConnectionCount() + ", active=" + getActiveConnectionCount() +
+					", idle=" + getIdleConnectionCount() + "]";
+		}
+	}
+
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
+
+/**
+ * {@link ClientHttpRequest} implementation that streams its body through a
+ * Reactor Netty {@link ClientHttpConnector}. Created via the
+ * {@link ReactorClientHttpRequestFactory}.
+ *
+ * @since 5.2
+ * @see ReactorClientHttpRequestFactory#createRequest(URI, HttpMethod)
+ */
+final class ReactorStreamingClientHttpRequest extends AbstractClientHttpRequest {
+
+	private final ClientHttpConnector connector;
+
+	private final HttpMethod method;
+
+	private final URI uri;
+
+	private final int chunkSize;
+
+	@Nullable
+	private final Duration readTimeout;
+
+	@Nullable
+	private BodyOutputStream body;
+
+	@Nullable
+	private CompletableFuture<org.springframework.http.client.reactive.ClientHttpResponse> response;
+
+
+	ReactorStreamingClientHttpRequest(ClientHttpConnector connector, HttpMethod method, URI uri,
+			int chunkSize, @Nullable Duration readTimeout) {
+
+		this.connector = connector;
+		this.method = method;
+		this.uri = uri;
+		this.chunkSize = chunkSize;
+		this.readTimeout = readTimeout;
+	}
+
+
+	@Override
+	public String getMethodValue() {
+		return this.method.name();
+	}
+
+	@Override
+	public URI getURI() {
+		return this.uri;
+	}
+
+	@Override
+	protected OutputStream getBodyInternal(HttpHeaders headers) throws IOException {
+		if (this.body == null) {
+			BodyOutputStream body = new BodyOutputStream(this.chunkSize);
+			CompletableFuture<org.springframework.http.client.reactive.ClientHttpResponse> response =
+					exchange(headers, body.toFlux());
+			response.whenComplete((result, ex) -> body.terminate(ex));
+			this.response = response;
+			this.body = body;
+		}
+		return StreamUtils.nonClosing(this.body);
+	}
+
+	@Override
+	protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+		CompletableFuture<org.springframework.http.client.reactive.ClientHttpResponse> response = this.response;
+		if (this.body != null && response != null) {
+			try {
+				this.body.close();
+			}
+			catch (IOException ex) {
+				// ignore: the exchange itself reports the failure
+			}
+		}
+		else {
+			response = exchange(headers, null);
+		}
+		try {
+			return new ReactorStreamingClientHttpResponse(this.readTimeout != null ?
+					response.get(this.readTimeout.toMillis(), TimeUnit.MILLISECONDS) : response.get(),
+					this.readTimeout);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			throw (cause instanceof IOException ? (IOException) cause :
+					new IOException("I/O error on " + this.method + " request for \"" + this.uri + "\"", cause));
+		}
+		catch (TimeoutException ex) {
+			response.cancel(true);
+			throw new IOException("Read timed out while waiting for response to " + this.method +
+					" request for \"" + this.uri + "\"", ex);
+		}
+		catch (InterruptedException ex) {
+			response.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(ex.getMessage());
+		}
+	}
+
+	private CompletableFuture<org.springframework.http.client.reactive.ClientHttpResponse> exchange(
+			HttpHeaders headers, @Nullable Flux<byte[]> body) {
+
+		HttpHeaders requestHeaders = new HttpHeaders();
+		requestHeaders.putAll(headers);
+		return this.connector.connect(this.method, this.uri, request -> {
+			request.getHeaders().putAll(requestHeaders);
+			if (body == null) {
+				return request.setComplete();
+			}
+			return request.writeWith(body.map(bytes -> request.bufferFactory().wrap(bytes)));
+		}).toFuture();
+	}
+
+
+	/**
+	 * {@link OutputStream} that emits the written bytes in chunks to a
+	 * {@link Flux}, blocking the writer while the connection has no demand.
+	 */
+	private static class BodyOutputStream extends OutputStream {
+
+		private final Object monitor = new Object();
+
+		private final int chunkSize;
+
+		private byte[] chunk;
+
+		private int count;
+
+		@Nullable
+		private FluxSink<byte[]> sink;
+
+		@Nullable
+		private Throwable error;
+
+		private boolean cancelled;
+
+		private boolean closed;
+
+		BodyOutputStream(int chunkSize) {
+			this.chunkSize = chunkSize;
+			this.chunk = new byte[chunkSize];
+		}
+
+		Flux<byte[]> toFlux() {
+			return Flux.create(sink -> {
+				sink.onRequest(n -> signal());
+				sink.onDispose(() -> {
+					synchronized (this.monitor) {
+						this.cancelled = true;
+						this.monitor.notifyAll();
+					}
+				});
+				synchronized (this.monitor) {
+					this.sink = sink;
+					this.monitor.notifyAll();
+				}
+			});
+		}
+
+		/**
+		 * Stop accepting writes once the exchange has completed, either
+		 * with the given error or because the response has been received.
+		 */
+		void terminate(@Nullable Throwable ex) {
+			synchronized (this.monitor) {
+				this.error = ex;
+				this.cancelled = true;
+				this.monitor.notifyAll();
+			}
+		}
+
+		private void signal() {
+			synchronized (this.monitor) {
+				this.monitor.notifyAll();
+			}
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			assertOpen();
+			this.chunk[this.count++] = (byte) b;
+			if (this.count == this.chunkSize) {
+				emitChunk();
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			assertOpen();
+			while (len > 0) {
+				int length = Math.min(len, this.chunkSize - this.count);
+				System.arraycopy(b, off, this.chunk, this.count, length);
+				this.count += length;
+				off += length;
+				len -= length;
+				if (this.count == this.chunkSize) {
+					emitChunk();
+				}
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			assertOpen();
+			if (this.count > 0) {
+				emitChunk();
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed) {
+				return;
+			}
+			if (this.count > 0) {
+				emitChunk();
+			}
+			this.closed = true;
+			FluxSink<byte[]> sink = awaitDemand(false);
+			if (sink != null) {
+				sink.complete();
+			}
+		}
+
+		private void assertOpen() throws IOException {
+			if (this.closed) {
+				throw new IOException("Stream closed");
+			}
+		}
+
+		private void emitChunk() throws IOException {
+			FluxSink<byte[]> sink = awaitDemand(true);
+			byte[] bytes = (this.count == this.chunkSize ? this.chunk : Arrays.copyOf(this.chunk, this.count));
+			this.chunk = new byte[this.chunkSize];
+			this.count = 0;
+			if (sink != null) {
+				sink.next(bytes);
+			}
+		}
+
+		/**
+		 * Wait until the connection requests data, returning the sink to emit
+		 * to, or {@code null} if the body is no longer consumed.
+		 */
+		@Nullable
+		private FluxSink<byte[]> awaitDemand(boolean demandRequired) throws IOException {
+			synchronized (this.monitor) {
+				try {
+					while (true) {
+						if (this.error != null) {
+							throw (this.error instanceof IOException ? (IOException) this.error :
+									new IOException("Request failed", this.error));
+						}
+						if (this.cancelled) {
+							if (demandRequired) {
+								throw new IOException("Request body no longer consumed by the connection");
+							}
+							return null;
+						}
+						FluxSink<byte[]> sink = this.sink;
+						if (sink != null && (!demandRequired || sink.requestedFromDownstream() > 0)) {
+							return sink;
+						}
+						this.monitor.wait();
+					}
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException(ex.getMessage());
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link ClientHttpResponse} implementation that streams the body of a
+ * Reactor Netty response. Created via the {@link ReactorStreamingClientHttpRequest}.
+ *
+ * @since 5.2
+ */
+final class ReactorStreamingClientHttpResponse extends AbstractClientHttpResponse {
+
+	/**
+	 * The number of body chunks to request ahead of the reader.
+	 */
+	private static final int PREFETCH = 8;
+
+
+	private final org.springframework.http.client.reactive.ClientHttpResponse response;
+
+	@Nullable
+	private final Duration readTimeout;
+
+	@Nullable
+	private BodyInputStream body;
+
+
+	ReactorStreamingClientHttpResponse(org.springframework.http.client.reactive.ClientHttpResponse response,
+			@Nullable Duration readTimeout) {
+
+		this.response = response;
+		this.readTimeout = readTimeout;
+	}
+
+
+	@Override
+	public int getRawStatusCode() {
+		return this.response.getRawStatusCode();
+	}
+
+	@Override
+	public String getStatusText() {
+		HttpStatus status = HttpStatus.resolve(getRawStatusCode());
+		return (status != null ? status.getReasonPhrase() : "");
+	}
+
+	@Override
+	public HttpHeaders getHeaders() {
+		return this.response.getHeaders();
+	}
+
+	@Override
+	public InputStream getBody() {
+		BodyInputStream body = this.body;
+		if (body == null) {
+			Flux<byte[]> chunks = this.response.getBody().map(buffer -> {
+				byte[] bytes = new byte[buffer.readableByteCount()];
+				buffer.read(bytes);
+				DataBufferUtils.release(buffer);
+				return bytes;
+			});
+			if (this.readTimeout != null) {
+				chunks = chunks.timeout(this.readTimeout);
+			}
+			body = new BodyInputStream(chunks.toStream(PREFETCH));
+			this.body = body;
+		}
+		return body;
+	}
+
+	@Override
+	public void close() {
+		try {
+			// Drain the body, allowing the connection to be returned to the pool
+			getBody().close();
+		}
+		catch (IOException ex) {
+			// Ignore exception on close...
+		}
+	}
+
+
+	/**
+	 * {@link InputStream} over the chunks of the response body, blocking the
+	 * reader until the next chunk has been received.
+	 */
+	private static class BodyInputStream extends InputStream {
+
+		private final Stream<byte[]> stream;
+
+		private final Iterator<byte[]> chunks;
+
+		@Nullable
+		private byte[] chunk;
+
+		private int position;
+
+		private boolean closed;
+
+		BodyInputStream(Stream<byte[]> stream) {
+			this.stream = stream;
+			this.chunks = stream.iterator();
+		}
+
+		@Override
+		public int read() throws IOException {
+			byte[] chunk = nextChunk();
+			return (chunk != null ? chunk[this.position++] & 0xFF : -1);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			byte[] chunk = nextChunk();
+			if (chunk == null) {
+				return -1;
+			}
+			int length = Math.min(len, chunk.length - this.position);
+			System.arraycopy(chunk, this.position, b, off, length);
+			this.position += length;
+			return length;
+		}
+
+		@Override
+		public int available() {
+			byte[] chunk = this.chunk;
+			return (chunk != null ? chunk.length - this.position : 0);
+		}
+
+		@Nullable
+		private byte[] nextChunk() throws IOException {
+			if (this.closed) {
+				throw new IOException("Stream closed");
+			}
+			byte[] chunk = this.chunk;
+			while (chunk == null || this.position == chunk.length) {
+				if (!hasNextChunk()) {
+					this.chunk = null;
+					return null;
+				}
+				chunk = this.chunks.next();
+				this.chunk = chunk;
+				this.position = 0;
+			}
+			return chunk;
+		}
+
+		private boolean hasNextChunk() throws IOException {
+			try {
+				return this.chunks.hasNext();
+			}
+			catch (RuntimeException ex) {
+				Throwable cause = Exceptions.unwrap(ex);
+				throw (cause instanceof IOException ? (IOException) cause :
+						new IOException("Failed to read response body", cause));
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (this.closed) {
+				return;
+			}
+			this.closed = true;
+			this.chunk = null;
+			try {
+				while (hasNextChunk()) {
+					this.chunks.next();
+				}
+			}
+			finally {
+				// Cancels the body subscription if not fully read
+				this.stream.close();
+			}
+		}
+	}
+
+}
@@ -55,6 +55,9 @@ import org.springframework.web.server.session.WebSessionManager;
 /**
  * Default implementation of {@link ServerWebExchange}.
  *
+ * <p>The session, form data and multipart data are initialized on first
+ * access, so that requests that do not use them do not pay for them.
+ *
  * @author Rossen Stoyanchev
  * @since 5.0
  */
@@ -83,13 +86,20 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 
 	private final Map<String, Object> attributes = new ConcurrentHashMap<>();
 
-	private final Mono<WebSession> sessionMono;
+	private final WebSessionManager sessionManager;
+
+	private final ServerCodecConfigurer codecConfigurer;
 
 	private final LocaleContextResolver localeContextResolver;
 
-	private final Mono<MultiValueMap<String, String>> formDataMono;
+	@Nullable
+	private volatile Mono<WebSession> sessionMono;
+
+	@Nullable
+	private volatile Mono<MultiValueMap<String, String>> formDataMono;
 
-	private final Mono<MultiValueMap<String, Part>> multipartDataMono;
+	@Nullable
+	private volatile Mono<MultiValueMap<String, Part>> multipartDataMono;
 
 	@Nullable
 	private final ApplicationContext applicationContext;
@@ -126,10 +136,9 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 
 		this.request = request;
 		this.response = response;
-		this.sessionMono = sessionManager.getSession(this).cache();
+		this.sessionManager = sessionManager;
+		this.codecConfigurer = codecConfigurer;
 		this.localeContextResolver = localeContextResolver;
-		this.formDataMono = initFormData(request, codecConfigurer, getLogPrefix());
-		this.multipartDataMono = initMultipartData(request, codecConfigurer, getLogPrefix());
 		this.applicationContext = applicationContext;
 	}
 
@@ -203,7 +212,17 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 
 	@Override
 	public Mono<WebSession> getSession() {
-		return this.sessionMono;
+		Mono<WebSession> sessionMono = this.sessionMono;
+		if (sessionMono == null) {
+			synchronized (this) {
+				sessionMono = this.sessionMono;
+				if (sessionMono == null) {
+					sessionMono = this.sessionManager.getSession(this).cache();
+					this.sessionMono = sessionMono;
+				}
+			}
+		}
+		return sessionMono;
 	}
 
 	@Override
@@ -213,12 +232,32 @@ public class DefaultServerWebExchange implements ServerWebExchange {
 
 	@Override
 	public Mono<MultiValueMap<String, String>> getFormData() {
-		return this.formDataMono;
+		Mono<MultiValueMap<String, String>> formDataMono = this.formDataMono;
+		if (formDataMono == null) {
+			synchronized (this) {
+				formDataMono = this.formDataMono;
+				if (formDataMono == null) {
+					formDataMono = initFormData(this.request, this.codecConfigurer, getLogPrefix());
+					this.formDataMono = formDataMono;
+				}
+			}
+		}
+		return formDataMono;
 	}
 
 	@Override
 	public Mono<MultiValueMap<String, Part>> getMultipartData() {
-		return this.multipartDataMono;
+		Mono<MultiValueMap<String, Part>> multipartDataMono = this.multipartDataMono;
+		if (multipartDataMono == null) {
+			synchronized (this) {
+				multipartDataMono = this.multipartDataMono;
+				if (multipartDataMono == null) {
+					multipartDataMono = initMultipartData(this.request, this.codecConfigurer, getLogPrefix());
+					this.multipartDataMono = multipartDataMono;
+				}
+			}
+		}
+		return multipartDataMono;
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright 2002-2018 the original author or authors.
+ * Copyright 2002-2019 the original author or authors.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,10 +20,13 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
-import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
@@ -38,6 +41,12 @@ import org.springframework.web.server.WebSession;
 /**
  * Simple Map-based storage for {@link WebSession} instances.
  *
+ * <p>Expired sessions are removed lazily during calls to
+ * {@link #createWebSession() create} or {@link #retrieveSession retrieve},
+ * through a timing wheel with a resolution of one second: each check only
+ * looks at the sessions scheduled to expire since the previous check, so its
+ * cost does not depend on the total number of sessions.
+ *
  * @author Rossen Stoyanchev
  * @author Rob Winch
  * @since 5.0
@@ -88,7 +97,7 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 	public void setClock(Clock clock) {
 		Assert.notNull(clock, "Clock is required");
 		this.clock = clock;
-		removeExpiredSessions();
+		this.expiredSessionChecker.reset(clock.instant());
 	}
 
 	/**
@@ -150,10 +159,11 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 	}
 
 	/**
-	 * Check for expired sessions and remove them. Typically such checks are
-	 * kicked off lazily during calls to {@link #createWebSession() create} or
-	 * {@link #retrieveSession retrieve}, no less than 60 seconds apart.
-	 * This method can be called to force a check at a specific time.
+	 * Check all sessions for expiration and remove expired ones. Typically such
+	 * checks are kicked off lazily during calls to {@link #createWebSession() create}
+	 * or {@link #retrieveSession retrieve}, for the sessions that are due only.
+	 * This method can be called to force a complete check at a specific time,
+	 * e.g. after shortening the max idle time of existing sessions.
 	 * @since 5.0.8
 	 */
 	public void removeExpiredSessions() {
@@ -175,6 +185,9 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 		private final AtomicReference<State> state = new AtomicReference<>(State.NEW);
 
+		/** The tick of the expiration wheel this session is scheduled for, or 0. */
+		private volatile long expirationTick;
+
 
 		public InMemoryWebSession(Instant creationTime) {
 			this.creationTime = creationTime;
@@ -203,7 +216,12 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 
 		@Override
 		public void setMaxIdleTime(Duration maxIdleTime) {
+			Duration previous = this.maxIdleTime;
 			this.maxIdleTime = maxIdleTime;
+			if (this.expirationTick != 0 && maxIdleTime.compareTo(previous) < 0) {
+				// Expiring earlier than scheduled: a later deadline is rescheduled lazily
+				expiredSessionChecker.schedule(this);
+			}
 		}
 
 		@Override
@@ -252,6 +270,9 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 			if (isStarted()) {
 				// Save
 				InMemoryWebSessionStore.this.sessions.put(this.getId(), this);
+				if (this.expirationTick == 0) {
+					expiredSessionChecker.schedule(this);
+				}
 
 				// Unless it was invalidated
 				if (this.state.get().equals(State.EXPIRED)) {
@@ -299,20 +320,113 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 	}
 
 
+	/**
+	 * Hashed timing wheel of sessions by expiration time. Sessions are scheduled
+	 * when first saved, and rescheduled when their bucket is due if they have
+	 * been accessed in the meantime. Buckets are only accessed under the lock,
+	 * with each session being held by one bucket at most.
+	 */
 	private class ExpiredSessionChecker {
 
-		/** Max time between expiration checks. */
-		private static final int CHECK_PERIOD = 60 * 1000;
+		/** Duration of a tick of the wheel. */
+		private static final long TICK_MILLIS = 1000;
+
+		/** Number of buckets: one revolution covers about 34 minutes. */
+		private static final int WHEEL_SIZE = 2048;
 
 
 		private final ReentrantLock lock = new ReentrantLock();
 
-		private Instant checkTime = clock.instant().plus(CHECK_PERIOD, ChronoUnit.MILLIS);
+		private final Set<InMemoryWebSession>[] buckets = createBuckets();
+
+		/** The last tick that has been checked. */
+		private volatile long currentTick = toTick(clock.instant());
+
 
+		@SuppressWarnings("unchecked")
+		private Set<InMemoryWebSession>[] createBuckets() {
+			Set<InMemoryWebSession>[] buckets = new Set[WHEEL_SIZE];
+			for (int i = 0; i < WHEEL_SIZE; i++) {
+				buckets[i] = new HashSet<>();
+			}
+			return buckets;
+		}
+
+		/**
+		 * Schedule the given session according to its current last access time
+		 * and max idle time, replacing any previous schedule.
+		 */
+		public void schedule(InMemoryWebSession session) {
+			this.lock.lock();
+			try {
+				long previousTick = session.expirationTick;
+				if (previousTick != 0) {
+					getBucket(previousTick).remove(session);
+				}
+				doSchedule(session);
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private void doSchedule(InMemoryWebSession session) {
+			Duration maxIdleTime = session.getMaxIdleTime();
+			if (maxIdleTime.isNegative()) {
+				session.expirationTick = 0;
+				return;
+			}
+			// Expired strictly after the deadline: round up to the next tick
+			long tick = toTick(session.getLastAccessTime().plus(maxIdleTime)) + 1;
+			tick = Math.max(tick, this.currentTick + 1);
+			session.expirationTick = tick;
+			getBucket(tick).add(session);
+		}
 
 		public void checkIfNecessary(Instant now) {
-			if (this.checkTime.isBefore(now)) {
-				removeExpiredSessions(now);
+			long nowTick = toTick(now);
+			if (nowTick > this.currentTick && this.lock.tryLock()) {
+				try {
+					// A full revolution visits every bucket
+					long lastTick = Math.min(nowTick, this.currentTick + WHEEL_SIZE);
+					List<InMemoryWebSession> due = new ArrayList<>();
+					for (long tick = this.currentTick + 1; tick <= lastTick; tick++) {
+						this.currentTick = tick;
+						Set<InMemoryWebSession> bucket = getBucket(tick);
+						if (!bucket.isEmpty()) {
+							due.addAll(bucket);
+							bucket.clear();
+							for (InMemoryWebSession session : due) {
+								checkSession(session, now);
+							}
+							due.clear();
+						}
+					}
+					this.currentTick = nowTick;
+				}
+				finally {
+					this.lock.unlock();
+				}
+			}
+		}
+
+		private void checkSession(InMemoryWebSession session, Instant now) {
+			if (sessions.get(session.getId()) != session) {
+				// Removed or invalidated in the meantime: rescheduled if saved again
+				session.expirationTick = 0;
+				return;
+			}
+			long tick = session.expirationTick;
+			if (tick > this.currentTick) {
+				// Due in a later revolution
+				getBucket(tick).add(session);
+			}
+			else if (session.isExpired(now)) {
+				sessions.remove(session.getId(), session);
+				session.invalidate();
+			}
+			else {
+				doSchedule(session);
 			}
 		}
 
@@ -332,11 +446,45 @@ public class InMemoryWebSessionStore implements WebSessionStore {
 					}
 				}
 				finally {
-					this.checkTime = now.plus(CHECK_PERIOD, ChronoUnit.MILLIS);
 					this.lock.unlock();
 				}
 			}
 		}
+
+		/**
+		 * Reschedule all sessions from the given time on, removing expired ones.
+		 */
+		public void reset(Instant now) {
+			this.lock.lock();
+			try {
+				for (Set<InMemoryWebSession> bucket : this.buckets) {
+					bucket.clear();
+				}
+				this.currentTick = toTick(now);
+				Iterator<InMemoryWebSession> iterator = sessions.values().iterator();
+				while (iterator.hasNext()) {
+					InMemoryWebSession session = iterator.next();
+					if (session.isExpired(now)) {
+						iterator.remove();
+						session.invalidate();
+					}
+					else {
+						doSchedule(session);
+					}
+				}
+			}
+			finally {
+				this.lock.unlock();
+			}
+		}
+
+		private Set<InMemoryWebSession> getBucket(long tick) {
+			return this.buckets[(int) (tick & (WHEEL_SIZE - 1))];
+		}
+
+		private long toTick(Instant instant) {
+			return Math.floorDiv(instant.toEpochMilli(), TICK_MILLIS);
+		}
 	}
 
 
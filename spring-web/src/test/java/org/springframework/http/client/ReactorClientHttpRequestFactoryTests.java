@@ -0,0 +1,60 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.http.client;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ReactorClientHttpRequestFactory}.
+ */
+public class ReactorClientHttpRequestFactoryTests extends AbstractHttpRequestFactoryTests {
+
+	@Override
+	protected ClientHttpRequestFactory createRequestFactory() {
+		return new ReactorClientHttpRequestFactory();
+	}
+
+	@Override
+	@Test
+	public void httpMethods() throws Exception {
+		super.httpMethods();
+		assertHttpMethod("patch", HttpMethod.PATCH);
+	}
+
+	@Test
+	public void connectionPoolMetrics() throws Exception {
+		ReactorClientHttpRequestFactory.ConnectionPoolMetrics metrics =
+				((ReactorClientHttpRequestFactory) this.factory).getConnectionPoolMetrics();
+
+		for (int i = 0; i < 2; i++) {
+			ClientHttpRequest request = this.factory.createRequest(new URI(this.baseUrl + "/status/ok"), HttpMethod.GET);
+			try (ClientHttpResponse response = request.execute()) {
+				assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+				assertThat(metrics.getActiveConnectionCount()).isEqualTo(1);
+			}
+		}
+		assertThat(metrics.getCreatedConnectionCount() + metrics.getReusedConnectionCount()).isEqualTo(2);
+	}
+
+}
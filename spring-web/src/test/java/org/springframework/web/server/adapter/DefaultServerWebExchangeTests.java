@@ -16,16 +16,32 @@
 
 package org.springframework.web.server.adapter;
 
+import java.util.Collections;
+
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.mock.http.server.reactive.test.MockServerHttpRequest;
 import org.springframework.mock.http.server.reactive.test.MockServerHttpResponse;
+import org.springframework.tests.EnabledForTestGroups;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StopWatch;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebSession;
 import org.springframework.web.server.i18n.AcceptHeaderLocaleContextResolver;
 import org.springframework.web.server.session.DefaultWebSessionManager;
+import org.springframework.web.server.session.WebSessionManager;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.tests.TestGroup.PERFORMANCE;
 
 /**
  * Unit tests for {@link DefaultServerWebExchange}.
@@ -56,6 +72,54 @@ public class DefaultServerWebExchangeTests {
 		assertThat(exchange.transformUrl("/foo")).isEqualTo("/foo;p=abc?q=123");
 	}
 
+	@Test
+	public void sessionInitializedOnFirstAccess() {
+		WebSessionManager sessionManager = mock(WebSessionManager.class);
+		given(sessionManager.getSession(any())).willReturn(Mono.empty());
+		ServerWebExchange exchange = new DefaultServerWebExchange(
+				MockServerHttpRequest.get("https://example.com").build(), new MockServerHttpResponse(),
+				sessionManager, ServerCodecConfigurer.create(), new AcceptHeaderLocaleContextResolver());
+		verify(sessionManager, never()).getSession(any());
+
+		Mono<WebSession> session = exchange.getSession();
+		assertThat(exchange.getSession()).isSameAs(session);
+		verify(sessionManager, times(1)).getSession(exchange);
+	}
+
+	@Test
+	public void formDataInitializedOnFirstAccess() {
+		MockServerHttpRequest request = MockServerHttpRequest.post("https://example.com")
+				.contentType(MediaType.APPLICATION_FORM_URLENCODED)
+				.body("name=value");
+		ServerWebExchange exchange = createExchange(request);
+
+		Mono<MultiValueMap<String, String>> formData = exchange.getFormData();
+		assertThat(exchange.getFormData()).isSameAs(formData);
+		assertThat(formData.block()).containsEntry("name", Collections.singletonList("value"));
+		assertThat(exchange.getMultipartData().block()).isEmpty();
+	}
+
+	@Test
+	@EnabledForTestGroups(PERFORMANCE)
+	public void exchangeCreationIsFastEnough() {
+		MockServerHttpRequest request = MockServerHttpRequest.get("https://example.com/persons/1")
+				.accept(MediaType.APPLICATION_JSON)
+				.build();
+		WebSessionManager sessionManager = new DefaultWebSessionManager();
+		ServerCodecConfigurer codecConfigurer = ServerCodecConfigurer.create();
+		AcceptHeaderLocaleContextResolver localeContextResolver = new AcceptHeaderLocaleContextResolver();
+		StopWatch sw = new StopWatch();
+		sw.start();
+		for (int i = 0; i < 100000; i++) {
+			ServerWebExchange exchange = new DefaultServerWebExchange(request, new MockServerHttpResponse(),
+					sessionManager, codecConfigurer, localeContextResolver);
+			exchange.getAttributes().put("handler", this);
+			exchange.getLogPrefix();
+		}
+		sw.stop();
+		assertThat(sw.getTotalTimeMillis() < 1000).as("Exchange creation took too long: " + sw.getTotalTimeMillis()).isTrue();
+	}
+
 
 	private DefaultServerWebExchange createExchange() {
 		MockServerHttpRequest request = MockServerHttpRequest.get("https://example.com").build();
@@ -19,7 +19,9 @@ package org.springframework.web.server.session;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
@@ -141,6 +143,82 @@ public class InMemoryWebSessionStoreTests {
 		assertThat(sessions.size()).isEqualTo(1);
 	}
 
+	@Test
+	public void expirationCheckKeepsAccessedSessions() {
+		DirectFieldAccessor accessor = new DirectFieldAccessor(this.store);
+		Clock clock = this.store.getClock();
+		WebSession accessed = insertSession();
+		WebSession idle = insertSession();
+
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofMinutes(20)));
+		assertThat(this.store.retrieveSession(accessed.getId()).block()).isSameAs(accessed);
+
+		// Due for expiration at 30 minutes, accessed session rescheduled
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofMinutes(40)));
+		insertSession();
+		assertThat(this.store.getSessions()).containsKey(accessed.getId()).doesNotContainKey(idle.getId());
+
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofMinutes(51)));
+		insertSession();
+		assertThat(this.store.getSessions()).doesNotContainKey(accessed.getId());
+	}
+
+	@Test
+	public void expirationCheckWithMaxIdleTimeBeyondWheelRevolution() {
+		DirectFieldAccessor accessor = new DirectFieldAccessor(this.store);
+		Clock clock = this.store.getClock();
+		WebSession session = this.store.createWebSession().block();
+		assertThat(session).isNotNull();
+		session.setMaxIdleTime(Duration.ofHours(2));
+		session.start();
+		session.save().block();
+
+		for (int minutes = 1; minutes < 120; minutes++) {
+			accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofMinutes(minutes)));
+			this.store.retrieveSession("unknown").block();
+		}
+		assertThat(this.store.getSessions()).containsKey(session.getId());
+
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofMinutes(121)));
+		this.store.retrieveSession("unknown").block();
+		assertThat(this.store.getSessions()).isEmpty();
+	}
+
+	@Test
+	public void expirationCheckWithShortenedMaxIdleTime() {
+		DirectFieldAccessor accessor = new DirectFieldAccessor(this.store);
+		Clock clock = this.store.getClock();
+		WebSession session = insertSession();
+		session.setMaxIdleTime(Duration.ofMinutes(1));
+
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofMinutes(2)));
+		this.store.retrieveSession("unknown").block();
+		assertThat(this.store.getSessions()).isEmpty();
+	}
+
+	@Test
+	public void expirationCheckWithRepeatedlyShortenedMaxIdleTime() {
+		DirectFieldAccessor accessor = new DirectFieldAccessor(this.store);
+		Clock clock = this.store.getClock();
+		WebSession session = insertSession();
+		session.setMaxIdleTime(Duration.ofMinutes(10));
+		session.setMaxIdleTime(Duration.ofMinutes(5));
+		Object checker = accessor.getPropertyValue("expiredSessionChecker");
+		Set<?>[] buckets = (Set<?>[]) new DirectFieldAccessor(checker).getPropertyValue("buckets");
+		assertThat(Arrays.stream(buckets).mapToInt(Set::size).sum()).isEqualTo(1);
+
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofMinutes(4)));
+		assertThat(this.store.retrieveSession(session.getId()).block()).isSameAs(session);
+
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofMinutes(8)));
+		this.store.retrieveSession("unknown").block();
+		assertThat(this.store.getSessions()).containsKey(session.getId());
+
+		accessor.setPropertyValue("clock", Clock.offset(clock, Duration.ofMinutes(10)));
+		this.store.retrieveSession("unknown").block();
+		assertThat(this.store.getSessions()).isEmpty();
+	}
+
 	@Test
 	public void maxSessions() {
 
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.ResponseCookie;
+import org.springframework.lang.Nullable;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyExtractors;
+
+/**
+ * Snapshot of a {@link ClientResponse} with a fully buffered body, from which
+ * any number of equivalent responses can be created.
+ *
+ * <p>The body is copied to the heap and the original buffers are released
+ * right away, so that snapshots can be shared and retained without holding
+ * on to pooled buffers of the underlying connection.
+ *
+ * @since 5.2
+ * @see ExchangeFilterFunctions#coalesceRequests(int)
+ * @see ExchangeFilterFunctions#cacheResponses(int)
+ */
+final class BufferedClientResponse {
+
+	private static final byte[] EMPTY_BODY = new byte[0];
+
+	private static final DataBufferFactory bufferFactory = new DefaultDataBufferFactory();
+
+
+	private final int statusCode;
+
+	private final HttpHeaders headers;
+
+	private final MultiValueMap<String, ResponseCookie> cookies;
+
+	private final ExchangeStrategies strategies;
+
+	@Nullable
+	private final HttpRequest request;
+
+	private final byte[] body;
+
+
+	private BufferedClientResponse(ClientResponse response, byte[] body) {
+		this.statusCode = response.rawStatusCode();
+		HttpHeaders headers = new HttpHeaders();
+		headers.addAll(response.headers().asHttpHeaders());
+		this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+		this.cookies = new LinkedMultiValueMap<>(response.cookies());
+		this.strategies = response.strategies();
+		this.request = (response instanceof DefaultClientResponse ?
+				((DefaultClientResponse) response).request() : null);
+		this.body = body;
+	}
+
+
+	/**
+	 * Return the status code of the response.
+	 */
+	public int getStatusCode() {
+		return this.statusCode;
+	}
+
+	/**
+	 * Return the headers of the response.
+	 */
+	public HttpHeaders getHeaders() {
+		return this.headers;
+	}
+
+	/**
+	 * Create a new {@code ClientResponse} that replays this snapshot,
+	 * including its body.
+	 */
+	public ClientResponse toClientResponse() {
+		ClientResponse.Builder builder = ClientResponse.create(this.statusCode, this.strategies)
+				.headers(headers -> headers.addAll(this.headers))
+				.cookies(cookies -> cookies.addAll(this.cookies));
+		if (this.request != null) {
+			builder.request(this.request);
+		}
+		if (this.body.length > 0) {
+			builder.body(Flux.defer(() -> Flux.just(bufferFactory.wrap(this.body))));
+		}
+		return builder.build();
+	}
+
+
+	/**
+	 * Consume the body of the given response and create a snapshot of it.
+	 * @param response the response to buffer
+	 * @return the snapshot, once the body has been fully read
+	 */
+	public static Mono<BufferedClientResponse> create(ClientResponse response) {
+		return create(response, -1);
+	}
+
+	/**
+	 * Consume the body of the given response and create a snapshot of it,
+	 * failing if the body is larger than the given number of bytes.
+	 * @param response the response to buffer
+	 * @param maxByteCount the maximum number of bytes to buffer, or -1 for no limit
+	 * @return the snapshot, once the body has been fully read
+	 */
+	public static Mono<BufferedClientResponse> create(ClientResponse response, int maxByteCount) {
+		Flux<DataBuffer> dataBuffers = response.body(BodyExtractors.toDataBuffers());
+		if (maxByteCount >= 0) {
+			AtomicLong byteCount = new AtomicLong();
+			dataBuffers = dataBuffers.handle((buffer, sink) -> {
+				if (byteCount.addAndGet(buffer.readableByteCount()) > maxByteCount) {
+					DataBufferUtils.release(buffer);
+					sink.error(new IllegalStateException(
+							"Response body exceeds the limit of " + maxByteCount + " bytes to buffer"));
+				}
+				else {
+					sink.next(buffer);
+				}
+			});
+		}
+		return DataBufferUtils.join(dataBuffers)
+				.map(BufferedClientResponse::copyAndRelease)
+				.defaultIfEmpty(EMPTY_BODY)
+				.map(body -> new BufferedClientResponse(response, body));
+	}
+
+	private static byte[] copyAndRelease(DataBuffer buffer) {
+		try {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			return bytes;
+		}
+		finally {
+			DataBufferUtils.release(buffer);
+		}
+	}
+
+}
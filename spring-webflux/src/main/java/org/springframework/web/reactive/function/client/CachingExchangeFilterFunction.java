@@ -0,0 +1,258 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link ExchangeFilterFunction} that caches the responses to GET requests
+ * in memory, for as long as they are fresh according to their
+ * {@code Cache-Control}, {@code Expires} and {@code Age} headers.
+ *
+ * <p>Responses are only stored if they declare an explicit freshness lifetime
+ * and do not carry a {@code no-store} or {@code no-cache} directive. Cached
+ * responses are only served to requests that match the request headers listed
+ * in the {@code Vary} header of the response, and requests with a
+ * {@code no-cache} directive always go through to the server. The number of
+ * cached responses is bounded, evicting the least recently used entry first.
+ *
+ * <p>Since cached responses are shared by all requests to the same URL,
+ * {@code private} responses are not stored, and neither are responses to
+ * requests with an {@code Authorization} header or cookies, unless they are
+ * explicitly marked as {@code public} or declare an {@code s-maxage}
+ * directive, as for shared caches in RFC 7234, Section 3.2.
+ *
+ * @since 5.2
+ * @see ExchangeFilterFunctions#cacheResponses(int)
+ */
+final class CachingExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private final ResponseCache cache;
+
+
+	CachingExchangeFilterFunction(int maxEntries) {
+		Assert.isTrue(maxEntries > 0, "'maxEntries' must be greater than 0");
+		this.cache = new ResponseCache(maxEntries);
+	}
+
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		if (request.method() != HttpMethod.GET || hasDirective(request.headers(), "no-store")) {
+			return next.exchange(request);
+		}
+		return Mono.defer(() -> {
+			if (!hasDirective(request.headers(), "no-cache")) {
+				CachedResponse cached = getCachedResponse(request.url());
+				if (cached != null && cached.matches(request)) {
+					return Mono.just(cached.response.toClientResponse());
+				}
+			}
+			return next.exchange(request).flatMap(response -> {
+				long expirationTime = expirationTime(request, response);
+				if (expirationTime == -1) {
+					return Mono.just(response);
+				}
+				return BufferedClientResponse.create(response).map(buffered -> {
+					CachedResponse cached = new CachedResponse(buffered, request, expirationTime);
+					synchronized (this.cache) {
+						this.cache.put(request.url(), cached);
+					}
+					return buffered.toClientResponse();
+				});
+			});
+		});
+	}
+
+	@Nullable
+	private CachedResponse getCachedResponse(URI url) {
+		synchronized (this.cache) {
+			CachedResponse cached = this.cache.get(url);
+			if (cached != null && !cached.isFresh()) {
+				this.cache.remove(url);
+				return null;
+			}
+			return cached;
+		}
+	}
+
+	/**
+	 * Return the number of currently cached responses, including stale ones.
+	 */
+	int getCacheSize() {
+		synchronized (this.cache) {
+			return this.cache.size();
+		}
+	}
+
+	/**
+	 * Determine until when the given response to the given request may be
+	 * served from the cache, or {@code -1} if it is not cacheable.
+	 */
+	private static long expirationTime(ClientRequest request, ClientResponse response) {
+		if (!isCacheableStatus(response.rawStatusCode())) {
+			return -1;
+		}
+		HttpHeaders headers = response.headers().asHttpHeaders();
+		if (hasDirective(headers, "no-store") || hasDirective(headers, "no-cache") ||
+				hasDirective(headers, "private") || headers.getVary().contains("*")) {
+			return -1;
+		}
+		if (hasCredentials(request) && !hasDirective(headers, "public") && !hasDirective(headers, "s-maxage")) {
+			return -1;
+		}
+		long now = System.currentTimeMillis();
+		long freshnessLifetime;
+		String maxAge = getDirective(headers, "max-age");
+		if (maxAge != null) {
+			try {
+				freshnessLifetime = Long.parseLong(maxAge) * 1000;
+			}
+			catch (NumberFormatException ex) {
+				return -1;
+			}
+		}
+		else {
+			long expires = headers.getExpires();
+			if (expires == -1) {
+				return -1;
+			}
+			long date = headers.getDate();
+			freshnessLifetime = expires - (date != -1 ? date : now);
+		}
+		String age = headers.getFirst("Age");
+		if (StringUtils.hasText(age)) {
+			try {
+				freshnessLifetime -= Long.parseLong(age.trim()) * 1000;
+			}
+			catch (NumberFormatException ex) {
+				return -1;
+			}
+		}
+		return (freshnessLifetime > 0 ? now + freshnessLifetime : -1);
+	}
+
+	private static boolean isCacheableStatus(int statusCode) {
+		switch (statusCode) {
+			case 200:
+			case 203:
+			case 300:
+			case 301:
+			case 404:
+			case 410:
+				return true;
+			default:
+				return false;
+		}
+	}
+
+	private static boolean hasCredentials(ClientRequest request) {
+		return (request.headers().containsKey(HttpHeaders.AUTHORIZATION) ||
+				request.headers().containsKey(HttpHeaders.COOKIE) || !request.cookies().isEmpty());
+	}
+
+	private static boolean hasDirective(HttpHeaders headers, String name) {
+		return (getDirective(headers, name) != null);
+	}
+
+	/**
+	 * Return the value of the given {@code Cache-Control} directive, an empty
+	 * String for a directive without value, or {@code null} if not present.
+	 */
+	@Nullable
+	private static String getDirective(HttpHeaders headers, String name) {
+		List<String> values = headers.get(HttpHeaders.CACHE_CONTROL);
+		if (values == null) {
+			return null;
+		}
+		for (String value : values) {
+			for (String directive : StringUtils.tokenizeToStringArray(value, ",")) {
+				int index = directive.indexOf('=');
+				String directiveName = (index != -1 ? directive.substring(0, index).trim() : directive);
+				if (directiveName.equalsIgnoreCase(name)) {
+					String directiveValue = (index != -1 ? directive.substring(index + 1).trim() : "");
+					return (directiveValue.length() > 1 && directiveValue.startsWith("\"") &&
+							directiveValue.endsWith("\"") ?
+							directiveValue.substring(1, directiveValue.length() - 1) : directiveValue);
+				}
+			}
+		}
+		return null;
+	}
+
+
+	private static final class CachedResponse {
+
+		private final BufferedClientResponse response;
+
+		/** Values of the request headers named in the {@code Vary} response header. */
+		private final Map<String, List<String>> varyingHeaders = new LinkedHashMap<>();
+
+		private final long expirationTime;
+
+		CachedResponse(BufferedClientResponse response, ClientRequest request, long expirationTime) {
+			this.response = response;
+			for (String headerName : response.getHeaders().getVary()) {
+				this.varyingHeaders.put(headerName, request.headers().get(headerName));
+			}
+			this.expirationTime = expirationTime;
+		}
+
+		boolean isFresh() {
+			return (System.currentTimeMillis() < this.expirationTime);
+		}
+
+		boolean matches(ClientRequest request) {
+			for (Map.Entry<String, List<String>> entry : this.varyingHeaders.entrySet()) {
+				if (!Objects.equals(request.headers().get(entry.getKey()), entry.getValue())) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+
+	@SuppressWarnings("serial")
+	private static final class ResponseCache extends LinkedHashMap<URI, CachedResponse> {
+
+		private final int maxEntries;
+
+		ResponseCache(int maxEntries) {
+			super(16, 0.75f, true);
+			this.maxEntries = maxEntries;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<URI, CachedResponse> eldest) {
+			return (size() > this.maxEntries);
+		}
+	}
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2002-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.web.reactive.function.client;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import reactor.core.publisher.Mono;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * {@link ExchangeFilterFunction} that lets identical, concurrent GET and HEAD
+ * requests share a single exchange: until the response to a request has been
+ * received, further requests with the same method, URL, headers and cookies
+ * subscribe to the same exchange.
+ *
+ * <p>A response that is not shared is passed through as is. A shared response
+ * is buffered, up to a given number of bytes, and each subscriber receives its
+ * own replay of it. Streaming responses, and responses with a larger
+ * {@code Content-Length}, are not buffered: the first subscriber receives the
+ * response, while the other subscribers perform their own exchange.
+ *
+ * @since 5.2
+ * @see ExchangeFilterFunctions#coalesceRequests(int)
+ */
+final class CoalescingExchangeFilterFunction implements ExchangeFilterFunction {
+
+	private static final List<MediaType> STREAMING_MEDIA_TYPES =
+			Arrays.asList(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_STREAM_JSON);
+
+
+	private final int maxInMemorySize;
+
+	private final Map<RequestKey, InFlightExchange> inFlightExchanges = new ConcurrentHashMap<>();
+
+
+	CoalescingExchangeFilterFunction(int maxInMemorySize) {
+		Assert.isTrue(maxInMemorySize >= 0, "'maxInMemorySize' must not be negative");
+		this.maxInMemorySize = maxInMemorySize;
+	}
+
+
+	@Override
+	public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+		if (!isCoalescible(request)) {
+			return next.exchange(request);
+		}
+		return Mono.defer(() -> {
+			RequestKey key = new RequestKey(request);
+			while (true) {
+				InFlightExchange exchange = this.inFlightExchanges.computeIfAbsent(key,
+						k -> new InFlightExchange(k, request, next));
+				int index = exchange.join();
+				if (index >= 0) {
+					return exchange.getResponse(index, request, next);
+				}
+				// Response received in the meantime: start a new exchange
+			}
+		});
+	}
+
+	private boolean isCoalescible(ClientRequest request) {
+		if (request.method() != HttpMethod.GET && request.method() != HttpMethod.HEAD) {
+			return false;
+		}
+		for (MediaType mediaType : request.headers().getAccept()) {
+			for (MediaType streamingMediaType : STREAMING_MEDIA_TYPES) {
+				if (streamingMediaType.equalsTypeAndSubtype(mediaType)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private boolean isBufferable(ClientRequest request, ClientResponse response) {
+		HttpHeaders headers = response.headers().asHttpHeaders();
+		MediaType contentType = headers.getContentType();
+		if (contentType != null) {
+			for (MediaType streamingMediaType : STREAMING_MEDIA_TYPES) {
+				if (streamingMediaType.isCompatibleWith(contentType)) {
+					return false;
+				}
+			}
+		}
+		// The Content-Length of a HEAD response does not describe its (empty) body
+		return (request.method() == HttpMethod.HEAD || headers.getContentLength() <= this.maxInMemorySize);
+	}
+
+	/**
+	 * Return the number of exchanges currently in flight.
+	 */
+	int getInFlightCount() {
+		return this.inFlightExchanges.size();
+	}
+
+
+	/**
+	 * An exchange that further subscribers can join until its response has
+	 * been received.
+	 */
+	private final class InFlightExchange {
+
+		private final RequestKey key;
+
+		private final Mono<Object> sharedResponse;
+
+		private int subscriberCount;
+
+		private boolean closed;
+
+		InFlightExchange(RequestKey key, ClientRequest request, ExchangeFunction next) {
+			this.key = key;
+			this.sharedResponse = next.exchange(request)
+					.flatMap(response -> {
+						if (close() > 1 && isBufferable(request, response)) {
+							return BufferedClientResponse.create(response, maxInMemorySize);
+						}
+						return Mono.just(response);
+					})
+					.doFinally(signal -> close())
+					.cache();
+		}
+
+		/**
+		 * Join this exchange.
+		 * @return the index of the subscriber, or -1 if the response has already
+		 * been received
+		 */
+		synchronized int join() {
+			return (this.closed ? -1 : this.subscriberCount++);
+		}
+
+		/**
+		 * Stop accepting further subscribers.
+		 * @return the number of subscribers that joined this exchange
+		 */
+		synchronized int close() {
+			if (!this.closed) {
+				this.closed = true;
+				inFlightExchanges.remove(this.key, this);
+			}
+			return this.subscriberCount;
+		}
+
+		Mono<ClientResponse> getResponse(int index, ClientRequest request, ExchangeFunction next) {
+			return this.sharedResponse.flatMap(response -> {
+				if (response instanceof BufferedClientResponse) {
+					return Mono.just(((BufferedClientResponse) response).toClientResponse());
+				}
+				// Not buffered: only the first subscriber can consume the response
+				return (index == 0 ? Mono.just((ClientResponse) response) : next.exchange(request));
+			});
+		}
+	}
+
+
+	private static final class RequestKey {
+
+		private final HttpMethod method;
+
+		private final URI url;
+
+		private final HttpHeaders headers;
+
+		private final MultiValueMap<String, String> cookies;
+
+		RequestKey(ClientRequest request) {
+			this.method = request.method();
+			this.url = request.url();
+			this.headers = request.headers();
+			this.cookies = request.cookies();
+		}
+
+		@Override
+		public boolean equals(@Nullable Object other) {
+			if (this == other) {
+				return true;
+			}
+			if (!(other instanceof RequestKey)) {
+				return false;
+			}
+			RequestKey otherKey = (RequestKey) other;
+			return (this.method == otherKey.method && this.url.equals(otherKey.url) &&
+					this.headers.equals(otherKey.headers) && this.cookies.equals(otherKey.cookies));
+		}
+
+		@Override
+		public int hashCode() {
+			return this.url.hashCode() * 31 + this.headers.hashCode();
+		}
+	}
+
+}
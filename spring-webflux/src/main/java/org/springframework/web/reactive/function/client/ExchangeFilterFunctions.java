@@ -89,6 +89,68 @@ public abstract class ExchangeFilterFunctions {
 						Mono.error(exceptionFunction.apply(response)) : Mono.just(response)));
 	}
 
+	/**
+	 * Return a filter that coalesces identical, concurrent GET and HEAD
+	 * requests into a single exchange, buffering at most 256KB of a shared
+	 * response body.
+	 * @return the filter to coalesce requests with
+	 * @since 5.2
+	 * @see #coalesceRequests(int)
+	 */
+	public static ExchangeFilterFunction coalesceRequests() {
+		return coalesceRequests(256 * 1024);
+	}
+
+	/**
+	 * Return a filter that coalesces identical, concurrent GET and HEAD
+	 * requests into a single exchange. Until the response to a request has
+	 * been received, requests with the same method, URL, headers and cookies
+	 * share its exchange.
+	 * <p>A response that ends up shared is buffered in memory, and each
+	 * subscriber receives its own replay of the response body; a response
+	 * with a larger body fails with an {@link IllegalStateException}. Streaming
+	 * responses such as {@code text/event-stream}, and responses whose
+	 * {@code Content-Length} exceeds the limit, are not buffered: the other
+	 * subscribers perform their own exchange instead. Requests that accept a
+	 * streaming media type are not coalesced at all.
+	 * <p>The shared exchange completes even if the subscriber that started it
+	 * cancels. Request attributes are not taken into account, so this filter
+	 * should be registered after filters that customize requests based on
+	 * attributes. The returned filter keeps track of its in-flight requests and
+	 * is meant to be shared by all requests of a {@code WebClient}.
+	 * @param maxInMemorySize the maximum number of bytes to buffer for a
+	 * shared response body
+	 * @return the filter to coalesce requests with
+	 * @since 5.2
+	 */
+	public static ExchangeFilterFunction coalesceRequests(int maxInMemorySize) {
+		return new CoalescingExchangeFilterFunction(maxInMemorySize);
+	}
+
+	/**
+	 * Return a filter that caches the responses to GET requests in memory,
+	 * for as long as they are fresh according to their {@code Cache-Control},
+	 * {@code Expires} and {@code Age} headers.
+	 * <p>Only responses with an explicit freshness lifetime and without a
+	 * {@code no-store} or {@code no-cache} directive are cached, honoring the
+	 * {@code Vary} header of the response. Requests with a {@code no-cache}
+	 * directive bypass the cache. Cached responses are fully buffered in memory,
+	 * and the least recently used response is evicted once the given number
+	 * of entries is exceeded.
+	 * <p>As the cache is shared by all requests, {@code private} responses are
+	 * not cached, and neither are responses to requests with an
+	 * {@code Authorization} header or cookies unless marked as {@code public}
+	 * or with an {@code s-maxage} directive.
+	 * <p>When combined with {@link #coalesceRequests()}, register this filter
+	 * first, so that only cache misses are coalesced.
+	 * @param maxEntries the maximum number of cached responses
+	 * @return the filter to cache responses with
+	 * @since 5.2
+	 */
+	public static ExchangeFilterFunction cacheResponses(int maxEntries) {
+		return new CachingExchangeFilterFunction(maxEntries);
+	}
+
 	/**
 	 * Return a filter that applies HTTP Basic Authentication to the request
 	 * headers via {@link HttpHeaders#setBasicAuth(String)} and
@@ -16,8 +16,14 @@
 
 package org.springframework.web.reactive.function.server;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -29,8 +35,11 @@ import org.apache.commons.logging.LogFactory;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.PathContainer;
 import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 import org.springframework.web.reactive.result.view.ViewResolver;
 import org.springframework.web.server.ServerWebExchange;
@@ -251,7 +260,74 @@ public abstract class RouterFunctions {
 		Assert.notNull(routerFunction, "RouterFunction must not be null");
 		Assert.notNull(strategies, "HandlerStrategies must not be null");
 
-		return new RouterFunctionWebHandler(strategies, routerFunction);
+		return new RouterFunctionWebHandler(strategies, optimize(routerFunction));
+	}
+
+	/**
+	 * Return a router function that is equivalent to the given one, but
+	 * optimized for routing among a large number of routes.
+	 * <p>Composed router functions are flattened into a single list of routes,
+	 * which is then indexed by the literal first path segment required by the
+	 * predicate of each route, as exposed through
+	 * {@link RequestPredicate#accept(RequestPredicates.Visitor)}. A request is
+	 * only tested against the routes that can match its first path segment,
+	 * in their original order.
+	 * Nested and filtered router functions are optimized recursively; routes
+	 * without such a path segment, and router functions not created through
+	 * {@code RouterFunctions}, are tested for every request.
+	 * <p>This method is applied by {@link #toWebHandler(RouterFunction, HandlerStrategies)}
+	 * and by the {@code RouterFunctionMapping}.
+	 * @param routerFunction the router function to optimize
+	 * @param <T> the type of response returned by the handler functions
+	 * @return the optimized router function
+	 * @since 5.2
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends ServerResponse> RouterFunction<T> optimize(RouterFunction<T> routerFunction) {
+		Assert.notNull(routerFunction, "RouterFunction must not be null");
+		List<RouterFunction<?>> routes = new ArrayList<>();
+		flatten(routerFunction, routes);
+		if (routes.size() == 1) {
+			return (RouterFunction<T>) routes.get(0);
+		}
+		return new PathIndexedRouterFunction<>(routes);
+	}
+
+	private static void flatten(RouterFunction<?> routerFunction, List<RouterFunction<?>> routes) {
+		if (routerFunction instanceof SameComposedRouterFunction) {
+			SameComposedRouterFunction<?> composed = (SameComposedRouterFunction<?>) routerFunction;
+			flatten(composed.first, routes);
+			flatten(composed.second, routes);
+		}
+		else if (routerFunction instanceof DifferentComposedRouterFunction) {
+			DifferentComposedRouterFunction composed = (DifferentComposedRouterFunction) routerFunction;
+			flatten(composed.first, routes);
+			flatten(composed.second, routes);
+		}
+		else if (routerFunction instanceof PathIndexedRouterFunction) {
+			routes.addAll(Arrays.asList(((PathIndexedRouterFunction<?>) routerFunction).routes));
+		}
+		else if (routerFunction instanceof DefaultNestedRouterFunction) {
+			routes.add(optimizeNested((DefaultNestedRouterFunction<?>) routerFunction));
+		}
+		else if (routerFunction instanceof FilteredRouterFunction) {
+			routes.add(optimizeFiltered((FilteredRouterFunction<?, ?>) routerFunction));
+		}
+		else {
+			routes.add(routerFunction);
+		}
+	}
+
+	private static <T extends ServerResponse> RouterFunction<T> optimizeNested(
+			DefaultNestedRouterFunction<T> nested) {
+
+		return new DefaultNestedRouterFunction<>(nested.predicate, optimize(nested.routerFunction));
+	}
+
+	private static <T extends ServerResponse, S extends ServerResponse> RouterFunction<S> optimizeFiltered(
+			FilteredRouterFunction<T, S> filtered) {
+
+		return new FilteredRouterFunction<>(optimize(filtered.routerFunction), filtered.filterFunction);
 	}
 
 	/**
@@ -878,15 +954,19 @@ public abstract class RouterFunctions {
 
 		@Override
 		public Mono<HandlerFunction<T>> route(ServerRequest request) {
+			return (matches(request) ? Mono.just(this.handlerFunction) : Mono.empty());
+		}
+
+		boolean matches(ServerRequest request) {
 			if (this.predicate.test(request)) {
 				if (logger.isTraceEnabled()) {
 					String logPrefix = request.exchange().getLogPrefix();
 					logger.trace(logPrefix + String.format("Matched %s", this.predicate));
 				}
-				return Mono.just(this.handlerFunction);
+				return true;
 			}
 			else {
-				return Mono.empty();
+				return false;
 			}
 		}
 
@@ -961,6 +1041,297 @@ public abstract class RouterFunctions {
 	}
 
 
+	/**
+	 * A router function that tests a flat list of routes in order, only
+	 * considering the routes that can match the first path segment of the request.
+	 * @param <T> the server response type
+	 * @see #optimize(RouterFunction)
+	 */
+	private static final class PathIndexedRouterFunction<T extends ServerResponse> extends AbstractRouterFunction<T> {
+
+		private final RouterFunction<?>[] routes;
+
+		/** Routes that do not require a specific first path segment. */
+		private final RouterFunction<?>[] unindexedRoutes;
+
+		/** Candidate routes, in original order, keyed by first path segment. */
+		private final Map<String, RouterFunction<?>[]> index = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+		public PathIndexedRouterFunction(List<RouterFunction<?>> routes) {
+			this.routes = routes.toArray(new RouterFunction<?>[0]);
+			List<String> segments = new ArrayList<>(routes.size());
+			List<RouterFunction<?>> unindexedRoutes = new ArrayList<>();
+			for (RouterFunction<?> route : routes) {
+				String segment = FirstPathSegmentVisitor.firstPathSegment(route);
+				segments.add(segment);
+				if (segment == null) {
+					unindexedRoutes.add(route);
+				}
+				else if (!this.index.containsKey(segment)) {
+					this.index.put(segment, new RouterFunction<?>[0]);
+				}
+			}
+			this.unindexedRoutes = unindexedRoutes.toArray(new RouterFunction<?>[0]);
+			for (Map.Entry<String, RouterFunction<?>[]> entry : this.index.entrySet()) {
+				List<RouterFunction<?>> candidates = new ArrayList<>();
+				for (int i = 0; i < this.routes.length; i++) {
+					String segment = segments.get(i);
+					if (segment == null || segment.equalsIgnoreCase(entry.getKey())) {
+						candidates.add(this.routes[i]);
+					}
+				}
+				entry.setValue(candidates.toArray(new RouterFunction<?>[0]));
+			}
+		}
+
+		@Override
+		public Mono<HandlerFunction<T>> route(ServerRequest request) {
+			return route(candidates(request.pathContainer()), 0, request);
+		}
+
+		private RouterFunction<?>[] candidates(PathContainer path) {
+			List<PathContainer.Element> elements = path.elements();
+			if (elements.size() <= 1) {
+				return this.unindexedRoutes;
+			}
+			if (elements.get(0) instanceof PathContainer.Separator &&
+					elements.get(1) instanceof PathContainer.PathSegment) {
+				String segment = ((PathContainer.PathSegment) elements.get(1)).valueToMatch();
+				return this.index.getOrDefault(segment, this.unindexedRoutes);
+			}
+			return this.routes;
+		}
+
+		private Mono<HandlerFunction<T>> route(RouterFunction<?>[] candidates, int from, ServerRequest request) {
+			for (int i = from; i < candidates.length; i++) {
+				RouterFunction<?> candidate = candidates[i];
+				if (candidate instanceof DefaultRouterFunction) {
+					// Plain routes are matched synchronously, without chaining Monos
+					DefaultRouterFunction<?> route = (DefaultRouterFunction<?>) candidate;
+					if (route.matches(request)) {
+						return Mono.just(cast(route.handlerFunction));
+					}
+				}
+				else {
+					int next = i + 1;
+					return candidate.route(request)
+							.map(this::cast)
+							.switchIfEmpty(Mono.defer(() -> route(candidates, next, request)));
+				}
+			}
+			return Mono.empty();
+		}
+
+		@SuppressWarnings("unchecked")
+		private HandlerFunction<T> cast(HandlerFunction<?> handlerFunction) {
+			return (HandlerFunction<T>) handlerFunction;
+		}
+
+		@Override
+		public void accept(Visitor visitor) {
+			for (RouterFunction<?> route : this.routes) {
+				route.accept(visitor);
+			}
+		}
+	}
+
+
+	/**
+	 * Determines the literal first path segment that a request must have for a
+	 * router function to match, based on the path predicates of its routes.
+	 */
+	private static final class FirstPathSegmentVisitor implements Visitor, RequestPredicates.Visitor {
+
+		/** Operands of each compound predicate that is currently being visited. */
+		private final Deque<List<Operand>> operands = new ArrayDeque<>();
+
+		private int nestingDepth;
+
+		private boolean routeVisited;
+
+		@Nullable
+		private String segment;
+
+		/**
+		 * Return the first path segment required by all routes of the given
+		 * router function, or {@code null} if it may match any path.
+		 */
+		@Nullable
+		static String firstPathSegment(RouterFunction<?> routerFunction) {
+			FirstPathSegmentVisitor visitor = new FirstPathSegmentVisitor();
+			routerFunction.accept(visitor);
+			return visitor.segment;
+		}
+
+		// RouterFunctions.Visitor
+
+		@Override
+		public void startNested(RequestPredicate predicate) {
+			if (this.nestingDepth++ == 0) {
+				visitRoute(predicate);
+			}
+		}
+
+		@Override
+		public void endNested(RequestPredicate predicate) {
+			this.nestingDepth--;
+		}
+
+		@Override
+		public void route(RequestPredicate predicate, HandlerFunction<?> handlerFunction) {
+			if (this.nestingDepth == 0) {
+				visitRoute(predicate);
+			}
+		}
+
+		@Override
+		public void resources(Function<ServerRequest, Mono<Resource>> lookupFunction) {
+			if (this.nestingDepth == 0) {
+				routeSegment(null);
+			}
+		}
+
+		@Override
+		public void unknown(RouterFunction<?> routerFunction) {
+			if (this.nestingDepth == 0) {
+				routeSegment(null);
+			}
+		}
+
+		private void visitRoute(RequestPredicate predicate) {
+			this.operands.push(new ArrayList<>(1));
+			predicate.accept(this);
+			routeSegment(operandAt(this.operands.pop(), 0).segment);
+		}
+
+		private void routeSegment(@Nullable String segment) {
+			if (!this.routeVisited) {
+				this.segment = segment;
+				this.routeVisited = true;
+			}
+			else if (this.segment != null && !this.segment.equalsIgnoreCase(segment)) {
+				this.segment = null;
+			}
+		}
+
+		// RequestPredicates.Visitor
+
+		@Override
+		public void method(Set<HttpMethod> methods) {
+			operand(null, false);
+		}
+
+		@Override
+		public void path(String pattern) {
+			int start = (pattern.startsWith("/") ? 1 : 0);
+			int end = pattern.indexOf('/', start);
+			String segment = pattern.substring(start, (end != -1 ? end : pattern.length()));
+			boolean literal = !segment.isEmpty();
+			for (int i = 0; i < segment.length() && literal; i++) {
+				literal = ("*?{}%;\\".indexOf(segment.charAt(i)) == -1);
+			}
+			operand(literal ? segment : null, true);
+		}
+
+		@Override
+		public void pathExtension(String extension) {
+			operand(null, false);
+		}
+
+		@Override
+		public void header(String name, String value) {
+			operand(null, false);
+		}
+
+		@Override
+		public void queryParam(String name, String value) {
+			operand(null, false);
+		}
+
+		@Override
+		public void startAnd() {
+			this.operands.push(new ArrayList<>(2));
+		}
+
+		@Override
+		public void and() {
+		}
+
+		@Override
+		public void endAnd() {
+			List<Operand> operands = this.operands.pop();
+			Operand left = operandAt(operands, 0);
+			Operand right = operandAt(operands, 1);
+			// When nesting, the right operand is tested against the path that remains after the left one
+			String segment = (left.segment != null ? left.segment :
+					(this.nestingDepth == 0 || !left.pathConsumed ? right.segment : null));
+			operand(segment, left.pathConsumed || right.pathConsumed);
+		}
+
+		@Override
+		public void startOr() {
+			this.operands.push(new ArrayList<>(2));
+		}
+
+		@Override
+		public void or() {
+		}
+
+		@Override
+		public void endOr() {
+			List<Operand> operands = this.operands.pop();
+			Operand left = operandAt(operands, 0);
+			Operand right = operandAt(operands, 1);
+			String segment = (left.segment != null && left.segment.equalsIgnoreCase(right.segment) ?
+					left.segment : null);
+			operand(segment, left.pathConsumed || right.pathConsumed);
+		}
+
+		@Override
+		public void startNegate() {
+			this.operands.push(new ArrayList<>(1));
+		}
+
+		@Override
+		public void endNegate() {
+			this.operands.pop();
+			operand(null, false);
+		}
+
+		@Override
+		public void unknown(RequestPredicate predicate) {
+			operand(null, false);
+		}
+
+		private static Operand operandAt(List<Operand> operands, int index) {
+			// Predicates that do not visit anything may match any path
+			return (index < operands.size() ? operands.get(index) : Operand.UNKNOWN);
+		}
+
+		private void operand(@Nullable String segment, boolean pathConsumed) {
+			List<Operand> operands = this.operands.peek();
+			Assert.state(operands != null, "No predicate being visited");
+			operands.add(new Operand(segment, pathConsumed));
+		}
+
+
+		private static final class Operand {
+
+			static final Operand UNKNOWN = new Operand(null, true);
+
+			@Nullable
+			final String segment;
+
+			final boolean pathConsumed;
+
+			Operand(@Nullable String segment, boolean pathConsumed) {
+				this.segment = segment;
+				this.pathConsumed = pathConsumed;
+			}
+		}
+	}
+
+
 	private static class HandlerStrategiesResponseContext implements ServerResponse.Context {
 
 		private final HandlerStrategies strategies;
@@ -77,7 +77,9 @@ public class RouterFunctionMapping extends AbstractHandlerMapping implements Ini
 	 * Return the configured {@link RouterFunction}.
 	 * <p><strong>Note:</strong> When router functions are detected from the
 	 * ApplicationContext, this method may return {@code null} if invoked
-	 * prior to {@link #afterPropertiesSet()}.
+	 * prior to {@link #afterPropertiesSet()}. After initialization, the
+	 * returned router function is {@linkplain RouterFunctions#optimize optimized}
+	 * for routing.
 	 * @return the router function or {@code null}
 	 */
 	@Nullable
@@ -103,6 +105,9 @@ public class RouterFunctionMapping extends AbstractHandlerMapping implements Ini
 		if (this.routerFunction == null) {
 			initRouterFunctions();
 		}
+		if (this.routerFunction != null) {
+			this.routerFunction = RouterFunctions.optimize(this.routerFunction);
+		}
 	}
 
 	/**
@@ -18,10 +18,12 @@ package org.springframework.web.reactive.function.client;
 
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
 import reactor.test.StepVerifier;
 
 import org.springframework.core.io.buffer.DataBuffer;
@@ -31,10 +33,12 @@ import org.springframework.core.io.buffer.support.DataBufferTestUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.BodyExtractors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 
@@ -216,6 +220,234 @@ public class ExchangeFilterFunctionsTests {
 
 	}
 
+	@Test
+	public void coalesceRequests() {
+		AtomicInteger exchanges = new AtomicInteger();
+		MonoProcessor<ClientResponse> processor = MonoProcessor.create();
+		ExchangeFunction exchange = r -> {
+			exchanges.incrementAndGet();
+			return processor;
+		};
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.coalesceRequests();
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+
+		MonoProcessor<String> body1 = filter.filter(request, exchange)
+				.flatMap(response -> response.bodyToMono(String.class)).toProcessor();
+		MonoProcessor<String> body2 = filter.filter(ClientRequest.from(request).build(), exchange)
+				.flatMap(response -> response.bodyToMono(String.class)).toProcessor();
+		assertThat(exchanges.get()).isEqualTo(1);
+
+		processor.onNext(ClientResponse.create(HttpStatus.OK).body("foo").build());
+		assertThat(body1.block()).isEqualTo("foo");
+		assertThat(body2.block()).isEqualTo("foo");
+
+		// Completed exchanges are not shared
+		filter.filter(request, exchange).block();
+		assertThat(exchanges.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void coalesceRequestsWithoutSharedResponse() {
+		ClientResponse response = ClientResponse.create(HttpStatus.OK).body("foo").build();
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.coalesceRequests();
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+
+		assertThat(filter.filter(request, r -> Mono.just(response)).block()).isSameAs(response);
+	}
+
+	@Test
+	public void coalesceRequestsWithStreamingResponse() {
+		ClientResponse streamingResponse = ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE).build();
+		ClientResponse otherResponse = ClientResponse.create(HttpStatus.OK).build();
+		AtomicInteger exchanges = new AtomicInteger();
+		MonoProcessor<ClientResponse> processor = MonoProcessor.create();
+		ExchangeFunction exchange = r -> (exchanges.incrementAndGet() == 1 ? processor : Mono.just(otherResponse));
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.coalesceRequests();
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+
+		MonoProcessor<ClientResponse> response1 = filter.filter(request, exchange).toProcessor();
+		MonoProcessor<ClientResponse> response2 = filter.filter(request, exchange).toProcessor();
+		assertThat(exchanges.get()).isEqualTo(1);
+
+		processor.onNext(streamingResponse);
+		assertThat(response1.block()).isSameAs(streamingResponse);
+		assertThat(response2.block()).isSameAs(otherResponse);
+		assertThat(exchanges.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void coalesceRequestsAcceptingStreamingMediaType() {
+		AtomicInteger exchanges = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			exchanges.incrementAndGet();
+			return Mono.never();
+		};
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.coalesceRequests();
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL)
+				.header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE).build();
+
+		filter.filter(request, exchange).subscribe();
+		filter.filter(request, exchange).subscribe();
+		assertThat(exchanges.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void coalesceRequestsWithSharedResponseExceedingLimit() {
+		MonoProcessor<ClientResponse> processor = MonoProcessor.create();
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.coalesceRequests(2);
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+
+		MonoProcessor<String> body1 = filter.filter(request, r -> processor)
+				.flatMap(response -> response.bodyToMono(String.class)).toProcessor();
+		MonoProcessor<String> body2 = filter.filter(request, r -> processor)
+				.flatMap(response -> response.bodyToMono(String.class)).toProcessor();
+
+		processor.onNext(ClientResponse.create(HttpStatus.OK).body("foo").build());
+		assertThatIllegalStateException().isThrownBy(body1::block);
+		assertThatIllegalStateException().isThrownBy(body2::block);
+	}
+
+	@Test
+	public void coalesceRequestsWithDifferentHeaders() {
+		AtomicInteger exchanges = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			exchanges.incrementAndGet();
+			return Mono.never();
+		};
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.coalesceRequests();
+
+		filter.filter(ClientRequest.create(HttpMethod.GET, DEFAULT_URL).header("foo", "bar").build(), exchange)
+				.subscribe();
+		filter.filter(ClientRequest.create(HttpMethod.GET, DEFAULT_URL).header("foo", "baz").build(), exchange)
+				.subscribe();
+		filter.filter(ClientRequest.create(HttpMethod.POST, DEFAULT_URL).build(), exchange).subscribe();
+		filter.filter(ClientRequest.create(HttpMethod.POST, DEFAULT_URL).build(), exchange).subscribe();
+		assertThat(exchanges.get()).isEqualTo(4);
+	}
+
+	@Test
+	public void cacheResponses() {
+		AtomicInteger exchanges = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			exchanges.incrementAndGet();
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CACHE_CONTROL, "public, max-age=60")
+					.body("foo").build());
+		};
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.cacheResponses(10);
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+
+		for (int i = 0; i < 3; i++) {
+			ClientResponse response = filter.filter(request, exchange).block();
+			assertThat(response).isNotNull();
+			assertThat(response.headers().asHttpHeaders().getCacheControl()).isEqualTo("public, max-age=60");
+			assertThat(response.bodyToMono(String.class).block()).isEqualTo("foo");
+		}
+		assertThat(exchanges.get()).isEqualTo(1);
+
+		ClientRequest noCacheRequest = ClientRequest.from(request).header(HttpHeaders.CACHE_CONTROL, "no-cache").build();
+		filter.filter(noCacheRequest, exchange).block();
+		assertThat(exchanges.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void cacheResponsesWithoutFreshnessLifetime() {
+		AtomicInteger exchanges = new AtomicInteger();
+		String[] cacheControls = {"no-store, max-age=60", "no-cache, max-age=60", "max-age=0", "private"};
+		ExchangeFunction exchange = r -> Mono.just(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CACHE_CONTROL, cacheControls[exchanges.getAndIncrement() / 2])
+				.build());
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.cacheResponses(10);
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+
+		for (int i = 0; i < cacheControls.length * 2; i++) {
+			filter.filter(request, exchange).block();
+		}
+		assertThat(exchanges.get()).isEqualTo(cacheControls.length * 2);
+	}
+
+	@Test
+	public void cacheResponsesForRequestsWithCredentials() {
+		ClientRequest authorizedRequest = ClientRequest.create(HttpMethod.GET, DEFAULT_URL)
+				.header(HttpHeaders.AUTHORIZATION, "Bearer foo").build();
+		ClientRequest cookieRequest = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).cookie("SESSION", "bar").build();
+
+		assertThat(countCachedExchanges(authorizedRequest, "max-age=60")).isEqualTo(2);
+		assertThat(countCachedExchanges(cookieRequest, "max-age=60")).isEqualTo(2);
+		assertThat(countCachedExchanges(authorizedRequest, "public, max-age=60")).isEqualTo(1);
+		assertThat(countCachedExchanges(cookieRequest, "max-age=60, s-maxage=60")).isEqualTo(1);
+	}
+
+	@Test
+	public void cacheResponsesWithoutPrivateResponses() {
+		AtomicInteger exchanges = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			exchanges.incrementAndGet();
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CACHE_CONTROL, "private, max-age=60")
+					.build());
+		};
+		CachingExchangeFilterFunction filter = (CachingExchangeFilterFunction) ExchangeFilterFunctions.cacheResponses(10);
+		ClientRequest request = ClientRequest.create(HttpMethod.GET, DEFAULT_URL).build();
+
+		filter.filter(request, exchange).block();
+		filter.filter(request, exchange).block();
+		assertThat(exchanges.get()).isEqualTo(2);
+		assertThat(filter.getCacheSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void cacheResponsesWithVary() {
+		AtomicInteger exchanges = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			exchanges.incrementAndGet();
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+					.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE)
+					.build());
+		};
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.cacheResponses(10);
+
+		filter.filter(ClientRequest.create(HttpMethod.GET, DEFAULT_URL).header("Accept-Language", "en").build(), exchange)
+				.block();
+		filter.filter(ClientRequest.create(HttpMethod.GET, DEFAULT_URL).header("Accept-Language", "en").build(), exchange)
+				.block();
+		assertThat(exchanges.get()).isEqualTo(1);
+
+		filter.filter(ClientRequest.create(HttpMethod.GET, DEFAULT_URL).header("Accept-Language", "de").build(), exchange)
+				.block();
+		assertThat(exchanges.get()).isEqualTo(2);
+	}
+
+	@Test
+	public void cacheResponsesEvictsLeastRecentlyUsed() {
+		ExchangeFunction exchange = r -> Mono.just(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CACHE_CONTROL, "max-age=60")
+				.build());
+		CachingExchangeFilterFunction filter = (CachingExchangeFilterFunction) ExchangeFilterFunctions.cacheResponses(2);
+
+		for (int i = 0; i < 5; i++) {
+			URI url = URI.create("https://example.com/" + i);
+			filter.filter(ClientRequest.create(HttpMethod.GET, url).build(), exchange).block();
+		}
+		assertThat(filter.getCacheSize()).isEqualTo(2);
+	}
+
+	private int countCachedExchanges(ClientRequest request, String cacheControl) {
+		AtomicInteger exchanges = new AtomicInteger();
+		ExchangeFunction exchange = r -> {
+			exchanges.incrementAndGet();
+			return Mono.just(ClientResponse.create(HttpStatus.OK)
+					.header(HttpHeaders.CACHE_CONTROL, cacheControl)
+					.build());
+		};
+		ExchangeFilterFunction filter = ExchangeFilterFunctions.cacheResponses(10);
+		filter.filter(request, exchange).block();
+		filter.filter(request, exchange).block();
+		return exchanges.get();
+	}
+
 	private String string(DataBuffer buffer) {
 		String value = DataBufferTestUtils.dumpString(buffer, StandardCharsets.UTF_8);
 		DataBufferUtils.release(buffer);
@@ -16,6 +16,7 @@
 
 package org.springframework.web.reactive.function.server;
 
+import java.net.URI;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -24,6 +25,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.server.reactive.HttpHandler;
@@ -291,4 +293,78 @@ public class RouterFunctionsTests {
 		assertThat(filterInvoked.get()).isTrue();
 	}
 
+
+	@Test
+	public void optimizeRoutesByFirstPathSegment() {
+		RouterFunction<ServerResponse> routerFunction = RouterFunctions.route()
+				.GET("/{name}/info", request -> ServerResponse.ok().build())
+				.build();
+		for (int i = 0; i < 100; i++) {
+			int status = 200 + i;
+			routerFunction = routerFunction.andRoute(RequestPredicates.GET("/route" + i + "/{id}"),
+					request -> ServerResponse.status(status).build());
+		}
+		RouterFunction<ServerResponse> optimized = RouterFunctions.optimize(routerFunction);
+
+		MockServerRequest request = getRequest("/route42/1");
+		StepVerifier.create(optimized.route(request).flatMap(handlerFunction -> handlerFunction.handle(request)))
+				.assertNext(response -> assertThat(response.rawStatusCode()).isEqualTo(242))
+				.expectComplete()
+				.verify();
+		assertThat(request.pathVariables()).containsEntry("id", "1");
+
+		MockServerRequest infoRequest = getRequest("/route42/info");
+		StepVerifier.create(optimized.route(infoRequest).flatMap(handlerFunction -> handlerFunction.handle(infoRequest)))
+				.assertNext(response -> assertThat(response.rawStatusCode()).isEqualTo(200))
+				.expectComplete()
+				.verify();
+
+		StepVerifier.create(optimized.route(getRequest("/unknown/1")))
+				.expectComplete()
+				.verify();
+		assertThat(optimized.toString()).isEqualTo(routerFunction.toString());
+	}
+
+	@Test
+	public void optimizeNestedAndFilteredRoutes() {
+		HandlerFunction<ServerResponse> usersHandler = request -> ServerResponse.ok().build();
+		HandlerFunction<ServerResponse> ordersHandler = request -> ServerResponse.accepted().build();
+		HandlerFunction<ServerResponse> fallbackHandler = request -> ServerResponse.notFound().build();
+		RouterFunction<ServerResponse> routerFunction = RouterFunctions.route()
+				.nest(RequestPredicates.path("/api"), builder -> builder
+						.GET("/users", usersHandler)
+						.GET("/orders", ordersHandler))
+				.filter((request, next) -> next.handle(request))
+				.add(RouterFunctions.route(RequestPredicates.all(), fallbackHandler))
+				.build();
+		RouterFunction<ServerResponse> optimized = RouterFunctions.optimize(routerFunction);
+
+		MockServerRequest request = getRequest("/api/orders");
+		StepVerifier.create(optimized.route(request).flatMap(handlerFunction -> handlerFunction.handle(request)))
+				.assertNext(response -> assertThat(response.statusCode()).isEqualTo(HttpStatus.ACCEPTED))
+				.expectComplete()
+				.verify();
+
+		StepVerifier.create(optimized.route(getRequest("/other")))
+				.expectNext(fallbackHandler)
+				.expectComplete()
+				.verify();
+	}
+
+	@Test
+	public void optimizeSingleRoute() {
+		HandlerFunction<ServerResponse> handlerFunction = request -> ServerResponse.ok().build();
+		RouterFunction<ServerResponse> routerFunction =
+				RouterFunctions.route(RequestPredicates.GET("/foo"), handlerFunction);
+
+		assertThat(RouterFunctions.optimize(routerFunction)).isSameAs(routerFunction);
+	}
+
+	private static MockServerRequest getRequest(String path) {
+		return MockServerRequest.builder()
+				.method(HttpMethod.GET)
+				.uri(URI.create("https://example.com" + path))
+				.build();
+	}
+
 }